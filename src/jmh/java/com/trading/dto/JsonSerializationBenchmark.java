@@ -0,0 +1,83 @@
+package com.trading.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trading.exchange.ExchangePayloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson data binding for the exchange payloads and the trade response, with a mapper
+ * configured like the application's. {@code readHuobiTickers} binds the whole ticker
+ * list, which the REST adapter avoids by streaming; compare it with
+ * {@code PriceIngestionBenchmark.pollCycle} for what that saves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private byte[] binanceTickers;
+    private byte[] huobiTickers;
+    private byte[] tradeResponseJson;
+    private TradeResponse tradeResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        binanceTickers = ExchangePayloads.BINANCE_BOOK_TICKERS.getBytes(StandardCharsets.UTF_8);
+        huobiTickers = ExchangePayloads.HUOBI_MARKET_TICKERS.getBytes(StandardCharsets.UTF_8);
+
+        tradeResponse = new TradeResponse();
+        tradeResponse.setTradeId(123456L);
+        tradeResponse.setSymbol("BTCUSDT");
+        tradeResponse.setType("BUY");
+        tradeResponse.setPrice(new BigDecimal("50000.20000000"));
+        tradeResponse.setQuantity(new BigDecimal("0.50000000"));
+        tradeResponse.setTotal(new BigDecimal("25000.10000000"));
+        tradeResponse.setTimestamp(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000));
+        tradeResponse.setQuoteSequence(987654L);
+        tradeResponse.setQuoteAgeMs(42L);
+        tradeResponseJson = objectMapper.writeValueAsBytes(tradeResponse);
+    }
+
+    @Benchmark
+    public BinanceResponse[] readBinanceTickers() throws IOException {
+        return objectMapper.readValue(binanceTickers, BinanceResponse[].class);
+    }
+
+    @Benchmark
+    public HuobiWrapper readHuobiTickers() throws IOException {
+        return objectMapper.readValue(huobiTickers, HuobiWrapper.class);
+    }
+
+    @Benchmark
+    public byte[] writeTradeResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(tradeResponse);
+    }
+
+    @Benchmark
+    public TradeResponse readTradeResponse() throws IOException {
+        return objectMapper.readValue(tradeResponseJson, TradeResponse.class);
+    }
+}
@@ -0,0 +1,129 @@
+package com.trading.engine;
+
+import com.trading.model.Trade;
+import com.trading.repository.PositionLedger;
+import com.trading.util.FixedPoint;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup recovery time against journal length: each invocation replays {@code entries}
+ * journaled trades (no snapshot) into an in-memory H2 database, the same work the engine
+ * does before taking its first trade. Entries are spread over 1,000 users so the wallet
+ * upserts per replay batch stay realistic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class JournalRecoveryBenchmark {
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+    private static final int USERS = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    private Path directory;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTradeJournal projection;
+    private WalTradeJournal journal;
+
+    @Setup(Level.Trial)
+    public void writeJournal() throws IOException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:recovery;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        directory = Files.createTempDirectory("journal-recovery");
+        ByteBuffer scratch = ByteBuffer.allocate(JournalCodec.MAX_ENTRY_BYTES);
+        long firstSequence = 1;
+        JournalSegment segment = JournalSegment.open(segmentPath(firstSequence), firstSequence, SEGMENT_BYTES);
+        for (long sequence = 1; sequence <= entries; sequence++) {
+            scratch.clear();
+            JournalCodec.encode(sequence, settled(sequence), scratch);
+            scratch.flip();
+            if (!segment.append(scratch)) {
+                segment.force(0, segment.position());
+                segment.close();
+                segment = JournalSegment.open(segmentPath(sequence), sequence, SEGMENT_BYTES);
+                scratch.rewind();
+                segment.append(scratch);
+            }
+        }
+        segment.force(0, segment.position());
+        segment.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetDatabase() {
+        jdbcTemplate.update("DELETE FROM trades");
+        jdbcTemplate.update("DELETE FROM wallet");
+        jdbcTemplate.update("DELETE FROM positions");
+        projection = new JdbcTradeJournal(jdbcTemplate, transactionManager, new PositionLedger(jdbcTemplate),
+                1, 1, 1000, 1000);
+        journal = new WalTradeJournal(projection, directory.toString(), SEGMENT_BYTES, false, 0, false);
+    }
+
+    @Benchmark
+    public long recover() {
+        journal.recover();
+        return journal.lastTradeId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeJournal() {
+        journal.close();
+        projection.stop();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d", firstSequence) + ".wal");
+    }
+
+    private static SettledTrade settled(long id) {
+        long price = FixedPoint.parse("50000.12");
+        Trade trade = new Trade(id, id % USERS, "BTCUSDT", "BUY", FixedPoint.toBigDecimal(price),
+                new BigDecimal("0.01"), FixedPoint.toBigDecimal(price / 100), LocalDateTime.now());
+        return new SettledTrade(trade, "USDT", 1_000_000 * FixedPoint.ONE - id, "BTC", id);
+    }
+}
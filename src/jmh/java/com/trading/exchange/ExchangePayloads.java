@@ -0,0 +1,61 @@
+package com.trading.exchange;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Canned REST payloads shaped like the live venues' answers, for benchmarks that must
+ * not touch the network. Binance answers only the requested pairs; Huobi always returns
+ * its whole ticker list, padded here to {@link #HUOBI_TICKERS} entries.
+ */
+public final class ExchangePayloads {
+    public static final int HUOBI_TICKERS = 600;
+
+    public static final String BINANCE_BOOK_TICKERS = "["
+            + "{\"symbol\":\"BTCUSDT\",\"bidPrice\":\"50000.10000000\",\"bidQty\":\"31.21000000\","
+            + "\"askPrice\":\"50000.20000000\",\"askQty\":\"40.66000000\"},"
+            + "{\"symbol\":\"ETHUSDT\",\"bidPrice\":\"3000.01000000\",\"bidQty\":\"120.50000000\","
+            + "\"askPrice\":\"3000.02000000\",\"askQty\":\"98.11000000\"}]";
+
+    public static final String HUOBI_MARKET_TICKERS = huobiTickers();
+
+    private ExchangePayloads() {
+    }
+
+    /**
+     * Answers every GET with the payload of the venue its path belongs to.
+     */
+    public static ClientHttpRequestFactory stubVenues() {
+        byte[] binance = BINANCE_BOOK_TICKERS.getBytes(StandardCharsets.UTF_8);
+        byte[] huobi = HUOBI_MARKET_TICKERS.getBytes(StandardCharsets.UTF_8);
+        return (uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(
+                    uri.getPath().endsWith("/market/tickers") ? huobi : binance, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.setResponse(response);
+            return request;
+        };
+    }
+
+    private static String huobiTickers() {
+        StringBuilder json = new StringBuilder("{\"status\":\"ok\",\"ts\":1709251200000,\"data\":[");
+        json.append(huobiTicker("btcusdt", "50000.05", "50000.3")).append(',');
+        json.append(huobiTicker("ethusdt", "3000.005", "3000.03"));
+        for (int i = 2; i < HUOBI_TICKERS; i++) {
+            json.append(',').append(huobiTicker("coin" + i + "usdt", "1.2345", "1.2346"));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String huobiTicker(String symbol, String bid, String ask) {
+        return "{\"symbol\":\"" + symbol + "\",\"open\":1.1,\"high\":1.3,\"low\":1.0,\"close\":1.2,"
+                + "\"amount\":12345.678,\"vol\":15432.1,\"count\":321,"
+                + "\"bid\":" + bid + ",\"bidSize\":0.5,\"ask\":" + ask + ",\"askSize\":0.7}";
+    }
+}
@@ -0,0 +1,86 @@
+package com.trading.exchange;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.model.Price;
+import com.trading.service.BestPriceAggregator;
+import com.trading.service.BestQuote;
+import com.trading.service.PriceService;
+import com.trading.util.FixedPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick cost of turning a Binance bookTicker frame into an aggregated best price.
+ * {@code bigDecimalTick} is the previous tree-model/BigDecimal path, {@code fixedPointTick}
+ * the streaming fixed-point one. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm} (bytes per tick).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteParsingBenchmark {
+    private static final String MESSAGE = "{\"stream\":\"btcusdt@bookTicker\",\"data\":{\"u\":400900217,"
+            + "\"s\":\"BTCUSDT\",\"b\":\"50000.10000000\",\"B\":\"31.21000000\","
+            + "\"a\":\"50000.20000000\",\"A\":\"40.66000000\"}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BestPriceAggregator aggregator = new BestPriceAggregator();
+
+    private JsonFactory jsonFactory;
+    private SymbolTable symbolTable;
+    private ExchangeQuote otherVenue;
+    private List<ExchangeQuote> venues;
+    private BigDecimal otherVenueBid;
+    private BigDecimal otherVenueAsk;
+
+    @Setup
+    public void setUp() {
+        jsonFactory = objectMapper.getFactory();
+        symbolTable = new SymbolTable(PriceService.TRADING_PAIRS);
+        otherVenue = new ExchangeQuote(HuobiExchangeAdapter.NAME, "BTCUSDT",
+                FixedPoint.parse("50000.05"), FixedPoint.parse("50000.30"), Long.MAX_VALUE);
+        venues = new ArrayList<>(List.of(otherVenue, otherVenue));
+        otherVenueBid = new BigDecimal("50000.05");
+        otherVenueAsk = new BigDecimal("50000.30");
+    }
+
+    @Benchmark
+    public Price bigDecimalTick() throws Exception {
+        JsonNode data = objectMapper.readTree(MESSAGE).get("data");
+        BigDecimal bid = new BigDecimal(data.get("b").asText());
+        BigDecimal ask = new BigDecimal(data.get("a").asText());
+
+        Price price = new Price();
+        price.setSymbol(data.get("s").asText());
+        price.setBidPrice(bid.compareTo(otherVenueBid) > 0 ? bid : otherVenueBid);
+        price.setAskPrice(ask.compareTo(otherVenueAsk) < 0 ? ask : otherVenueAsk);
+        price.setTimestamp(LocalDateTime.now());
+        return price;
+    }
+
+    @Benchmark
+    public BestQuote fixedPointTick() throws Exception {
+        ExchangeQuote quote = BinanceBookTickerStream.parse(jsonFactory, symbolTable, MESSAGE, Long.MAX_VALUE);
+        venues.set(1, quote);
+        return aggregator.aggregate(quote.symbol(), venues);
+    }
+}
@@ -0,0 +1,98 @@
+package com.trading.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.exchange.BinanceExchangeAdapter;
+import com.trading.exchange.ExchangeAdapter;
+import com.trading.exchange.ExchangePayloads;
+import com.trading.exchange.ExchangeQuote;
+import com.trading.exchange.HuobiExchangeAdapter;
+import com.trading.util.FixedPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price ingestion from exchange payload to aggregated best quote, with both venues
+ * answered from {@link ExchangePayloads} instead of the network. {@code pollCycle} is one
+ * REST poll (parallel fetch, parse, then aggregate, cache, candle and persist-queue per
+ * pair); {@code streamedTick} is one WebSocket update going through the same aggregation.
+ * The price writer is not started, so its queue drops instead of touching a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceIngestionBenchmark {
+    private static final long BID = FixedPoint.parse("50000.10");
+    private static final long ASK = FixedPoint.parse("50000.20");
+
+    private PriceService priceService;
+    private LatestPriceCache latestPriceCache;
+    private long tick;
+
+    @Setup
+    public void setUp() {
+        // No Spring Boot logging setup here, so stop the per-quote INFO lines reaching the console
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        RestTemplate restTemplate = new RestTemplate(ExchangePayloads.stubVenues());
+        List<ExchangeAdapter> adapters = List.of(
+                venue(new BinanceExchangeAdapter(restTemplate, objectMapper)),
+                venue(new HuobiExchangeAdapter(restTemplate, objectMapper)));
+
+        latestPriceCache = new LatestPriceCache();
+        priceService = new PriceService(null, adapters, new BestPriceAggregator(), latestPriceCache,
+                new PriceBatchWriter(null, null, 10_000, 500, 200, 5000), new CandleService(null, 1440, 1000),
+                event -> { }, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(priceService, "venueQuoteTtlMs", 30_000L);
+        priceService.fetchAndSavePrices();
+    }
+
+    @Benchmark
+    public Optional<BestQuote> pollCycle() {
+        priceService.fetchAndSavePrices();
+        return latestPriceCache.peek("BTCUSDT");
+    }
+
+    @Benchmark
+    public Optional<BestQuote> streamedTick() {
+        // Moves the bid so every tick changes the best quote
+        long offset = tick++ & 0xFF;
+        priceService.onQuote(new ExchangeQuote(BinanceExchangeAdapter.NAME, "BTCUSDT",
+                BID + offset, ASK + offset, System.currentTimeMillis()));
+        return latestPriceCache.peek("BTCUSDT");
+    }
+
+    @TearDown
+    public void tearDown() {
+        priceService.shutdown();
+    }
+
+    private static ExchangeAdapter venue(ExchangeAdapter adapter) {
+        ReflectionTestUtils.setField(adapter, "baseUrl", "http://" + adapter.getName().toLowerCase() + ".stub");
+        ReflectionTestUtils.setField(adapter, "fetchDeadlineMs", 3000L);
+        return adapter;
+    }
+}
@@ -0,0 +1,116 @@
+package com.trading.service;
+
+import com.trading.CryptoTradingApplication;
+import com.trading.dto.TradeRequest;
+import com.trading.dto.TradeResponse;
+import com.trading.util.FixedPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code TradeService.executeTrade} end to end against the application's own context and
+ * an in-memory H2 database: quote check, wallet settlement, trade insert and position
+ * ledger update in one transaction. Quotes are put into the {@link LatestPriceCache} at the
+ * start of every iteration instead of coming from the exchanges, with bid and ask equal so
+ * the alternating buys and sells of each thread's user never drain its balances.
+ *
+ * <p>Each JMH thread trades as its own user; run with {@code -t} to add threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TradeExecutionBenchmark {
+    private static final long PRICE = FixedPoint.parse("50000");
+
+    private final AtomicLong userIds = new AtomicLong(1000);
+
+    private ConfigurableApplicationContext context;
+    private TradeService tradeService;
+    private LatestPriceCache latestPriceCache;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CryptoTradingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:trade-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.trading=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        // The scheduled poll fails fast against a closed port and leaves the cache alone
+                        "--binance.api.url=http://localhost:1",
+                        "--huobi.api.url=http://localhost:1",
+                        "--logging.level.com.trading.service.PriceService=OFF");
+        tradeService = context.getBean(TradeService.class);
+        latestPriceCache = context.getBean(LatestPriceCache.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void refreshQuote() {
+        latestPriceCache.put(new BestQuote("BTCUSDT", PRICE, "BINANCE", PRICE, "HUOBI", System.currentTimeMillis()));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Trader {
+        private Long userId;
+        private TradeRequest buy;
+        private TradeRequest sell;
+        private boolean selling;
+
+        @Setup(Level.Trial)
+        public void openAccount(TradeExecutionBenchmark benchmark) {
+            userId = benchmark.userIds.incrementAndGet();
+            benchmark.jdbcTemplate.update(
+                    "INSERT INTO wallet (user_id, currency, balance) VALUES (?, 'USDT', 100000000), (?, 'BTC', 1000)",
+                    userId, userId);
+            buy = request("BUY");
+            sell = request("SELL");
+        }
+
+        TradeRequest next() {
+            selling = !selling;
+            return selling ? sell : buy;
+        }
+
+        private static TradeRequest request(String type) {
+            TradeRequest request = new TradeRequest();
+            request.setSymbol("BTCUSDT");
+            request.setType(type);
+            request.setQuantity(new BigDecimal("0.01"));
+            return request;
+        }
+    }
+
+    @Benchmark
+    public TradeResponse executeTrade(Trader trader) {
+        return tradeService.executeTrade(trader.userId, trader.next());
+    }
+}
@@ -0,0 +1,127 @@
+package com.trading.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Balance-conservation invariants checked once the load is over:
+ * <ul>
+ *   <li>every currency's final balance equals its initial balance plus the effect of every
+ *       trade in the history (a BUY debits USDT by its total and credits the coin by its
+ *       quantity, a SELL the reverse), so no trade moved money without being recorded and
+ *       no recorded trade is missing from the wallets;</li>
+ *   <li>no balance is negative;</li>
+ *   <li>every trade acknowledged to a client is in the history, and the history holds no
+ *       more unacknowledged trades than there were requests whose outcome was unknown.</li>
+ * </ul>
+ * In engine execution mode trades reach the database through the journal, so a failed
+ * check is retried a few times before it is reported.
+ */
+final class ConservationCheck {
+    private static final String QUOTE_CURRENCY = "USDT";
+    private static final int ATTEMPTS = 5;
+    private static final long RETRY_DELAY_MS = 500;
+
+    private final TradingApi api;
+    private final Map<String, BigDecimal> initialBalances;
+    private final LocalDateTime from;
+
+    ConservationCheck(TradingApi api, Map<String, BigDecimal> initialBalances, LocalDateTime from) {
+        this.api = api;
+        this.initialBalances = initialBalances;
+        this.from = from;
+    }
+
+    /**
+     * Runs the check and prints its outcome.
+     *
+     * @return {@code true} if every invariant holds
+     */
+    boolean verify(Set<Long> acknowledgedTradeIds, long unknownTrades, PrintStream out)
+            throws IOException, InterruptedException {
+        List<String> violations = List.of();
+        List<JsonNode> trades = List.of();
+        Map<String, BigDecimal> finalBalances = Map.of();
+        for (int attempt = 1; attempt <= ATTEMPTS; attempt++) {
+            trades = api.tradesSince(from);
+            finalBalances = api.wallets();
+            violations = violations(trades, finalBalances, acknowledgedTradeIds, unknownTrades);
+            if (violations.isEmpty()) {
+                break;
+            }
+            if (attempt < ATTEMPTS) {
+                Thread.sleep(RETRY_DELAY_MS);
+            }
+        }
+
+        out.printf("%nConservation: %d trades in history, %d acknowledged, %d with unknown outcome%n",
+                trades.size(), acknowledgedTradeIds.size(), unknownTrades);
+        for (String currency : currencies(finalBalances)) {
+            out.printf("  %-6s %24s -> %24s%n", currency,
+                    initialBalances.getOrDefault(currency, BigDecimal.ZERO).toPlainString(),
+                    finalBalances.getOrDefault(currency, BigDecimal.ZERO).toPlainString());
+        }
+        if (violations.isEmpty()) {
+            out.println("  all invariants hold");
+            return true;
+        }
+        violations.forEach(violation -> out.println("  VIOLATED: " + violation));
+        return false;
+    }
+
+    private List<String> violations(List<JsonNode> trades, Map<String, BigDecimal> finalBalances,
+                                    Set<Long> acknowledgedTradeIds, long unknownTrades) {
+        List<String> violations = new ArrayList<>();
+
+        Map<String, BigDecimal> expected = new TreeMap<>(initialBalances);
+        Set<Long> historyIds = new HashSet<>();
+        for (JsonNode trade : trades) {
+            historyIds.add(trade.get("tradeId").asLong());
+            String coin = trade.get("symbol").asText().replace(QUOTE_CURRENCY, "");
+            BigDecimal quantity = trade.get("quantity").decimalValue();
+            BigDecimal total = trade.get("total").decimalValue();
+            boolean buy = "BUY".equals(trade.get("type").asText());
+            expected.merge(QUOTE_CURRENCY, buy ? total.negate() : total, BigDecimal::add);
+            expected.merge(coin, buy ? quantity : quantity.negate(), BigDecimal::add);
+        }
+
+        for (String currency : currencies(finalBalances)) {
+            BigDecimal want = expected.getOrDefault(currency, BigDecimal.ZERO);
+            BigDecimal have = finalBalances.getOrDefault(currency, BigDecimal.ZERO);
+            if (want.compareTo(have) != 0) {
+                violations.add(currency + " balance is " + have + ", initial balance plus trades gives " + want);
+            }
+            if (have.signum() < 0) {
+                violations.add(currency + " balance is negative: " + have);
+            }
+        }
+
+        long missing = acknowledgedTradeIds.stream().filter(id -> !historyIds.contains(id)).count();
+        if (missing > 0) {
+            violations.add(missing + " acknowledged trades are missing from the history");
+        }
+        long unacknowledged = historyIds.stream().filter(id -> !acknowledgedTradeIds.contains(id)).count();
+        if (unacknowledged > unknownTrades) {
+            violations.add(unacknowledged + " trades in the history were never acknowledged, but only "
+                    + unknownTrades + " requests had an unknown outcome");
+        }
+        return violations;
+    }
+
+    private Set<String> currencies(Map<String, BigDecimal> finalBalances) {
+        Set<String> currencies = new TreeSet<>(initialBalances.keySet());
+        currencies.addAll(finalBalances.keySet());
+        return currencies;
+    }
+}
@@ -0,0 +1,160 @@
+package com.trading.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for one exchange's REST ticker endpoint, so the application can be put
+ * under load without calling the real venues. Prices follow a random walk stepped
+ * {@code tickRate} times a second; every answer is delayed by {@code latencyMs} (plus up
+ * to the same again in jitter) and fails with a 500 with probability {@code errorRate}.
+ */
+final class ExchangeSimulator implements AutoCloseable {
+
+    enum Venue {
+        // Answers the bookTicker query with the requested pairs
+        BINANCE("/api/v3/ticker/bookTicker"),
+        // Answers with its whole ticker list, which the adapter filters while streaming it
+        HUOBI("/market/tickers");
+
+        private final String path;
+
+        Venue(String path) {
+            this.path = path;
+        }
+    }
+
+    private static final Map<String, Double> START_PRICES = Map.of("BTCUSDT", 50_000.0, "ETHUSDT", 3_000.0);
+    // Relative standard deviation of one random-walk step
+    private static final double STEP = 0.0002;
+    private static final double HALF_SPREAD = 0.00005;
+    private static final int HUOBI_FILLER_TICKERS = 500;
+
+    private final Venue venue;
+    private final long latencyMs;
+    private final double errorRate;
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "exchange-simulator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "exchange-ticker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Double> mids = new ConcurrentHashMap<>(START_PRICES);
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    ExchangeSimulator(Venue venue, long latencyMs, double errorRate, double tickRate) throws IOException {
+        this.venue = venue;
+        this.latencyMs = latencyMs;
+        this.errorRate = errorRate;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(venue.path, this::handle);
+        server.setExecutor(handlers);
+        server.start();
+        if (tickRate > 0) {
+            long periodMicros = Math.max(1, (long) (1_000_000 / tickRate));
+            ticker.scheduleAtFixedRate(this::tick, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long getServedCount() {
+        return served.sum();
+    }
+
+    long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private void tick() {
+        mids.replaceAll((symbol, mid) -> mid * (1 + STEP * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs + random.nextLong(latencyMs + 1));
+            }
+            if (random.nextDouble() < errorRate) {
+                failed.increment();
+                respond(exchange, 500, "{\"code\":-1001,\"msg\":\"Simulated failure\"}");
+                return;
+            }
+            served.increment();
+            respond(exchange, 200, venue == Venue.BINANCE ? binanceTickers() : huobiTickers());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String binanceTickers() {
+        StringBuilder json = new StringBuilder("[");
+        mids.forEach((symbol, mid) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"symbol\":\"").append(symbol)
+                    .append("\",\"bidPrice\":\"").append(price(mid * (1 - HALF_SPREAD)))
+                    .append("\",\"bidQty\":\"1.50000000\",\"askPrice\":\"").append(price(mid * (1 + HALF_SPREAD)))
+                    .append("\",\"askQty\":\"2.00000000\"}");
+        });
+        return json.append(']').toString();
+    }
+
+    private String huobiTickers() {
+        StringBuilder json = new StringBuilder("{\"status\":\"ok\",\"data\":[");
+        mids.forEach((symbol, mid) -> json.append("{\"symbol\":\"").append(symbol.toLowerCase(Locale.ROOT))
+                .append("\",\"bid\":").append(price(mid * (1 - HALF_SPREAD)))
+                .append(",\"bidSize\":1.5,\"ask\":").append(price(mid * (1 + HALF_SPREAD)))
+                .append(",\"askSize\":2.0},"));
+        for (int i = 0; i < HUOBI_FILLER_TICKERS; i++) {
+            json.append("{\"symbol\":\"coin").append(i).append("usdt\",\"bid\":1.2345,\"bidSize\":10,")
+                    .append("\"ask\":1.2346,\"askSize\":10}").append(i + 1 < HUOBI_FILLER_TICKERS ? "," : "");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String price(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,81 @@
+package com.trading.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of latencies in microseconds. Values below 128 are
+ * counted exactly; above that every power of two is split into 64 buckets, so a
+ * reported percentile is at most about 1.6% above the true value whatever its size.
+ */
+final class LatencyHistogram {
+    private static final int HALF = 64;
+    private static final int MANTISSA_BITS = 7;
+
+    private final AtomicLongArray counts = new AtomicLongArray(HALF * (64 - MANTISSA_BITS + 2));
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long micros) {
+        long value = Math.max(micros, 0);
+        counts.incrementAndGet(index(value));
+        total.increment();
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Adds every value recorded in {@code other}; used to total the per-endpoint histograms.
+     */
+    void addAll(LatencyHistogram other) {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.addAndGet(i, other.counts.get(i));
+        }
+        total.add(other.total.sum());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code quantile} (0 to 1) of recorded values.
+     */
+    long percentile(double quantile) {
+        long count = total.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int index(long value) {
+        if (value < 2 * HALF) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (MANTISSA_BITS - 1);
+        return HALF * shift + (int) (value >>> shift);
+    }
+
+    static long upperBound(int index) {
+        if (index < 2 * HALF) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long mantissa = index - (long) HALF * shift;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
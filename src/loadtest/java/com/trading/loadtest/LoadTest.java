@@ -0,0 +1,166 @@
+package com.trading.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.trading.CryptoTradingApplication;
+import com.trading.service.WalletService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * End-to-end load test: starts a simulated Binance and Huobi, boots the application
+ * against them on a random port, drives the trade, wallet and price endpoints with
+ * closed-loop virtual users and checks balance conservation at the end. Exits with 1 if
+ * an invariant is violated.
+ *
+ * <p>Options, all {@code --name=value}:
+ * <ul>
+ *   <li>{@code users} (2000), {@code duration} (60s, ramp-up included), {@code ramp-up}
+ *       (10s), {@code think-time} (100ms), {@code request-timeout} (10s);</li>
+ *   <li>{@code trade-weight} (60), {@code wallet-weight} (20), {@code price-weight} (20):
+ *       the request mix;</li>
+ *   <li>{@code latency-ms} (20), {@code error-rate} (0.01), {@code tick-rate} (10): how each
+ *       simulated exchange behaves.</li>
+ * </ul>
+ * Durations take an {@code ms}, {@code s} or {@code m} suffix. Any other option is passed
+ * to the application, e.g. {@code --trade.execution.mode=engine}.
+ */
+public final class LoadTest {
+    // Every endpoint acts for user 1
+    private static final long USER_ID = 1L;
+    private static final Map<String, BigDecimal> SEED_FUNDS = Map.of(
+            "USDT", new BigDecimal("10000000"),
+            "BTC", new BigDecimal("100"),
+            "ETH", new BigDecimal("1000"));
+    private static final Duration PRICE_WAIT = Duration.ofSeconds(30);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> applicationOptions = defaultApplicationOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.contains(".")) {
+                applicationOptions.put(name, value);
+            } else {
+                options.put(name, value);
+            }
+        }
+
+        int users = Integer.parseInt(options.getOrDefault("users", "2000"));
+        long latencyMs = Long.parseLong(options.getOrDefault("latency-ms", "20"));
+        double errorRate = Double.parseDouble(options.getOrDefault("error-rate", "0.01"));
+        double tickRate = Double.parseDouble(options.getOrDefault("tick-rate", "10"));
+
+        try (ExchangeSimulator binance = new ExchangeSimulator(
+                     ExchangeSimulator.Venue.BINANCE, latencyMs, errorRate, tickRate);
+             ExchangeSimulator huobi = new ExchangeSimulator(
+                     ExchangeSimulator.Venue.HUOBI, latencyMs, errorRate, tickRate)) {
+            applicationOptions.put("binance.api.url", binance.baseUrl());
+            applicationOptions.put("huobi.api.url", huobi.baseUrl());
+
+            boolean conserved;
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CryptoTradingApplication.class)
+                    .run(applicationOptions.entrySet().stream()
+                            .map(option -> "--" + option.getKey() + "=" + option.getValue())
+                            .toArray(String[]::new))) {
+                String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+                TradingApi api = new TradingApi(client, objectMapper, baseUrl);
+
+                awaitPrices(api);
+                WalletService walletService = context.getBean(WalletService.class);
+                SEED_FUNDS.forEach((currency, amount) ->
+                        walletService.updateBalance(USER_ID, currency, amount));
+                Map<String, BigDecimal> initialBalances = api.wallets();
+                LocalDateTime from = LocalDateTime.now().minusSeconds(1);
+
+                VirtualUsers virtualUsers = new VirtualUsers(client, objectMapper, baseUrl, users,
+                        duration(options.getOrDefault("duration", "60s")),
+                        duration(options.getOrDefault("ramp-up", "10s")),
+                        duration(options.getOrDefault("think-time", "100ms")),
+                        duration(options.getOrDefault("request-timeout", "10s")),
+                        Integer.parseInt(options.getOrDefault("trade-weight", "60")),
+                        Integer.parseInt(options.getOrDefault("wallet-weight", "20")),
+                        Integer.parseInt(options.getOrDefault("price-weight", "20")));
+                virtualUsers.run();
+                virtualUsers.report(System.out);
+
+                conserved = new ConservationCheck(api, initialBalances, from)
+                        .verify(virtualUsers.getAcknowledgedTradeIds(), virtualUsers.getUnknownTradeCount(), System.out);
+            }
+
+            System.out.printf(Locale.ROOT, "%nExchanges: Binance served %d, failed %d; Huobi served %d, failed %d%n",
+                    binance.getServedCount(), binance.getFailedCount(),
+                    huobi.getServedCount(), huobi.getFailedCount());
+            if (!conserved) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Quiet logging and a private journal directory. The per-client rate limits are lifted
+     * because every virtual user connects from the same address and would share one
+     * bucket; admission control stays as configured.
+     */
+    private static Map<String, String> defaultApplicationOptions() throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("server.port", "0");
+        options.put("spring.main.banner-mode", "off");
+        options.put("spring.jpa.show-sql", "false");
+        options.put("logging.level.root", "WARN");
+        options.put("logging.level.com.trading", "WARN");
+        options.put("logging.level.org.hibernate.SQL", "WARN");
+        options.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        // Simulated failures are expected; the report counts them
+        options.put("logging.level.com.trading.service.PriceService", "ERROR");
+        options.put("trade.journal.directory", Files.createTempDirectory("loadtest-journal").toString());
+        for (String endpoint : List.of("execute", "batch", "orders", "history")) {
+            options.put("trade.rate-limit." + endpoint + ".per-second", "1000000");
+            options.put("trade.rate-limit." + endpoint + ".burst", "1000000");
+        }
+        return options;
+    }
+
+    private static void awaitPrices(TradingApi api) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + PRICE_WAIT.toNanos();
+        while (!(api.hasPrice("BTCUSDT") && api.hasPrice("ETHUSDT"))) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No prices from the simulated exchanges after " + PRICE_WAIT);
+            }
+            Thread.sleep(200);
+        }
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+    }
+}
@@ -0,0 +1,91 @@
+package com.trading.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Blocking calls the harness makes outside the measured load: waiting for the first price
+ * and reading balances and trade history for the conservation check. A 429 is retried
+ * after its {@code Retry-After}, so admission control left over from the load cannot fail
+ * the check.
+ */
+final class TradingApi {
+    private static final int HISTORY_PAGE_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 20;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+
+    TradingApi(HttpClient client, ObjectMapper objectMapper, String baseUrl) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+
+    boolean hasPrice(String symbol) throws IOException, InterruptedException {
+        return send("/api/prices/latest/" + symbol).statusCode() == 200;
+    }
+
+    Map<String, BigDecimal> wallets() throws IOException, InterruptedException {
+        Map<String, BigDecimal> balances = new TreeMap<>();
+        for (JsonNode wallet : getJson("/api/wallets")) {
+            balances.put(wallet.get("currency").asText(), wallet.get("balance").decimalValue());
+        }
+        return balances;
+    }
+
+    /**
+     * Every trade at or after {@code from}, walking the history pages to the end.
+     */
+    List<JsonNode> tradesSince(LocalDateTime from) throws IOException, InterruptedException {
+        List<JsonNode> trades = new ArrayList<>();
+        String cursor = null;
+        do {
+            String path = "/api/trades?limit=" + HISTORY_PAGE_SIZE + "&from=" + from
+                    + (cursor != null ? "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8) : "");
+            JsonNode page = getJson(path);
+            page.get("trades").forEach(trades::add);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        return trades;
+    }
+
+    private JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(path);
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<String> send(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 429 || attempt == MAX_ATTEMPTS) {
+                return response;
+            }
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(Duration.ofSeconds(Math.max(retryAfter, 1)).toMillis());
+        }
+    }
+}
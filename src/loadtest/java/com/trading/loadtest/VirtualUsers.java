@@ -0,0 +1,242 @@
+package com.trading.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop virtual users: each one sends a request, waits for the answer, thinks, and
+ * sends the next, until the run is over. Requests are asynchronous, so thousands of users
+ * need only a handful of threads. Users start evenly spread over the ramp-up.
+ *
+ * <p>Each request is a trade, a wallet read or a price read, picked at random by weight.
+ * Trades are small market BUYs or SELLs of BTC or ETH. The ids of acknowledged trades are
+ * kept for the conservation check.
+ */
+final class VirtualUsers {
+
+    enum Endpoint {
+        TRADES("POST /api/trades"),
+        WALLETS("GET /api/wallets"),
+        PRICES("GET /api/prices/latest");
+
+        private final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final String[] SYMBOLS = {"BTCUSDT", "ETHUSDT"};
+    private static final String[] QUANTITIES = {"0.001", "0.002", "0.005", "0.01"};
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final int users;
+    private final long durationNanos;
+    private final long rampUpNanos;
+    private final long thinkTimeNanos;
+    private final Duration requestTimeout;
+    private final int tradeWeight;
+    private final int walletWeight;
+    private final int priceWeight;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "virtual-users");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+    private final Set<Long> acknowledgedTradeIds = ConcurrentHashMap.newKeySet();
+    // Trades whose outcome the client never learned: they may or may not have executed
+    private final LongAdder unknownTrades = new LongAdder();
+
+    private long deadline;
+    private long elapsedNanos;
+
+    VirtualUsers(HttpClient client, ObjectMapper objectMapper, String baseUrl, int users, Duration duration,
+                 Duration rampUp, Duration thinkTime, Duration requestTimeout, int tradeWeight, int walletWeight,
+                 int priceWeight) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.durationNanos = duration.toNanos();
+        this.rampUpNanos = rampUp.toNanos();
+        this.thinkTimeNanos = thinkTime.toNanos();
+        this.requestTimeout = requestTimeout;
+        this.tradeWeight = tradeWeight;
+        this.walletWeight = walletWeight;
+        this.priceWeight = priceWeight;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    /**
+     * Runs every user until the duration is up, then waits for the requests still in flight.
+     */
+    void run() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(users);
+        long start = System.nanoTime();
+        deadline = start + durationNanos;
+        for (int i = 0; i < users; i++) {
+            scheduler.schedule(() -> next(finished), rampUpNanos * i / users, TimeUnit.NANOSECONDS);
+        }
+        finished.await();
+        elapsedNanos = System.nanoTime() - start;
+        scheduler.shutdown();
+    }
+
+    Set<Long> getAcknowledgedTradeIds() {
+        return acknowledgedTradeIds;
+    }
+
+    long getUnknownTradeCount() {
+        return unknownTrades.sum();
+    }
+
+    void report(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf(Locale.ROOT, "%nLoad: %d virtual users for %.1f s%n", users, seconds);
+        out.printf(Locale.ROOT, "%-24s %9s %9s %8s %8s %8s %8s %8s %9s %9s %9s %9s%n", "endpoint", "requests",
+                "req/s", "2xx", "4xx", "429", "5xx", "failed", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Stats total = new Stats();
+        stats.forEach((endpoint, endpointStats) -> {
+            print(out, endpoint.label, endpointStats, seconds);
+            total.add(endpointStats);
+        });
+        print(out, "all", total, seconds);
+    }
+
+    private void next(CountDownLatch finished) {
+        if (System.nanoTime() >= deadline) {
+            finished.countDown();
+            return;
+        }
+        Endpoint endpoint = pick();
+        long start = System.nanoTime();
+        client.sendAsync(request(endpoint), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    record(endpoint, response, error, System.nanoTime() - start);
+                    if (thinkTimeNanos > 0) {
+                        scheduler.schedule(() -> next(finished), thinkTimeNanos, TimeUnit.NANOSECONDS);
+                    } else {
+                        scheduler.execute(() -> next(finished));
+                    }
+                });
+    }
+
+    private Endpoint pick() {
+        int roll = ThreadLocalRandom.current().nextInt(tradeWeight + walletWeight + priceWeight);
+        if (roll < tradeWeight) {
+            return Endpoint.TRADES;
+        }
+        return roll < tradeWeight + walletWeight ? Endpoint.WALLETS : Endpoint.PRICES;
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (endpoint) {
+            case TRADES -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/trades"))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"symbol\":\"" + SYMBOLS[random.nextInt(SYMBOLS.length)]
+                            + "\",\"type\":\"" + (random.nextBoolean() ? "BUY" : "SELL")
+                            + "\",\"quantity\":" + QUANTITIES[random.nextInt(QUANTITIES.length)] + "}"))
+                    .build();
+            case WALLETS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/wallets"))
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+            case PRICES -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/prices/latest/"
+                            + SYMBOLS[random.nextInt(SYMBOLS.length)]))
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+        };
+    }
+
+    private void record(Endpoint endpoint, HttpResponse<String> response, Throwable error, long latencyNanos) {
+        Stats endpointStats = stats.get(endpoint);
+        endpointStats.latency.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (error != null) {
+            endpointStats.failed.increment();
+            if (endpoint == Endpoint.TRADES) {
+                unknownTrades.increment();
+            }
+            return;
+        }
+        int status = response.statusCode();
+        if (status == 429) {
+            endpointStats.throttled.increment();
+        } else if (status >= 500) {
+            endpointStats.serverErrors.increment();
+            if (endpoint == Endpoint.TRADES) {
+                unknownTrades.increment();
+            }
+        } else if (status >= 400) {
+            endpointStats.clientErrors.increment();
+        } else {
+            endpointStats.ok.increment();
+            if (endpoint == Endpoint.TRADES) {
+                acknowledge(response.body());
+            }
+        }
+    }
+
+    private void acknowledge(String body) {
+        try {
+            JsonNode trade = objectMapper.readTree(body);
+            acknowledgedTradeIds.add(trade.get("tradeId").asLong());
+        } catch (IOException e) {
+            unknownTrades.increment();
+        }
+    }
+
+    private static void print(PrintStream out, String label, Stats stats, double seconds) {
+        LatencyHistogram latency = stats.latency;
+        out.printf(Locale.ROOT, "%-24s %9d %9.1f %8d %8d %8d %8d %8d %9.2f %9.2f %9.2f %9.2f%n",
+                label, latency.count(), latency.count() / seconds, stats.ok.sum(), stats.clientErrors.sum(),
+                stats.throttled.sum(), stats.serverErrors.sum(), stats.failed.sum(),
+                latency.percentile(0.50) / 1000.0, latency.percentile(0.99) / 1000.0,
+                latency.percentile(0.999) / 1000.0, latency.max() / 1000.0);
+    }
+
+    private static final class Stats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        void add(Stats other) {
+            latency.addAll(other.latency);
+            ok.add(other.ok.sum());
+            clientErrors.add(other.clientErrors.sum());
+            throttled.add(other.throttled.sum());
+            serverErrors.add(other.serverErrors.sum());
+            failed.add(other.failed.sum());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.trading;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
@@ -25,10 +26,11 @@ public class CryptoTradingApplication {
 	}
 
 	@Bean
-	public RestTemplate restTemplate() {
+	public RestTemplate restTemplate(@Value("${rest.template.connect-timeout:10000}") long connectTimeoutMs,
+									 @Value("${rest.template.read-timeout:10000}") long readTimeoutMs) {
 		SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-		factory.setConnectTimeout(Duration.ofSeconds(10));
-		factory.setReadTimeout(Duration.ofSeconds(10));
+		factory.setConnectTimeout(Duration.ofMillis(connectTimeoutMs));
+		factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
 
 		return new RestTemplate(factory);
 	}
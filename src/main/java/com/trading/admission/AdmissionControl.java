@@ -0,0 +1,140 @@
+package com.trading.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Global load shedding for the trade API. A request is only admitted while fewer than
+ * {@code max-in-flight} trade requests are running and fewer than
+ * {@code max-pending-connections} threads are queued for a database connection. While the
+ * moving average of request latency is above {@code latency-target-ms} the in-flight limit
+ * is halved; the requests still admitted keep updating the average, so the full limit
+ * comes back as soon as latency recovers. Refusing early keeps the Tomcat workers and the
+ * connection pool free for the requests already being served.
+ */
+@Component
+@Slf4j
+public class AdmissionControl implements MeterBinder {
+    public static final String IN_FLIGHT = "in-flight";
+    public static final String LATENCY = "latency";
+    public static final String CONNECTIONS = "connections";
+
+    private final int maxInFlight;
+    private final long latencyTargetNanos;
+    private final int maxPendingConnections;
+    private final IntSupplier pendingConnections;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong averageLatencyNanos = new AtomicLong();
+    private final LongAdder shedInFlight = new LongAdder();
+    private final LongAdder shedLatency = new LongAdder();
+    private final LongAdder shedConnections = new LongAdder();
+
+    @Autowired
+    public AdmissionControl(DataSource dataSource,
+                            @Value("${trade.admission.max-in-flight:64}") int maxInFlight,
+                            @Value("${trade.admission.latency-target-ms:250}") long latencyTargetMs,
+                            @Value("${trade.admission.max-pending-connections:5}") int maxPendingConnections) {
+        this(maxInFlight, latencyTargetMs, maxPendingConnections, threadsAwaitingConnection(dataSource));
+    }
+
+    AdmissionControl(int maxInFlight, long latencyTargetMs, int maxPendingConnections,
+                     IntSupplier pendingConnections) {
+        this.maxInFlight = maxInFlight;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.maxPendingConnections = maxPendingConnections;
+        this.pendingConnections = pendingConnections;
+    }
+
+    /**
+     * @return null if the request is admitted and must be {@link #release}d when it ends,
+     *         otherwise the reason it was refused
+     */
+    public String tryAcquire() {
+        if (pendingConnections.getAsInt() >= maxPendingConnections) {
+            shedConnections.increment();
+            return CONNECTIONS;
+        }
+        boolean slow = averageLatencyNanos.get() > latencyTargetNanos;
+        int limit = slow ? Math.max(1, maxInFlight / 2) : maxInFlight;
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                (slow ? shedLatency : shedInFlight).increment();
+                return slow ? LATENCY : IN_FLIGHT;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return null;
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        // Exponential moving average weighting each sample 1/8
+        averageLatencyNanos.accumulateAndGet(latencyNanos,
+                (average, sample) -> average == 0 ? sample : average + (sample - average) / 8);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getShedCount() {
+        return shedInFlight.sum() + shedLatency.sum() + shedConnections.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trade.admission.in-flight", inFlight, AtomicInteger::get)
+                .description("Trade API requests being served")
+                .register(registry);
+        Gauge.builder("trade.admission.latency", averageLatencyNanos, average -> average.get() / 1e6)
+                .baseUnit("milliseconds")
+                .description("Moving average of trade API request latency")
+                .register(registry);
+        FunctionCounter.builder("trade.admission.shed", shedInFlight, LongAdder::sum)
+                .tag("reason", IN_FLIGHT)
+                .description("Requests refused with 429 to shed load")
+                .register(registry);
+        FunctionCounter.builder("trade.admission.shed", shedLatency, LongAdder::sum)
+                .tag("reason", LATENCY)
+                .description("Requests refused with 429 to shed load")
+                .register(registry);
+        FunctionCounter.builder("trade.admission.shed", shedConnections, LongAdder::sum)
+                .tag("reason", CONNECTIONS)
+                .description("Requests refused with 429 to shed load")
+                .register(registry);
+    }
+
+    // The pool is created lazily on first use, so the MXBean is looked up on every call
+    private static IntSupplier threadsAwaitingConnection(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                return () -> {
+                    HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                    return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+                };
+            }
+        } catch (SQLException e) {
+            log.warn("Could not inspect the connection pool, admission ignores connection waits: {}", e.getMessage());
+        }
+        return () -> 0;
+    }
+}
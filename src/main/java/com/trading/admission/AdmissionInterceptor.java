@@ -0,0 +1,67 @@
+package com.trading.admission;
+
+import com.trading.exception.TooManyRequestsException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link RateLimiter} and then {@link AdmissionControl} to the trade and order
+ * endpoints before the controller runs. Refusals are thrown as
+ * {@link TooManyRequestsException} and answered with 429 by the exception handler.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionInterceptor implements HandlerInterceptor {
+    private static final String STARTED_AT = AdmissionInterceptor.class.getName() + ".startedAt";
+
+    private final RateLimiter rateLimiter;
+    private final AdmissionControl admissionControl;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String endpoint = endpoint(request);
+        long wait = rateLimiter.tryAcquire(endpoint, client(request));
+        if (wait > 0) {
+            throw new TooManyRequestsException("Rate limit exceeded for " + endpoint + " requests",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+        String shed = admissionControl.tryAcquire();
+        if (shed != null) {
+            throw new TooManyRequestsException("Server is busy (" + shed + "), retry shortly", 1);
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object startedAt = request.getAttribute(STARTED_AT);
+        if (startedAt != null) {
+            admissionControl.release(System.nanoTime() - (long) startedAt);
+        }
+    }
+
+    static String endpoint(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/orders")) {
+            return RateLimiter.ORDERS;
+        }
+        if (!"POST".equals(request.getMethod())) {
+            return RateLimiter.HISTORY;
+        }
+        return path.startsWith("/api/trades/batch") ? RateLimiter.BATCH : RateLimiter.EXECUTE;
+    }
+
+    // There is no authentication yet, so until there is a principal clients are told apart by address
+    static String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? principal.getName() : request.getRemoteAddr();
+    }
+}
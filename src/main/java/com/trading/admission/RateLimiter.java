@@ -0,0 +1,86 @@
+package com.trading.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client, per-endpoint token buckets for the trade API, so one client sending too fast
+ * is refused on its own without slowing anyone else down.
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+    public static final String EXECUTE = "execute";
+    public static final String BATCH = "batch";
+    public static final String ORDERS = "orders";
+    public static final String HISTORY = "history";
+
+    private final Map<String, TokenBuckets> endpoints = new LinkedHashMap<>();
+    private final Map<String, LongAdder> rejected = new LinkedHashMap<>();
+
+    @Autowired
+    public RateLimiter(@Value("${trade.rate-limit.execute.per-second:20}") double executeRate,
+                       @Value("${trade.rate-limit.execute.burst:40}") int executeBurst,
+                       @Value("${trade.rate-limit.batch.per-second:2}") double batchRate,
+                       @Value("${trade.rate-limit.batch.burst:5}") int batchBurst,
+                       @Value("${trade.rate-limit.orders.per-second:20}") double ordersRate,
+                       @Value("${trade.rate-limit.orders.burst:40}") int ordersBurst,
+                       @Value("${trade.rate-limit.history.per-second:10}") double historyRate,
+                       @Value("${trade.rate-limit.history.burst:20}") int historyBurst) {
+        this(Map.of(EXECUTE, new TokenBuckets(executeRate, executeBurst, System::nanoTime),
+                BATCH, new TokenBuckets(batchRate, batchBurst, System::nanoTime),
+                ORDERS, new TokenBuckets(ordersRate, ordersBurst, System::nanoTime),
+                HISTORY, new TokenBuckets(historyRate, historyBurst, System::nanoTime)));
+    }
+
+    RateLimiter(Map<String, TokenBuckets> endpoints) {
+        endpoints.forEach((endpoint, buckets) -> {
+            this.endpoints.put(endpoint, buckets);
+            this.rejected.put(endpoint, new LongAdder());
+        });
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise the nanoseconds until the client may
+     *         call the endpoint again
+     */
+    public long tryAcquire(String endpoint, String client) {
+        long wait = endpoints.get(endpoint).tryAcquire(client);
+        if (wait > 0) {
+            rejected.get(endpoint).increment();
+        }
+        return wait;
+    }
+
+    @Scheduled(fixedDelayString = "${trade.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        endpoints.values().forEach(TokenBuckets::sweep);
+    }
+
+    public long getRejectedCount(String endpoint) {
+        return rejected.get(endpoint).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        endpoints.forEach((endpoint, buckets) -> {
+            FunctionCounter.builder("trade.ratelimit.rejected", rejected.get(endpoint), LongAdder::sum)
+                    .tag("endpoint", endpoint)
+                    .description("Requests refused because the client had no token left")
+                    .register(registry);
+            Gauge.builder("trade.ratelimit.clients", buckets, TokenBuckets::size)
+                    .tag("endpoint", endpoint)
+                    .description("Clients with a partly drained bucket")
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.trading.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per client, each held in a single {@link AtomicLong} and updated by
+ * compare-and-set, so concurrent requests never take a lock. The long is the bucket's
+ * theoretical arrival time (the generic cell rate algorithm): the instant the bucket would
+ * be full again. A request adds one emission interval to it and is refused if that would
+ * put it more than {@code burst} intervals ahead of now.
+ */
+class TokenBuckets {
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+
+    TokenBuckets(double ratePerSecond, int burst, LongSupplier nanoClock) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return 0 if the client had a token, otherwise the nanoseconds until it will have one
+     */
+    long tryAcquire(String client) {
+        long now = nanoClock.getAsLong();
+        AtomicLong arrival = buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = arrival.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops the buckets that have refilled completely, which behave exactly like a new one.
+     * A request racing the removal may update a dropped bucket and so get one extra token.
+     */
+    int sweep() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(arrival -> arrival.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
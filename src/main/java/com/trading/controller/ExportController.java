@@ -0,0 +1,100 @@
+package com.trading.controller;
+
+import com.trading.exception.InvalidRequestException;
+import com.trading.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exports are written to the response on an async thread under their own timeout, so a
+ * long export neither holds a request thread nor needs a long global async timeout.
+ */
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Export API", description = "Streaming CSV exports for reconciliation")
+@RequiredArgsConstructor
+public class ExportController {
+    static final String CSV = "csv";
+    static final String CSV_GZIP = "csv.gz";
+    static final MediaType TEXT_CSV = new MediaType("text", "csv");
+    static final MediaType APPLICATION_GZIP = new MediaType("application", "gzip");
+
+    private final ExportService exportService;
+
+    @Value("${export.timeout-ms:3600000}")
+    private long timeoutMs;
+
+    @GetMapping("/trades")
+    @Operation(summary = "Stream trades as CSV",
+            description = "Optional userId, symbol and from/to (ISO date-times, to exclusive) filters; "
+                    + "format is csv or csv.gz")
+    public WebAsyncTask<Void> exportTrades(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = CSV) String format,
+            HttpServletResponse response) {
+        boolean gzip = isGzip(format);
+        validateRange(from, to);
+        return stream(response, "trades", gzip,
+                out -> exportService.exportTrades(userId, symbol, from, to, gzip, out));
+    }
+
+    @GetMapping("/prices")
+    @Operation(summary = "Stream aggregated prices as CSV",
+            description = "Optional symbol and from/to (ISO date-times, to exclusive) filters; "
+                    + "format is csv or csv.gz")
+    public WebAsyncTask<Void> exportPrices(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = CSV) String format,
+            HttpServletResponse response) {
+        boolean gzip = isGzip(format);
+        validateRange(from, to);
+        return stream(response, "prices", gzip, out -> exportService.exportPrices(symbol, from, to, gzip, out));
+    }
+
+    private static boolean isGzip(String format) {
+        if (!CSV.equals(format) && !CSV_GZIP.equals(format)) {
+            throw new InvalidRequestException("Unsupported format: " + format + ", expected csv or csv.gz");
+        }
+        return CSV_GZIP.equals(format);
+    }
+
+    private static void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+    }
+
+    private WebAsyncTask<Void> stream(HttpServletResponse response, String name, boolean gzip,
+                                      StreamingResponseBody body) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "." + (gzip ? CSV_GZIP : CSV))
+                .build();
+        response.setContentType((gzip ? APPLICATION_GZIP : TEXT_CSV).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        return new WebAsyncTask<>(timeoutMs, () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
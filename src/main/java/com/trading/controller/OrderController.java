@@ -0,0 +1,37 @@
+package com.trading.controller;
+
+import com.trading.dto.OrderRequest;
+import com.trading.dto.OrderResponse;
+import com.trading.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/orders")
+@Tag(name = "Order API", description = "Endpoints for resting limit and stop orders")
+@RequiredArgsConstructor
+public class OrderController {
+    private final OrderService orderService;
+
+    @PostMapping
+    @Operation(summary = "Place a limit or stop order, reserving its balance until it fills or is cancelled")
+    public OrderResponse placeOrder(@RequestBody OrderRequest request) {
+        return orderService.placeOrder(1L, request);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get user's orders, newest first")
+    public List<OrderResponse> getUserOrders() {
+        return orderService.getUserOrders(1L);
+    }
+
+    @DeleteMapping("/{orderId}")
+    @Operation(summary = "Cancel an open order and release its reserved balance")
+    public OrderResponse cancelOrder(@PathVariable Long orderId) {
+        return orderService.cancelOrder(1L, orderId);
+    }
+}
@@ -0,0 +1,33 @@
+package com.trading.controller;
+
+import com.trading.dto.PortfolioResponse;
+import com.trading.dto.PositionResponse;
+import com.trading.service.PortfolioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/portfolio")
+@Tag(name = "Portfolio API", description = "Endpoints for valuing the user's holdings")
+@RequiredArgsConstructor
+public class PortfolioController {
+    private final PortfolioService portfolioService;
+
+    @GetMapping
+    @Operation(summary = "Value every wallet in USDT at the best bid, with unrealized PnL from the user's trades")
+    public PortfolioResponse getPortfolio() {
+        return portfolioService.getPortfolio(1L);
+    }
+
+    @GetMapping("/positions")
+    @Operation(summary = "Get open quantity, average cost and realized and unrealized PnL per trading pair")
+    public List<PositionResponse> getPositions() {
+        return portfolioService.getPositions(1L);
+    }
+}
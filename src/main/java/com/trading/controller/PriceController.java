@@ -1,16 +1,26 @@
 package com.trading.controller;
 
+import com.trading.dto.CandleResponse;
+import com.trading.exception.InvalidRequestException;
 import com.trading.model.Price;
+import com.trading.service.CandleInterval;
+import com.trading.service.CandleService;
 import com.trading.service.PriceService;
+import com.trading.service.PriceStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -20,7 +30,11 @@ import java.util.stream.Collectors;
 @Tag(name = "Price API", description = "Endpoints for managing cryptocurrency prices")
 @RequiredArgsConstructor
 public class PriceController {
+    private static final int DEFAULT_CANDLE_COUNT = 100;
+
     private final PriceService priceService;
+    private final CandleService candleService;
+    private final PriceStreamService priceStreamService;
 
     @GetMapping("/latest/{symbol}")
     @Operation(summary = "Get latest price for a symbol")
@@ -40,4 +54,39 @@ public class PriceController {
                 .collect(Collectors.toList());
         return ResponseEntity.ok(prices);
     }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream best prices as server-sent events",
+            description = "Sends the current price on connect, then every update. Optional symbols filter, "
+                    + "e.g. ?symbols=BTCUSDT; a slow client only receives the latest price per symbol")
+    public SseEmitter streamPrices(@RequestParam(required = false) List<String> symbols) {
+        List<String> requested = symbols != null ? symbols : List.of();
+        requested.stream()
+                .filter(symbol -> !PriceService.TRADING_PAIRS.contains(symbol))
+                .findFirst()
+                .ifPresent(symbol -> {
+                    throw new InvalidRequestException("Unsupported symbol: " + symbol);
+                });
+        return priceStreamService.subscribe(requested);
+    }
+
+    @GetMapping("/{symbol}/candles")
+    @Operation(summary = "Get OHLC candles of the mid price for a symbol",
+            description = "interval is one of 1s, 1m, 1h; from/to are ISO date-times and default to the last "
+                    + DEFAULT_CANDLE_COUNT + " candles")
+    public ResponseEntity<List<CandleResponse>> getCandles(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "1m") String interval,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!PriceService.TRADING_PAIRS.contains(symbol)) {
+            throw new InvalidRequestException("Unsupported symbol: " + symbol);
+        }
+        CandleInterval candleInterval = CandleInterval.fromLabel(interval)
+                .orElseThrow(() -> new InvalidRequestException("Unsupported interval: " + interval));
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from
+                : end.minusNanos(candleInterval.getMillis() * 1_000_000L * DEFAULT_CANDLE_COUNT);
+        return ResponseEntity.ok(candleService.getCandles(symbol, candleInterval, start, end));
+    }
 }
@@ -1,15 +1,18 @@
 package com.trading.controller;
 
+import com.trading.dto.BatchTradeRequest;
+import com.trading.dto.BatchTradeResponse;
+import com.trading.dto.TradePage;
 import com.trading.dto.TradeRequest;
 import com.trading.dto.TradeResponse;
-import com.trading.model.Trade;
 import com.trading.service.TradeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/trades")
@@ -19,14 +22,34 @@ public class TradeController {
     private final TradeService tradeService;
 
     @PostMapping
-    @Operation(summary = "Execute a trade")
-    public TradeResponse executeTrade(@RequestBody TradeRequest request) {
-        return tradeService.executeTrade(1L, request);
+    @Operation(summary = "Execute a trade",
+            description = "With an Idempotency-Key header the trade executes at most once per key; "
+                    + "a retry with the same key returns the original trade")
+    public TradeResponse executeTrade(@RequestBody TradeRequest request,
+                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return tradeService.executeTrade(1L, request);
+        }
+        return tradeService.executeTrade(1L, request, idempotencyKey);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Execute a batch of trades against one price snapshot, atomically or best-effort")
+    public BatchTradeResponse executeBatch(@RequestBody BatchTradeRequest request) {
+        return tradeService.executeBatch(1L, request);
     }
 
     @GetMapping
-    @Operation(summary = "Get user's trading history")
-    public List<Trade> getUserTrades() {
-        return tradeService.getUserTrades(1L);
+    @Operation(summary = "Get user's trading history, newest first, one page at a time",
+            description = "Pass the returned nextCursor as cursor for the next page. symbol, type (BUY or SELL) "
+                    + "and from/to (ISO date-times, to exclusive) filter the history")
+    public TradePage getUserTrades(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return tradeService.getUserTrades(1L, symbol, type, from, to, cursor, limit);
     }
 }
@@ -0,0 +1,19 @@
+package com.trading.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class AssetValue {
+    private String currency;
+    private BigDecimal balance;
+    // Best bid in USDT (1 for USDT itself); null, like value, while the asset has no quote yet
+    private BigDecimal price;
+    private BigDecimal value;
+    // Open position from the user's trades; coins that did not come from a trade have no cost
+    private BigDecimal positionQuantity;
+    private BigDecimal averageCost;
+    private BigDecimal unrealizedPnl;
+    private BigDecimal realizedPnl;
+}
@@ -0,0 +1,16 @@
+package com.trading.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTradeRequest {
+    // Every trade settles or none does
+    public static final String ATOMIC = "ATOMIC";
+    // Each trade settles on its own; rejected ones do not affect the rest
+    public static final String BEST_EFFORT = "BEST_EFFORT";
+
+    private String mode = BEST_EFFORT;
+    private List<TradeRequest> trades;
+}
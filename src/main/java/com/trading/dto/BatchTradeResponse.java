@@ -0,0 +1,14 @@
+package com.trading.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTradeResponse {
+    private String mode;
+    private int filled;
+    private int rejected;
+    private int unknown;
+    private List<BatchTradeResult> results;
+}
@@ -0,0 +1,38 @@
+package com.trading.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTradeResult {
+    public static final String FILLED = "FILLED";
+    public static final String REJECTED = "REJECTED";
+    // Valid on its own but skipped because another trade in an atomic batch was rejected
+    public static final String NOT_EXECUTED = "NOT_EXECUTED";
+    // Settled but not confirmed durable; check the trade history before retrying it
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private int index;
+    private String status;
+    private TradeResponse trade;
+    private String error;
+
+    public static BatchTradeResult filled(int index, TradeResponse trade) {
+        return new BatchTradeResult(index, FILLED, trade, null);
+    }
+
+    public static BatchTradeResult rejected(int index, String error) {
+        return new BatchTradeResult(index, REJECTED, null, error);
+    }
+
+    public static BatchTradeResult unknown(int index, String error) {
+        return new BatchTradeResult(index, UNKNOWN, null, error);
+    }
+
+    public static BatchTradeResult notExecuted(int index, int rejectedIndex) {
+        return new BatchTradeResult(index, NOT_EXECUTED, null, "Not executed: trade " + rejectedIndex + " was rejected");
+    }
+}
@@ -0,0 +1,18 @@
+package com.trading.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class CandleResponse {
+    private String symbol;
+    private String interval;
+    private LocalDateTime openTime;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private int tickCount;
+}
@@ -0,0 +1,14 @@
+package com.trading.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class OrderRequest {
+    private String symbol;
+    private String type;
+    private String orderType;
+    private BigDecimal quantity;
+    private BigDecimal price;
+}
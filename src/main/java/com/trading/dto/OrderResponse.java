@@ -0,0 +1,20 @@
+package com.trading.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class OrderResponse {
+    private Long orderId;
+    private String symbol;
+    private String type;
+    private String orderType;
+    private BigDecimal price;
+    private BigDecimal quantity;
+    private BigDecimal reserved;
+    private String status;
+    private Long tradeId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package com.trading.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class PortfolioResponse {
+    private List<AssetValue> assets;
+    private BigDecimal totalValue;
+    private BigDecimal unrealizedPnl;
+    private BigDecimal realizedPnl;
+    private LocalDateTime timestamp;
+}
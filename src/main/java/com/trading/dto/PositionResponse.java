@@ -0,0 +1,17 @@
+package com.trading.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class PositionResponse {
+    private String symbol;
+    private BigDecimal quantity;
+    private BigDecimal averageCost;
+    private BigDecimal cost;
+    private BigDecimal realizedPnl;
+    // Best bid; null, like unrealizedPnl, while the pair has no quote yet
+    private BigDecimal price;
+    private BigDecimal unrealizedPnl;
+}
@@ -0,0 +1,12 @@
+package com.trading.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TradePage {
+    private List<TradeResponse> trades;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
@@ -14,4 +14,7 @@ public class TradeResponse {
     private BigDecimal quantity;
     private BigDecimal total;
     private LocalDateTime timestamp;
+    // Set only on the response to the request that executed the trade
+    private Long quoteSequence;
+    private Long quoteAgeMs;
 }
@@ -0,0 +1,43 @@
+package com.trading.engine;
+
+import com.trading.model.Wallet;
+import com.trading.util.FixedPoint;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One user's balances as fixed-point longs. Only ever touched by the shard thread that
+ * owns the user, so nothing here is synchronized.
+ */
+final class Account {
+    private final Long userId;
+    private final Map<String, Long> balances = new LinkedHashMap<>();
+    private final Map<String, Long> walletIds = new HashMap<>();
+
+    Account(Long userId, List<Wallet> wallets) {
+        this.userId = userId;
+        for (Wallet wallet : wallets) {
+            balances.put(wallet.getCurrency(), FixedPoint.fromBigDecimal(wallet.getBalance()));
+            walletIds.put(wallet.getCurrency(), wallet.getId());
+        }
+    }
+
+    long balance(String currency) {
+        return balances.getOrDefault(currency, 0L);
+    }
+
+    void set(String currency, long balance) {
+        balances.put(currency, balance);
+    }
+
+    List<Wallet> toWallets() {
+        List<Wallet> wallets = new ArrayList<>(balances.size());
+        balances.forEach((currency, balance) -> wallets.add(
+                new Wallet(walletIds.get(currency), userId, currency, FixedPoint.toBigDecimal(balance))));
+        return wallets;
+    }
+}
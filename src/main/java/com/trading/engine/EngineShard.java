@@ -0,0 +1,41 @@
+package com.trading.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A single thread that owns the accounts of every user hashed to it. Tasks for one user
+ * run strictly in submission order, so balances need no locks.
+ */
+final class EngineShard {
+    private final Map<Long, Account> accounts = new HashMap<>();
+    private final Function<Long, Account> loader;
+    private final ExecutorService executor;
+
+    EngineShard(int index, Function<Long, Account> loader) {
+        this.loader = loader;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "settlement-shard-" + index);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs {@code task} on the shard thread against the user's account, loading it on
+     * first use. A failed load is not cached, so the next task retries it.
+     */
+    <T> CompletableFuture<T> submit(Long userId, Function<Account, T> task) {
+        return CompletableFuture.supplyAsync(() -> task.apply(accounts.computeIfAbsent(userId, loader)), executor);
+    }
+
+    boolean shutdown(long timeoutMs) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,267 @@
+package com.trading.engine;
+
+import com.trading.model.Trade;
+import com.trading.repository.PositionLedger;
+import com.trading.util.FixedPoint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind journal that records settled trades in the {@code trades} and
+ * {@code wallet} tables and the {@link PositionLedger}. Shards only enqueue; a single
+ * background thread writes each batch of trades, plus the final balance of every wallet
+ * the batch touched and the positions it changed, in one transaction once
+ * {@code batch-size} entries are waiting or {@code flush-interval-ms} has passed.
+ *
+ * <p>Unlike price persistence nothing is ever dropped: when the queue is full the
+ * settling shard waits, which pushes back on the callers submitting trades.
+ */
+@Component
+@Slf4j
+public class JdbcTradeJournal implements TradeJournal, MeterBinder {
+    // Keyed on id so a trade replayed from the write-ahead journal is never inserted twice
+    static final String UPSERT_TRADE_SQL = "MERGE INTO trades "
+            + "(id, user_id, symbol, type, price, quantity, total, timestamp) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String UPSERT_WALLET_SQL = "MERGE INTO wallet (user_id, currency, balance) "
+            + "KEY (user_id, currency) VALUES (?, ?, ?)";
+
+    // Offered by stop() to wake a writer blocked on an empty queue; never written
+    private static final SettledTrade WAKE_UP = new SettledTrade(null, null, 0, null, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PositionLedger positionLedger;
+    private final BlockingQueue<SettledTrade> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutMs;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public JdbcTradeJournal(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            PositionLedger positionLedger,
+                            @Value("${trade.journal.queue-capacity:10000}") int queueCapacity,
+                            @Value("${trade.journal.batch-size:500}") int batchSize,
+                            @Value("${trade.journal.flush-interval-ms:50}") long flushIntervalMs,
+                            @Value("${trade.journal.shutdown-timeout-ms:5000}") long shutdownTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.positionLedger = positionLedger;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    /**
+     * Starts the writer thread; a no-op if it is already running. Nothing starts it in
+     * database execution mode, where the journal is never written to.
+     */
+    public synchronized void start() {
+        if (writerThread != null) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::run, "trade-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Blocks while the queue is full rather than losing a settled trade. The returned
+     * future is already complete: on its own this journal is only as durable as its queue.
+     */
+    @Override
+    public CompletableFuture<Void> append(SettledTrade settled) {
+        try {
+            queue.put(settled);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while journaling trade " + settled.trade().getId(), e);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Nothing to replay: the database is this journal's only record. Starts the writer.
+     */
+    @Override
+    public void recover() {
+        start();
+    }
+
+    @Override
+    public long lastTradeId() {
+        Long last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM trades", Long.class);
+        return last != null ? last : 0L;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        queue.offer(WAKE_UP);
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Trade journal writer did not finish within {} ms, {} trades not persisted",
+                    shutdownTimeoutMs, queue.size());
+        } else {
+            log.info("Trade journal writer stopped, {} trades written in {} batches", written.sum(), batches.sum());
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Writes replayed trades straight away on the calling thread; failures propagate.
+     */
+    void replay(List<SettledTrade> batch) {
+        writeBatch(batch);
+    }
+
+    /**
+     * Overwrites the given wallets with snapshot balances, on the calling thread.
+     */
+    void restoreBalances(Map<WalletKey, Long> balances) {
+        List<Object[]> rows = new ArrayList<>(balances.size());
+        balances.forEach((key, balance) -> rows.add(
+                new Object[]{key.userId(), key.currency(), FixedPoint.toBigDecimal(balance)}));
+        jdbcTemplate.batchUpdate(UPSERT_WALLET_SQL, rows);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trade.journal.queue.size", queue, BlockingQueue::size)
+                .description("Settled trades waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("trade.journal.written", written, LongAdder::sum)
+                .description("Settled trades inserted into the trades table")
+                .register(registry);
+        FunctionCounter.builder("trade.journal.failed", failed, LongAdder::sum)
+                .description("Settled trades lost to failed batch writes")
+                .register(registry);
+        FunctionCounter.builder("trade.journal.batches", batches, LongAdder::sum)
+                .description("Journal batches committed")
+                .register(registry);
+    }
+
+    private void run() {
+        // Keep draining after stop() until the queue is empty so nothing settled is lost
+        while (running || !queue.isEmpty()) {
+            try {
+                List<SettledTrade> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Trade journal writer interrupted, {} trades not persisted", queue.size());
+                return;
+            }
+        }
+    }
+
+    private List<SettledTrade> nextBatch() throws InterruptedException {
+        List<SettledTrade> batch = new ArrayList<>(batchSize);
+        SettledTrade first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            // Once stopping, write full batches of whatever is queued but never wait for more
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                break;
+            }
+            SettledTrade next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        batch.removeIf(settled -> settled == WAKE_UP);
+        return batch;
+    }
+
+    private void write(List<SettledTrade> batch) {
+        try {
+            writeBatch(batch);
+            written.add(batch.size());
+            batches.increment();
+            log.debug("Journaled {} trades", batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.error("Failed to journal batch of {} trades: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void writeBatch(List<SettledTrade> batch) {
+        // Balances are absolute and appended in settlement order, so only the last one per wallet matters
+        Map<WalletKey, Object[]> balances = new LinkedHashMap<>();
+        for (SettledTrade settled : batch) {
+            long userId = settled.trade().getUserId();
+            balances.put(new WalletKey(userId, settled.debitCurrency()), new Object[]{
+                    userId, settled.debitCurrency(), FixedPoint.toBigDecimal(settled.debitBalance())});
+            balances.put(new WalletKey(userId, settled.creditCurrency()), new Object[]{
+                    userId, settled.creditCurrency(), FixedPoint.toBigDecimal(settled.creditBalance())});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPSERT_TRADE_SQL, batch, batch.size(), (statement, settled) -> {
+                Trade trade = settled.trade();
+                statement.setLong(1, trade.getId());
+                statement.setLong(2, trade.getUserId());
+                statement.setString(3, trade.getSymbol());
+                statement.setString(4, trade.getType());
+                statement.setBigDecimal(5, trade.getPrice());
+                statement.setBigDecimal(6, trade.getQuantity());
+                statement.setBigDecimal(7, trade.getTotal());
+                statement.setTimestamp(8, Timestamp.valueOf(trade.getTimestamp()));
+            });
+            jdbcTemplate.batchUpdate(UPSERT_WALLET_SQL, new ArrayList<>(balances.values()));
+            // Replayed trades already applied to the ledger are skipped there by id
+            positionLedger.recordJournaled(batch.stream().map(SettledTrade::trade).toList());
+        });
+    }
+}
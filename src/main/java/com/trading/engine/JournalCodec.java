@@ -0,0 +1,73 @@
+package com.trading.engine;
+
+import com.trading.model.Trade;
+import com.trading.util.FixedPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary layout of one journal entry. Amounts are written as fixed-point longs, so a
+ * replayed trade carries the same 8-decimal values the {@code trades} table would hold.
+ */
+final class JournalCodec {
+    // Generous upper bound for one entry: six longs, one int and five short strings
+    static final int MAX_ENTRY_BYTES = 512;
+
+    private JournalCodec() {
+    }
+
+    record Entry(long sequence, SettledTrade settled) {
+    }
+
+    static void encode(long sequence, SettledTrade settled, ByteBuffer out) {
+        Trade trade = settled.trade();
+        out.putLong(sequence);
+        out.putLong(trade.getId());
+        out.putLong(trade.getUserId());
+        putString(out, trade.getSymbol());
+        putString(out, trade.getType());
+        out.putLong(FixedPoint.fromBigDecimal(trade.getPrice()));
+        out.putLong(FixedPoint.fromBigDecimal(trade.getQuantity()));
+        out.putLong(FixedPoint.fromBigDecimal(trade.getTotal()));
+        out.putLong(trade.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+        out.putInt(trade.getTimestamp().getNano());
+        putString(out, settled.debitCurrency());
+        out.putLong(settled.debitBalance());
+        putString(out, settled.creditCurrency());
+        out.putLong(settled.creditBalance());
+    }
+
+    static Entry decode(ByteBuffer in) {
+        long sequence = in.getLong();
+        Trade trade = new Trade();
+        trade.setId(in.getLong());
+        trade.setUserId(in.getLong());
+        trade.setSymbol(getString(in));
+        trade.setType(getString(in));
+        trade.setPrice(FixedPoint.toBigDecimal(in.getLong()));
+        trade.setQuantity(FixedPoint.toBigDecimal(in.getLong()));
+        trade.setTotal(FixedPoint.toBigDecimal(in.getLong()));
+        long epochSecond = in.getLong();
+        trade.setTimestamp(LocalDateTime.ofEpochSecond(epochSecond, in.getInt(), ZoneOffset.UTC));
+        String debitCurrency = getString(in);
+        long debitBalance = in.getLong();
+        String creditCurrency = getString(in);
+        long creditBalance = in.getLong();
+        return new Entry(sequence, new SettledTrade(trade, debitCurrency, debitBalance, creditCurrency, creditBalance));
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        out.put((byte) bytes.length);
+        out.put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.get() & 0xFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
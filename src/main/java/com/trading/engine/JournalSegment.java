@@ -0,0 +1,115 @@
+package com.trading.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size, memory-mapped journal file. Each record is
+ * {@code [int length][int crc32c][payload]}; a zero length marks the end of the data.
+ * A record whose checksum does not match is a torn write from a crash and ends the
+ * segment as well.
+ */
+final class JournalSegment {
+    static final int HEADER_BYTES = 8;
+
+    private final Path path;
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+
+    private JournalSegment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment open(Path path, long firstSequence, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int mappedSize = (int) Math.max(size, channel.size());
+        return new JournalSegment(path, firstSequence, channel,
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize));
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    int position() {
+        return buffer.position();
+    }
+
+    /**
+     * Reads every intact record from the start, leaves the write position just after the
+     * last one and zeroes whatever a crash left behind it.
+     */
+    void recover(Consumer<ByteBuffer> onRecord) {
+        buffer.position(0);
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                break;
+            }
+            onRecord.accept(payload);
+            buffer.position(buffer.position() + length);
+        }
+        int end = buffer.position();
+        for (int i = end; i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) {
+                // Only a torn tail can be non-zero here; clear it so a later shorter record cannot run into it
+                for (int j = end; j < buffer.limit(); j++) {
+                    buffer.put(j, (byte) 0);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return false if the record does not fit, in which case nothing was written
+     */
+    boolean append(ByteBuffer payload) {
+        int length = payload.remaining();
+        if (buffer.remaining() < HEADER_BYTES + length) {
+            return false;
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        buffer.putInt(length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        return true;
+    }
+
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+}
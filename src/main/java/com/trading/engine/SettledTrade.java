@@ -0,0 +1,12 @@
+package com.trading.engine;
+
+import com.trading.model.Trade;
+
+/**
+ * A trade accepted by the engine together with the resulting balances of both legs,
+ * as fixed-point longs. Balances are absolute, so replaying an entry twice is harmless.
+ */
+public record SettledTrade(Trade trade,
+                           String debitCurrency, long debitBalance,
+                           String creditCurrency, long creditBalance) {
+}
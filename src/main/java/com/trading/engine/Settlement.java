@@ -0,0 +1,14 @@
+package com.trading.engine;
+
+import com.trading.model.Trade;
+
+import java.math.BigDecimal;
+
+/**
+ * One trade to settle: debit {@code debitAmount} of one currency, credit
+ * {@code creditAmount} of another, for the trade's user.
+ */
+public record Settlement(Trade trade,
+                         String debitCurrency, BigDecimal debitAmount,
+                         String creditCurrency, BigDecimal creditAmount) {
+}
@@ -0,0 +1,251 @@
+package com.trading.engine;
+
+import com.trading.exception.InsufficientBalanceException;
+import com.trading.exception.TradeOutcomeUnknownException;
+import com.trading.model.Trade;
+import com.trading.model.Wallet;
+import com.trading.repository.WalletRepository;
+import com.trading.util.FixedPoint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-memory settlement for {@code trade.execution.mode=engine}. Users are hashed onto a
+ * fixed set of {@link EngineShard}s; each shard thread is the only writer of its users'
+ * balances, so trades settle without database round-trips or locks and throughput grows
+ * with the number of shards.
+ *
+ * <p>A user's wallets are loaded from the database the first time the user trades. Every
+ * accepted trade is appended to the {@link TradeJournal} before the balances change, and
+ * the journal is what makes it durable. The balances change without waiting for that, so
+ * a trade whose journal force fails has still taken effect: its future fails with
+ * {@link TradeOutcomeUnknownException} rather than a plain error, and the journal refuses
+ * every later append. Balance changes made through
+ * {@code WalletService.updateBalance} while the engine is running are not seen by it.
+ */
+@Component
+@Slf4j
+public class SettlementEngine implements MeterBinder {
+    public static final String ENGINE_MODE = "engine";
+
+    private final WalletRepository walletRepository;
+    private final TradeJournal journal;
+    private final boolean enabled;
+    private final int shardCount;
+    private final long shutdownTimeoutMs;
+    private final AtomicLong tradeIds = new AtomicLong();
+
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private EngineShard[] shards = new EngineShard[0];
+
+    public SettlementEngine(WalletRepository walletRepository, TradeJournal journal,
+                            @Value("${trade.execution.mode:database}") String executionMode,
+                            @Value("${trade.engine.shards:0}") int shards,
+                            @Value("${trade.engine.shutdown-timeout-ms:5000}") long shutdownTimeoutMs) {
+        this.walletRepository = walletRepository;
+        this.journal = journal;
+        this.enabled = ENGINE_MODE.equalsIgnoreCase(executionMode);
+        this.shardCount = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        journal.recover();
+        tradeIds.set(journal.lastTradeId());
+        EngineShard[] started = new EngineShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            started[i] = new EngineShard(i, userId -> new Account(userId, walletRepository.findByUserId(userId)));
+        }
+        shards = started;
+        log.info("Settlement engine started with {} shards, next trade id {}", shardCount, tradeIds.get() + 1);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (EngineShard shard : shards) {
+            try {
+                if (!shard.shutdown(shutdownTimeoutMs)) {
+                    log.warn("Settlement shard did not drain within {} ms", shutdownTimeoutMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Debits one currency and credits another for the trade's user on the user's shard.
+     * The returned future carries the trade with its id assigned once the journal has made
+     * it durable, or fails with {@link InsufficientBalanceException} leaving the balances
+     * untouched. If the journal cannot make it durable the future fails with
+     * {@link TradeOutcomeUnknownException}: the balances have changed and the trade may
+     * still reach the history, so it must not be retried blindly. The shard moves on to
+     * the next trade without waiting for durability.
+     */
+    public CompletableFuture<Trade> submit(Trade trade, String debitCurrency, BigDecimal debitAmount,
+                                           String creditCurrency, BigDecimal creditAmount) {
+        long debit = FixedPoint.fromBigDecimal(debitAmount);
+        long credit = FixedPoint.fromBigDecimal(creditAmount);
+        return shardFor(trade.getUserId()).submit(trade.getUserId(),
+                        account -> settle(account, trade, debitCurrency, debit, creditCurrency, credit))
+                .thenCompose(Function.identity());
+    }
+
+    public Trade settle(Trade trade, String debitCurrency, BigDecimal debitAmount,
+                        String creditCurrency, BigDecimal creditAmount) {
+        return join(submit(trade, debitCurrency, debitAmount, creditCurrency, creditAmount));
+    }
+
+    /**
+     * Settles a batch for one user in a single shard task, so no other trade of the user
+     * can interleave. In atomic mode the batch is checked against the balances first and,
+     * if any trade would overdraw, that trade fails with {@link InsufficientBalanceException}
+     * and every other future is cancelled without touching the balances. Otherwise each
+     * future settles or fails on its own, as with {@link #submit}.
+     */
+    public List<CompletableFuture<Trade>> submitAll(Long userId, List<Settlement> settlements, boolean atomic) {
+        return join(shardFor(userId).submit(userId, account -> settleAll(account, settlements, atomic)));
+    }
+
+    /**
+     * Read on the owning shard, so the result includes every trade settled before the call.
+     */
+    public List<Wallet> getWallets(Long userId) {
+        return join(shardFor(userId).submit(userId, Account::toWallets));
+    }
+
+    public long getSettledCount() {
+        return settled.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("trade.engine.settled", settled, LongAdder::sum)
+                .description("Trades settled in memory by the engine")
+                .register(registry);
+        FunctionCounter.builder("trade.engine.rejected", rejected, LongAdder::sum)
+                .description("Trades rejected by the engine for insufficient balance")
+                .register(registry);
+    }
+
+    private List<CompletableFuture<Trade>> settleAll(Account account, List<Settlement> settlements, boolean atomic) {
+        List<CompletableFuture<Trade>> results = new ArrayList<>(settlements.size());
+        int shortfall = atomic ? firstShortfall(account, settlements) : -1;
+        for (int i = 0; i < settlements.size(); i++) {
+            Settlement settlement = settlements.get(i);
+            if (shortfall >= 0) {
+                CompletableFuture<Trade> skipped = new CompletableFuture<>();
+                if (i == shortfall) {
+                    rejected.increment();
+                    skipped.completeExceptionally(new InsufficientBalanceException(
+                            "Insufficient " + settlement.debitCurrency() + " balance"));
+                } else {
+                    skipped.cancel(false);
+                }
+                results.add(skipped);
+                continue;
+            }
+            try {
+                results.add(settle(account, settlement.trade(),
+                        settlement.debitCurrency(), FixedPoint.fromBigDecimal(settlement.debitAmount()),
+                        settlement.creditCurrency(), FixedPoint.fromBigDecimal(settlement.creditAmount())));
+            } catch (RuntimeException e) {
+                results.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return results;
+    }
+
+    // Index of the first settlement the running balances could not cover, or -1
+    private static int firstShortfall(Account account, List<Settlement> settlements) {
+        Map<String, Long> running = new HashMap<>();
+        for (int i = 0; i < settlements.size(); i++) {
+            Settlement settlement = settlements.get(i);
+            long debitBalance = running.computeIfAbsent(settlement.debitCurrency(), account::balance)
+                    - FixedPoint.fromBigDecimal(settlement.debitAmount());
+            if (debitBalance < 0) {
+                return i;
+            }
+            running.put(settlement.debitCurrency(), debitBalance);
+            running.put(settlement.creditCurrency(), running.computeIfAbsent(settlement.creditCurrency(), account::balance)
+                    + FixedPoint.fromBigDecimal(settlement.creditAmount()));
+        }
+        return -1;
+    }
+
+    private CompletableFuture<Trade> settle(Account account, Trade trade, String debitCurrency, long debit,
+                                            String creditCurrency, long credit) {
+        long debitBalance = account.balance(debitCurrency) - debit;
+        if (debitBalance < 0) {
+            rejected.increment();
+            throw new InsufficientBalanceException("Insufficient " + debitCurrency + " balance");
+        }
+        long creditBalance = account.balance(creditCurrency) + credit;
+
+        trade.setId(tradeIds.incrementAndGet());
+        // Journal first: if the append fails the account is left as it was
+        CompletableFuture<Void> durable =
+                journal.append(new SettledTrade(trade, debitCurrency, debitBalance, creditCurrency, creditBalance));
+        account.set(debitCurrency, debitBalance);
+        account.set(creditCurrency, creditBalance);
+        settled.increment();
+        return durable.handle((ignored, failure) -> {
+            if (failure != null) {
+                throw new TradeOutcomeUnknownException("Trade " + trade.getId()
+                        + " was settled but could not be made durable; check the trade history before retrying",
+                        trade.getId());
+            }
+            return trade;
+        });
+    }
+
+    private EngineShard shardFor(Long userId) {
+        if (!enabled) {
+            throw new IllegalStateException("Settlement engine is disabled, set trade.execution.mode=engine");
+        }
+        return shards[Math.floorMod(userId.hashCode(), shards.length)];
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
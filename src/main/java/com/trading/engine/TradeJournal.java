@@ -0,0 +1,28 @@
+package com.trading.engine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where the settlement engine records what it has accepted. Appends from one shard
+ * arrive in settlement order and must be kept in that order.
+ */
+public interface TradeJournal {
+
+    /**
+     * Records the trade and returns a future that completes once the entry is durable.
+     * The caller must not wait on it on a shard thread.
+     */
+    CompletableFuture<Void> append(SettledTrade settled);
+
+    /**
+     * Highest trade id already recorded, so the engine can continue the sequence.
+     */
+    long lastTradeId();
+
+    /**
+     * Called once before the engine starts, to bring the database back in line with
+     * anything recorded but not yet applied.
+     */
+    default void recover() {
+    }
+}
@@ -0,0 +1,490 @@
+package com.trading.engine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead journal in front of {@link JdbcTradeJournal}. Every settled trade is
+ * appended to a memory-mapped segment file before it is queued for the database, and
+ * its future completes once a background thread has forced the segment to disk. The
+ * force covers every append that arrived while the previous one ran, so under load
+ * many trades share one fsync (group commit).
+ *
+ * <p>A snapshot of every wallet balance the journal has seen is written every
+ * {@code snapshot-interval-ms}, once the database has caught up with the journal; the
+ * segments it covers are then deleted. On startup the latest snapshot is restored into
+ * the {@code wallet} table and the journal tail after it is replayed into the
+ * {@code trades}, {@code wallet} and {@code positions} tables before the engine takes any
+ * trade. Trades older than the snapshot must therefore survive in the database, so with
+ * an in-memory datasource ({@code jdbc:h2:mem:}) no snapshot is taken, every segment is
+ * kept and the whole journal is replayed on startup; replay is idempotent, so this
+ * rebuilds the trade history and positions as well as the balances.
+ *
+ * <p>If a force fails the journal fails for good: every append still waiting fails, and
+ * later appends throw before the engine changes any balance, until a restart recovers
+ * whatever reached the disk.
+ *
+ * <p>With {@code fsync=false} appends complete immediately: the mapped pages survive a
+ * process crash but not a power loss.
+ */
+@Component
+@Primary
+@Slf4j
+public class WalTradeJournal implements TradeJournal, MeterBinder {
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String IN_MEMORY_URL = "jdbc:h2:mem:";
+    private static final int REPLAY_BATCH_SIZE = 1000;
+    private static final CompletableFuture<Void> DURABLE = CompletableFuture.completedFuture(null);
+
+    private final JdbcTradeJournal projection;
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final long snapshotTimeoutMs;
+    // False when the database does not outlive the process, so the journal is the only copy
+    private final boolean databaseDurable;
+
+    private final Object lock = new Object();
+    private final ByteBuffer scratch = ByteBuffer.allocate(JournalCodec.MAX_ENTRY_BYTES);
+    private final Map<WalletKey, Long> balances = new HashMap<>();
+    private final Deque<PendingAppend> pending = new ArrayDeque<>();
+    private final List<Path> closedSegments = new ArrayList<>();
+    // Rolled segments whose unforced tail the flusher still has to force before closing them
+    private final List<RetiredSegment> retiring = new ArrayList<>();
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder forces = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+
+    // Guarded by lock
+    private JournalSegment segment;
+    private int forcedPosition;
+    private long sequence;
+    private long lastTradeId;
+    private long appendedSinceOpen;
+    private Throwable failure;
+
+    private volatile boolean open;
+    private long projectionBaseline;
+    private long lastSnapshotSequence;
+    private Thread flusherThread;
+
+    private record PendingAppend(long sequence, CompletableFuture<Void> future) {
+    }
+
+    private record RetiredSegment(JournalSegment segment, int from, int to) {
+    }
+
+    @Autowired
+    public WalTradeJournal(JdbcTradeJournal projection,
+                           @Value("${trade.journal.directory:data/journal}") String directory,
+                           @Value("${trade.journal.segment-bytes:67108864}") int segmentBytes,
+                           @Value("${trade.journal.fsync:true}") boolean fsync,
+                           @Value("${trade.journal.snapshot-timeout-ms:10000}") long snapshotTimeoutMs,
+                           @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this(projection, directory, segmentBytes, fsync, snapshotTimeoutMs, !datasourceUrl.startsWith(IN_MEMORY_URL));
+    }
+
+    WalTradeJournal(JdbcTradeJournal projection, String directory, int segmentBytes, boolean fsync,
+                    long snapshotTimeoutMs, boolean databaseDurable) {
+        this.projection = projection;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.snapshotTimeoutMs = snapshotTimeoutMs;
+        this.databaseDurable = databaseDurable;
+    }
+
+    /**
+     * Loads the latest snapshot, replays the journal tail into the database and opens the
+     * last segment for appending. Without a durable database every segment is replayed,
+     * not just the tail.
+     */
+    @Override
+    public void recover() {
+        long startNanos = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            WalletSnapshot snapshot = WalletSnapshot.latest(directory).orElse(WalletSnapshot.empty());
+            synchronized (lock) {
+                balances.putAll(snapshot.balances());
+                sequence = snapshot.sequence();
+                lastTradeId = snapshot.lastTradeId();
+                lastSnapshotSequence = snapshot.sequence();
+            }
+            if (!snapshot.balances().isEmpty()) {
+                projection.restoreBalances(snapshot.balances());
+            }
+            long replayAfter = databaseDurable ? snapshot.sequence() : 0;
+            if (!databaseDurable) {
+                log.info("Database is in memory, keeping every trade journal segment and replaying it in full");
+            }
+
+            long replayed = 0;
+            List<Path> segments = listSegments();
+            for (int i = 0; i < segments.size(); i++) {
+                Path path = segments.get(i);
+                JournalSegment recovered = JournalSegment.open(path, firstSequence(path), segmentBytes);
+                replayed += replay(recovered, replayAfter);
+                if (i == segments.size() - 1) {
+                    segment = recovered;
+                } else {
+                    closedSegments.add(path);
+                    recovered.close();
+                }
+            }
+            synchronized (lock) {
+                if (segment == null) {
+                    segment = JournalSegment.open(segmentPath(sequence + 1), sequence + 1, segmentBytes);
+                }
+                forcedPosition = segment.position();
+            }
+
+            // Replay wrote to the database directly; from here on entries reach it through the writer
+            projection.start();
+            projectionBaseline = projection.getWrittenCount();
+            open = true;
+            if (fsync) {
+                flusherThread = new Thread(this::runFlusher, "trade-journal-fsync");
+                flusherThread.setDaemon(true);
+                flusherThread.start();
+            }
+            log.info("Trade journal recovered from snapshot at entry {} plus {} replayed entries in {} ms",
+                    snapshot.sequence(), replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover trade journal in " + directory, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> append(SettledTrade settled) {
+        CompletableFuture<Void> durable = DURABLE;
+        synchronized (lock) {
+            if (!open) {
+                throw new IllegalStateException("Trade journal is not open");
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Trade journal failed to force to disk, restart to recover: "
+                        + failure.getMessage(), failure);
+            }
+            long entrySequence = sequence + 1;
+            scratch.clear();
+            JournalCodec.encode(entrySequence, settled, scratch);
+            scratch.flip();
+            if (!segment.append(scratch)) {
+                roll(entrySequence);
+                scratch.rewind();
+                if (!segment.append(scratch)) {
+                    throw new IllegalStateException("Journal entry does not fit in an empty segment");
+                }
+            }
+            sequence = entrySequence;
+            appendedSinceOpen++;
+            track(settled);
+            if (fsync) {
+                durable = new CompletableFuture<>();
+                pending.add(new PendingAppend(entrySequence, durable));
+                lock.notifyAll();
+            }
+        }
+        appended.increment();
+        projection.append(settled);
+        return durable;
+    }
+
+    @Override
+    public long lastTradeId() {
+        long journaled;
+        synchronized (lock) {
+            journaled = lastTradeId;
+        }
+        return Math.max(journaled, projection.lastTradeId());
+    }
+
+    /**
+     * Writes a snapshot covering everything journaled so far and deletes the segments and
+     * snapshots it supersedes. Skipped if nothing was appended since the last one, if the
+     * journal has failed, or if the database does not catch up within
+     * {@code snapshot-timeout-ms}. Never taken without a durable database, whose history
+     * only the journal holds.
+     */
+    @Scheduled(fixedDelayString = "${trade.journal.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        if (!open || !databaseDurable) {
+            return;
+        }
+        WalletSnapshot snapshot;
+        long appendedAtRoll;
+        List<Path> covered;
+        synchronized (lock) {
+            if (sequence == lastSnapshotSequence || failure != null) {
+                return;
+            }
+            // Start a fresh segment so every covered entry sits in a file that can be deleted whole
+            roll(sequence + 1);
+            snapshot = new WalletSnapshot(sequence, lastTradeId, new HashMap<>(balances));
+            appendedAtRoll = appendedSinceOpen;
+            covered = new ArrayList<>(closedSegments);
+        }
+
+        if (!awaitProjection(appendedAtRoll)) {
+            log.warn("Database has not caught up with trade journal entry {}, keeping segments", snapshot.sequence());
+            return;
+        }
+        try {
+            snapshot.write(directory);
+            for (Path path : covered) {
+                Files.deleteIfExists(path);
+            }
+            synchronized (lock) {
+                closedSegments.removeAll(covered);
+            }
+            WalletSnapshot.deleteOlderThan(directory, snapshot.sequence());
+            lastSnapshotSequence = snapshot.sequence();
+            snapshots.increment();
+            log.info("Wrote wallet snapshot at trade journal entry {} with {} balances",
+                    snapshot.sequence(), snapshot.balances().size());
+        } catch (IOException e) {
+            log.error("Failed to write wallet snapshot: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (lock) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            lock.notifyAll();
+        }
+        try {
+            if (flusherThread != null) {
+                flusherThread.join();
+            }
+            synchronized (lock) {
+                for (RetiredSegment retired : retiring) {
+                    if (failure == null) {
+                        retired.segment().force(retired.from(), retired.to());
+                    }
+                    closeQuietly(retired.segment());
+                }
+                retiring.clear();
+                if (failure == null) {
+                    segment.force(forcedPosition, segment.position());
+                }
+                segment.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Failed to close trade journal segment: {}", e.getMessage());
+        }
+    }
+
+    public long getAppendedCount() {
+        return appended.sum();
+    }
+
+    public long getForceCount() {
+        return forces.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("trade.wal.appended", appended, LongAdder::sum)
+                .description("Settled trades appended to the write-ahead journal")
+                .register(registry);
+        FunctionCounter.builder("trade.wal.fsyncs", forces, LongAdder::sum)
+                .description("Journal forces to disk, each covering every append since the previous one")
+                .register(registry);
+        FunctionCounter.builder("trade.wal.snapshots", snapshots, LongAdder::sum)
+                .description("Wallet snapshots written")
+                .register(registry);
+    }
+
+    private long replay(JournalSegment recovered, long afterSequence) {
+        List<SettledTrade> batch = new ArrayList<>(REPLAY_BATCH_SIZE);
+        long[] replayed = {0};
+        recovered.recover(payload -> {
+            JournalCodec.Entry entry = JournalCodec.decode(payload);
+            if (entry.sequence() <= afterSequence) {
+                return;
+            }
+            synchronized (lock) {
+                sequence = Math.max(sequence, entry.sequence());
+                track(entry.settled());
+            }
+            batch.add(entry.settled());
+            if (batch.size() == REPLAY_BATCH_SIZE) {
+                projection.replay(batch);
+                replayed[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            projection.replay(batch);
+            replayed[0] += batch.size();
+        }
+        return replayed[0];
+    }
+
+    private void track(SettledTrade settled) {
+        long userId = settled.trade().getUserId();
+        balances.put(new WalletKey(userId, settled.debitCurrency()), settled.debitBalance());
+        balances.put(new WalletKey(userId, settled.creditCurrency()), settled.creditBalance());
+        lastTradeId = Math.max(lastTradeId, settled.trade().getId());
+    }
+
+    /**
+     * Caller holds lock. Only swaps in a new segment: the old one's unforced tail is left
+     * to the flusher, which forces it before completing the appends it holds, so shards
+     * never wait on a whole-segment force here.
+     */
+    private void roll(long nextSequence) {
+        if (segment.position() == 0) {
+            return;
+        }
+        try {
+            closedSegments.add(segment.path());
+            if (fsync) {
+                retiring.add(new RetiredSegment(segment, forcedPosition, segment.position()));
+                lock.notifyAll();
+            } else {
+                segment.close();
+            }
+            segment = JournalSegment.open(segmentPath(nextSequence), nextSequence, segmentBytes);
+            forcedPosition = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll trade journal segment", e);
+        }
+    }
+
+    private void runFlusher() {
+        List<PendingAppend> done = new ArrayList<>();
+        List<RetiredSegment> retired = new ArrayList<>();
+        while (true) {
+            JournalSegment target;
+            int from;
+            int to;
+            long upTo;
+            synchronized (lock) {
+                while (open && pending.isEmpty() && retiring.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pending.isEmpty() && retiring.isEmpty()) {
+                    return;
+                }
+                retired.addAll(retiring);
+                retiring.clear();
+                target = segment;
+                from = forcedPosition;
+                to = segment.position();
+                upTo = sequence;
+                forcedPosition = to;
+            }
+
+            try {
+                // Outside the lock: shards keep appending behind these ranges while they are forced.
+                // Rolled segments hold the older entries, so they go first
+                for (RetiredSegment rolled : retired) {
+                    rolled.segment().force(rolled.from(), rolled.to());
+                    closeQuietly(rolled.segment());
+                }
+                target.force(from, to);
+                forces.increment();
+            } catch (RuntimeException e) {
+                log.error("Failed to force trade journal to disk, refusing further appends: {}", e.getMessage());
+                synchronized (lock) {
+                    failure = e;
+                    // Nothing after a failed force can be confirmed, so every waiting append fails
+                    done.addAll(pending);
+                    pending.clear();
+                }
+                done.forEach(append -> append.future().completeExceptionally(e));
+                retired.forEach(rolled -> closeQuietly(rolled.segment()));
+                return;
+            }
+
+            synchronized (lock) {
+                while (!pending.isEmpty() && pending.peek().sequence() <= upTo) {
+                    done.add(pending.poll());
+                }
+            }
+            done.forEach(append -> append.future().complete(null));
+            done.clear();
+            retired.clear();
+        }
+    }
+
+    private static void closeQuietly(JournalSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Failed to close trade journal segment {}: {}", segment.path(), e.getMessage());
+        }
+    }
+
+    private boolean awaitProjection(long entries) {
+        long deadline = System.currentTimeMillis() + snapshotTimeoutMs;
+        while (projection.getWrittenCount() - projectionBaseline < entries) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
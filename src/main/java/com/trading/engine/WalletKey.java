@@ -0,0 +1,4 @@
+package com.trading.engine;
+
+record WalletKey(long userId, String currency) {
+}
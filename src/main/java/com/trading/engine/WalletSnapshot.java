@@ -0,0 +1,111 @@
+package com.trading.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Every wallet balance the engine has changed, as of journal entry {@code sequence}.
+ * Written to a temporary file and renamed into place, with a trailing checksum, so a
+ * crash mid-write leaves the previous snapshot as the latest readable one.
+ */
+record WalletSnapshot(long sequence, long lastTradeId, Map<WalletKey, Long> balances) {
+    private static final int MAGIC = 0x57534E31;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    static WalletSnapshot empty() {
+        return new WalletSnapshot(0, 0, new HashMap<>());
+    }
+
+    Path write(Path directory) throws IOException {
+        Path target = directory.resolve(PREFIX + String.format("%020d", sequence) + SUFFIX);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(
+                    new CheckedOutputStream(new BufferedOutputStream(file), crc));
+            out.writeInt(MAGIC);
+            out.writeLong(sequence);
+            out.writeLong(lastTradeId);
+            out.writeInt(balances.size());
+            for (Map.Entry<WalletKey, Long> balance : balances.entrySet()) {
+                out.writeLong(balance.getKey().userId());
+                out.writeUTF(balance.getKey().currency());
+                out.writeLong(balance.getValue());
+            }
+            out.flush();
+            new DataOutputStream(file).writeInt((int) crc.getValue());
+            file.getFD().sync();
+        }
+        return Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static WalletSnapshot read(Path path) throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path))) {
+            CRC32C crc = new CRC32C();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a wallet snapshot: " + path);
+            }
+            long sequence = in.readLong();
+            long lastTradeId = in.readLong();
+            int count = in.readInt();
+            Map<WalletKey, Long> balances = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                balances.put(new WalletKey(in.readLong(), in.readUTF()), in.readLong());
+            }
+            int expected = (int) crc.getValue();
+            if (new DataInputStream(file).readInt() != expected) {
+                throw new IOException("Corrupt wallet snapshot: " + path);
+            }
+            return new WalletSnapshot(sequence, lastTradeId, balances);
+        }
+    }
+
+    /**
+     * The newest snapshot that reads back intact, or empty if there is none.
+     */
+    static Optional<WalletSnapshot> latest(Path directory) throws IOException {
+        for (Path path : list(directory).sorted((a, b) -> b.compareTo(a)).toList()) {
+            try {
+                return Optional.of(read(path));
+            } catch (IOException e) {
+                // Fall back to the one before
+            }
+        }
+        return Optional.empty();
+    }
+
+    static void deleteOlderThan(Path directory, long sequence) throws IOException {
+        for (Path path : list(directory).toList()) {
+            String name = path.getFileName().toString();
+            if (Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())) < sequence) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static Stream<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).toList().stream();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.trading.exception;
+
+public class StaleQuoteException extends RuntimeException {
+    public StaleQuoteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.trading.exception;
+
+public class TradeInProgressException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TradeInProgressException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
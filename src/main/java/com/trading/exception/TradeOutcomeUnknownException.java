@@ -0,0 +1,14 @@
+package com.trading.exception;
+
+public class TradeOutcomeUnknownException extends RuntimeException {
+    private final long tradeId;
+
+    public TradeOutcomeUnknownException(String message, long tradeId) {
+        super(message);
+        this.tradeId = tradeId;
+    }
+
+    public long getTradeId() {
+        return tradeId;
+    }
+}
@@ -0,0 +1,92 @@
+package com.trading.exchange;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.stream.ExchangeStream;
+import com.trading.stream.StreamSettings;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Binance combined {@code <symbol>@bookTicker} stream, subscribed through the URL for
+ * the configured pairs only. Messages are read token by token and prices are parsed
+ * straight into fixed-point longs, so the only per-tick allocation is the quote itself.
+ */
+public class BinanceBookTickerStream extends ExchangeStream {
+    private final String baseUrl;
+    private final Collection<String> symbols;
+    private final SymbolTable symbolTable;
+    private final JsonFactory jsonFactory;
+    private final Consumer<ExchangeQuote> sink;
+
+    public BinanceBookTickerStream(String baseUrl, Collection<String> symbols, ObjectMapper objectMapper,
+                                   Consumer<ExchangeQuote> sink, StreamSettings settings) {
+        super(BinanceExchangeAdapter.NAME, settings);
+        this.baseUrl = baseUrl;
+        this.symbols = symbols;
+        this.symbolTable = new SymbolTable(symbols);
+        this.jsonFactory = objectMapper.getFactory();
+        this.sink = sink;
+    }
+
+    @Override
+    protected URI uri() {
+        String streams = symbols.stream()
+                .map(symbol -> symbol.toLowerCase() + "@bookTicker")
+                .collect(Collectors.joining("/"));
+        return URI.create(baseUrl + "/stream?streams=" + streams);
+    }
+
+    @Override
+    protected void handleText(WebSocket webSocket, String message) throws Exception {
+        ExchangeQuote quote = parse(jsonFactory, symbolTable, message, System.currentTimeMillis());
+        if (quote != null) {
+            sink.accept(quote);
+        }
+    }
+
+    static ExchangeQuote parse(JsonFactory jsonFactory, SymbolTable symbolTable, String message,
+                               long receivedAt) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(message)) {
+            return parser.nextToken() == JsonToken.START_OBJECT
+                    ? readTicker(parser, symbolTable, receivedAt)
+                    : null;
+        }
+    }
+
+    private static ExchangeQuote readTicker(JsonParser parser, SymbolTable symbolTable,
+                                            long receivedAt) throws IOException {
+        String symbol = null;
+        long bid = 0;
+        long ask = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                // Combined streams wrap the payload in {"stream": ..., "data": ...}
+                case "data" -> {
+                    if (token == JsonToken.START_OBJECT) {
+                        return readTicker(parser, symbolTable, receivedAt);
+                    }
+                }
+                case "s" -> symbol = token == JsonToken.VALUE_STRING
+                        ? symbolTable.lookup(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())
+                        : null;
+                case "b" -> bid = JsonFixedPoint.read(parser);
+                case "a" -> ask = JsonFixedPoint.read(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        if (symbol == null || bid <= 0 || ask <= 0) {
+            return null;
+        }
+        return new ExchangeQuote(BinanceExchangeAdapter.NAME, symbol, bid, ask, receivedAt);
+    }
+}
@@ -0,0 +1,97 @@
+package com.trading.exchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.dto.BinanceResponse;
+import com.trading.exception.ExchangeConnectionException;
+import com.trading.stream.ExchangeStream;
+import com.trading.stream.StreamSettings;
+import com.trading.util.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BinanceExchangeAdapter implements ExchangeAdapter {
+    public static final String NAME = "BINANCE";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${binance.api.url:https://api.binance.com}")
+    private String baseUrl;
+
+    @Value("${binance.ws.url:wss://stream.binance.com:9443}")
+    private String wsUrl;
+
+    @Value("${price.fetch.binance.deadline-ms:3000}")
+    private long fetchDeadlineMs;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long getFetchDeadlineMs() {
+        return fetchDeadlineMs;
+    }
+
+    @Override
+    public List<ExchangeQuote> fetchQuotes(Collection<String> symbols) {
+        // Ask for the configured pairs only instead of the full ~2,000 symbol book
+        URI uri = UriComponentsBuilder.fromHttpUrl(baseUrl)
+                .path("/api/v3/ticker/bookTicker")
+                .queryParam("symbols", symbols.stream()
+                        .map(symbol -> "\"" + symbol + "\"")
+                        .collect(Collectors.joining(",", "[", "]")))
+                .encode()
+                .build()
+                .toUri();
+
+        log.debug("Fetching {} symbols from Binance URL: {}", symbols.size(), uri);
+        ResponseEntity<BinanceResponse[]> response;
+        try {
+            response = restTemplate.getForEntity(uri, BinanceResponse[].class);
+        } catch (RestClientException e) {
+            throw new ExchangeConnectionException("Failed to fetch Binance prices: " + e.getMessage(), e);
+        }
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new ExchangeConnectionException("Binance returned " + response.getStatusCode());
+        }
+
+        long receivedAt = System.currentTimeMillis();
+        List<ExchangeQuote> quotes = Arrays.stream(response.getBody())
+                .filter(ticker -> symbols.contains(ticker.getSymbol()))
+                .map(ticker -> new ExchangeQuote(NAME, ticker.getSymbol(),
+                        FixedPoint.parse(ticker.getBidPrice()), FixedPoint.parse(ticker.getAskPrice()), receivedAt))
+                .toList();
+
+        log.info("Successfully fetched Binance prices. Total: {}, Filtered: {}",
+                response.getBody().length, quotes.size());
+        quotes.forEach(quote ->
+                log.debug("Binance {} - Bid: {}, Ask: {}", quote.symbol(),
+                        FixedPoint.toString(quote.bid()), FixedPoint.toString(quote.ask())));
+        return quotes;
+    }
+
+    @Override
+    public Optional<ExchangeStream> createStream(Collection<String> symbols, Consumer<ExchangeQuote> sink,
+                                                 StreamSettings settings) {
+        return Optional.of(new BinanceBookTickerStream(wsUrl, symbols, objectMapper, sink, settings));
+    }
+}
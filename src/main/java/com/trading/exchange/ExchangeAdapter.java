@@ -0,0 +1,42 @@
+package com.trading.exchange;
+
+import com.trading.exception.ExchangeConnectionException;
+import com.trading.stream.ExchangeStream;
+import com.trading.stream.StreamSettings;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A price venue. Every Spring bean implementing this interface takes part in the
+ * best-price aggregation; adding a venue needs no change to {@code PriceService}.
+ */
+public interface ExchangeAdapter {
+
+    /**
+     * Upper-case venue label stored with the aggregated price, at most 10 characters.
+     */
+    String getName();
+
+    /**
+     * How long a poll cycle waits for this venue before aggregating without it.
+     */
+    long getFetchDeadlineMs();
+
+    /**
+     * Fetches the current top of book for the given pairs over REST.
+     *
+     * @throws ExchangeConnectionException if the venue cannot be reached or answers with an error
+     */
+    List<ExchangeQuote> fetchQuotes(Collection<String> symbols);
+
+    /**
+     * Creates an unstarted push stream for the given pairs, if the venue offers one.
+     */
+    default Optional<ExchangeStream> createStream(Collection<String> symbols, Consumer<ExchangeQuote> sink,
+                                                  StreamSettings settings) {
+        return Optional.empty();
+    }
+}
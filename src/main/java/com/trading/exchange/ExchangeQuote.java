@@ -0,0 +1,22 @@
+package com.trading.exchange;
+
+import com.trading.util.FixedPoint;
+
+/**
+ * Top-of-book quote from a single venue. {@code symbol} is always the normalized
+ * upper-case pair name (e.g. BTCUSDT) regardless of how the venue spells it.
+ * {@code bid} and {@code ask} are {@link FixedPoint} values; a non-positive side means
+ * the venue had nothing on that side of the book.
+ */
+public record ExchangeQuote(String exchange, String symbol, long bid, long ask, long receivedAt) {
+
+    public boolean isTwoSided() {
+        return bid > 0 && ask > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExchangeQuote[" + exchange + " " + symbol + " bid=" + FixedPoint.toString(bid)
+                + " ask=" + FixedPoint.toString(ask) + " receivedAt=" + receivedAt + "]";
+    }
+}
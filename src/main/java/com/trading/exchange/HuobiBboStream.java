@@ -0,0 +1,152 @@
+package com.trading.exchange;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.stream.ExchangeStream;
+import com.trading.stream.StreamSettings;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Huobi {@code market.<symbol>.bbo} stream. Huobi sends every frame gzip-compressed
+ * and expects each {@code ping} to be answered with a matching {@code pong}. Frames are
+ * parsed straight off the gzip stream into fixed-point quotes.
+ */
+@Slf4j
+public class HuobiBboStream extends ExchangeStream {
+    private final String url;
+    private final Collection<String> symbols;
+    private final SymbolTable symbolTable;
+    private final JsonFactory jsonFactory;
+    private final Consumer<ExchangeQuote> sink;
+
+    public HuobiBboStream(String url, Collection<String> symbols, ObjectMapper objectMapper,
+                          Consumer<ExchangeQuote> sink, StreamSettings settings) {
+        super(HuobiExchangeAdapter.NAME, settings);
+        this.url = url;
+        this.symbols = symbols;
+        this.symbolTable = new SymbolTable(symbols);
+        this.jsonFactory = objectMapper.getFactory();
+        this.sink = sink;
+    }
+
+    @Override
+    protected URI uri() {
+        return URI.create(url);
+    }
+
+    @Override
+    protected void onConnected(WebSocket webSocket) {
+        for (String symbol : symbols) {
+            String huobiSymbol = symbol.toLowerCase();
+            send(webSocket, "{\"sub\":\"market." + huobiSymbol + ".bbo\",\"id\":\"" + huobiSymbol + "\"}");
+        }
+    }
+
+    @Override
+    protected void handleBinary(WebSocket webSocket, byte[] message) throws Exception {
+        try (JsonParser parser = jsonFactory.createParser(new GZIPInputStream(new ByteArrayInputStream(message)))) {
+            handle(webSocket, parser);
+        }
+    }
+
+    @Override
+    protected void handleText(WebSocket webSocket, String message) throws Exception {
+        try (JsonParser parser = jsonFactory.createParser(message)) {
+            handle(webSocket, parser);
+        }
+    }
+
+    private void handle(WebSocket webSocket, JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return;
+        }
+
+        long ping = -1;
+        String status = null;
+        String errorMessage = null;
+        String channelSymbol = null;
+        Tick tick = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "ping" -> ping = parser.getValueAsLong(-1);
+                case "status" -> status = parser.getValueAsString();
+                case "err-msg" -> errorMessage = parser.getValueAsString();
+                case "ch" -> channelSymbol = token == JsonToken.VALUE_STRING ? symbolFromChannel(parser) : null;
+                case "tick" -> tick = token == JsonToken.START_OBJECT ? readTick(parser) : null;
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (ping >= 0) {
+            send(webSocket, "{\"pong\":" + ping + "}");
+            return;
+        }
+        if (status != null && !"ok".equals(status)) {
+            log.warn("Huobi stream rejected request: {}", errorMessage);
+            return;
+        }
+        if (tick == null || tick.bid <= 0 || tick.ask <= 0) {
+            return;
+        }
+
+        String symbol = tick.symbol != null ? tick.symbol : channelSymbol;
+        if (symbol == null) {
+            return;
+        }
+        sink.accept(new ExchangeQuote(HuobiExchangeAdapter.NAME, symbol, tick.bid, tick.ask,
+                System.currentTimeMillis()));
+    }
+
+    private Tick readTick(JsonParser parser) throws IOException {
+        Tick tick = new Tick();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "symbol" -> tick.symbol = token == JsonToken.VALUE_STRING
+                        ? symbolTable.lookup(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())
+                        : null;
+                case "bid" -> tick.bid = JsonFixedPoint.read(parser);
+                case "ask" -> tick.ask = JsonFixedPoint.read(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return tick;
+    }
+
+    private String symbolFromChannel(JsonParser parser) throws IOException {
+        // Channel names look like market.btcusdt.bbo
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int end = offset + parser.getTextLength();
+        int start = -1;
+        for (int i = offset; i < end; i++) {
+            if (chars[i] == '.') {
+                if (start < 0) {
+                    start = i + 1;
+                } else {
+                    return symbolTable.lookup(chars, start, i - start);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class Tick {
+        private String symbol;
+        private long bid;
+        private long ask;
+    }
+}
@@ -0,0 +1,85 @@
+package com.trading.exchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.dto.HuobiWrapper;
+import com.trading.exception.ExchangeConnectionException;
+import com.trading.stream.ExchangeStream;
+import com.trading.stream.StreamSettings;
+import com.trading.util.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class HuobiExchangeAdapter implements ExchangeAdapter {
+    public static final String NAME = "HUOBI";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${huobi.api.url:https://api.huobi.pro}")
+    private String baseUrl;
+
+    @Value("${huobi.ws.url:wss://api.huobi.pro/ws}")
+    private String wsUrl;
+
+    @Value("${price.fetch.huobi.deadline-ms:3000}")
+    private long fetchDeadlineMs;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public long getFetchDeadlineMs() {
+        return fetchDeadlineMs;
+    }
+
+    @Override
+    public List<ExchangeQuote> fetchQuotes(Collection<String> symbols) {
+        // Huobi has no multi-symbol ticker query, so stream the full list and keep only our pairs
+        URI uri = URI.create(baseUrl + "/market/tickers");
+        HuobiWrapper data;
+        try {
+            data = restTemplate.execute(uri, HttpMethod.GET, null,
+                    response -> HuobiTickersParser.parse(response.getBody(), symbols));
+        } catch (RestClientException e) {
+            throw new ExchangeConnectionException("Failed to fetch Huobi prices: " + e.getMessage(), e);
+        }
+        if (data == null || data.getData() == null) {
+            throw new ExchangeConnectionException("Huobi returned no ticker data");
+        }
+
+        long receivedAt = System.currentTimeMillis();
+        List<ExchangeQuote> quotes = data.getData().stream()
+                .filter(ticker -> ticker.getBid() != null && ticker.getAsk() != null)
+                .map(ticker -> new ExchangeQuote(NAME, ticker.getSymbol().toUpperCase(),
+                        FixedPoint.fromBigDecimal(ticker.getBid()), FixedPoint.fromBigDecimal(ticker.getAsk()), receivedAt))
+                .toList();
+
+        log.info("Successfully fetched Huobi prices for {} symbols", quotes.size());
+        quotes.forEach(quote ->
+                log.debug("Huobi {} - Bid: {}, Ask: {}", quote.symbol(),
+                        FixedPoint.toString(quote.bid()), FixedPoint.toString(quote.ask())));
+        return quotes;
+    }
+
+    @Override
+    public Optional<ExchangeStream> createStream(Collection<String> symbols, Consumer<ExchangeQuote> sink,
+                                                 StreamSettings settings) {
+        return Optional.of(new HuobiBboStream(wsUrl, symbols, objectMapper, sink, settings));
+    }
+}
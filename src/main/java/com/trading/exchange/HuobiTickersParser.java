@@ -0,0 +1,99 @@
+package com.trading.exchange;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.trading.dto.HuobiPrice;
+import com.trading.dto.HuobiWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming reader for Huobi's {@code /market/tickers} payload. Only tickers for the
+ * requested symbols are turned into {@link HuobiPrice} objects; every other entry is
+ * skipped token by token as soon as its symbol is known.
+ */
+final class HuobiTickersParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private HuobiTickersParser() {
+    }
+
+    static HuobiWrapper parse(InputStream body, Collection<String> symbols) throws IOException {
+        Set<String> wanted = symbols.stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        HuobiWrapper wrapper = new HuobiWrapper();
+        List<HuobiPrice> tickers = new ArrayList<>(wanted.size());
+
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object from Huobi");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("status".equals(field)) {
+                    wrapper.setStatus(parser.getValueAsString());
+                } else if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        HuobiPrice ticker = readTicker(parser, wanted);
+                        if (ticker != null) {
+                            tickers.add(ticker);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        wrapper.setData(tickers);
+        return wrapper;
+    }
+
+    private static HuobiPrice readTicker(JsonParser parser, Set<String> wanted) throws IOException {
+        HuobiPrice ticker = new HuobiPrice();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "symbol" -> {
+                    String symbol = parser.getValueAsString();
+                    if (symbol == null || !wanted.contains(symbol)) {
+                        skipRestOfObject(parser);
+                        return null;
+                    }
+                    ticker.setSymbol(symbol);
+                }
+                case "bid" -> ticker.setBid(decimal(parser));
+                case "ask" -> ticker.setAsk(decimal(parser));
+                case "bidSize" -> ticker.setBidSize(decimal(parser));
+                case "askSize" -> ticker.setAskSize(decimal(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return ticker.getSymbol() != null ? ticker : null;
+    }
+
+    private static void skipRestOfObject(JsonParser parser) throws IOException {
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            parser.skipChildren();
+        }
+    }
+
+    private static BigDecimal decimal(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> new BigDecimal(parser.getText());
+            default -> parser.getDecimalValue();
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.trading.exchange;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.trading.util.FixedPoint;
+
+import java.io.IOException;
+
+/**
+ * Reads the current JSON value as a {@link FixedPoint} long straight from the parser's
+ * text buffer. Venues send prices both as strings and as bare numbers; either way the
+ * exchange's own digits are used, never an intermediate double.
+ */
+final class JsonFixedPoint {
+
+    private JsonFixedPoint() {
+    }
+
+    /**
+     * @return the scaled value, or {@code 0} if the current token is null or not a number
+     */
+    static long read(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT
+                && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            return 0;
+        }
+        return FixedPoint.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+}
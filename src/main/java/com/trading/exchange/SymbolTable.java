@@ -0,0 +1,37 @@
+package com.trading.exchange;
+
+import java.util.Collection;
+
+/**
+ * Maps a venue's spelling of a pair (any case) straight from the parser's character
+ * buffer to our canonical upper-case symbol, so hot-path parsing does not allocate a
+ * String per message. Unknown symbols resolve to {@code null}.
+ */
+final class SymbolTable {
+    private final String[] symbols;
+
+    SymbolTable(Collection<String> symbols) {
+        this.symbols = symbols.stream()
+                .map(String::toUpperCase)
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    String lookup(char[] chars, int offset, int length) {
+        for (String symbol : symbols) {
+            if (symbol.length() == length && matches(symbol, chars, offset)) {
+                return symbol;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(String symbol, char[] chars, int offset) {
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != Character.toUpperCase(chars[offset + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package com.trading.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String idempotencyKey;
+
+    // Null until the trade the key was claimed for has executed
+    @Column
+    private Long tradeId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
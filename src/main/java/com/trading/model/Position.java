@@ -0,0 +1,48 @@
+package com.trading.model;
+
+import com.trading.util.FixedPoint;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A user's position in one trading pair as built up from their trades: the quantity bought
+ * and not yet sold, what that quantity cost in USDT, and the profit or loss realized by
+ * sells so far. Sells release cost at the average price, so the average cost of what
+ * remains is unchanged by a sell.
+ */
+public record Position(BigDecimal quantity, BigDecimal cost, BigDecimal realizedPnl) {
+    public static final Position EMPTY = new Position(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    public Position apply(Trade trade) {
+        return trade.getType().equals("BUY")
+                ? buy(trade.getQuantity(), trade.getTotal())
+                : sell(trade.getQuantity(), trade.getTotal());
+    }
+
+    public Position buy(BigDecimal bought, BigDecimal total) {
+        return new Position(quantity.add(bought), cost.add(total), realizedPnl);
+    }
+
+    /**
+     * Realizes the proceeds less the average cost of what was sold. Selling more than the
+     * position holds (coins that did not come from trades) closes it, and only the share
+     * of the proceeds for the quantity that had a cost is realized.
+     */
+    public Position sell(BigDecimal sold, BigDecimal total) {
+        if (quantity.signum() == 0) {
+            return this;
+        }
+        if (sold.compareTo(quantity) >= 0) {
+            BigDecimal proceeds = total.multiply(quantity).divide(sold, FixedPoint.SCALE, RoundingMode.HALF_UP);
+            return new Position(BigDecimal.ZERO, BigDecimal.ZERO, realizedPnl.add(proceeds).subtract(cost));
+        }
+        BigDecimal released = cost.multiply(sold).divide(quantity, FixedPoint.SCALE, RoundingMode.HALF_UP);
+        return new Position(quantity.subtract(sold), cost.subtract(released),
+                realizedPnl.add(total).subtract(released));
+    }
+
+    public BigDecimal averageCost() {
+        return quantity.signum() == 0 ? BigDecimal.ZERO : cost.divide(quantity, FixedPoint.SCALE, RoundingMode.HALF_UP);
+    }
+}
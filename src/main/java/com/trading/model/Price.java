@@ -28,6 +28,12 @@ public class Price {
     @Column(nullable = false)
     private String exchange;
 
+    @Column
+    private String bidExchange;
+
+    @Column
+    private String askExchange;
+
     @Column(nullable = false)
     private LocalDateTime timestamp;
 }
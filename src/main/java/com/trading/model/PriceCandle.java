@@ -0,0 +1,42 @@
+package com.trading.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "price_candles")
+public class PriceCandle {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Column(nullable = false)
+    private String bucketInterval;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal openPrice;
+
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal highPrice;
+
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal lowPrice;
+
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal closePrice;
+
+    @Column(nullable = false)
+    private int tickCount;
+}
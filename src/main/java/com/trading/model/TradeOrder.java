@@ -0,0 +1,57 @@
+package com.trading.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "orders")
+public class TradeOrder {
+    public static final String LIMIT = "LIMIT";
+    public static final String STOP = "STOP";
+
+    public static final String OPEN = "OPEN";
+    public static final String FILLED = "FILLED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String REJECTED = "REJECTED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String orderType;
+
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal price;
+
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal quantity;
+
+    // Held out of the debit wallet while the order rests: USDT for a buy, the crypto for a sell
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal reserved;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column
+    private Long tradeId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
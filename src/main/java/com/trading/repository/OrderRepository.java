@@ -0,0 +1,27 @@
+package com.trading.repository;
+
+import com.trading.model.TradeOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface OrderRepository extends JpaRepository<TradeOrder, Long> {
+    List<TradeOrder> findByStatus(String status);
+    List<TradeOrder> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    /**
+     * Moves the order from one status to another only if it is still in {@code from}, so
+     * a fill and a cancel racing for the same order cannot both succeed.
+     *
+     * @return 1 if the transition was made, 0 if the order had already left {@code from}
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TradeOrder o SET o.status = ?3 WHERE o.id = ?1 AND o.status = ?2")
+    int transition(Long id, String from, String to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TradeOrder o SET o.tradeId = ?2 WHERE o.id = ?1")
+    int attachTrade(Long id, Long tradeId);
+}
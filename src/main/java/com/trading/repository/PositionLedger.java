@@ -0,0 +1,142 @@
+package com.trading.repository;
+
+import com.trading.model.Position;
+import com.trading.model.Trade;
+import com.trading.util.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code positions} table: one row per user and trading pair holding the open
+ * quantity, its cost and the realized PnL, updated in the same transaction as the trades
+ * that change it. Reading a user's PnL is a primary-key lookup whatever the length of
+ * their trade history.
+ *
+ * <p>Each row remembers the last trade applied to it, so trades the engine's journal
+ * writes again on replay are not counted twice.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PositionLedger {
+    static final String USER_POSITIONS_SQL =
+            "SELECT symbol, quantity, cost, realized_pnl FROM positions WHERE user_id = ?";
+    static final String LOCK_POSITION_SQL = "SELECT quantity, cost, realized_pnl, last_trade_id FROM positions "
+            + "WHERE user_id = ? AND symbol = ? FOR UPDATE";
+    static final String OPEN_POSITION_SQL = "INSERT INTO positions "
+            + "(user_id, symbol, quantity, cost, realized_pnl, last_trade_id, updated_at) VALUES (?, ?, 0, 0, 0, 0, ?)";
+    static final String UPDATE_POSITION_SQL = "UPDATE positions "
+            + "SET quantity = ?, cost = ?, realized_pnl = ?, last_trade_id = ?, updated_at = ? "
+            + "WHERE user_id = ? AND symbol = ?";
+
+    // Rows are locked in this order so two writers can never wait on each other's rows
+    private static final Comparator<Trade> LOCK_ORDER = Comparator.comparing(Trade::getUserId)
+            .thenComparing(Trade::getSymbol)
+            .thenComparing(Trade::getId);
+
+    private static final RowMapper<LockedPosition> LOCKED_ROW_MAPPER = (rs, rowNum) -> new LockedPosition(
+            new Position(rs.getBigDecimal("quantity"), rs.getBigDecimal("cost"), rs.getBigDecimal("realized_pnl")),
+            rs.getLong("last_trade_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The user's positions keyed by trading pair, including closed ones that still carry
+     * realized PnL.
+     */
+    public Map<String, Position> findByUserId(Long userId) {
+        Map<String, Position> positions = new HashMap<>();
+        jdbcTemplate.query(USER_POSITIONS_SQL, row -> {
+            positions.put(row.getString("symbol"), new Position(row.getBigDecimal("quantity"),
+                    row.getBigDecimal("cost"), row.getBigDecimal("realized_pnl")));
+        }, userId);
+        return positions;
+    }
+
+    /**
+     * Applies saved trades inside the caller's transaction, so the positions commit or roll
+     * back with them. Trades need their ids.
+     */
+    public void record(List<Trade> trades) {
+        apply(trades, false);
+    }
+
+    public void record(Trade trade) {
+        apply(List.of(trade), false);
+    }
+
+    /**
+     * Applies trades written by the engine's journal, skipping any at or below the last
+     * trade id already applied to their row. Engine trade ids only grow, so a replayed
+     * trade is recognised without looking it up.
+     */
+    public void recordJournaled(List<Trade> trades) {
+        apply(trades, true);
+    }
+
+    private void apply(List<Trade> trades, boolean skipApplied) {
+        List<Trade> ordered = trades.stream().sorted(LOCK_ORDER).toList();
+        int start = 0;
+        while (start < ordered.size()) {
+            Trade first = ordered.get(start);
+            int end = start + 1;
+            while (end < ordered.size() && ordered.get(end).getUserId().equals(first.getUserId())
+                    && ordered.get(end).getSymbol().equals(first.getSymbol())) {
+                end++;
+            }
+            applyToRow(first.getUserId(), first.getSymbol(), ordered.subList(start, end), skipApplied);
+            start = end;
+        }
+    }
+
+    // One locked read and one write per row however many of the trades land on it
+    private void applyToRow(Long userId, String symbol, List<Trade> trades, boolean skipApplied) {
+        LockedPosition locked = lock(userId, symbol);
+        Position position = locked.position();
+        long lastTradeId = locked.lastTradeId();
+        boolean changed = false;
+        for (Trade trade : trades) {
+            if (skipApplied && trade.getId() <= locked.lastTradeId()) {
+                continue;
+            }
+            position = position.apply(trade);
+            lastTradeId = Math.max(lastTradeId, trade.getId());
+            changed = true;
+        }
+        if (changed) {
+            jdbcTemplate.update(UPDATE_POSITION_SQL, scaled(position.quantity()), scaled(position.cost()),
+                    scaled(position.realizedPnl()), lastTradeId, Timestamp.valueOf(LocalDateTime.now()), userId, symbol);
+        }
+    }
+
+    private LockedPosition lock(Long userId, String symbol) {
+        List<LockedPosition> rows = jdbcTemplate.query(LOCK_POSITION_SQL, LOCKED_ROW_MAPPER, userId, symbol);
+        if (!rows.isEmpty()) {
+            return rows.get(0);
+        }
+        try {
+            jdbcTemplate.update(OPEN_POSITION_SQL, userId, symbol, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            // Opened by a concurrent transaction; locking it below waits for that one to finish
+        }
+        return jdbcTemplate.queryForObject(LOCK_POSITION_SQL, LOCKED_ROW_MAPPER, userId, symbol);
+    }
+
+    private static BigDecimal scaled(BigDecimal value) {
+        return value.setScale(FixedPoint.SCALE, RoundingMode.HALF_UP);
+    }
+
+    private record LockedPosition(Position position, long lastTradeId) {
+    }
+}
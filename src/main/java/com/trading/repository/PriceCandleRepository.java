@@ -0,0 +1,16 @@
+package com.trading.repository;
+
+import com.trading.model.PriceCandle;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PriceCandleRepository extends JpaRepository<PriceCandle, Long> {
+    @Query("SELECT c FROM PriceCandle c WHERE c.symbol = ?1 AND c.bucketInterval = ?2 "
+            + "AND c.bucketStart >= ?3 AND c.bucketStart < ?4 ORDER BY c.bucketStart")
+    List<PriceCandle> findCandles(String symbol, String bucketInterval, LocalDateTime from, LocalDateTime to,
+                                  Pageable pageable);
+}
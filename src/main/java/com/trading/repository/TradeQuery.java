@@ -0,0 +1,13 @@
+package com.trading.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One page of a user's trade history, newest first. Null filters are not applied;
+ * {@code from} is inclusive and {@code to} exclusive. A non-null
+ * {@code beforeTimestamp}/{@code beforeId} pair resumes strictly after that trade in
+ * (timestamp, id) descending order.
+ */
+public record TradeQuery(Long userId, String symbol, String type, LocalDateTime from, LocalDateTime to,
+                         LocalDateTime beforeTimestamp, Long beforeId, int limit) {
+}
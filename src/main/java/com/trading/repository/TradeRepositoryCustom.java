@@ -0,0 +1,9 @@
+package com.trading.repository;
+
+import com.trading.model.Trade;
+
+import java.util.List;
+
+public interface TradeRepositoryCustom {
+    List<Trade> findPage(TradeQuery query);
+}
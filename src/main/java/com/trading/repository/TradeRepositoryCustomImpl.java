@@ -0,0 +1,66 @@
+package com.trading.repository;
+
+import com.trading.model.Trade;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset pagination over {@code idx_trades_user_timestamp}: each page seeks straight to
+ * the cursor position in the user's slice of the index and reads {@code limit} entries,
+ * so fetching page 1,000 costs the same as page 1. Plain SQL because the filters are
+ * optional and an OFFSET-free seek needs the expanded cursor predicate below.
+ */
+@RequiredArgsConstructor
+public class TradeRepositoryCustomImpl implements TradeRepositoryCustom {
+    private static final RowMapper<Trade> TRADE_ROW_MAPPER = (rs, rowNum) -> new Trade(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getString("symbol"),
+            rs.getString("type"),
+            rs.getBigDecimal("price"),
+            rs.getBigDecimal("quantity"),
+            rs.getBigDecimal("total"),
+            rs.getTimestamp("timestamp").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Trade> findPage(TradeQuery query) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, user_id, symbol, type, price, quantity, total, timestamp FROM trades WHERE user_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(query.userId());
+        if (query.symbol() != null) {
+            sql.append(" AND symbol = ?");
+            args.add(query.symbol());
+        }
+        if (query.type() != null) {
+            sql.append(" AND type = ?");
+            args.add(query.type());
+        }
+        if (query.from() != null) {
+            sql.append(" AND timestamp >= ?");
+            args.add(Timestamp.valueOf(query.from()));
+        }
+        if (query.to() != null) {
+            sql.append(" AND timestamp < ?");
+            args.add(Timestamp.valueOf(query.to()));
+        }
+        if (query.beforeTimestamp() != null) {
+            // The leading "timestamp <= ?" is what lets the index seek; the rest breaks ties on id
+            Timestamp before = Timestamp.valueOf(query.beforeTimestamp());
+            sql.append(" AND timestamp <= ? AND (timestamp < ? OR id < ?)");
+            args.add(before);
+            args.add(before);
+            args.add(query.beforeId());
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+        args.add(query.limit());
+        return jdbcTemplate.query(sql.toString(), TRADE_ROW_MAPPER, args.toArray());
+    }
+}
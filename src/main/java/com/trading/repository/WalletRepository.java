@@ -1,11 +1,36 @@
 package com.trading.repository;
 
 import com.trading.model.Wallet;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     List<Wallet> findByUserId(Long userId);
     Wallet findByUserIdAndCurrency(Long userId, String currency);
+
+    /**
+     * The user's wallets, locked until the surrounding transaction ends. Rows are locked in
+     * currency order, the order in which {@code WalletService.settle} updates them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.userId = ?1 ORDER BY w.currency")
+    List<Wallet> findByUserIdForUpdate(Long userId);
+
+    /**
+     * Adds {@code amount} (negative to debit) in a single conditional UPDATE, so concurrent
+     * callers can neither lose an update nor overdraw the wallet.
+     *
+     * @return 1 if applied, 0 if the wallet does not exist or would go negative
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + ?3 "
+            + "WHERE w.userId = ?1 AND w.currency = ?2 AND w.balance + ?3 >= 0")
+    int adjustBalance(Long userId, String currency, BigDecimal amount);
+
 }
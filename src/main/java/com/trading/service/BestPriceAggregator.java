@@ -0,0 +1,47 @@
+package com.trading.service;
+
+import com.trading.exchange.ExchangeQuote;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the best bid (highest) and best ask (lowest) across any number of venues in a
+ * single pass and records which venue supplied each side. Works on fixed-point longs
+ * throughout, so aggregating a tick allocates nothing but the resulting quote.
+ */
+@Component
+public class BestPriceAggregator {
+    public static final String MIXED = "MIXED";
+
+    public BestQuote aggregate(String symbol, Iterable<ExchangeQuote> quotes) {
+        return aggregate(symbol, quotes, Long.MIN_VALUE);
+    }
+
+    /**
+     * The result is stamped with the older of the two winning venue quotes, not the time of
+     * aggregation, so its age is that of the stalest price it carries.
+     *
+     * @param notBefore quotes received before this epoch-millis instant are ignored
+     * @return the aggregated quote, or {@code null} if no venue has a usable quote
+     */
+    public BestQuote aggregate(String symbol, Iterable<ExchangeQuote> quotes, long notBefore) {
+        ExchangeQuote bestBid = null;
+        ExchangeQuote bestAsk = null;
+        for (ExchangeQuote quote : quotes) {
+            if (quote.receivedAt() < notBefore || !quote.isTwoSided()) {
+                continue;
+            }
+            if (bestBid == null || quote.bid() > bestBid.bid()) {
+                bestBid = quote;
+            }
+            if (bestAsk == null || quote.ask() < bestAsk.ask()) {
+                bestAsk = quote;
+            }
+        }
+        if (bestBid == null) {
+            return null;
+        }
+
+        return new BestQuote(symbol, bestBid.bid(), bestBid.exchange(), bestAsk.ask(), bestAsk.exchange(),
+                Math.min(bestBid.receivedAt(), bestAsk.receivedAt()));
+    }
+}
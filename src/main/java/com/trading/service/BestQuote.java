@@ -0,0 +1,50 @@
+package com.trading.service;
+
+import com.trading.model.Price;
+import com.trading.util.FixedPoint;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Aggregated best bid/ask for a symbol in {@link FixedPoint} form, as produced by
+ * {@link BestPriceAggregator} and held by {@link LatestPriceCache}. Only converted to a
+ * {@link Price} entity when it is persisted or returned through the API.
+ */
+public record BestQuote(String symbol, long bid, String bidExchange, long ask, String askExchange,
+                        long timestamp) {
+
+    public String exchange() {
+        return bidExchange.equals(askExchange) ? bidExchange : BestPriceAggregator.MIXED;
+    }
+
+    public Price toPrice() {
+        Price price = new Price();
+        price.setSymbol(symbol);
+        price.setBidPrice(FixedPoint.toBigDecimal(bid));
+        price.setAskPrice(FixedPoint.toBigDecimal(ask));
+        price.setExchange(exchange());
+        price.setBidExchange(bidExchange);
+        price.setAskExchange(askExchange);
+        price.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()));
+        return price;
+    }
+
+    public static BestQuote fromPrice(Price price) {
+        // Rows written before per-side venues were recorded only carry the overall exchange
+        String bidExchange = price.getBidExchange() != null ? price.getBidExchange() : price.getExchange();
+        String askExchange = price.getAskExchange() != null ? price.getAskExchange() : price.getExchange();
+        long timestamp = price.getTimestamp() != null
+                ? price.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0L;
+        return new BestQuote(price.getSymbol(), FixedPoint.fromBigDecimal(price.getBidPrice()), bidExchange,
+                FixedPoint.fromBigDecimal(price.getAskPrice()), askExchange, timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return "BestQuote[" + symbol + " bid=" + FixedPoint.toString(bid) + " (" + bidExchange + ")"
+                + " ask=" + FixedPoint.toString(ask) + " (" + askExchange + ") timestamp=" + timestamp + "]";
+    }
+}
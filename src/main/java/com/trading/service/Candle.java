@@ -0,0 +1,51 @@
+package com.trading.service;
+
+import com.trading.util.FixedPoint;
+import lombok.Getter;
+
+/**
+ * OHLC bucket of the mid price ({@code (bid + ask) / 2}) in {@link FixedPoint} form,
+ * updated tick by tick while its interval is open.
+ */
+@Getter
+public class Candle {
+    private final String symbol;
+    private final CandleInterval interval;
+    private final long bucketStart;
+    private final long open;
+    private long high;
+    private long low;
+    private long close;
+    private int tickCount;
+
+    public Candle(String symbol, CandleInterval interval, long bucketStart, long price) {
+        this(symbol, interval, bucketStart, price, price, price, price, 1);
+    }
+
+    public Candle(String symbol, CandleInterval interval, long bucketStart,
+                  long open, long high, long low, long close, int tickCount) {
+        this.symbol = symbol;
+        this.interval = interval;
+        this.bucketStart = bucketStart;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.tickCount = tickCount;
+    }
+
+    public void update(long price) {
+        high = Math.max(high, price);
+        low = Math.min(low, price);
+        close = price;
+        tickCount++;
+    }
+
+    public Candle copy() {
+        return new Candle(symbol, interval, bucketStart, open, high, low, close, tickCount);
+    }
+
+    public static long midPrice(BestQuote quote) {
+        return (quote.bid() + quote.ask()) / 2;
+    }
+}
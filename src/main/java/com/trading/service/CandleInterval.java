@@ -0,0 +1,40 @@
+package com.trading.service;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+public enum CandleInterval {
+    ONE_SECOND("1s", TimeUnit.SECONDS.toMillis(1)),
+    ONE_MINUTE("1m", TimeUnit.MINUTES.toMillis(1)),
+    ONE_HOUR("1h", TimeUnit.HOURS.toMillis(1));
+
+    private final String label;
+    private final long millis;
+
+    CandleInterval(String label, long millis) {
+        this.label = label;
+        this.millis = millis;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return start of the bucket containing the given epoch-millis instant
+     */
+    public long bucketStart(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, millis);
+    }
+
+    public static Optional<CandleInterval> fromLabel(String label) {
+        return Arrays.stream(values())
+                .filter(interval -> interval.label.equals(label))
+                .findFirst();
+    }
+}
@@ -0,0 +1,180 @@
+package com.trading.service;
+
+import com.trading.dto.CandleResponse;
+import com.trading.exception.InvalidRequestException;
+import com.trading.model.PriceCandle;
+import com.trading.repository.PriceCandleRepository;
+import com.trading.util.FixedPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serves OHLC candles for charting. Candles are built incrementally from every quote
+ * {@link PriceService} ingests and the most recent {@code ring-size} closed buckets per
+ * symbol and interval are kept in fixed-size ring buffers; windows reaching further back
+ * are read from the {@code price_candles} table that {@link PriceHistoryService} fills.
+ * Each request is capped at {@code max-per-request} candles, so a read never costs more
+ * than that regardless of history size.
+ */
+@Service
+public class CandleService {
+    private final PriceCandleRepository priceCandleRepository;
+    private final int ringSize;
+    private final int maxCandlesPerRequest;
+
+    private final ConcurrentMap<String, SymbolCandles> candlesBySymbol = new ConcurrentHashMap<>();
+
+    public CandleService(PriceCandleRepository priceCandleRepository,
+                         @Value("${price.candles.ring-size:1440}") int ringSize,
+                         @Value("${price.candles.max-per-request:1000}") int maxCandlesPerRequest) {
+        this.priceCandleRepository = priceCandleRepository;
+        this.ringSize = ringSize;
+        this.maxCandlesPerRequest = maxCandlesPerRequest;
+    }
+
+    public void onQuote(BestQuote quote) {
+        SymbolCandles candles = candlesBySymbol.computeIfAbsent(quote.symbol(), SymbolCandles::new);
+        synchronized (candles) {
+            candles.open.add(quote, closed -> candles.rings[closed.getInterval().ordinal()].add(closed));
+        }
+    }
+
+    /**
+     * @param from inclusive; rounded down to the start of its bucket
+     * @param to   exclusive
+     */
+    public List<CandleResponse> getCandles(String symbol, CandleInterval interval, LocalDateTime from,
+                                           LocalDateTime to) {
+        long fromMs = interval.bucketStart(toEpochMilli(from));
+        long toMs = toEpochMilli(to);
+        if (fromMs >= toMs) {
+            throw new InvalidRequestException("'from' must be before 'to'");
+        }
+        long requested = (toMs - fromMs + interval.getMillis() - 1) / interval.getMillis();
+        if (requested > maxCandlesPerRequest) {
+            throw new InvalidRequestException("Window spans " + requested + " " + interval.getLabel()
+                    + " candles, at most " + maxCandlesPerRequest + " can be requested at once");
+        }
+
+        List<Candle> recent = new ArrayList<>();
+        long memoryStart = Long.MAX_VALUE;
+        SymbolCandles candles = candlesBySymbol.get(symbol);
+        if (candles != null) {
+            synchronized (candles) {
+                CandleRing ring = candles.rings[interval.ordinal()];
+                ring.collect(fromMs, toMs, recent);
+                Candle open = candles.open.get(interval);
+                if (open != null && open.getBucketStart() >= fromMs && open.getBucketStart() < toMs) {
+                    recent.add(open.copy());
+                }
+                memoryStart = ring.isEmpty()
+                        ? (open != null ? open.getBucketStart() : Long.MAX_VALUE)
+                        : ring.oldestBucketStart();
+            }
+        }
+
+        List<CandleResponse> result = new ArrayList<>();
+        if (fromMs < memoryStart) {
+            // Older than anything held in memory (or a cold start): fall back to the persisted candles
+            priceCandleRepository.findCandles(symbol, interval.getLabel(), toLocalDateTime(fromMs),
+                            toLocalDateTime(Math.min(toMs, memoryStart)), PageRequest.of(0, maxCandlesPerRequest))
+                    .forEach(candle -> result.add(toResponse(candle)));
+        }
+        recent.forEach(candle -> result.add(toResponse(candle)));
+        return result;
+    }
+
+    private static CandleResponse toResponse(Candle candle) {
+        CandleResponse response = new CandleResponse();
+        response.setSymbol(candle.getSymbol());
+        response.setInterval(candle.getInterval().getLabel());
+        response.setOpenTime(toLocalDateTime(candle.getBucketStart()));
+        response.setOpen(FixedPoint.toBigDecimal(candle.getOpen()));
+        response.setHigh(FixedPoint.toBigDecimal(candle.getHigh()));
+        response.setLow(FixedPoint.toBigDecimal(candle.getLow()));
+        response.setClose(FixedPoint.toBigDecimal(candle.getClose()));
+        response.setTickCount(candle.getTickCount());
+        return response;
+    }
+
+    private static CandleResponse toResponse(PriceCandle candle) {
+        CandleResponse response = new CandleResponse();
+        response.setSymbol(candle.getSymbol());
+        response.setInterval(candle.getBucketInterval());
+        response.setOpenTime(candle.getBucketStart());
+        response.setOpen(candle.getOpenPrice());
+        response.setHigh(candle.getHighPrice());
+        response.setLow(candle.getLowPrice());
+        response.setClose(candle.getClosePrice());
+        response.setTickCount(candle.getTickCount());
+        return response;
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    private final class SymbolCandles {
+        private final OpenCandles open;
+        private final CandleRing[] rings = new CandleRing[CandleInterval.values().length];
+
+        private SymbolCandles(String symbol) {
+            open = new OpenCandles(symbol);
+            for (int i = 0; i < rings.length; i++) {
+                rings[i] = new CandleRing(ringSize);
+            }
+        }
+    }
+
+    /**
+     * Closed candles in bucket order; once full, each new candle overwrites the oldest.
+     */
+    static final class CandleRing {
+        private final Candle[] slots;
+        private int head;
+        private int size;
+
+        CandleRing(int capacity) {
+            slots = new Candle[capacity];
+        }
+
+        void add(Candle candle) {
+            slots[(head + size) % slots.length] = candle;
+            if (size < slots.length) {
+                size++;
+            } else {
+                head = (head + 1) % slots.length;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long oldestBucketStart() {
+            return slots[head].getBucketStart();
+        }
+
+        void collect(long fromMs, long toMs, List<Candle> out) {
+            for (int i = 0; i < size; i++) {
+                Candle candle = slots[(head + i) % slots.length];
+                if (candle.getBucketStart() >= fromMs && candle.getBucketStart() < toMs) {
+                    out.add(candle);
+                }
+            }
+        }
+    }
+}
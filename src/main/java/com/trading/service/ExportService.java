@@ -0,0 +1,189 @@
+package com.trading.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk CSV exports of the {@code trades} and {@code prices} tables for reconciliation.
+ * Rows are read through a JDBC cursor {@code export.fetch-size} at a time and written
+ * straight to the response through a fixed-size buffer, so memory stays constant
+ * however many rows match. Writes block while the client is not reading, which holds
+ * the cursor where it is rather than reading ahead.
+ */
+@Service
+@Slf4j
+public class ExportService {
+    static final String TRADES_HEADER = "id,user_id,symbol,type,price,quantity,total,timestamp";
+    static final String PRICES_HEADER = "id,symbol,bid_price,ask_price,exchange,bid_exchange,ask_exchange,timestamp";
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportService(DataSource dataSource, @Value("${export.fetch-size:1000}") int fetchSize) {
+        // A template of its own so the fetch size only applies to exports
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * @return the number of trades written
+     */
+    public long exportTrades(Long userId, String symbol, LocalDateTime from, LocalDateTime to, boolean gzip,
+                             OutputStream out) throws IOException {
+        Filter filter = new Filter()
+                .equal("user_id", userId)
+                .equal("symbol", symbol)
+                .range(from, to);
+        String sql = "SELECT id, user_id, symbol, type, price, quantity, total, timestamp FROM trades"
+                + filter.where() + " ORDER BY id";
+        return export("trades", sql, filter.args(), TRADES_HEADER, gzip, out, (rs, csv) -> {
+            csv.write(Long.toString(rs.getLong("id")));
+            csv.write(',');
+            csv.write(Long.toString(rs.getLong("user_id")));
+            csv.write(',');
+            csv.write(field(rs.getString("symbol")));
+            csv.write(',');
+            csv.write(field(rs.getString("type")));
+            csv.write(',');
+            csv.write(rs.getBigDecimal("price").toPlainString());
+            csv.write(',');
+            csv.write(rs.getBigDecimal("quantity").toPlainString());
+            csv.write(',');
+            csv.write(rs.getBigDecimal("total").toPlainString());
+            csv.write(',');
+            csv.write(rs.getTimestamp("timestamp").toLocalDateTime().toString());
+        });
+    }
+
+    /**
+     * @return the number of prices written
+     */
+    public long exportPrices(String symbol, LocalDateTime from, LocalDateTime to, boolean gzip,
+                             OutputStream out) throws IOException {
+        Filter filter = new Filter()
+                .equal("symbol", symbol)
+                .range(from, to);
+        String sql = "SELECT id, symbol, bid_price, ask_price, exchange, bid_exchange, ask_exchange, timestamp "
+                + "FROM prices" + filter.where() + " ORDER BY id";
+        return export("prices", sql, filter.args(), PRICES_HEADER, gzip, out, (rs, csv) -> {
+            csv.write(Long.toString(rs.getLong("id")));
+            csv.write(',');
+            csv.write(field(rs.getString("symbol")));
+            csv.write(',');
+            csv.write(rs.getBigDecimal("bid_price").toPlainString());
+            csv.write(',');
+            csv.write(rs.getBigDecimal("ask_price").toPlainString());
+            csv.write(',');
+            csv.write(field(rs.getString("exchange")));
+            csv.write(',');
+            csv.write(field(rs.getString("bid_exchange")));
+            csv.write(',');
+            csv.write(field(rs.getString("ask_exchange")));
+            csv.write(',');
+            csv.write(rs.getTimestamp("timestamp").toLocalDateTime().toString());
+        });
+    }
+
+    private long export(String table, String sql, Object[] args, String header, boolean gzip, OutputStream out,
+                        RowWriter rowWriter) throws IOException {
+        long startNanos = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_BYTES) : null;
+        Writer csv = new BufferedWriter(new OutputStreamWriter(
+                compressed != null ? compressed : out, StandardCharsets.UTF_8), BUFFER_BYTES);
+        csv.write(header);
+        csv.write('\n');
+
+        long[] rows = {0};
+        RowCallbackHandler handler = rs -> {
+            try {
+                rowWriter.write(rs, csv);
+                csv.write('\n');
+                rows[0]++;
+            } catch (IOException e) {
+                // Usually the client going away; abandon the cursor instead of reading on
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            jdbcTemplate.query(sql, handler, args);
+        } catch (UncheckedIOException e) {
+            log.warn("Export of {} aborted after {} rows: {}", table, rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        csv.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        log.info("Exported {} {} rows in {} ms", rows[0], table, (System.nanoTime() - startNanos) / 1_000_000);
+        return rows[0];
+    }
+
+    private static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs, Writer csv) throws SQLException, IOException;
+    }
+
+    private static final class Filter {
+        private final List<String> conditions = new ArrayList<>();
+        private final List<Object> args = new ArrayList<>();
+
+        Filter equal(String column, Object value) {
+            if (value != null) {
+                conditions.add(column + " = ?");
+                args.add(value);
+            }
+            return this;
+        }
+
+        Filter range(LocalDateTime from, LocalDateTime to) {
+            if (from != null) {
+                conditions.add("timestamp >= ?");
+                args.add(Timestamp.valueOf(from));
+            }
+            if (to != null) {
+                conditions.add("timestamp < ?");
+                args.add(Timestamp.valueOf(to));
+            }
+            return this;
+        }
+
+        String where() {
+            return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        }
+
+        Object[] args() {
+            return args.toArray();
+        }
+    }
+}
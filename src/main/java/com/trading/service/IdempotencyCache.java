@@ -0,0 +1,130 @@
+package com.trading.service;
+
+import com.trading.dto.TradeRequest;
+import com.trading.dto.TradeResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recently used idempotency keys and the response of the trade each one executed, so a
+ * retried submission is answered from memory. Entries live for {@code ttl-ms} and at
+ * most {@code max-entries} are kept; since every entry has the same lifetime, creation
+ * order is also expiry order and both limits are enforced by trimming the oldest entries
+ * on each claim. A key that is still executing is held as an incomplete future, so
+ * concurrent duplicates wait for the first request instead of racing it.
+ */
+@Component
+public class IdempotencyCache implements MeterBinder {
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> creationOrder = new ConcurrentLinkedQueue<>();
+    // Size of creationOrder, which also still holds abandoned entries until they are trimmed
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyCache(@Value("${trade.idempotency.cache.max-entries:100000}") int maxEntries,
+                            @Value("${trade.idempotency.cache.ttl-ms:600000}") long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    record Key(Long userId, String idempotencyKey) {
+    }
+
+    /**
+     * @param owner true if this request registered the key and must execute the trade,
+     *              then {@link #complete} or {@link #abandon} the claim
+     */
+    record Claim(Entry entry, boolean owner) {
+        TradeRequest request() {
+            return entry.request();
+        }
+
+        CompletableFuture<TradeResponse> response() {
+            return entry.response();
+        }
+    }
+
+    record Entry(Key key, TradeRequest request, CompletableFuture<TradeResponse> response, long createdNanos) {
+    }
+
+    Claim claim(Long userId, String idempotencyKey, TradeRequest request) {
+        long now = System.nanoTime();
+        trim(now);
+        Key key = new Key(userId, idempotencyKey);
+        Entry fresh = new Entry(key, request, new CompletableFuture<>(), now);
+        Entry existing = entries.putIfAbsent(key, fresh);
+        if (existing != null) {
+            hits.increment();
+            return new Claim(existing, false);
+        }
+        misses.increment();
+        creationOrder.add(fresh);
+        queued.incrementAndGet();
+        return new Claim(fresh, true);
+    }
+
+    void complete(Claim claim, TradeResponse response) {
+        claim.response().complete(response);
+    }
+
+    /**
+     * Forgets a key whose trade did not execute, so it can be retried, and fails any
+     * duplicate waiting on it with the same error.
+     */
+    void abandon(Claim claim, RuntimeException error) {
+        entries.remove(claim.entry().key(), claim.entry());
+        claim.response().completeExceptionally(error);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trade.idempotency.cache.size", entries, ConcurrentMap::size)
+                .description("Idempotency keys held in memory")
+                .register(registry);
+        FunctionCounter.builder("trade.idempotency.cache.hits", hits, LongAdder::sum)
+                .description("Submissions answered from an earlier request with the same key")
+                .register(registry);
+        FunctionCounter.builder("trade.idempotency.cache.misses", misses, LongAdder::sum)
+                .description("Submissions whose key was not in memory")
+                .register(registry);
+        FunctionCounter.builder("trade.idempotency.cache.evictions", evictions, LongAdder::sum)
+                .description("Idempotency keys dropped for age or to stay within max-entries")
+                .register(registry);
+    }
+
+    private void trim(long now) {
+        Entry oldest;
+        while ((oldest = creationOrder.peek()) != null
+                && (now - oldest.createdNanos() > ttlNanos || queued.get() >= maxEntries)) {
+            // Only the thread that takes the head out of the queue evicts it
+            if (creationOrder.remove(oldest)) {
+                queued.decrementAndGet();
+                if (entries.remove(oldest.key(), oldest)) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+}
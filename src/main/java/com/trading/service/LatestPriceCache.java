@@ -0,0 +1,91 @@
+package com.trading.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-symbol cache of the most recent aggregated quote, kept up to date by
+ * {@link PriceService} on every write so reads never have to hit the prices table. Every
+ * accepted quote is given the next number of a cache-wide sequence.
+ */
+@Component
+public class LatestPriceCache implements MeterBinder {
+    private final ConcurrentMap<String, QuoteSnapshot> latestPrices = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public Optional<BestQuote> get(String symbol) {
+        return snapshot(symbol).map(QuoteSnapshot::quote);
+    }
+
+    /**
+     * Same as {@link #get} but with the sequence number the quote was stored under.
+     */
+    public Optional<QuoteSnapshot> snapshot(String symbol) {
+        QuoteSnapshot snapshot = latestPrices.get(symbol);
+        if (snapshot != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * Same as {@link #get} but not counted as a lookup, for internal readers such as the
+     * price stream snapshot.
+     */
+    public Optional<BestQuote> peek(String symbol) {
+        return Optional.ofNullable(latestPrices.get(symbol)).map(QuoteSnapshot::quote);
+    }
+
+    /**
+     * Stores the quote unless a newer quote for the same symbol is already cached,
+     * so a late cold-start fallback can never overwrite a fresher write.
+     *
+     * @return the snapshot cached for the symbol afterwards
+     */
+    public QuoteSnapshot put(BestQuote quote) {
+        return latestPrices.compute(quote.symbol(), (symbol, current) ->
+                current == null || quote.timestamp() >= current.quote().timestamp()
+                        ? new QuoteSnapshot(quote, sequence.incrementAndGet())
+                        : current);
+    }
+
+    public void clear() {
+        latestPrices.clear();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("price.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Latest-price lookups served from memory")
+                .register(registry);
+        FunctionCounter.builder("price.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Latest-price lookups that fell back to the repository")
+                .register(registry);
+        Gauge.builder("price.cache.size", latestPrices, ConcurrentMap::size)
+                .description("Number of symbols with a cached latest price")
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.trading.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The currently open 1s/1m/1h buckets for one symbol. Each quote either updates a bucket
+ * or, once it falls into a later one, closes it. Not thread-safe; callers confine or
+ * lock it.
+ */
+class OpenCandles {
+    private final String symbol;
+    private final Candle[] candles = new Candle[CandleInterval.values().length];
+
+    OpenCandles(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * @param onClosed receives every bucket this quote closes
+     */
+    void add(BestQuote quote, Consumer<Candle> onClosed) {
+        long mid = Candle.midPrice(quote);
+        for (CandleInterval interval : CandleInterval.values()) {
+            long bucketStart = interval.bucketStart(quote.timestamp());
+            Candle open = candles[interval.ordinal()];
+            if (open == null || bucketStart > open.getBucketStart()) {
+                if (open != null) {
+                    onClosed.accept(open);
+                }
+                candles[interval.ordinal()] = new Candle(symbol, interval, bucketStart, mid);
+            } else {
+                // Late quotes from a bucket that has already closed count towards the open one
+                open.update(mid);
+            }
+        }
+    }
+
+    Candle get(CandleInterval interval) {
+        return candles[interval.ordinal()];
+    }
+
+    List<Candle> all() {
+        List<Candle> open = new ArrayList<>(candles.length);
+        for (Candle candle : candles) {
+            if (candle != null) {
+                open.add(candle);
+            }
+        }
+        return open;
+    }
+}
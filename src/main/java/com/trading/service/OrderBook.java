@@ -0,0 +1,98 @@
+package com.trading.service;
+
+import com.trading.model.TradeOrder;
+import com.trading.util.FixedPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open limit and stop orders per symbol, indexed by trigger price. Buy orders are
+ * checked against the ask and sell orders against the bid:
+ * <ul>
+ *     <li>buy limit: triggers once the ask is at or below the limit</li>
+ *     <li>buy stop: triggers once the ask is at or above the stop</li>
+ *     <li>sell limit: triggers once the bid is at or above the limit</li>
+ *     <li>sell stop: triggers once the bid is at or below the stop</li>
+ * </ul>
+ * A triggered order leaves the book; filling it is up to the caller.
+ */
+final class OrderBook {
+    private final ConcurrentMap<String, SymbolBook> books = new ConcurrentHashMap<>();
+    private final AtomicInteger openOrders = new AtomicInteger();
+
+    void add(TradeOrder order) {
+        books.computeIfAbsent(order.getSymbol(), symbol -> new SymbolBook()).add(order);
+        openOrders.incrementAndGet();
+    }
+
+    /**
+     * @return false if the order was not in the book, for instance because a quote
+     * already triggered it
+     */
+    boolean remove(TradeOrder order) {
+        SymbolBook book = books.get(order.getSymbol());
+        if (book == null || !book.remove(order)) {
+            return false;
+        }
+        openOrders.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Takes every order this quote triggers out of the book.
+     */
+    List<TradeOrder> match(BestQuote quote) {
+        SymbolBook book = books.get(quote.symbol());
+        if (book == null) {
+            return List.of();
+        }
+        List<TradeOrder> triggered = book.match(quote);
+        if (!triggered.isEmpty()) {
+            openOrders.addAndGet(-triggered.size());
+        }
+        return triggered;
+    }
+
+    int size() {
+        return openOrders.get();
+    }
+
+    private static final class SymbolBook {
+        private final PriceLevels buyLimits = new PriceLevels(false);
+        private final PriceLevels buyStops = new PriceLevels(true);
+        private final PriceLevels sellLimits = new PriceLevels(true);
+        private final PriceLevels sellStops = new PriceLevels(false);
+
+        synchronized void add(TradeOrder order) {
+            levelsFor(order).add(FixedPoint.fromBigDecimal(order.getPrice()), order);
+        }
+
+        synchronized boolean remove(TradeOrder order) {
+            return levelsFor(order).remove(FixedPoint.fromBigDecimal(order.getPrice()), order.getId());
+        }
+
+        synchronized List<TradeOrder> match(BestQuote quote) {
+            if (buyLimits.size() + buyStops.size() + sellLimits.size() + sellStops.size() == 0) {
+                return List.of();
+            }
+            List<TradeOrder> triggered = new ArrayList<>();
+            buyLimits.drainCrossed(quote.ask(), triggered);
+            buyStops.drainCrossed(quote.ask(), triggered);
+            sellLimits.drainCrossed(quote.bid(), triggered);
+            sellStops.drainCrossed(quote.bid(), triggered);
+            return triggered;
+        }
+
+        private PriceLevels levelsFor(TradeOrder order) {
+            boolean buy = order.getType().equals("BUY");
+            if (order.getOrderType().equals(TradeOrder.LIMIT)) {
+                return buy ? buyLimits : sellLimits;
+            }
+            return buy ? buyStops : sellStops;
+        }
+    }
+}
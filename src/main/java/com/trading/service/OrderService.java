@@ -0,0 +1,312 @@
+package com.trading.service;
+
+import com.trading.dto.OrderRequest;
+import com.trading.dto.OrderResponse;
+import com.trading.engine.SettlementEngine;
+import com.trading.exception.InsufficientBalanceException;
+import com.trading.exception.InvalidTradeException;
+import com.trading.exception.OrderNotFoundException;
+import com.trading.model.Trade;
+import com.trading.model.TradeOrder;
+import com.trading.repository.OrderRepository;
+import com.trading.repository.PositionLedger;
+import com.trading.repository.TradeRepository;
+import com.trading.util.FixedPoint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resting limit and stop orders. Placing an order reserves what it can spend by debiting
+ * it from the wallet up front, so a triggered order never fails for want of balance
+ * (except a buy stop filling above its stop price), and puts it in the in-memory
+ * {@link OrderBook}. Each new best price takes only the orders it crosses out of the
+ * book; they are filled at that quote's ask or bid on a single background thread so
+ * ingestion never waits on the database.
+ *
+ * <p>The {@code orders} table is the source of truth: the book is rebuilt from open
+ * orders on startup, and a fill or cancel only takes effect if it moves the order out
+ * of {@code OPEN} first. Orders are only accepted in database execution mode.
+ */
+@Service
+@Slf4j
+public class OrderService implements MeterBinder {
+    private final OrderRepository orderRepository;
+    private final TradeRepository tradeRepository;
+    private final WalletService walletService;
+    private final PositionLedger positionLedger;
+    private final SettlementEngine settlementEngine;
+    private final LatestPriceCache latestPriceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor fillExecutor;
+    private final long maxQuoteAgeMs;
+    private final OrderBook book = new OrderBook();
+
+    private final LongAdder triggered = new LongAdder();
+    private final LongAdder filled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public OrderService(OrderRepository orderRepository, TradeRepository tradeRepository,
+                        WalletService walletService, PositionLedger positionLedger, SettlementEngine settlementEngine,
+                        LatestPriceCache latestPriceCache, PlatformTransactionManager transactionManager,
+                        @Value("${trade.quote.max-age-ms:20000}") long maxQuoteAgeMs) {
+        this(orderRepository, tradeRepository, walletService, positionLedger, settlementEngine, latestPriceCache,
+                transactionManager, maxQuoteAgeMs, Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "order-fill");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    OrderService(OrderRepository orderRepository, TradeRepository tradeRepository,
+                 WalletService walletService, PositionLedger positionLedger, SettlementEngine settlementEngine,
+                 LatestPriceCache latestPriceCache, PlatformTransactionManager transactionManager,
+                 long maxQuoteAgeMs, Executor fillExecutor) {
+        this.orderRepository = orderRepository;
+        this.tradeRepository = tradeRepository;
+        this.walletService = walletService;
+        this.positionLedger = positionLedger;
+        this.settlementEngine = settlementEngine;
+        this.latestPriceCache = latestPriceCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fillExecutor = fillExecutor;
+        this.maxQuoteAgeMs = maxQuoteAgeMs;
+    }
+
+    @PostConstruct
+    public void loadOpenOrders() {
+        List<TradeOrder> open = orderRepository.findByStatus(TradeOrder.OPEN);
+        open.forEach(book::add);
+        if (!open.isEmpty()) {
+            log.info("Restored {} open orders into the order book", open.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Fills not yet started stay OPEN in the table and are back in the book on the next start
+        if (fillExecutor instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    public OrderResponse placeOrder(Long userId, OrderRequest request) {
+        validateOrderRequest(request);
+        if (settlementEngine.isEnabled()) {
+            throw new InvalidTradeException("Limit and stop orders are not available in engine execution mode");
+        }
+
+        BigDecimal reserved = request.getType().equals("BUY")
+                ? request.getPrice().multiply(request.getQuantity())
+                : request.getQuantity();
+        TradeOrder order = transactionTemplate.execute(status -> {
+            TradeOrder created = createOrder(userId, request, reserved);
+            walletService.updateBalance(userId, reservedCurrency(created), reserved.negate());
+            return orderRepository.save(created);
+        });
+
+        book.add(order);
+        // An order already through its trigger fills on the current quote instead of waiting for the
+        // next, unless that quote is too old to trade on, as for market trades
+        latestPriceCache.peek(order.getSymbol())
+                .filter(quote -> System.currentTimeMillis() - quote.timestamp() <= maxQuoteAgeMs)
+                .ifPresent(this::match);
+        return mapOrderToResponse(order);
+    }
+
+    public OrderResponse cancelOrder(Long userId, Long orderId) {
+        TradeOrder order = orderRepository.findById(orderId)
+                .filter(found -> found.getUserId().equals(userId))
+                .orElseThrow(() -> new OrderNotFoundException("Order " + orderId + " not found"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (orderRepository.transition(orderId, TradeOrder.OPEN, TradeOrder.CANCELLED) == 0) {
+                throw new InvalidTradeException("Order " + orderId + " is no longer open");
+            }
+            walletService.updateBalance(userId, reservedCurrency(order), order.getReserved());
+        });
+        book.remove(order);
+        order.setStatus(TradeOrder.CANCELLED);
+        return mapOrderToResponse(order);
+    }
+
+    public List<OrderResponse> getUserOrders(Long userId) {
+        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(this::mapOrderToResponse)
+                .toList();
+    }
+
+    @EventListener
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        match(event.quote());
+    }
+
+    public int getOpenOrderCount() {
+        return book.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trade.orders.open", book, OrderBook::size)
+                .description("Limit and stop orders resting in the order book")
+                .register(registry);
+        FunctionCounter.builder("trade.orders.triggered", triggered, LongAdder::sum)
+                .description("Resting orders triggered by a price update")
+                .register(registry);
+        FunctionCounter.builder("trade.orders.filled", filled, LongAdder::sum)
+                .description("Triggered orders filled")
+                .register(registry);
+        FunctionCounter.builder("trade.orders.rejected", rejected, LongAdder::sum)
+                .description("Triggered orders rejected for insufficient balance")
+                .register(registry);
+    }
+
+    private void match(BestQuote quote) {
+        for (TradeOrder order : book.match(quote)) {
+            triggered.increment();
+            long price = order.getType().equals("BUY") ? quote.ask() : quote.bid();
+            fillExecutor.execute(() -> fill(order, FixedPoint.toBigDecimal(price)));
+        }
+    }
+
+    private void fill(TradeOrder order, BigDecimal price) {
+        try {
+            Trade trade = transactionTemplate.execute(status -> settle(order, price));
+            if (trade != null) {
+                filled.increment();
+                log.info("Filled {} {} order {} at {}", order.getOrderType(), order.getType(), order.getId(), price);
+            }
+        } catch (InsufficientBalanceException e) {
+            reject(order, e.getMessage());
+        } catch (RuntimeException e) {
+            // Still OPEN in the table, so put it back for the next crossing quote to retry
+            log.error("Failed to fill order {}: {}", order.getId(), e.getMessage());
+            book.add(order);
+        }
+    }
+
+    private Trade settle(TradeOrder order, BigDecimal price) {
+        if (orderRepository.transition(order.getId(), TradeOrder.OPEN, TradeOrder.FILLED) == 0) {
+            // Cancelled between the quote triggering it and this fill
+            return null;
+        }
+
+        Long userId = order.getUserId();
+        String cryptoCurrency = order.getSymbol().replace("USDT", "");
+        BigDecimal total = price.multiply(order.getQuantity());
+        if (order.getType().equals("BUY")) {
+            // The reservation was priced at the order price: release what the fill did not use,
+            // or for a buy stop that filled higher, take the difference from the free balance
+            walletService.settle(userId, "USDT", total.subtract(order.getReserved()),
+                    cryptoCurrency, order.getQuantity());
+        } else {
+            walletService.updateBalance(userId, "USDT", total);
+        }
+
+        Trade trade = tradeRepository.save(createTrade(order, price, total));
+        orderRepository.attachTrade(order.getId(), trade.getId());
+        positionLedger.record(trade);
+        return trade;
+    }
+
+    private void reject(TradeOrder order, String reason) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (orderRepository.transition(order.getId(), TradeOrder.OPEN, TradeOrder.REJECTED) == 1) {
+                walletService.updateBalance(order.getUserId(), reservedCurrency(order), order.getReserved());
+            }
+        });
+        rejected.increment();
+        log.warn("Rejected {} {} order {}: {}", order.getOrderType(), order.getType(), order.getId(), reason);
+    }
+
+    private void validateOrderRequest(OrderRequest request) {
+        if (request.getSymbol() == null || request.getType() == null || request.getOrderType() == null
+                || request.getQuantity() == null || request.getPrice() == null) {
+            throw new InvalidTradeException("Symbol, type, order type, quantity and price are required");
+        }
+
+        if (!PriceService.TRADING_PAIRS.contains(request.getSymbol())) {
+            throw new InvalidTradeException("Only BTCUSDT and ETHUSDT pairs are supported");
+        }
+
+        if (!request.getType().equals("BUY") && !request.getType().equals("SELL")) {
+            throw new InvalidTradeException("Trade type must be either BUY or SELL");
+        }
+
+        if (!request.getOrderType().equals(TradeOrder.LIMIT) && !request.getOrderType().equals(TradeOrder.STOP)) {
+            throw new InvalidTradeException("Order type must be either LIMIT or STOP");
+        }
+
+        if (request.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidTradeException("Quantity must be greater than 0");
+        }
+
+        if (request.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidTradeException("Price must be greater than 0");
+        }
+    }
+
+    private static String reservedCurrency(TradeOrder order) {
+        return order.getType().equals("BUY") ? "USDT" : order.getSymbol().replace("USDT", "");
+    }
+
+    private TradeOrder createOrder(Long userId, OrderRequest request, BigDecimal reserved) {
+        TradeOrder order = new TradeOrder();
+        order.setUserId(userId);
+        order.setSymbol(request.getSymbol());
+        order.setType(request.getType());
+        order.setOrderType(request.getOrderType());
+        order.setPrice(request.getPrice());
+        order.setQuantity(request.getQuantity());
+        order.setReserved(reserved);
+        order.setStatus(TradeOrder.OPEN);
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+
+    private Trade createTrade(TradeOrder order, BigDecimal price, BigDecimal total) {
+        Trade trade = new Trade();
+        trade.setUserId(order.getUserId());
+        trade.setSymbol(order.getSymbol());
+        trade.setType(order.getType());
+        trade.setPrice(price);
+        trade.setQuantity(order.getQuantity());
+        trade.setTotal(total);
+        trade.setTimestamp(LocalDateTime.now());
+        return trade;
+    }
+
+    private OrderResponse mapOrderToResponse(TradeOrder order) {
+        OrderResponse response = new OrderResponse();
+        response.setOrderId(order.getId());
+        response.setSymbol(order.getSymbol());
+        response.setType(order.getType());
+        response.setOrderType(order.getOrderType());
+        response.setPrice(order.getPrice());
+        response.setQuantity(order.getQuantity());
+        response.setReserved(order.getReserved());
+        response.setStatus(order.getStatus());
+        response.setTradeId(order.getTradeId());
+        response.setCreatedAt(order.getCreatedAt());
+        return response;
+    }
+}
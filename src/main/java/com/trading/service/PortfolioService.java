@@ -0,0 +1,111 @@
+package com.trading.service;
+
+import com.trading.dto.AssetValue;
+import com.trading.dto.PortfolioResponse;
+import com.trading.dto.PositionResponse;
+import com.trading.model.Position;
+import com.trading.model.Wallet;
+import com.trading.repository.PositionLedger;
+import com.trading.util.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Values a user's wallets and positions in USDT at the in-memory best bid, the price the
+ * assets could be sold at right now. Balances come from the wallet cache and cost basis
+ * and realized PnL from the {@link PositionLedger}, so a valuation reads nothing per trade.
+ * In engine mode the ledger trails the wallets by the journal flush.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortfolioService {
+    private static final String QUOTE_CURRENCY = "USDT";
+
+    private final WalletService walletService;
+    private final PositionLedger positionLedger;
+    private final LatestPriceCache latestPriceCache;
+
+    public PortfolioResponse getPortfolio(Long userId) {
+        Map<String, Position> positions = positionLedger.findByUserId(userId);
+        List<AssetValue> assets = new ArrayList<>();
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal unrealizedPnl = BigDecimal.ZERO;
+
+        for (Wallet wallet : walletService.getUserWallets(userId)) {
+            AssetValue asset = new AssetValue();
+            asset.setCurrency(wallet.getCurrency());
+            asset.setBalance(wallet.getBalance());
+            BigDecimal price = wallet.getCurrency().equals(QUOTE_CURRENCY)
+                    ? BigDecimal.ONE
+                    : bid(wallet.getCurrency() + QUOTE_CURRENCY);
+            if (price != null) {
+                asset.setPrice(price);
+                asset.setValue(wallet.getBalance().multiply(price));
+                totalValue = totalValue.add(asset.getValue());
+            }
+
+            Position position = positions.get(wallet.getCurrency() + QUOTE_CURRENCY);
+            if (position != null) {
+                asset.setRealizedPnl(position.realizedPnl());
+                if (position.quantity().signum() > 0) {
+                    asset.setPositionQuantity(position.quantity());
+                    asset.setAverageCost(position.averageCost());
+                    if (price != null) {
+                        asset.setUnrealizedPnl(unrealizedPnl(position, price));
+                        unrealizedPnl = unrealizedPnl.add(asset.getUnrealizedPnl());
+                    }
+                }
+            }
+            assets.add(asset);
+        }
+
+        PortfolioResponse response = new PortfolioResponse();
+        response.setAssets(assets);
+        response.setTotalValue(totalValue);
+        response.setUnrealizedPnl(unrealizedPnl);
+        response.setRealizedPnl(positions.values().stream()
+                .map(Position::realizedPnl)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        response.setTimestamp(LocalDateTime.now());
+        return response;
+    }
+
+    /**
+     * Every trading pair the user has traded, open or closed, by symbol.
+     */
+    public List<PositionResponse> getPositions(Long userId) {
+        List<PositionResponse> responses = new ArrayList<>();
+        new TreeMap<>(positionLedger.findByUserId(userId)).forEach((symbol, position) -> {
+            PositionResponse response = new PositionResponse();
+            response.setSymbol(symbol);
+            response.setQuantity(position.quantity());
+            response.setAverageCost(position.averageCost());
+            response.setCost(position.cost());
+            response.setRealizedPnl(position.realizedPnl());
+            BigDecimal price = bid(symbol);
+            if (price != null) {
+                response.setPrice(price);
+                response.setUnrealizedPnl(unrealizedPnl(position, price));
+            }
+            responses.add(response);
+        });
+        return responses;
+    }
+
+    private static BigDecimal unrealizedPnl(Position position, BigDecimal price) {
+        return price.multiply(position.quantity()).subtract(position.cost());
+    }
+
+    private BigDecimal bid(String symbol) {
+        return latestPriceCache.peek(symbol)
+                .map(quote -> FixedPoint.toBigDecimal(quote.bid()))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,221 @@
+package com.trading.service;
+
+import com.trading.util.FixedPoint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind persistence for aggregated prices. Ingestion only enqueues; a single
+ * background thread inserts the queued quotes in JDBC batches once {@code batch-size}
+ * rows are waiting or {@code flush-interval-ms} has passed since the first one arrived.
+ *
+ * <p>When the queue is full the oldest pending quote is dropped, so a slow database never
+ * blocks ingestion and what does get written is the most recent data. Pending rows are
+ * flushed on shutdown. Every written batch is also handed to {@link PriceHistoryService}
+ * for candle roll-up, on this same thread.
+ */
+@Component
+@Slf4j
+public class PriceBatchWriter implements MeterBinder {
+    static final String INSERT_SQL = "INSERT INTO prices "
+            + "(symbol, bid_price, ask_price, exchange, bid_exchange, ask_exchange, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Offered by stop() to wake a writer blocked on an empty queue; never written
+    private static final BestQuote WAKE_UP = new BestQuote(null, 0, null, 0, null, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PriceHistoryService priceHistoryService;
+    private final BlockingQueue<BestQuote> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutMs;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public PriceBatchWriter(JdbcTemplate jdbcTemplate, PriceHistoryService priceHistoryService,
+                            @Value("${price.persistence.queue-capacity:10000}") int queueCapacity,
+                            @Value("${price.persistence.batch-size:500}") int batchSize,
+                            @Value("${price.persistence.flush-interval-ms:200}") long flushIntervalMs,
+                            @Value("${price.persistence.shutdown-timeout-ms:5000}") long shutdownTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priceHistoryService = priceHistoryService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::run, "price-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Never blocks: if the queue is full the oldest pending quote is discarded.
+     */
+    public void enqueue(BestQuote quote) {
+        while (!queue.offer(quote)) {
+            if (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+        enqueued.increment();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        queue.offer(WAKE_UP);
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Price writer did not finish within {} ms, {} quotes not persisted",
+                    shutdownTimeoutMs, queue.size());
+        } else {
+            rollUp(priceHistoryService::flushOpenCandles);
+            log.info("Price writer stopped, {} prices written in {} batches", written.sum(), batches.sum());
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("price.persistence.queue.size", queue, BlockingQueue::size)
+                .description("Aggregated prices waiting to be written")
+                .register(registry);
+        Gauge.builder("price.persistence.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots before the writer starts dropping the oldest prices")
+                .register(registry);
+        FunctionCounter.builder("price.persistence.enqueued", enqueued, LongAdder::sum)
+                .description("Prices handed to the writer")
+                .register(registry);
+        FunctionCounter.builder("price.persistence.dropped", dropped, LongAdder::sum)
+                .description("Prices discarded because the write queue was full")
+                .register(registry);
+        FunctionCounter.builder("price.persistence.written", written, LongAdder::sum)
+                .description("Prices inserted into the prices table")
+                .register(registry);
+        FunctionCounter.builder("price.persistence.failed", failed, LongAdder::sum)
+                .description("Prices lost to failed batch inserts")
+                .register(registry);
+        FunctionCounter.builder("price.persistence.batches", batches, LongAdder::sum)
+                .description("JDBC batches executed")
+                .register(registry);
+    }
+
+    private void run() {
+        // Keep draining after stop() until the queue is empty so nothing accepted is lost
+        while (running || !queue.isEmpty()) {
+            try {
+                List<BestQuote> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Price writer interrupted, {} quotes not persisted", queue.size());
+                return;
+            }
+        }
+    }
+
+    private List<BestQuote> nextBatch() throws InterruptedException {
+        List<BestQuote> batch = new ArrayList<>(batchSize);
+        BestQuote first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            // Once stopping, write full batches of whatever is queued but never wait for more
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                break;
+            }
+            BestQuote next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        batch.removeIf(quote -> quote == WAKE_UP);
+        return batch;
+    }
+
+    private void write(List<BestQuote> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, quote) -> {
+                statement.setString(1, quote.symbol());
+                statement.setBigDecimal(2, FixedPoint.toBigDecimal(quote.bid()));
+                statement.setBigDecimal(3, FixedPoint.toBigDecimal(quote.ask()));
+                statement.setString(4, quote.exchange());
+                statement.setString(5, quote.bidExchange());
+                statement.setString(6, quote.askExchange());
+                statement.setTimestamp(7, new Timestamp(quote.timestamp()));
+            });
+            written.add(batch.size());
+            batches.increment();
+            log.debug("Wrote {} prices", batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.error("Failed to write batch of {} prices: {}", batch.size(), e.getMessage());
+            return;
+        }
+        rollUp(() -> priceHistoryService.rollUp(batch));
+    }
+
+    private void rollUp(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.error("Failed to update price candles: {}", e.getMessage());
+        }
+    }
+}
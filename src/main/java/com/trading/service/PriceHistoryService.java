@@ -0,0 +1,124 @@
+package com.trading.service;
+
+import com.trading.util.FixedPoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the price history bounded. Persisted quotes are rolled up incrementally into
+ * 1s/1m/1h OHLC candles (each closed bucket is upserted once), and a scheduled purge
+ * removes raw rows and fine-grained candles once they fall outside their retention
+ * window, in chunks so no single delete holds the table for long.
+ */
+@Service
+@Slf4j
+public class PriceHistoryService {
+    static final String UPSERT_CANDLE_SQL = "MERGE INTO price_candles "
+            + "(symbol, bucket_interval, bucket_start, open_price, high_price, low_price, close_price, tick_count) "
+            + "KEY (symbol, bucket_interval, bucket_start) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String PURGE_PRICES_SQL = "DELETE FROM prices WHERE timestamp < ? LIMIT ?";
+    private static final String PURGE_CANDLES_SQL =
+            "DELETE FROM price_candles WHERE bucket_interval = ? AND bucket_start < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration rawRetention;
+    private final Duration secondCandleRetention;
+    private final Duration minuteCandleRetention;
+    private final int purgeChunkSize;
+
+    // Only touched by the price writer thread
+    private final Map<String, OpenCandles> openCandles = new HashMap<>();
+
+    public PriceHistoryService(JdbcTemplate jdbcTemplate,
+                               @Value("${price.history.raw-retention:24h}") Duration rawRetention,
+                               @Value("${price.history.second-candle-retention:6h}") Duration secondCandleRetention,
+                               @Value("${price.history.minute-candle-retention:30d}") Duration minuteCandleRetention,
+                               @Value("${price.history.purge-chunk-size:5000}") int purgeChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rawRetention = rawRetention;
+        this.secondCandleRetention = secondCandleRetention;
+        this.minuteCandleRetention = minuteCandleRetention;
+        this.purgeChunkSize = purgeChunkSize;
+    }
+
+    /**
+     * Folds a batch of persisted quotes into the open candles and upserts every bucket
+     * the batch closed. Must only be called from the price writer thread.
+     */
+    public void rollUp(List<BestQuote> quotes) {
+        List<Candle> closed = new ArrayList<>();
+        for (BestQuote quote : quotes) {
+            openCandles.computeIfAbsent(quote.symbol(), OpenCandles::new).add(quote, closed::add);
+        }
+        upsert(closed);
+    }
+
+    /**
+     * Writes the still-open buckets as they stand, so a clean shutdown does not lose the
+     * current second, minute and hour.
+     */
+    public void flushOpenCandles() {
+        List<Candle> open = new ArrayList<>();
+        openCandles.values().forEach(candles -> open.addAll(candles.all()));
+        upsert(open);
+        openCandles.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${price.history.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        try {
+            int prices = purge(PURGE_PRICES_SQL, null, now - rawRetention.toMillis());
+            int seconds = purge(PURGE_CANDLES_SQL, CandleInterval.ONE_SECOND,
+                    now - secondCandleRetention.toMillis());
+            int minutes = purge(PURGE_CANDLES_SQL, CandleInterval.ONE_MINUTE,
+                    now - minuteCandleRetention.toMillis());
+            if (prices + seconds + minutes > 0) {
+                log.info("Purged {} raw prices, {} 1s candles and {} 1m candles past retention",
+                        prices, seconds, minutes);
+            }
+        } catch (Exception e) {
+            log.error("Price history purge failed: {}", e.getMessage());
+        }
+    }
+
+    private int purge(String sql, CandleInterval interval, long cutoff) {
+        Timestamp cutoffTimestamp = new Timestamp(cutoff);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = interval == null
+                    ? jdbcTemplate.update(sql, cutoffTimestamp, purgeChunkSize)
+                    : jdbcTemplate.update(sql, interval.getLabel(), cutoffTimestamp, purgeChunkSize);
+            total += deleted;
+        } while (deleted == purgeChunkSize);
+        return total;
+    }
+
+    private void upsert(List<Candle> candles) {
+        if (candles.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_CANDLE_SQL, candles, candles.size(), (statement, candle) -> {
+            statement.setString(1, candle.getSymbol());
+            statement.setString(2, candle.getInterval().getLabel());
+            statement.setTimestamp(3, new Timestamp(candle.getBucketStart()));
+            statement.setBigDecimal(4, FixedPoint.toBigDecimal(candle.getOpen()));
+            statement.setBigDecimal(5, FixedPoint.toBigDecimal(candle.getHigh()));
+            statement.setBigDecimal(6, FixedPoint.toBigDecimal(candle.getLow()));
+            statement.setBigDecimal(7, FixedPoint.toBigDecimal(candle.getClose()));
+            statement.setInt(8, candle.getTickCount());
+        });
+        log.debug("Upserted {} candles", candles.size());
+    }
+}
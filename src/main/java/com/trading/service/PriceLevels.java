@@ -0,0 +1,98 @@
+package com.trading.service;
+
+import com.trading.model.TradeOrder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One trigger direction of a symbol's resting orders, grouped into price levels. Level
+ * prices are {@link com.trading.util.FixedPoint} longs in a sorted primitive array, with
+ * the level that triggers first at the tail: a quote pops crossed levels off the end, so
+ * matching costs one comparison when nothing is crossed and otherwise grows only with the
+ * orders triggered. Placing or cancelling shifts the arrays, which is O(levels) but never
+ * on the quote path. Not thread-safe; {@link OrderBook} guards it.
+ */
+final class PriceLevels {
+    private final boolean triggersAbove;
+    // Keys ascending; a key is the price, negated when quotes at or above the price trigger
+    private long[] keys = new long[16];
+    private final List<ArrayDeque<TradeOrder>> levels = new ArrayList<>();
+    private int orderCount;
+
+    /**
+     * @param triggersAbove true if a quote at or above a level's price triggers it (sell
+     *                      limits, buy stops), false if a quote at or below does (buy
+     *                      limits, sell stops)
+     */
+    PriceLevels(boolean triggersAbove) {
+        this.triggersAbove = triggersAbove;
+    }
+
+    void add(long price, TradeOrder order) {
+        long key = key(price);
+        int index = Arrays.binarySearch(keys, 0, levels.size(), key);
+        if (index >= 0) {
+            levels.get(index).addLast(order);
+        } else {
+            int insertAt = -index - 1;
+            int size = levels.size();
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+            keys[insertAt] = key;
+            ArrayDeque<TradeOrder> level = new ArrayDeque<>();
+            level.addLast(order);
+            levels.add(insertAt, level);
+        }
+        orderCount++;
+    }
+
+    boolean remove(long price, Long orderId) {
+        int index = Arrays.binarySearch(keys, 0, levels.size(), key(price));
+        if (index < 0) {
+            return false;
+        }
+        ArrayDeque<TradeOrder> level = levels.get(index);
+        if (!level.removeIf(order -> order.getId().equals(orderId))) {
+            return false;
+        }
+        orderCount--;
+        if (level.isEmpty()) {
+            System.arraycopy(keys, index + 1, keys, index, levels.size() - index - 1);
+            levels.remove(index);
+        }
+        return true;
+    }
+
+    /**
+     * Removes every order the quote price crosses and adds it to {@code triggered}, best
+     * level first and in time order within a level.
+     *
+     * @return the number of orders triggered
+     */
+    int drainCrossed(long quote, List<TradeOrder> triggered) {
+        long key = key(quote);
+        int drained = 0;
+        int last = levels.size() - 1;
+        while (last >= 0 && keys[last] >= key) {
+            ArrayDeque<TradeOrder> level = levels.remove(last);
+            drained += level.size();
+            triggered.addAll(level);
+            last--;
+        }
+        orderCount -= drained;
+        return drained;
+    }
+
+    int size() {
+        return orderCount;
+    }
+
+    private long key(long price) {
+        return triggersAbove ? -price : price;
+    }
+}
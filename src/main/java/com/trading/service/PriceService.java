@@ -1,59 +1,154 @@
 package com.trading.service;
 
-import com.trading.dto.BinanceResponse;
-import com.trading.dto.HuobiPrice;
-import com.trading.dto.HuobiWrapper;
+import com.trading.exchange.ExchangeAdapter;
+import com.trading.exchange.ExchangeQuote;
 import com.trading.model.Price;
 import com.trading.repository.PriceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class PriceService {
     private final PriceRepository priceRepository;
-    private final RestTemplate restTemplate;
+    private final List<ExchangeAdapter> exchangeAdapters;
+    private final BestPriceAggregator bestPriceAggregator;
+    private final LatestPriceCache latestPriceCache;
+    private final PriceBatchWriter priceBatchWriter;
+    private final CandleService candleService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
     public static final List<String> TRADING_PAIRS = Arrays.asList("BTCUSDT", "ETHUSDT");
+    public static final String STREAMING_MODE = "streaming";
 
-    @Value("${binance.api.url:https://api.binance.com}")
-    private String binanceBaseUrl;
+    // Last quote per symbol and venue, so a streamed tick can be compared against every other venue
+    private final ConcurrentMap<String, ConcurrentMap<String, ExchangeQuote>> venueQuotes = new ConcurrentHashMap<>();
 
-    @Value("${huobi.api.url:https://api.huobi.pro}")
-    private String huobiBaseUrl;
+    // Cached so a venue stuck past its deadline never holds up the next cycle's fetch
+    private final ExecutorService fetchExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "exchange-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicReference<CompletableFuture<Void>> refresh = new AtomicReference<>();
+
+    @Value("${price.ingestion.mode:polling}")
+    private String ingestionMode;
+
+    @Value("${price.stream.venue-quote-ttl-ms:30000}")
+    private long venueQuoteTtlMs;
 
     public Optional<Price> getLatestPrice(String symbol) {
+        return getQuote(symbol).map(snapshot -> snapshot.quote().toPrice());
+    }
+
+    /**
+     * The cached quote with its sequence number, for execution. Only a cold start, with
+     * nothing ingested since boot, reads the prices table.
+     */
+    public Optional<QuoteSnapshot> getQuote(String symbol) {
+        Optional<QuoteSnapshot> cached = latestPriceCache.snapshot(symbol);
+        if (cached.isPresent()) {
+            return cached;
+        }
         try {
-            return Optional.ofNullable(priceRepository.findLatestPriceBySymbol(symbol));
+            return Optional.ofNullable(priceRepository.findLatestPriceBySymbol(symbol))
+                    .map(persisted -> latestPriceCache.put(BestQuote.fromPrice(persisted)));
         } catch (Exception e) {
             log.error("Error fetching latest price for symbol {}: {}", symbol, e.getMessage());
             return Optional.empty();
         }
     }
 
+    /**
+     * Fetches from the exchanges now, outside the polling schedule. Callers arriving while
+     * a refresh is running wait for that one instead of starting another.
+     */
+    public void refreshPrices() {
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = refresh.compareAndExchange(null, mine);
+        if (running != null) {
+            running.join();
+            return;
+        }
+        try {
+            fetchAndSavePrices();
+        } finally {
+            refresh.set(null);
+            mine.complete(null);
+        }
+    }
+
     @Scheduled(fixedRate = 10000)
+    public void pollPrices() {
+        // In streaming mode MarketDataStreamService gap-fills through fetchAndSavePrices itself
+        if (!STREAMING_MODE.equalsIgnoreCase(ingestionMode)) {
+            fetchAndSavePrices();
+        }
+    }
+
+    /**
+     * Entry point for streamed ticks: aggregates the update against every other venue's
+     * last quote that is still within the TTL.
+     */
+    public void onQuote(ExchangeQuote quote) {
+        if (!TRADING_PAIRS.contains(quote.symbol())) {
+            return;
+        }
+        ConcurrentMap<String, ExchangeQuote> quotes =
+                venueQuotes.computeIfAbsent(quote.symbol(), symbol -> new ConcurrentHashMap<>());
+        quotes.put(quote.exchange(), quote);
+        savePrice(quote.symbol(), quotes.values(), System.currentTimeMillis() - venueQuoteTtlMs);
+    }
+
     public void fetchAndSavePrices() {
         try {
-            // Fetch from Binance with specific symbols and retry
-            BinanceResponse[] binanceData = fetchBinancePrices();
-
-            // Fetch from Huobi
-            HuobiWrapper huobiData = fetchHuobiPrices();
+            // All venues are queried in parallel; whichever misses its deadline is left out of this cycle
+            List<CompletableFuture<List<ExchangeQuote>>> fetches = exchangeAdapters.stream()
+                    .map(this::fetchWithDeadline)
+                    .toList();
+
+            Map<String, List<ExchangeQuote>> quotesBySymbol = new HashMap<>();
+            for (CompletableFuture<List<ExchangeQuote>> fetch : fetches) {
+                List<ExchangeQuote> quotes = fetch.join();
+                if (quotes == null) {
+                    continue;
+                }
+                for (ExchangeQuote quote : quotes) {
+                    venueQuotes.computeIfAbsent(quote.symbol(), symbol -> new ConcurrentHashMap<>())
+                            .put(quote.exchange(), quote);
+                    quotesBySymbol.computeIfAbsent(quote.symbol(), symbol -> new ArrayList<>()).add(quote);
+                }
+            }
 
             // Process prices if we have data from at least one source
-            if (binanceData != null || (huobiData != null && huobiData.getData() != null)) {
-                processTradingPairs(binanceData, huobiData);
+            if (!quotesBySymbol.isEmpty()) {
+                processTradingPairs(quotesBySymbol);
             } else {
                 log.error("Could not fetch prices from any exchange");
             }
@@ -62,88 +157,57 @@ public class PriceService {
         }
     }
 
-    private BinanceResponse[] fetchBinancePrices() {
-        try {
-            String binanceUrl = binanceBaseUrl + "/api/v3/ticker/bookTicker";
-
-            log.debug("Fetching all symbols from Binance URL: {}", binanceUrl);
-            ResponseEntity<BinanceResponse[]> binanceResponse =
-                    restTemplate.getForEntity(binanceUrl, BinanceResponse[].class);
-
-            if (binanceResponse.getStatusCode().is2xxSuccessful() && binanceResponse.getBody() != null) {
-                BinanceResponse[] allData = binanceResponse.getBody();
-                BinanceResponse[] filteredData = Arrays.stream(allData)
-                        .filter(price -> TRADING_PAIRS.contains(price.getSymbol()))
-                        .toArray(BinanceResponse[]::new);
-
-                log.info("Successfully fetched Binance prices. Total: {}, Filtered: {}",
-                        allData.length, filteredData.length);
-
-                Arrays.stream(filteredData).forEach(price ->
-                        log.debug("Binance {} - Bid: {}, Ask: {}",
-                                price.getSymbol(), price.getBidPrice(), price.getAskPrice())
-                );
-                return filteredData;
-            }
-        } catch (Exception e) {
-            log.warn("Failed to fetch Binance prices: {}. Will continue with Huobi only.",
-                    e.getMessage());
-        }
-        return null;
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
     }
 
-    private HuobiWrapper fetchHuobiPrices() {
-        try {
-            String huobiUrl = huobiBaseUrl + "/market/tickers";
-            ResponseEntity<HuobiWrapper> huobiResponse =
-                    restTemplate.getForEntity(huobiUrl, HuobiWrapper.class);
-
-            if (huobiResponse.getStatusCode().is2xxSuccessful() &&
-                    huobiResponse.getBody() != null &&
-                    huobiResponse.getBody().getData() != null) {
-                HuobiWrapper data = huobiResponse.getBody();
-                log.info("Successfully fetched Huobi prices for {} symbols",
-                        data.getData().size());
-
-                data.getData().stream()
-                        .filter(price -> TRADING_PAIRS.contains(price.getSymbol().toUpperCase()))
-                        .forEach(price ->
-                                log.debug("Huobi {} - Bid: {}, Ask: {}",
-                                        price.getSymbol().toUpperCase(), price.getBid(), price.getAsk())
-                        );
-                return data;
-            }
-        } catch (Exception e) {
-            log.warn("Failed to fetch Huobi prices: {}", e.getMessage());
+    private CompletableFuture<List<ExchangeQuote>> fetchWithDeadline(ExchangeAdapter adapter) {
+        String exchange = adapter.getName();
+        long deadlineMs = adapter.getFetchDeadlineMs();
+        long startNanos = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> adapter.fetchQuotes(TRADING_PAIRS), fetchExecutor)
+                .orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    long elapsedNanos = System.nanoTime() - startNanos;
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    String outcome;
+                    if (cause instanceof TimeoutException) {
+                        outcome = "timeout";
+                    } else if (cause != null || result == null) {
+                        outcome = "error";
+                        log.warn("{} fetch failed: {}", exchange,
+                                cause != null ? cause.getMessage() : "no data");
+                    } else {
+                        outcome = "success";
+                    }
+                    recordFetch(exchange, outcome, elapsedNanos, deadlineMs);
+                    return cause == null ? result : null;
+                });
+    }
+
+    private void recordFetch(String exchange, String outcome, long elapsedNanos, long deadlineMs) {
+        Timer.builder("price.fetch.latency")
+                .description("Exchange REST fetch latency per poll cycle")
+                .tag("exchange", exchange)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if ("timeout".equals(outcome)) {
+            meterRegistry.counter("price.fetch.timeouts", "exchange", exchange).increment();
+            log.warn("{} missed its {} ms deadline, aggregating without it this cycle", exchange, deadlineMs);
+        } else {
+            log.debug("{} fetch finished with {} in {} ms", exchange, outcome,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
         }
-        return null;
     }
 
-    private void processTradingPairs(BinanceResponse[] binanceData, HuobiWrapper huobiData) {
+    private void processTradingPairs(Map<String, List<ExchangeQuote>> quotesBySymbol) {
         for (String pair : TRADING_PAIRS) {
             try {
-                BinanceResponse binancePrice = null;
-                HuobiPrice huobiPrice = null;
-
-                // Get Binance price if available
-                if (binanceData != null) {
-                    binancePrice = Arrays.stream(binanceData)
-                            .filter(p -> p.getSymbol().equals(pair))
-                            .findFirst()
-                            .orElse(null);
-                }
-
-                // Get Huobi price if available
-                if (huobiData != null && huobiData.getData() != null) {
-                    String huobiSymbol = pair.toLowerCase();
-                    huobiPrice = huobiData.getData().stream()
-                            .filter(p -> p.getSymbol().equals(huobiSymbol))
-                            .findFirst()
-                            .orElse(null);
-                }
-
-                if (binancePrice != null || huobiPrice != null) {
-                    savePrice(pair, binancePrice, huobiPrice);
+                List<ExchangeQuote> quotes = quotesBySymbol.get(pair);
+                if (quotes != null) {
+                    savePrice(pair, quotes, Long.MIN_VALUE);
                 } else {
                     log.warn("No price data available for {}", pair);
                 }
@@ -153,49 +217,18 @@ public class PriceService {
         }
     }
 
-    private void savePrice(String symbol, BinanceResponse binance, HuobiPrice huobi) {
-        Price price = new Price();
-        price.setSymbol(symbol);
-        price.setTimestamp(LocalDateTime.now());
-
-        if (binance != null && huobi != null) {
-            // Compare prices from both exchanges
-            BigDecimal binanceBid = new BigDecimal(binance.getBidPrice());
-            BigDecimal binanceAsk = new BigDecimal(binance.getAskPrice());
-            BigDecimal huobiBid = huobi.getBid();
-            BigDecimal huobiAsk = huobi.getAsk();
-
-            price.setBidPrice(binanceBid.compareTo(huobiBid) > 0 ? binanceBid : huobiBid);
-            price.setAskPrice(binanceAsk.compareTo(huobiAsk) < 0 ? binanceAsk : huobiAsk);
-            price.setExchange(determineExchange(price, binanceBid, binanceAsk, huobiBid, huobiAsk));
-
-            log.debug("Compared prices for {}: Binance({}/{}) Huobi({}/{})",
-                    symbol, binanceBid, binanceAsk, huobiBid, huobiAsk);
-        } else if (binance != null) {
-            price.setBidPrice(new BigDecimal(binance.getBidPrice()));
-            price.setAskPrice(new BigDecimal(binance.getAskPrice()));
-            price.setExchange("BINANCE");
-        } else {
-            price.setBidPrice(huobi.getBid());
-            price.setAskPrice(huobi.getAsk());
-            price.setExchange("HUOBI");
+    private void savePrice(String symbol, Iterable<ExchangeQuote> quotes, long notBefore) {
+        BestQuote best = bestPriceAggregator.aggregate(symbol, quotes, notBefore);
+        if (best == null) {
+            log.warn("No usable quote for {}", symbol);
+            return;
         }
 
-        Price savedPrice = priceRepository.save(price);
-        log.info("Saved price for {}: Bid={}, Ask={}, Exchange={}",
-                savedPrice.getSymbol(),
-                savedPrice.getBidPrice(),
-                savedPrice.getAskPrice(),
-                savedPrice.getExchange());
-    }
-
-    private String determineExchange(Price price, BigDecimal binanceBid, BigDecimal binanceAsk,
-                                     BigDecimal huobiBid, BigDecimal huobiAsk) {
-        boolean isBinanceBest = price.getBidPrice().equals(binanceBid) && price.getAskPrice().equals(binanceAsk);
-        boolean isHuobiBest = price.getBidPrice().equals(huobiBid) && price.getAskPrice().equals(huobiAsk);
-
-        if (isBinanceBest) return "BINANCE";
-        if (isHuobiBest) return "HUOBI";
-        return "MIXED";
+        latestPriceCache.put(best);
+        candleService.onQuote(best);
+        eventPublisher.publishEvent(new PriceUpdatedEvent(best));
+        // Persisted in the background so ingestion never waits on the database
+        priceBatchWriter.enqueue(best);
+        log.debug("Aggregated price {}", best);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,275 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes best-price updates to server-sent-event subscribers. Each update is serialized
+ * once and fanned out from memory; nothing is read from the database per client.
+ *
+ * <p>Every subscriber holds at most one pending update per symbol. A client that cannot
+ * keep up simply has its pending update replaced by the newer one (conflation), and
+ * sends happen on a small shared pool so a slow socket never holds up ingestion. A send
+ * still blocked after {@code send-timeout-ms} means the client has stopped reading: it is
+ * dropped and its send thread interrupted, so stalled clients cannot take over the pool.
+ */
+@Service
+@Slf4j
+public class PriceStreamService implements MeterBinder {
+    static final String PRICE_EVENT = "price";
+
+    private final ObjectMapper objectMapper;
+    private final LatestPriceCache latestPriceCache;
+    private final ExecutorService sendExecutor;
+    private final long emitterTimeoutMs;
+    private final long sendTimeoutNanos;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder stalled = new LongAdder();
+
+    @Autowired
+    public PriceStreamService(ObjectMapper objectMapper, LatestPriceCache latestPriceCache,
+                              @Value("${price.push.send-threads:4}") int sendThreads,
+                              @Value("${price.push.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                              @Value("${price.push.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this(objectMapper, latestPriceCache, Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "price-push");
+            thread.setDaemon(true);
+            return thread;
+        }), emitterTimeoutMs, sendTimeoutMs);
+    }
+
+    PriceStreamService(ObjectMapper objectMapper, LatestPriceCache latestPriceCache,
+                       ExecutorService sendExecutor, long emitterTimeoutMs, long sendTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.latestPriceCache = latestPriceCache;
+        this.sendExecutor = sendExecutor;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    }
+
+    /**
+     * @param symbols symbols to receive; empty means every traded pair
+     */
+    public SseEmitter subscribe(Collection<String> symbols) {
+        return subscribe(symbols, new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter subscribe(Collection<String> symbols, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(symbols));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Start every client from the current state rather than waiting for the next tick
+        for (String symbol : PriceService.TRADING_PAIRS) {
+            if (subscriber.wants(symbol)) {
+                latestPriceCache.peek(symbol).ifPresent(quote -> subscriber.offer(symbol, serialize(quote)));
+            }
+        }
+        log.debug("Price stream subscriber added for {}, {} active", symbols.isEmpty() ? "all symbols" : symbols,
+                subscribers.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        BestQuote quote = event.quote();
+        String json = serialize(quote);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.wants(quote.symbol())) {
+                subscriber.offer(quote.symbol(), json);
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections alive through proxies and detects clients that went away.
+     */
+    @Scheduled(fixedRateString = "${price.push.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    /**
+     * Drops every client whose current send has been blocked for longer than
+     * {@code send-timeout-ms}.
+     */
+    @Scheduled(fixedDelayString = "${price.push.stall-check-ms:1000}")
+    public void evictStalledSubscribers() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> subscriber.evictIfStalled(now));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        sendExecutor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("price.push.subscribers", subscribers, Set::size)
+                .description("Connected price stream clients")
+                .register(registry);
+        FunctionCounter.builder("price.push.sent", sent, LongAdder::sum)
+                .description("Price updates written to stream clients")
+                .register(registry);
+        FunctionCounter.builder("price.push.conflated", conflated, LongAdder::sum)
+                .description("Price updates replaced by a newer one before a slow client received them")
+                .register(registry);
+        FunctionCounter.builder("price.push.stalled", stalled, LongAdder::sum)
+                .description("Stream clients dropped because a send blocked past the send timeout")
+                .register(registry);
+    }
+
+    private String serialize(BestQuote quote) {
+        try {
+            return objectMapper.writeValueAsString(quote.toPrice());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize price for " + quote.symbol(), e);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> symbols;
+        private final ConcurrentMap<String, String> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        // Guarded by this: the pool thread inside emitter.send and when it started
+        private Thread sender;
+        private long sendStartedNanos;
+        private boolean evicted;
+
+        private Subscriber(SseEmitter emitter, Set<String> symbols) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+        }
+
+        private boolean wants(String symbol) {
+            return symbols.isEmpty() || symbols.contains(symbol);
+        }
+
+        private void offer(String symbol, String json) {
+            if (pending.put(symbol, json) != null) {
+                conflated.increment();
+            }
+            schedule();
+        }
+
+        private void heartbeat() {
+            heartbeatDue = true;
+            schedule();
+        }
+
+        private void schedule() {
+            // At most one drain per subscriber in flight, so its events stay in order
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    sendExecutor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                for (String symbol : pending.keySet()) {
+                    String json = pending.remove(symbol);
+                    if (json != null) {
+                        send(SseEmitter.event().name(PRICE_EVENT).data(json, MediaType.APPLICATION_JSON));
+                        sent.increment();
+                    }
+                }
+                if (heartbeatDue) {
+                    heartbeatDue = false;
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping price stream subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                pending.clear();
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!pending.isEmpty() || heartbeatDue) {
+                schedule();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            synchronized (this) {
+                if (evicted) {
+                    throw new IOException("Send timed out");
+                }
+                sender = Thread.currentThread();
+                sendStartedNanos = System.nanoTime();
+            }
+            try {
+                emitter.send(event);
+            } finally {
+                synchronized (this) {
+                    sender = null;
+                    if (evicted) {
+                        // The interrupt was meant for this send only; keep it off the pool thread
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        private void evictIfStalled(long now) {
+            synchronized (this) {
+                if (sender == null || now - sendStartedNanos < sendTimeoutNanos) {
+                    return;
+                }
+                evicted = true;
+                sender.interrupt();
+            }
+            stalled.increment();
+            log.debug("Dropping price stream subscriber: send blocked for more than {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            subscribers.remove(this);
+            pending.clear();
+            emitter.completeWithError(new IOException("Send timed out"));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.trading.service;
+
+/**
+ * Published by {@link PriceService} for every new aggregated best price, after it has
+ * been cached. Listeners run on the ingestion thread and must not block.
+ */
+public record PriceUpdatedEvent(BestQuote quote) {
+}
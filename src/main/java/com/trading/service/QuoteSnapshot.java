@@ -0,0 +1,13 @@
+package com.trading.service;
+
+/**
+ * A {@link BestQuote} as held by {@link LatestPriceCache}, tagged with the sequence number
+ * the cache assigned when it accepted the quote. Sequence numbers only grow, so two
+ * snapshots of a symbol show whether the quote changed between them.
+ */
+public record QuoteSnapshot(BestQuote quote, long sequence) {
+
+    public long ageMs(long nowMs) {
+        return Math.max(0, nowMs - quote.timestamp());
+    }
+}
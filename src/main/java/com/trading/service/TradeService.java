@@ -1,53 +1,524 @@
 package com.trading.service;
 
+import com.trading.dto.BatchTradeRequest;
+import com.trading.dto.BatchTradeResponse;
+import com.trading.dto.BatchTradeResult;
+import com.trading.dto.TradePage;
 import com.trading.dto.TradeRequest;
 import com.trading.dto.TradeResponse;
+import com.trading.engine.Settlement;
+import com.trading.engine.SettlementEngine;
 import com.trading.exception.InsufficientBalanceException;
+import com.trading.exception.InvalidRequestException;
 import com.trading.exception.InvalidTradeException;
 import com.trading.exception.PriceNotFoundException;
-import com.trading.model.Price;
+import com.trading.exception.StaleQuoteException;
+import com.trading.exception.TradeInProgressException;
+import com.trading.exception.TradeOutcomeUnknownException;
+import com.trading.model.IdempotencyKey;
 import com.trading.model.Trade;
 import com.trading.model.Wallet;
+import com.trading.repository.IdempotencyKeyRepository;
+import com.trading.repository.PositionLedger;
+import com.trading.repository.TradeQuery;
 import com.trading.repository.TradeRepository;
+import com.trading.util.FixedPoint;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class TradeService {
+    private static final String CURSOR_SEPARATOR = "_";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+    // An engine trade reaches the trades table within a journal flush, well under a second
+    private static final long RECORDING_RETRY_AFTER_SECONDS = 1;
+    public static final String REPRICE = "reprice";
+
     private final TradeRepository tradeRepository;
     private final PriceService priceService;
     private final WalletService walletService;
+    private final SettlementEngine settlementEngine;
+    private final IdempotencyCache idempotencyCache;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final PositionLedger positionLedger;
+
+    @Value("${trade.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${trade.history.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${trade.history.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${trade.quote.max-age-ms:20000}")
+    private long maxQuoteAgeMs;
+
+    @Value("${trade.quote.stale-action:reject}")
+    private String staleQuoteAction;
 
-    public List<Trade> getUserTrades(Long userId) {
-        return tradeRepository.findByUserIdOrderByTimestampDesc(userId);
+    @Value("${trade.idempotency.retention-ms:86400000}")
+    private long idempotencyRetentionMs;
+
+    /**
+     * One page of the user's trades, newest first. Pages are addressed by an opaque cursor
+     * over (timestamp, id) rather than an offset, so each page is a bounded index seek
+     * however far back it is and trades arriving meanwhile never shift or repeat rows.
+     */
+    public TradePage getUserTrades(Long userId, String symbol, String type, LocalDateTime from, LocalDateTime to,
+                                   String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new InvalidRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        if (type != null && !type.equals("BUY") && !type.equals("SELL")) {
+            throw new InvalidRequestException("type must be either BUY or SELL");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+
+        LocalDateTime beforeTimestamp = null;
+        Long beforeId = null;
+        if (cursor != null) {
+            String[] position = decodeCursor(cursor);
+            beforeTimestamp = LocalDateTime.parse(position[0]);
+            beforeId = Long.parseLong(position[1]);
+        }
+
+        // One row past the page tells whether there is a next page without a count query
+        List<Trade> rows = tradeRepository.findPage(
+                new TradeQuery(userId, symbol, type, from, to, beforeTimestamp, beforeId, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<Trade> trades = hasMore ? rows.subList(0, pageSize) : rows;
+
+        TradePage page = new TradePage();
+        page.setTrades(trades.stream().map(this::mapTradeToResponse).toList());
+        page.setNextCursor(hasMore ? encodeCursor(trades.get(pageSize - 1)) : null);
+        return page;
     }
 
-    @Transactional
+    /**
+     * In database mode the trade runs in one transaction. In engine mode it runs outside
+     * any transaction, so no pooled connection is held while the trade waits for its shard
+     * and the journal's fsync. Either way it is priced first, outside any transaction.
+     */
     public TradeResponse executeTrade(Long userId, TradeRequest request) {
         validateTradeRequest(request);
+        QuoteSnapshot quote = freshQuote(request.getSymbol());
+        if (settlementEngine.isEnabled()) {
+            return execute(userId, request, quote);
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> execute(userId, request, quote));
+    }
+
+    /**
+     * Executes the trade at most once per idempotency key. A retry is answered from
+     * {@link IdempotencyCache} while the key is recent, and from the {@code idempotency_keys}
+     * table after that (or on another instance); a retry that arrives while the first request
+     * is still executing waits for its result. Reusing a key for a different trade is
+     * rejected. A trade that fails records nothing, so its key can be retried.
+     */
+    public TradeResponse executeTrade(Long userId, TradeRequest request, String idempotencyKey) {
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidRequestException(
+                    "Idempotency-Key must be between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        // Validated before claiming so a cached request is always complete enough to compare against
+        validateTradeRequest(request);
+
+        IdempotencyCache.Claim claim = idempotencyCache.claim(userId, idempotencyKey, request);
+        if (!claim.owner()) {
+            TradeRequest original = claim.request();
+            requireSameTrade(original.getSymbol(), original.getType(), original.getQuantity(), request);
+            try {
+                return claim.response().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            // A key recorded before this cache entry existed is found when its insert fails
+            TradeResponse response = executeOnce(userId, request, idempotencyKey);
+            idempotencyCache.complete(claim, response);
+            return response;
+        } catch (RuntimeException e) {
+            idempotencyCache.abandon(claim, e);
+            throw e;
+        }
+    }
+
+    // Keys only need to outlive client retries; the cache covers the recent ones
+    @Scheduled(fixedDelayString = "${trade.idempotency.purge-interval-ms:3600000}")
+    public void purgeIdempotencyKeys() {
+        int purged = idempotencyKeyRepository.deleteCreatedBefore(
+                LocalDateTime.now().minus(Duration.ofMillis(idempotencyRetentionMs)));
+        if (purged > 0) {
+            log.debug("Purged {} idempotency keys", purged);
+        }
+    }
 
-        Price latestPrice = priceService.getLatestPrice(request.getSymbol())
-                .orElseThrow(() -> new PriceNotFoundException("No price available for " + request.getSymbol()));
+    private TradeResponse executeOnce(Long userId, TradeRequest request, String idempotencyKey) {
+        QuoteSnapshot quote = freshQuote(request.getSymbol());
+        if (settlementEngine.isEnabled()) {
+            return executeOnceInEngine(userId, request, idempotencyKey, quote);
+        }
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                // Inserted before the trade executes so a concurrent duplicate blocks on the unique key
+                // until this transaction ends, then fails and reads the trade recorded here
+                IdempotencyKey key = idempotencyKeyRepository.save(
+                        new IdempotencyKey(null, userId, idempotencyKey, null, LocalDateTime.now()));
+                TradeResponse response = execute(userId, request, quote);
+                key.setTradeId(response.getTradeId());
+                idempotencyKeyRepository.save(key);
+                return response;
+            });
+        } catch (DataIntegrityViolationException e) {
+            return findRecordedTrade(userId, idempotencyKey, request).orElseThrow(() -> e);
+        }
+    }
 
-        BigDecimal tradePrice = request.getType().equals("BUY") ?
-                latestPrice.getAskPrice() : latestPrice.getBidPrice();
+    /**
+     * Engine mode: the key is claimed and completed in two short transactions around the
+     * settlement, so no connection is held while the shard settles. A concurrent duplicate
+     * sees the claimed key without a trade and is told to retry with a 409 and Retry-After;
+     * if the trade fails the claim is deleted so the key can be retried. A trade whose
+     * outcome is unknown keeps its claim with the trade id, so a retry returns the trade
+     * once it is in the history instead of trading again.
+     */
+    private TradeResponse executeOnceInEngine(Long userId, TradeRequest request, String idempotencyKey,
+                                              QuoteSnapshot quote) {
+        IdempotencyKey key;
+        try {
+            key = idempotencyKeyRepository.save(
+                    new IdempotencyKey(null, userId, idempotencyKey, null, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            return findRecordedTrade(userId, idempotencyKey, request).orElseThrow(() -> e);
+        }
+        TradeResponse response;
+        try {
+            response = execute(userId, request, quote);
+        } catch (TradeOutcomeUnknownException e) {
+            key.setTradeId(e.getTradeId());
+            idempotencyKeyRepository.save(key);
+            throw e;
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.delete(key);
+            throw e;
+        }
+        key.setTradeId(response.getTradeId());
+        idempotencyKeyRepository.save(key);
+        return response;
+    }
+
+    private Optional<TradeResponse> findRecordedTrade(Long userId, String idempotencyKey, TradeRequest request) {
+        return idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey).map(key -> {
+            // In engine mode the key is claimed before the trade settles, and the trade reaches the
+            // trades table through the journal shortly after that
+            Trade trade = Optional.ofNullable(key.getTradeId())
+                    .flatMap(tradeRepository::findById)
+                    .orElseThrow(() -> new TradeInProgressException(
+                            "The trade for this Idempotency-Key is still being recorded, retry shortly",
+                            RECORDING_RETRY_AFTER_SECONDS));
+            requireSameTrade(trade.getSymbol(), trade.getType(), trade.getQuantity(), request);
+            return mapTradeToResponse(trade);
+        });
+    }
+
+    private static void requireSameTrade(String symbol, String type, BigDecimal quantity, TradeRequest request) {
+        if (!symbol.equals(request.getSymbol()) || !type.equals(request.getType())
+                || quantity.compareTo(request.getQuantity()) != 0) {
+            throw new InvalidRequestException("Idempotency-Key was already used for a different trade");
+        }
+    }
+
+    /**
+     * Fills at the given quote, taken by {@link #freshQuote} before any transaction opened so
+     * that a re-price from the exchanges never holds a pooled connection. The response
+     * carries the quote's sequence number and age.
+     */
+    private TradeResponse execute(Long userId, TradeRequest request, QuoteSnapshot quote) {
+        BigDecimal tradePrice = FixedPoint.toBigDecimal(
+                request.getType().equals("BUY") ? quote.quote().ask() : quote.quote().bid());
 
         BigDecimal total = tradePrice.multiply(request.getQuantity());
 
-        if (request.getType().equals("BUY")) {
-            executeBuyTrade(userId, request.getSymbol(), total, request.getQuantity());
+        Trade trade;
+        if (settlementEngine.isEnabled()) {
+            trade = settleInEngine(userId, request, tradePrice, total);
         } else {
-            executeSellTrade(userId, request.getSymbol(), total, request.getQuantity());
+            if (request.getType().equals("BUY")) {
+                executeBuyTrade(userId, request.getSymbol(), total, request.getQuantity());
+            } else {
+                executeSellTrade(userId, request.getSymbol(), total, request.getQuantity());
+            }
+            trade = tradeRepository.save(createTrade(userId, request, tradePrice, total));
+            // In engine mode the journal updates the ledger when it writes the trade
+            positionLedger.record(trade);
         }
+        return withQuote(mapTradeToResponse(trade), quote, System.currentTimeMillis());
+    }
 
-        Trade trade = createTrade(userId, request, tradePrice, total);
-        return mapTradeToResponse(tradeRepository.save(trade));
+    /**
+     * The symbol's cached quote if it is young enough to trade on. A stale quote is either
+     * rejected or, with {@code trade.quote.stale-action=reprice}, replaced by fetching from
+     * the exchanges once and rejected only if that brings no fresh quote either.
+     */
+    private QuoteSnapshot freshQuote(String symbol) {
+        QuoteSnapshot quote = priceService.getQuote(symbol)
+                .orElseThrow(() -> new PriceNotFoundException("No price available for " + symbol));
+        if (quote.ageMs(System.currentTimeMillis()) <= maxQuoteAgeMs) {
+            return quote;
+        }
+        if (REPRICE.equalsIgnoreCase(staleQuoteAction)) {
+            priceService.refreshPrices();
+            quote = priceService.getQuote(symbol).orElse(quote);
+            if (quote.ageMs(System.currentTimeMillis()) <= maxQuoteAgeMs) {
+                return quote;
+            }
+        }
+        throw new StaleQuoteException("Latest " + symbol + " price is " + quote.ageMs(System.currentTimeMillis())
+                + " ms old, trades need one at most " + maxQuoteAgeMs + " ms old");
+    }
+
+    /**
+     * Settles a list of trades against one price snapshot (a single quote per symbol) in
+     * one transaction. Wallet rows are read and locked once and written once per currency
+     * with the batch's net change, and the trades are saved together; in engine mode the whole batch
+     * is a single task on the user's shard, awaited outside any transaction.
+     */
+    public BatchTradeResponse executeBatch(Long userId, BatchTradeRequest request) {
+        List<TradeRequest> requests = request.getTrades();
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidTradeException("At least one trade is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new InvalidTradeException("At most " + maxBatchSize + " trades are allowed per batch");
+        }
+        String mode = request.getMode() == null ? BatchTradeRequest.BEST_EFFORT : request.getMode().toUpperCase();
+        if (!mode.equals(BatchTradeRequest.ATOMIC) && !mode.equals(BatchTradeRequest.BEST_EFFORT)) {
+            throw new InvalidTradeException("Batch mode must be either ATOMIC or BEST_EFFORT");
+        }
+        boolean atomic = mode.equals(BatchTradeRequest.ATOMIC);
+
+        BatchTradeResult[] results = new BatchTradeResult[requests.size()];
+        List<Settlement> settlements = new ArrayList<>(requests.size());
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        Map<String, QuoteSnapshot> quotes = new HashMap<>();
+        Map<String, RuntimeException> quoteFailures = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TradeRequest item = requests.get(i);
+            try {
+                validateTradeRequest(item);
+                BestQuote quote = batchQuote(item.getSymbol(), quotes, quoteFailures).quote();
+                BigDecimal tradePrice = FixedPoint.toBigDecimal(item.getType().equals("BUY") ? quote.ask() : quote.bid());
+                BigDecimal total = tradePrice.multiply(item.getQuantity());
+                settlements.add(toSettlement(createTrade(userId, item, tradePrice, total)));
+                indexes.add(i);
+            } catch (InvalidTradeException | PriceNotFoundException | StaleQuoteException e) {
+                results[i] = BatchTradeResult.rejected(i, e.getMessage());
+            }
+        }
+
+        int invalid = firstRejected(results);
+        if (atomic && invalid >= 0) {
+            for (int index : indexes) {
+                results[index] = BatchTradeResult.notExecuted(index, invalid);
+            }
+        } else if (settlementEngine.isEnabled()) {
+            settleBatchInEngine(userId, settlements, indexes, atomic, results);
+        } else {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> settleBatchInDatabase(userId, settlements, indexes, atomic, results));
+        }
+        long now = System.currentTimeMillis();
+        for (BatchTradeResult result : results) {
+            if (result.getTrade() != null) {
+                withQuote(result.getTrade(), quotes.get(result.getTrade().getSymbol()), now);
+            }
+        }
+        return toBatchResponse(mode, results);
+    }
+
+    /**
+     * The batch's quote for the symbol. Each symbol is looked up once per batch and a failed
+     * lookup is remembered too, so a stale symbol is re-priced at most once however many
+     * trades in the batch use it.
+     */
+    private QuoteSnapshot batchQuote(String symbol, Map<String, QuoteSnapshot> quotes,
+                                     Map<String, RuntimeException> failures) {
+        RuntimeException failure = failures.get(symbol);
+        if (failure != null) {
+            throw failure;
+        }
+        QuoteSnapshot quote = quotes.get(symbol);
+        if (quote == null) {
+            try {
+                quote = freshQuote(symbol);
+            } catch (PriceNotFoundException | StaleQuoteException e) {
+                failures.put(symbol, e);
+                throw e;
+            }
+            quotes.put(symbol, quote);
+        }
+        return quote;
+    }
+
+    private void settleBatchInEngine(Long userId, List<Settlement> settlements, List<Integer> indexes,
+                                     boolean atomic, BatchTradeResult[] results) {
+        List<CompletableFuture<Trade>> settled = settlementEngine.submitAll(userId, settlements, atomic);
+        for (int i = 0; i < settled.size(); i++) {
+            int index = indexes.get(i);
+            CompletableFuture<Trade> future = settled.get(i);
+            if (future.isCancelled()) {
+                continue;
+            }
+            try {
+                Trade trade = future.join();
+                results[index] = BatchTradeResult.filled(index, mapTradeToResponse(trade));
+            } catch (CompletionException e) {
+                results[index] = e.getCause() instanceof TradeOutcomeUnknownException
+                        ? BatchTradeResult.unknown(index, e.getCause().getMessage())
+                        : BatchTradeResult.rejected(index, e.getCause().getMessage());
+            }
+        }
+        markNotExecuted(indexes, results);
+    }
+
+    private void settleBatchInDatabase(Long userId, List<Settlement> settlements, List<Integer> indexes,
+                                       boolean atomic, BatchTradeResult[] results) {
+        // Locked until commit, so no concurrent debit can make the netted updates below fail
+        Map<String, BigDecimal> available = new HashMap<>();
+        for (Wallet wallet : walletService.lockUserWallets(userId)) {
+            available.put(wallet.getCurrency(), wallet.getBalance());
+        }
+
+        // Sorted by currency so concurrent batches update the wallet rows in the same order
+        Map<String, BigDecimal> netChanges = new TreeMap<>();
+        List<Trade> filled = new ArrayList<>();
+        List<Integer> filledIndexes = new ArrayList<>();
+        for (int i = 0; i < settlements.size(); i++) {
+            Settlement settlement = settlements.get(i);
+            int index = indexes.get(i);
+            BigDecimal debitBalance = available.getOrDefault(settlement.debitCurrency(), BigDecimal.ZERO)
+                    .subtract(settlement.debitAmount());
+            if (debitBalance.signum() < 0) {
+                results[index] = BatchTradeResult.rejected(index,
+                        "Insufficient " + settlement.debitCurrency() + " balance");
+                if (atomic) {
+                    markNotExecuted(indexes, results);
+                    return;
+                }
+                continue;
+            }
+            available.put(settlement.debitCurrency(), debitBalance);
+            available.merge(settlement.creditCurrency(), settlement.creditAmount(), BigDecimal::add);
+            netChanges.merge(settlement.debitCurrency(), settlement.debitAmount().negate(), BigDecimal::add);
+            netChanges.merge(settlement.creditCurrency(), settlement.creditAmount(), BigDecimal::add);
+            filled.add(settlement.trade());
+            filledIndexes.add(index);
+        }
+
+        netChanges.forEach((currency, change) -> {
+            if (change.signum() != 0) {
+                walletService.updateBalance(userId, currency, change);
+            }
+        });
+        List<Trade> saved = tradeRepository.saveAll(filled);
+        positionLedger.record(saved);
+        for (int i = 0; i < saved.size(); i++) {
+            int index = filledIndexes.get(i);
+            results[index] = BatchTradeResult.filled(index, mapTradeToResponse(saved.get(i)));
+        }
+    }
+
+    private static String encodeCursor(Trade trade) {
+        String position = trade.getTimestamp() + CURSOR_SEPARATOR + trade.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = position.split(CURSOR_SEPARATOR, 2);
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    private static Settlement toSettlement(Trade trade) {
+        String cryptoCurrency = trade.getSymbol().replace("USDT", "");
+        if (trade.getType().equals("BUY")) {
+            return new Settlement(trade, "USDT", trade.getTotal(), cryptoCurrency, trade.getQuantity());
+        }
+        return new Settlement(trade, cryptoCurrency, trade.getQuantity(), "USDT", trade.getTotal());
+    }
+
+    private static int firstRejected(BatchTradeResult[] results) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null && BatchTradeResult.REJECTED.equals(results[i].getStatus())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Fills every slot still empty after an atomic batch was rejected
+    private static void markNotExecuted(List<Integer> indexes, BatchTradeResult[] results) {
+        int rejected = firstRejected(results);
+        for (int index : indexes) {
+            if (results[index] == null) {
+                results[index] = BatchTradeResult.notExecuted(index, rejected);
+            }
+        }
+    }
+
+    private static BatchTradeResponse toBatchResponse(String mode, BatchTradeResult[] results) {
+        BatchTradeResponse response = new BatchTradeResponse();
+        response.setMode(mode);
+        response.setResults(Arrays.asList(results));
+        for (BatchTradeResult result : results) {
+            if (BatchTradeResult.FILLED.equals(result.getStatus())) {
+                response.setFilled(response.getFilled() + 1);
+            } else if (BatchTradeResult.UNKNOWN.equals(result.getStatus())) {
+                response.setUnknown(response.getUnknown() + 1);
+            } else {
+                response.setRejected(response.getRejected() + 1);
+            }
+        }
+        return response;
     }
 
     private void validateTradeRequest(TradeRequest request) {
@@ -72,13 +543,13 @@ public class TradeService {
         Wallet usdtWallet = walletService.getWalletByCurrency(userId, "USDT")
                 .orElseThrow(() -> new RuntimeException("USDT wallet not found"));
 
+        // Fast fail only; the conditional debit in settle is what guarantees no overdraft
         if (usdtWallet.getBalance().compareTo(total) < 0) {
             throw new InsufficientBalanceException("Insufficient USDT balance");
         }
 
         String cryptoCurrency = symbol.replace("USDT", "");
-        walletService.updateBalance(userId, "USDT", total.negate());
-        walletService.updateBalance(userId, cryptoCurrency, quantity);
+        walletService.settle(userId, "USDT", total, cryptoCurrency, quantity);
     }
 
     private void executeSellTrade(Long userId, String symbol, BigDecimal total, BigDecimal quantity) {
@@ -90,8 +561,14 @@ public class TradeService {
             throw new InsufficientBalanceException("Insufficient " + cryptoCurrency + " balance");
         }
 
-        walletService.updateBalance(userId, cryptoCurrency, quantity.negate());
-        walletService.updateBalance(userId, "USDT", total);
+        walletService.settle(userId, cryptoCurrency, quantity, "USDT", total);
+    }
+
+    private Trade settleInEngine(Long userId, TradeRequest request, BigDecimal tradePrice, BigDecimal total) {
+        // Balances are checked on the user's shard, so there is no wallet read here
+        Settlement settlement = toSettlement(createTrade(userId, request, tradePrice, total));
+        return settlementEngine.settle(settlement.trade(), settlement.debitCurrency(), settlement.debitAmount(),
+                settlement.creditCurrency(), settlement.creditAmount());
     }
 
     private Trade createTrade(Long userId, TradeRequest request, BigDecimal price, BigDecimal total) {
@@ -106,6 +583,12 @@ public class TradeService {
         return trade;
     }
 
+    private static TradeResponse withQuote(TradeResponse response, QuoteSnapshot quote, long nowMs) {
+        response.setQuoteSequence(quote.sequence());
+        response.setQuoteAgeMs(quote.ageMs(nowMs));
+        return response;
+    }
+
     private TradeResponse mapTradeToResponse(Trade trade) {
         TradeResponse response = new TradeResponse();
         response.setTradeId(trade.getId());
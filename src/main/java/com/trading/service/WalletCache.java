@@ -0,0 +1,164 @@
+package com.trading.service;
+
+import com.trading.model.Wallet;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Each user's wallets as last read from the {@code wallet} table, for at most
+ * {@code max-users} users; the least recently read user is dropped first. Callers get
+ * copies, never the cached objects.
+ *
+ * <p>{@link WalletService} calls {@link #invalidate} for every balance change. The user's
+ * entry is dropped at once and again when the writing transaction ends, so a reader that
+ * loaded the old balances before the commit cannot leave them behind. A load only fills
+ * the cache if no invalidation for that user's stripe happened while it was reading, and
+ * never with balances the current transaction has changed but not yet committed.
+ */
+@Component
+public class WalletCache implements MeterBinder {
+    private static final int STRIPES = 64;
+
+    private final int maxUsers;
+    private final Object lock = new Object();
+    private final Map<Long, List<Wallet>> entries;
+    // Bumped by every invalidation of a user in the stripe; guarded by lock
+    private final long[] generations = new long[STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public WalletCache(@Value("${wallet.cache.max-users:10000}") int maxUsers) {
+        this.maxUsers = maxUsers;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<Wallet>> eldest) {
+                if (size() > WalletCache.this.maxUsers) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public List<Wallet> get(Long userId, Function<Long, List<Wallet>> loader) {
+        int stripe = stripe(userId);
+        long generation;
+        synchronized (lock) {
+            List<Wallet> cached = entries.get(userId);
+            if (cached != null) {
+                hits.increment();
+                return copy(cached);
+            }
+            generation = generations[stripe];
+        }
+        misses.increment();
+
+        List<Wallet> loaded = loader.apply(userId);
+        if (!writtenInCurrentTransaction(userId)) {
+            List<Wallet> snapshot = copy(loaded);
+            synchronized (lock) {
+                if (generations[stripe] == generation) {
+                    entries.put(userId, snapshot);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the user's wallets now and, inside a transaction, again once it commits or
+     * rolls back.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> written = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (written == null) {
+            Set<Long> users = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, users);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(WalletCache.this);
+                    users.forEach(WalletCache.this::evict);
+                }
+            });
+            written = users;
+        }
+        written.add(userId);
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("wallet.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Wallet lookups served from memory")
+                .register(registry);
+        FunctionCounter.builder("wallet.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Wallet lookups that queried the wallet table")
+                .register(registry);
+        FunctionCounter.builder("wallet.cache.evictions", evictions, LongAdder::sum)
+                .description("Users dropped to stay within wallet.cache.max-users")
+                .register(registry);
+        Gauge.builder("wallet.cache.size", this, WalletCache::size)
+                .description("Users whose wallets are cached")
+                .register(registry);
+    }
+
+    private void evict(Long userId) {
+        synchronized (lock) {
+            entries.remove(userId);
+            generations[stripe(userId)]++;
+        }
+    }
+
+    private boolean writtenInCurrentTransaction(Long userId) {
+        Object written = TransactionSynchronizationManager.getResource(this);
+        return written instanceof Set<?> users && users.contains(userId);
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(userId.hashCode(), STRIPES);
+    }
+
+    private static List<Wallet> copy(List<Wallet> wallets) {
+        return wallets.stream()
+                .map(wallet -> new Wallet(wallet.getId(), wallet.getUserId(), wallet.getCurrency(), wallet.getBalance()))
+                .toList();
+    }
+}
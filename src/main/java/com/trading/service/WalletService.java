@@ -1,10 +1,14 @@
 package com.trading.service;
 
+import com.trading.engine.SettlementEngine;
 import com.trading.exception.InsufficientBalanceException;
 import com.trading.model.Wallet;
 import com.trading.repository.WalletRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -14,32 +18,81 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 public class WalletService {
-    private WalletRepository walletRepository;
+    static final String OPEN_WALLET_SQL = "INSERT INTO wallet (user_id, currency, balance) VALUES (?, ?, 0)";
+
+    private final WalletRepository walletRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SettlementEngine settlementEngine;
+    private final WalletCache walletCache;
 
     public List<Wallet> getUserWallets(Long userId) {
-        return walletRepository.findByUserId(userId);
+        // In engine mode the shard holds the live balances; the table trails it by the journal flush
+        if (settlementEngine.isEnabled()) {
+            return settlementEngine.getWallets(userId);
+        }
+        return walletCache.get(userId, walletRepository::findByUserId);
     }
 
     public Optional<Wallet> getWalletByCurrency(Long userId, String currency) {
-        return Optional.ofNullable(walletRepository.findByUserIdAndCurrency(userId, currency));
+        return getUserWallets(userId).stream()
+                .filter(wallet -> wallet.getCurrency().equals(currency))
+                .findFirst();
+    }
+
+    /**
+     * Reads the user's wallets from the database, not the cache, and locks them until the
+     * caller's transaction ends, so balances planned against them cannot be debited by
+     * anyone else in the meantime.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Wallet> lockUserWallets(Long userId) {
+        return walletRepository.findByUserIdForUpdate(userId);
     }
 
+    /**
+     * Applies the change with one conditional UPDATE rather than read-modify-write, so
+     * concurrent trades for the same user never lose an update and no lock is held
+     * beyond the row itself. The user's cached wallets are invalidated first.
+     */
     @Transactional
     public void updateBalance(Long userId, String currency, BigDecimal amount) {
-        Wallet wallet = walletRepository.findByUserIdAndCurrency(userId, currency);
-        if (wallet == null) {
-            wallet = new Wallet();
-            wallet.setUserId(userId);
-            wallet.setCurrency(currency);
-            wallet.setBalance(amount);
-        } else {
-            wallet.setBalance(wallet.getBalance().add(amount));
+        walletCache.invalidate(userId);
+        if (walletRepository.adjustBalance(userId, currency, amount) == 1) {
+            return;
         }
-
-        if (wallet.getBalance().compareTo(BigDecimal.ZERO) < 0) {
+        if (amount.signum() < 0) {
             throw new InsufficientBalanceException("Insufficient balance in " + currency + " wallet");
         }
 
-        walletRepository.save(wallet);
+        // First credit in this currency: open the wallet at zero, then apply as usual
+        openWallet(userId, currency);
+        walletRepository.adjustBalance(userId, currency, amount);
+    }
+
+    /**
+     * Debits one currency and credits another in the same transaction. Legs are applied
+     * in currency order so opposite trades by the same user always lock the two wallet
+     * rows in the same order and cannot deadlock; if the debit fails the credit is
+     * rolled back with it.
+     */
+    @Transactional
+    public void settle(Long userId, String debitCurrency, BigDecimal debitAmount,
+                       String creditCurrency, BigDecimal creditAmount) {
+        if (debitCurrency.compareTo(creditCurrency) < 0) {
+            updateBalance(userId, debitCurrency, debitAmount.negate());
+            updateBalance(userId, creditCurrency, creditAmount);
+        } else {
+            updateBalance(userId, creditCurrency, creditAmount);
+            updateBalance(userId, debitCurrency, debitAmount.negate());
+        }
+    }
+
+    private void openWallet(Long userId, String currency) {
+        // Plain JDBC so a losing race surfaces as a statement error without poisoning the JPA transaction
+        try {
+            jdbcTemplate.update(OPEN_WALLET_SQL, userId, currency);
+        } catch (DuplicateKeyException e) {
+            // Opened by a concurrent transaction; the adjustment below applies on top of it
+        }
     }
 }
@@ -0,0 +1,236 @@
+package com.trading.stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class for a single exchange market-data WebSocket. Handles frame reassembly,
+ * serialized sends and reconnecting with exponential backoff; subclasses only
+ * subscribe and decode messages.
+ */
+@Slf4j
+public abstract class ExchangeStream implements WebSocket.Listener {
+    private final String name;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final StringBuilder textBuffer = new StringBuilder();
+    private final ByteArrayOutputStream binaryBuffer = new ByteArrayOutputStream();
+    private final AtomicBoolean reconnectPending = new AtomicBoolean();
+    private final AtomicLong connectCount = new AtomicLong();
+    private final AtomicLong messageCount = new AtomicLong();
+
+    private volatile Runnable reconnectListener = () -> { };
+    private volatile WebSocket webSocket;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile long lastMessageAt;
+    private volatile Duration backoff;
+    private CompletableFuture<WebSocket> sendChain = CompletableFuture.completedFuture(null);
+
+    protected ExchangeStream(String name, StreamSettings settings) {
+        this.name = name;
+        this.httpClient = settings.httpClient();
+        this.scheduler = settings.scheduler();
+        this.initialBackoff = settings.initialBackoff();
+        this.maxBackoff = settings.maxBackoff();
+        this.backoff = initialBackoff;
+    }
+
+    protected abstract URI uri();
+
+    protected abstract void handleText(WebSocket webSocket, String message) throws Exception;
+
+    protected void handleBinary(WebSocket webSocket, byte[] message) throws Exception {
+        log.debug("{} stream ignored {} byte binary frame", name, message.length);
+    }
+
+    protected void onConnected(WebSocket webSocket) {
+    }
+
+    /**
+     * Invoked after every successful reconnect (not the first connect), so the caller
+     * can fill whatever was missed while the stream was down.
+     */
+    public void setReconnectListener(Runnable reconnectListener) {
+        this.reconnectListener = reconnectListener;
+    }
+
+    public void start() {
+        running = true;
+        connect();
+    }
+
+    public void stop() {
+        running = false;
+        connected = false;
+        WebSocket current = webSocket;
+        if (current != null) {
+            current.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown")
+                    .orTimeout(1, TimeUnit.SECONDS)
+                    .whenComplete((ws, error) -> current.abort());
+        }
+    }
+
+    /**
+     * Drops the current connection, e.g. when it is open but has gone silent, and
+     * schedules a fresh one.
+     */
+    public void forceReconnect() {
+        log.warn("{} stream forcing reconnect", name);
+        connected = false;
+        WebSocket current = webSocket;
+        if (current != null) {
+            current.abort();
+        }
+        scheduleReconnect();
+    }
+
+    public boolean isHealthy(Duration staleAfter) {
+        return connected && System.currentTimeMillis() - lastMessageAt <= staleAfter.toMillis();
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getConnectCount() {
+        return connectCount.get();
+    }
+
+    public long getMessageCount() {
+        return messageCount.get();
+    }
+
+    protected synchronized void send(WebSocket webSocket, String message) {
+        sendChain = sendChain
+                .exceptionally(error -> null)
+                .thenCompose(previous -> webSocket.sendText(message, true));
+    }
+
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        URI target = uri();
+        log.info("Connecting {} stream to {}", name, target);
+        httpClient.newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(target, this)
+                .whenComplete((ws, error) -> {
+                    if (error != null) {
+                        log.warn("{} stream connection failed: {}", name, error.getMessage());
+                        scheduleReconnect();
+                    }
+                });
+    }
+
+    private void scheduleReconnect() {
+        if (!running || !reconnectPending.compareAndSet(false, true)) {
+            return;
+        }
+        Duration delay = backoff;
+        backoff = backoff.multipliedBy(2).compareTo(maxBackoff) > 0 ? maxBackoff : backoff.multipliedBy(2);
+        log.info("Reconnecting {} stream in {} ms", name, delay.toMillis());
+        scheduler.schedule(() -> {
+            reconnectPending.set(false);
+            connect();
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        this.webSocket = webSocket;
+        textBuffer.setLength(0);
+        binaryBuffer.reset();
+        synchronized (this) {
+            sendChain = CompletableFuture.completedFuture(webSocket);
+        }
+        connected = true;
+        lastMessageAt = System.currentTimeMillis();
+        backoff = initialBackoff;
+        long connects = connectCount.incrementAndGet();
+        log.info("{} stream connected", name);
+
+        onConnected(webSocket);
+        webSocket.request(1);
+
+        if (connects > 1) {
+            scheduler.execute(reconnectListener);
+        }
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        textBuffer.append(data);
+        if (last) {
+            String message = textBuffer.toString();
+            textBuffer.setLength(0);
+            markMessage();
+            try {
+                handleText(webSocket, message);
+            } catch (Exception e) {
+                log.warn("{} stream failed to handle message: {}", name, e.getMessage());
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+        byte[] chunk = new byte[data.remaining()];
+        data.get(chunk);
+        binaryBuffer.write(chunk, 0, chunk.length);
+        if (last) {
+            byte[] message = binaryBuffer.toByteArray();
+            binaryBuffer.reset();
+            markMessage();
+            try {
+                handleBinary(webSocket, message);
+            } catch (Exception e) {
+                log.warn("{} stream failed to handle binary message: {}", name, e.getMessage());
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        log.warn("{} stream closed: {} {}", name, statusCode, reason);
+        connected = false;
+        scheduleReconnect();
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        log.warn("{} stream error: {}", name, error.getMessage());
+        connected = false;
+        scheduleReconnect();
+    }
+
+    private void markMessage() {
+        lastMessageAt = System.currentTimeMillis();
+        messageCount.incrementAndGet();
+    }
+}
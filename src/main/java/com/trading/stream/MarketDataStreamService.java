@@ -0,0 +1,114 @@
+package com.trading.stream;
+
+import com.trading.exchange.ExchangeAdapter;
+import com.trading.service.PriceService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming ingestion mode ({@code price.ingestion.mode=streaming}). Opens the push
+ * stream of every {@link ExchangeAdapter} that offers one, feeds each book-ticker update
+ * straight into {@link PriceService} and falls back to the REST poll whenever a stream
+ * is down or has gone silent.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "price.ingestion.mode", havingValue = PriceService.STREAMING_MODE)
+public class MarketDataStreamService {
+    private final PriceService priceService;
+    private final List<ExchangeAdapter> exchangeAdapters;
+
+    @Value("${price.stream.reconnect.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${price.stream.reconnect.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${price.stream.stale-after-ms:15000}")
+    private long staleAfterMs;
+
+    @Value("${price.stream.gap-fill-interval-ms:5000}")
+    private long gapFillIntervalMs;
+
+    private ScheduledExecutorService scheduler;
+    private List<ExchangeStream> streams = List.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "market-data-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        StreamSettings settings = new StreamSettings(
+                HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build(),
+                scheduler,
+                Duration.ofMillis(initialBackoffMs),
+                Duration.ofMillis(maxBackoffMs));
+
+        streams = exchangeAdapters.stream()
+                .map(adapter -> adapter.createStream(PriceService.TRADING_PAIRS, priceService::onQuote, settings))
+                .flatMap(Optional::stream)
+                .toList();
+        streams.forEach(stream -> {
+            stream.setReconnectListener(this::gapFill);
+            stream.start();
+        });
+
+        // Seed prices over REST so trading is possible before the first stream tick arrives
+        scheduler.execute(this::gapFill);
+        scheduler.scheduleWithFixedDelay(this::checkStreams, gapFillIntervalMs, gapFillIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        streams.forEach(ExchangeStream::stop);
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isHealthy() {
+        Duration staleAfter = Duration.ofMillis(staleAfterMs);
+        return !streams.isEmpty() && streams.stream().allMatch(stream -> stream.isHealthy(staleAfter));
+    }
+
+    void checkStreams() {
+        Duration staleAfter = Duration.ofMillis(staleAfterMs);
+        boolean degraded = false;
+        for (ExchangeStream stream : streams) {
+            if (stream.isHealthy(staleAfter)) {
+                continue;
+            }
+            degraded = true;
+            if (stream.isConnected()) {
+                // Open but silent: the socket is probably half-dead
+                stream.forceReconnect();
+            }
+        }
+        if (degraded) {
+            gapFill();
+        }
+    }
+
+    private void gapFill() {
+        log.info("Gap-filling prices over REST while streams recover");
+        priceService.fetchAndSavePrices();
+    }
+}
@@ -0,0 +1,12 @@
+package com.trading.stream;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Connection resources and reconnect policy shared by every exchange stream.
+ */
+public record StreamSettings(HttpClient httpClient, ScheduledExecutorService scheduler,
+                             Duration initialBackoff, Duration maxBackoff) {
+}
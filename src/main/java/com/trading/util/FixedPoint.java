@@ -0,0 +1,111 @@
+package com.trading.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices and quantities as longs scaled by 10^8, matching the DECIMAL(20,8) columns in
+ * schema.sql. Used on the quote hot path so ticks can be parsed, compared and cached
+ * without allocating {@link BigDecimal}s; convert at the API/persistence boundary only.
+ */
+public final class FixedPoint {
+    public static final int SCALE = 8;
+    public static final long ONE = 100_000_000L;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+    public static long parse(CharSequence text) {
+        int length = text.length();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return parse(chars, 0, length);
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 50000.12345678}, rounding half-up beyond
+     * eight fraction digits. Exponent notation is rare on the wire and takes the
+     * {@link BigDecimal} slow path.
+     *
+     * @throws NumberFormatException if the text is not a decimal number or overflows
+     */
+    public static long parse(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        long value = 0;
+        int fractionDigits = -1;
+        boolean sawDigit = false;
+        boolean roundUp = false;
+        try {
+            for (; i < end; i++) {
+                char c = chars[i];
+                if (c >= '0' && c <= '9') {
+                    sawDigit = true;
+                    if (fractionDigits == SCALE) {
+                        // First dropped digit decides the rounding; the rest are ignored
+                        roundUp = c >= '5';
+                        fractionDigits++;
+                        continue;
+                    }
+                    if (fractionDigits > SCALE) {
+                        continue;
+                    }
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                    value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+                } else if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else if (c == 'e' || c == 'E') {
+                    return slowParse(new String(chars, offset, length));
+                } else {
+                    throw new NumberFormatException("Invalid decimal: " + new String(chars, offset, length));
+                }
+            }
+            if (!sawDigit) {
+                throw new NumberFormatException("Invalid decimal: " + new String(chars, offset, length));
+            }
+
+            int scaleUp = SCALE - Math.min(Math.max(fractionDigits, 0), SCALE);
+            value = Math.multiplyExact(value, POWERS_OF_TEN[scaleUp]);
+            if (roundUp) {
+                value = Math.addExact(value, 1);
+            }
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Decimal out of range: " + new String(chars, offset, length));
+        }
+        return negative ? -value : value;
+    }
+
+    public static BigDecimal toBigDecimal(long value) {
+        return BigDecimal.valueOf(value, SCALE);
+    }
+
+    public static long fromBigDecimal(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static String toString(long value) {
+        return toBigDecimal(value).toPlainString();
+    }
+
+    private static long slowParse(String text) {
+        try {
+            return fromBigDecimal(new BigDecimal(text));
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Decimal out of range: " + text);
+        }
+    }
+}
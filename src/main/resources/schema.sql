@@ -4,14 +4,36 @@ CREATE TABLE IF NOT EXISTS prices (
     bid_price DECIMAL(20,8) NOT NULL,
     ask_price DECIMAL(20,8) NOT NULL,
     exchange VARCHAR(10) NOT NULL,
+    bid_exchange VARCHAR(10),
+    ask_exchange VARCHAR(10),
     timestamp TIMESTAMP NOT NULL
 );
 
+CREATE INDEX IF NOT EXISTS idx_prices_symbol_timestamp ON prices (symbol, timestamp);
+-- Retention purge deletes by age across all symbols
+CREATE INDEX IF NOT EXISTS idx_prices_timestamp ON prices (timestamp);
+
+CREATE TABLE IF NOT EXISTS price_candles (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    symbol VARCHAR(10) NOT NULL,
+    bucket_interval VARCHAR(4) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    open_price DECIMAL(20,8) NOT NULL,
+    high_price DECIMAL(20,8) NOT NULL,
+    low_price DECIMAL(20,8) NOT NULL,
+    close_price DECIMAL(20,8) NOT NULL,
+    tick_count INT NOT NULL,
+    CONSTRAINT uk_price_candles_bucket UNIQUE (symbol, bucket_interval, bucket_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_price_candles_interval_start ON price_candles (bucket_interval, bucket_start);
+
 CREATE TABLE IF NOT EXISTS wallet (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     user_id BIGINT NOT NULL,
     currency VARCHAR(10) NOT NULL,
-    balance DECIMAL(20,8) NOT NULL
+    balance DECIMAL(20,8) NOT NULL,
+    CONSTRAINT uk_wallet_user_currency UNIQUE (user_id, currency)
 );
 
 CREATE TABLE IF NOT EXISTS trades (
@@ -23,4 +45,45 @@ CREATE TABLE IF NOT EXISTS trades (
     quantity DECIMAL(20,8) NOT NULL,
     total DECIMAL(20,8) NOT NULL,
     timestamp TIMESTAMP NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_trades_user_timestamp ON trades (user_id, timestamp DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL,
+    trade_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_idempotency_keys_user_key UNIQUE (user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created ON idempotency_keys (created_at);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    symbol VARCHAR(10) NOT NULL,
+    type VARCHAR(4) NOT NULL,
+    order_type VARCHAR(5) NOT NULL,
+    price DECIMAL(20,8) NOT NULL,
+    quantity DECIMAL(20,8) NOT NULL,
+    reserved DECIMAL(20,8) NOT NULL,
+    status VARCHAR(9) NOT NULL,
+    trade_id BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_status ON orders (status);
+CREATE INDEX IF NOT EXISTS idx_orders_user_created ON orders (user_id, created_at);
+
+CREATE TABLE IF NOT EXISTS positions (
+    user_id BIGINT NOT NULL,
+    symbol VARCHAR(10) NOT NULL,
+    quantity DECIMAL(20,8) NOT NULL,
+    cost DECIMAL(20,8) NOT NULL,
+    realized_pnl DECIMAL(20,8) NOT NULL,
+    last_trade_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, symbol)
+);
@@ -0,0 +1,70 @@
+package com.trading.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class AdmissionControlTest {
+
+    @Test
+    @DisplayName("Should shed requests beyond the in-flight limit until one completes")
+    void tryAcquire_ShouldBoundRequestsInFlight() {
+        AdmissionControl admission = new AdmissionControl(2, 250, 5, () -> 0);
+
+        String first = admission.tryAcquire();
+        String second = admission.tryAcquire();
+        String third = admission.tryAcquire();
+        admission.release(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertAll("In-flight validation",
+                () -> assertThat(first).isNull(),
+                () -> assertThat(second).isNull(),
+                () -> assertThat(third).isEqualTo(AdmissionControl.IN_FLIGHT),
+                () -> assertThat(admission.tryAcquire()).isNull(),
+                () -> assertThat(admission.getInFlight()).isEqualTo(2)
+        );
+    }
+
+    @Test
+    @DisplayName("Should halve the in-flight limit while latency is above target and restore it after")
+    void tryAcquire_WhileSlow_ShouldHalveLimit() {
+        AdmissionControl admission = new AdmissionControl(4, 100, 5, () -> 0);
+        admission.tryAcquire();
+        admission.release(TimeUnit.MILLISECONDS.toNanos(500));
+
+        admission.tryAcquire();
+        admission.tryAcquire();
+        String slow = admission.tryAcquire();
+        for (int i = 0; i < 40; i++) {
+            admission.tryAcquire();
+            admission.release(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        assertAll("Latency validation",
+                () -> assertThat(slow).isEqualTo(AdmissionControl.LATENCY),
+                () -> assertThat(admission.tryAcquire()).isNull(),
+                () -> assertThat(admission.tryAcquire()).isNull()
+        );
+    }
+
+    @Test
+    @DisplayName("Should shed while too many threads wait for a database connection")
+    void tryAcquire_WithConnectionQueue_ShouldShed() {
+        AtomicInteger waiting = new AtomicInteger(5);
+        AdmissionControl admission = new AdmissionControl(10, 250, 5, waiting::get);
+
+        String shed = admission.tryAcquire();
+        waiting.set(0);
+
+        assertAll("Connection queue validation",
+                () -> assertThat(shed).isEqualTo(AdmissionControl.CONNECTIONS),
+                () -> assertThat(admission.tryAcquire()).isNull(),
+                () -> assertThat(admission.getShedCount()).isEqualTo(1)
+        );
+    }
+}
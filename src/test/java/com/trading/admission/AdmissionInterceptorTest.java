@@ -0,0 +1,79 @@
+package com.trading.admission;
+
+import com.trading.exception.TooManyRequestsException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionInterceptorTest {
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private AdmissionControl admissionControl;
+
+    @InjectMocks
+    private AdmissionInterceptor interceptor;
+
+    @Test
+    @DisplayName("Should classify trade and order requests by endpoint")
+    void endpoint_ShouldClassifyRequests() {
+        assertAll("Endpoint validation",
+                () -> assertThat(AdmissionInterceptor.endpoint(new MockHttpServletRequest("POST", "/api/trades")))
+                        .isEqualTo(RateLimiter.EXECUTE),
+                () -> assertThat(AdmissionInterceptor.endpoint(new MockHttpServletRequest("POST", "/api/trades/batch")))
+                        .isEqualTo(RateLimiter.BATCH),
+                () -> assertThat(AdmissionInterceptor.endpoint(new MockHttpServletRequest("GET", "/api/trades")))
+                        .isEqualTo(RateLimiter.HISTORY),
+                () -> assertThat(AdmissionInterceptor.endpoint(new MockHttpServletRequest("DELETE", "/api/orders/3")))
+                        .isEqualTo(RateLimiter.ORDERS)
+        );
+    }
+
+    @Test
+    @DisplayName("Should refuse a rate-limited client with the time until its next token")
+    void preHandle_WhenRateLimited_ShouldThrowWithRetryAfter() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/trades");
+        request.setRemoteAddr("10.0.0.7");
+        when(rateLimiter.tryAcquire(RateLimiter.EXECUTE, "10.0.0.7")).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+
+        TooManyRequestsException error = assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request, new MockHttpServletResponse(), null));
+
+        assertThat(error.getRetryAfterSeconds()).isEqualTo(2);
+        verify(admissionControl, never()).tryAcquire();
+    }
+
+    @Test
+    @DisplayName("Should shed when admission control refuses and release admitted requests on completion")
+    void preHandle_ShouldApplyAdmissionControl() throws Exception {
+        MockHttpServletRequest shed = new MockHttpServletRequest("POST", "/api/trades");
+        MockHttpServletRequest admitted = new MockHttpServletRequest("POST", "/api/trades");
+        when(admissionControl.tryAcquire()).thenReturn(AdmissionControl.IN_FLIGHT, (String) null);
+
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(shed, new MockHttpServletResponse(), null));
+        boolean proceed = interceptor.preHandle(admitted, new MockHttpServletResponse(), null);
+        interceptor.afterCompletion(admitted, new MockHttpServletResponse(), null, null);
+
+        assertThat(proceed).isTrue();
+        verify(admissionControl).release(anyLong());
+    }
+}
@@ -0,0 +1,67 @@
+package com.trading.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("Should allow a burst, then one request per emission interval")
+    void tryAcquire_ShouldRefillAtConfiguredRate() {
+        TokenBuckets buckets = new TokenBuckets(10, 3, clock::get);
+
+        long[] burst = {buckets.tryAcquire("a"), buckets.tryAcquire("a"), buckets.tryAcquire("a")};
+        long refused = buckets.tryAcquire("a");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        long refilled = buckets.tryAcquire("a");
+
+        assertAll("Token bucket validation",
+                () -> assertThat(burst).containsOnly(0L),
+                () -> assertThat(refused).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100)),
+                () -> assertThat(refilled).isZero(),
+                () -> assertThat(buckets.tryAcquire("a")).isPositive(),
+                () -> assertThat(buckets.tryAcquire("b")).isZero()
+        );
+    }
+
+    @Test
+    @DisplayName("Should drop only buckets that have refilled completely")
+    void sweep_ShouldDropIdleBuckets() {
+        TokenBuckets buckets = new TokenBuckets(10, 3, clock::get);
+        buckets.tryAcquire("idle");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        buckets.tryAcquire("busy");
+
+        assertAll("Sweep validation",
+                () -> assertThat(buckets.sweep()).isEqualTo(1),
+                () -> assertThat(buckets.size()).isEqualTo(1)
+        );
+    }
+
+    @Test
+    @DisplayName("Should limit each endpoint separately and count refusals per endpoint")
+    void tryAcquire_ShouldLimitPerEndpoint() {
+        RateLimiter rateLimiter = new RateLimiter(Map.of(
+                RateLimiter.EXECUTE, new TokenBuckets(1, 1, clock::get),
+                RateLimiter.HISTORY, new TokenBuckets(1, 1, clock::get)));
+
+        rateLimiter.tryAcquire(RateLimiter.EXECUTE, "a");
+        long refused = rateLimiter.tryAcquire(RateLimiter.EXECUTE, "a");
+        long otherEndpoint = rateLimiter.tryAcquire(RateLimiter.HISTORY, "a");
+
+        assertAll("Per-endpoint validation",
+                () -> assertThat(refused).isPositive(),
+                () -> assertThat(otherEndpoint).isZero(),
+                () -> assertThat(rateLimiter.getRejectedCount(RateLimiter.EXECUTE)).isEqualTo(1),
+                () -> assertThat(rateLimiter.getRejectedCount(RateLimiter.HISTORY)).isZero()
+        );
+    }
+}
@@ -0,0 +1,78 @@
+package com.trading.controller;
+
+import com.trading.exception.InvalidRequestException;
+import com.trading.service.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportControllerTest {
+
+    @Mock
+    private ExportService exportService;
+
+    @InjectMocks
+    private ExportController exportController;
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportController, "timeoutMs", 3600000L);
+    }
+
+    @Test
+    @DisplayName("Should stream trades as a CSV attachment under the export timeout, reading nothing up front")
+    void exportTrades_ShouldStreamCsv() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 3, 1, 0, 0);
+        WebAsyncTask<Void> task = exportController.exportTrades(1L, "BTCUSDT", from, null, ExportController.CSV,
+                response);
+
+        assertAll(
+                () -> assertEquals(ExportController.TEXT_CSV.toString(), response.getContentType()),
+                () -> assertEquals("attachment; filename=\"trades.csv\"",
+                        response.getHeader(HttpHeaders.CONTENT_DISPOSITION)),
+                () -> assertEquals(3600000L, task.getTimeout())
+        );
+        verifyNoInteractions(exportService);
+
+        task.getCallable().call();
+        verify(exportService).exportTrades(1L, "BTCUSDT", from, null, false, response.getOutputStream());
+    }
+
+    @Test
+    @DisplayName("Should stream gzipped prices when csv.gz is requested")
+    void exportPrices_Gzip_ShouldCompress() throws Exception {
+        WebAsyncTask<Void> task =
+                exportController.exportPrices("ETHUSDT", null, null, ExportController.CSV_GZIP, response);
+
+        assertEquals(ExportController.APPLICATION_GZIP.toString(), response.getContentType());
+        task.getCallable().call();
+        verify(exportService).exportPrices("ETHUSDT", null, null, true, response.getOutputStream());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown formats and empty time ranges")
+    void export_InvalidRequest_ShouldThrow() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(InvalidRequestException.class,
+                () -> exportController.exportTrades(null, null, null, null, "parquet", response));
+        assertThrows(InvalidRequestException.class,
+                () -> exportController.exportPrices(null, now, now, ExportController.CSV, response));
+    }
+}
@@ -0,0 +1,75 @@
+package com.trading.controller;
+
+import com.trading.dto.OrderRequest;
+import com.trading.dto.OrderResponse;
+import com.trading.model.TradeOrder;
+import com.trading.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderControllerTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private OrderController orderController;
+
+    private OrderResponse openOrder;
+
+    @BeforeEach
+    void setUp() {
+        openOrder = new OrderResponse();
+        openOrder.setOrderId(1L);
+        openOrder.setSymbol("BTCUSDT");
+        openOrder.setType("BUY");
+        openOrder.setOrderType(TradeOrder.LIMIT);
+        openOrder.setPrice(new BigDecimal("48000"));
+        openOrder.setQuantity(new BigDecimal("0.5"));
+        openOrder.setReserved(new BigDecimal("24000"));
+        openOrder.setStatus(TradeOrder.OPEN);
+    }
+
+    @Test
+    @DisplayName("Should place the order for user 1")
+    void placeOrder_ShouldDelegateToService() {
+        OrderRequest request = new OrderRequest();
+        when(orderService.placeOrder(1L, request)).thenReturn(openOrder);
+
+        OrderResponse response = orderController.placeOrder(request);
+
+        assertEquals(openOrder, response);
+        verify(orderService).placeOrder(1L, request);
+    }
+
+    @Test
+    @DisplayName("Should list user 1's orders")
+    void getUserOrders_ShouldReturnOrders() {
+        when(orderService.getUserOrders(1L)).thenReturn(List.of(openOrder));
+
+        assertEquals(List.of(openOrder), orderController.getUserOrders());
+    }
+
+    @Test
+    @DisplayName("Should cancel the order for user 1")
+    void cancelOrder_ShouldDelegateToService() {
+        openOrder.setStatus(TradeOrder.CANCELLED);
+        when(orderService.cancelOrder(1L, 1L)).thenReturn(openOrder);
+
+        OrderResponse response = orderController.cancelOrder(1L);
+
+        assertEquals(TradeOrder.CANCELLED, response.getStatus());
+    }
+}
@@ -0,0 +1,31 @@
+package com.trading.controller;
+
+import com.trading.dto.PortfolioResponse;
+import com.trading.service.PortfolioService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioControllerTest {
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @InjectMocks
+    private PortfolioController portfolioController;
+
+    @Test
+    void getPortfolio_ShouldReturnUsersPortfolio() {
+        PortfolioResponse portfolio = new PortfolioResponse();
+        when(portfolioService.getPortfolio(1L)).thenReturn(portfolio);
+
+        assertSame(portfolio, portfolioController.getPortfolio());
+        verify(portfolioService).getPortfolio(1L);
+    }
+}
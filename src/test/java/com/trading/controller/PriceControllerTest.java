@@ -1,7 +1,12 @@
 package com.trading.controller;
 
+import com.trading.dto.CandleResponse;
+import com.trading.exception.InvalidRequestException;
 import com.trading.model.Price;
+import com.trading.service.CandleInterval;
+import com.trading.service.CandleService;
 import com.trading.service.PriceService;
+import com.trading.service.PriceStreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -28,6 +33,12 @@ class PriceControllerTest {
     @Mock
     private PriceService priceService;
 
+    @Mock
+    private CandleService candleService;
+
+    @Mock
+    private PriceStreamService priceStreamService;
+
     @InjectMocks
     private PriceController priceController;
 
@@ -143,4 +154,46 @@ class PriceControllerTest {
                     verify(priceService, times(1)).getLatestPrice(symbol));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("GET /api/prices/{symbol}/candles")
+    class GetCandles {
+
+        @Test
+        @DisplayName("Should return candles for the requested window")
+        void getCandles_WithWindow_ShouldDelegateToCandleService() {
+            LocalDateTime from = now.minusMinutes(10);
+            CandleResponse candle = new CandleResponse();
+            candle.setSymbol("BTCUSDT");
+            when(candleService.getCandles("BTCUSDT", CandleInterval.ONE_MINUTE, from, now))
+                    .thenReturn(List.of(candle));
+
+            ResponseEntity<List<CandleResponse>> response = priceController.getCandles("BTCUSDT", "1m", from, now);
+
+            assertAll(
+                    () -> assertEquals(HttpStatus.OK, response.getStatusCode()),
+                    () -> assertEquals(List.of(candle), response.getBody())
+            );
+        }
+
+        @Test
+        @DisplayName("Should default to the last 100 candles")
+        void getCandles_WithoutWindow_ShouldUseDefaultWindow() {
+            priceController.getCandles("ETHUSDT", "1h", null, now);
+
+            verify(candleService).getCandles("ETHUSDT", CandleInterval.ONE_HOUR, now.minusHours(100), now);
+        }
+
+        @Test
+        @DisplayName("Should reject unknown intervals and symbols")
+        void getCandles_WhenParametersInvalid_ShouldThrow() {
+            assertAll(
+                    () -> assertThrows(InvalidRequestException.class,
+                            () -> priceController.getCandles("BTCUSDT", "5m", null, null)),
+                    () -> assertThrows(InvalidRequestException.class,
+                            () -> priceController.getCandles("DOGEUSDT", "1m", null, null))
+            );
+            verifyNoInteractions(candleService);
+        }
+    }
+}
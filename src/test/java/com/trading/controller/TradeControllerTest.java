@@ -1,8 +1,11 @@
 package com.trading.controller;
 
+import com.trading.dto.BatchTradeRequest;
+import com.trading.dto.BatchTradeResponse;
+import com.trading.dto.BatchTradeResult;
+import com.trading.dto.TradePage;
 import com.trading.dto.TradeRequest;
 import com.trading.dto.TradeResponse;
-import com.trading.model.Trade;
 import com.trading.service.TradeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -35,7 +38,7 @@ class TradeControllerTest {
     private TradeRequest BUYTradeRequest;
     private TradeRequest SELLTradeRequest;
     private TradeResponse sampleTradeResponse;
-    private List<Trade> sampleTrades;
+    private TradePage samplePage;
     private LocalDateTime now;
 
     @BeforeEach
@@ -61,23 +64,23 @@ class TradeControllerTest {
         sampleTradeResponse.setTotal(new BigDecimal("25000.00"));
         sampleTradeResponse.setTimestamp(now);
 
-        Trade trade1 = new Trade();
-        trade1.setId(1L);
-        trade1.setUserId(1L);
+        TradeResponse trade1 = new TradeResponse();
+        trade1.setTradeId(2L);
         trade1.setSymbol("BTCUSDT");
         trade1.setQuantity(new BigDecimal("0.5"));
         trade1.setPrice(new BigDecimal("50000.00"));
-        trade1.setTimestamp(now.minusDays(1));
+        trade1.setTimestamp(now);
 
-        Trade trade2 = new Trade();
-        trade2.setId(2L);
-        trade2.setUserId(1L);
+        TradeResponse trade2 = new TradeResponse();
+        trade2.setTradeId(1L);
         trade2.setSymbol("ETHUSDT");
         trade2.setQuantity(new BigDecimal("2.0"));
         trade2.setPrice(new BigDecimal("3000.00"));
-        trade2.setTimestamp(now);
+        trade2.setTimestamp(now.minusDays(1));
 
-        sampleTrades = Arrays.asList(trade1, trade2);
+        samplePage = new TradePage();
+        samplePage.setTrades(Arrays.asList(trade1, trade2));
+        samplePage.setNextCursor("next");
     }
 
     @Nested
@@ -90,7 +93,7 @@ class TradeControllerTest {
             when(tradeService.executeTrade(eq(1L), any(TradeRequest.class)))
                     .thenReturn(sampleTradeResponse);
 
-            TradeResponse response = tradeController.executeTrade(BUYTradeRequest);
+            TradeResponse response = tradeController.executeTrade(BUYTradeRequest, null);
 
             assertAll("BUY trade response validation",
                     () -> assertNotNull(response, "Response should not be null"),
@@ -120,7 +123,7 @@ class TradeControllerTest {
             when(tradeService.executeTrade(eq(1L), any(TradeRequest.class)))
                     .thenReturn(SELLResponse);
 
-            TradeResponse response = tradeController.executeTrade(SELLTradeRequest);
+            TradeResponse response = tradeController.executeTrade(SELLTradeRequest, null);
 
             assertAll("SELL trade response validation",
                     () -> assertEquals("ETHUSDT", response.getSymbol(), "Symbol should match"),
@@ -131,6 +134,46 @@ class TradeControllerTest {
 
             verify(tradeService).executeTrade(eq(1L), eq(SELLTradeRequest));
         }
+
+        @Test
+        @DisplayName("Should pass the Idempotency-Key header to the service")
+        void executeTrade_WithIdempotencyKey_ShouldUseKeyedExecution() {
+            when(tradeService.executeTrade(eq(1L), any(TradeRequest.class), eq("order-42")))
+                    .thenReturn(sampleTradeResponse);
+
+            TradeResponse response = tradeController.executeTrade(BUYTradeRequest, "order-42");
+
+            assertEquals(1L, response.getTradeId(), "Trade ID should match");
+            verify(tradeService).executeTrade(eq(1L), eq(BUYTradeRequest), eq("order-42"));
+            verify(tradeService, never()).executeTrade(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/trades/batch")
+    class ExecuteBatchTests {
+
+        @Test
+        @DisplayName("Should pass the batch to the service for user 1 and return its per-trade results")
+        void executeBatch_ShouldReturnPerTradeResults() {
+            BatchTradeRequest request = new BatchTradeRequest();
+            request.setMode(BatchTradeRequest.ATOMIC);
+            request.setTrades(List.of(BUYTradeRequest, SELLTradeRequest));
+            BatchTradeResponse batchResponse = new BatchTradeResponse();
+            batchResponse.setMode(BatchTradeRequest.ATOMIC);
+            batchResponse.setFilled(2);
+            batchResponse.setResults(List.of(BatchTradeResult.filled(0, sampleTradeResponse),
+                    BatchTradeResult.filled(1, sampleTradeResponse)));
+            when(tradeService.executeBatch(1L, request)).thenReturn(batchResponse);
+
+            BatchTradeResponse response = tradeController.executeBatch(request);
+
+            assertAll("Batch response validation",
+                    () -> assertEquals(2, response.getFilled()),
+                    () -> assertEquals(2, response.getResults().size()),
+                    () -> assertEquals(BatchTradeResult.FILLED, response.getResults().get(1).getStatus())
+            );
+        }
     }
 
     @Nested
@@ -138,37 +181,37 @@ class TradeControllerTest {
     class GetUserTradesTests {
 
         @Test
-        @DisplayName("Should return user's trading history")
-        void getUserTrades_ShouldReturnTradesList() {
-            when(tradeService.getUserTrades(1L)).thenReturn(sampleTrades);
+        @DisplayName("Should return one page of the user's trading history with the cursor for the next")
+        void getUserTrades_ShouldReturnTradePage() {
+            when(tradeService.getUserTrades(1L, null, null, null, null, null, null)).thenReturn(samplePage);
 
-            List<Trade> trades = tradeController.getUserTrades();
+            TradePage page = tradeController.getUserTrades(null, null, null, null, null, null);
 
             assertAll("Trade history validation",
-                    () -> assertNotNull(trades, "Trades list should not be null"),
-                    () -> assertEquals(2, trades.size(), "Should return correct number of trades"),
-                    () -> assertEquals("BTCUSDT", trades.get(0).getSymbol(),
+                    () -> assertNotNull(page, "Page should not be null"),
+                    () -> assertEquals(2, page.getTrades().size(), "Should return correct number of trades"),
+                    () -> assertEquals("BTCUSDT", page.getTrades().get(0).getSymbol(),
                             "First trade symbol should match"),
-                    () -> assertEquals("ETHUSDT", trades.get(1).getSymbol(),
-                            "Second trade symbol should match")
+                    () -> assertEquals("ETHUSDT", page.getTrades().get(1).getSymbol(),
+                            "Second trade symbol should match"),
+                    () -> assertEquals("next", page.getNextCursor(), "Next cursor should be passed through")
             );
-
-            verify(tradeService).getUserTrades(1L);
         }
 
         @Test
-        @DisplayName("Should handle empty trading history")
-        void getUserTrades_WhenNoTrades_ShouldReturnEmptyList() {
-            when(tradeService.getUserTrades(1L)).thenReturn(List.of());
+        @DisplayName("Should pass filters, cursor and limit through to the service")
+        void getUserTrades_WithFilters_ShouldDelegate() {
+            LocalDateTime from = now.minusDays(7);
+            TradePage emptyPage = new TradePage();
+            emptyPage.setTrades(List.of());
+            when(tradeService.getUserTrades(1L, "BTCUSDT", "SELL", from, now, "abc", 50)).thenReturn(emptyPage);
 
-            List<Trade> trades = tradeController.getUserTrades();
+            TradePage page = tradeController.getUserTrades("BTCUSDT", "SELL", from, now, "abc", 50);
 
             assertAll("Empty trade history validation",
-                    () -> assertNotNull(trades, "Trades list should not be null"),
-                    () -> assertTrue(trades.isEmpty(), "Trades list should be empty")
+                    () -> assertTrue(page.getTrades().isEmpty(), "Trades list should be empty"),
+                    () -> assertNull(page.getNextCursor(), "Last page should have no cursor")
             );
-
-            verify(tradeService).getUserTrades(1L);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.trading.engine;
+
+import com.trading.model.Position;
+import com.trading.model.Trade;
+import com.trading.repository.PositionLedger;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcTradeJournalTest {
+    private static final long USER_ID = 77L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTradeJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        journal = new JdbcTradeJournal(jdbcTemplate, transactionManager, new PositionLedger(jdbcTemplate),
+                100, 50, 20, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.stop();
+        cleanUp();
+    }
+
+    private void cleanUp() {
+        jdbcTemplate.update("DELETE FROM trades WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM wallet WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM positions WHERE user_id = ?", USER_ID);
+    }
+
+    private static SettledTrade settled(long id, String usdtBalance, String btcBalance) {
+        Trade trade = new Trade(id, USER_ID, "BTCUSDT", "BUY", new BigDecimal("100"), BigDecimal.ONE,
+                new BigDecimal("100"), LocalDateTime.now());
+        return new SettledTrade(trade, "USDT", FixedPoint.parse(usdtBalance), "BTC", FixedPoint.parse(btcBalance));
+    }
+
+    @Test
+    @DisplayName("Should write every trade and leave each wallet at its last journaled balance")
+    void append_ShouldPersistTradesAndFinalBalances() {
+        journal.start();
+        long firstId = journal.lastTradeId() + 1;
+        for (int i = 0; i < 10; i++) {
+            journal.append(settled(firstId + i, String.valueOf(900 - i * 100), String.valueOf(i + 1)));
+        }
+        journal.stop();
+
+        List<Map<String, Object>> wallets = jdbcTemplate.queryForList(
+                "SELECT currency, balance FROM wallet WHERE user_id = ? ORDER BY currency", USER_ID);
+        assertAll(
+                () -> assertEquals(10, journal.getWrittenCount()),
+                () -> assertEquals(10, jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM trades WHERE user_id = ?", Integer.class, USER_ID)),
+                () -> assertEquals(firstId + 9, journal.lastTradeId()),
+                () -> assertEquals(2, wallets.size()),
+                () -> assertEquals(0, BigDecimal.TEN.compareTo((BigDecimal) wallets.get(0).get("BALANCE"))),
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) wallets.get(1).get("BALANCE")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should update an existing wallet row in place instead of adding another")
+    void append_ShouldUpsertExistingWallet() {
+        jdbcTemplate.update("INSERT INTO wallet (user_id, currency, balance) VALUES (?, 'USDT', 1000)", USER_ID);
+        journal.start();
+
+        journal.append(settled(journal.lastTradeId() + 1, "900", "1"));
+        journal.stop();
+
+        assertEquals(0, new BigDecimal("900").compareTo(jdbcTemplate.queryForObject(
+                "SELECT balance FROM wallet WHERE user_id = ? AND currency = 'USDT'", BigDecimal.class, USER_ID)));
+    }
+
+    @Test
+    @DisplayName("Should update positions with the trades and not count them again when replayed")
+    void replay_ShouldApplyPositionsOnce() {
+        long firstId = journal.lastTradeId() + 1;
+        List<SettledTrade> batch = List.of(settled(firstId, "900", "1"), settled(firstId + 1, "800", "2"));
+
+        journal.replay(batch);
+        journal.replay(batch);
+
+        Position position = new PositionLedger(jdbcTemplate).findByUserId(USER_ID).get("BTCUSDT");
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("2").compareTo(position.quantity())),
+                () -> assertEquals(0, new BigDecimal("200").compareTo(position.cost()))
+        );
+    }
+}
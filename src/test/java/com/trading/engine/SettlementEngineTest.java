@@ -0,0 +1,190 @@
+package com.trading.engine;
+
+import com.trading.exception.InsufficientBalanceException;
+import com.trading.exception.TradeOutcomeUnknownException;
+import com.trading.model.Trade;
+import com.trading.model.Wallet;
+import com.trading.repository.WalletRepository;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementEngineTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    private final List<SettledTrade> journaled = Collections.synchronizedList(new ArrayList<>());
+    private SettlementEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        TradeJournal journal = new TradeJournal() {
+            @Override
+            public CompletableFuture<Void> append(SettledTrade settled) {
+                journaled.add(settled);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public long lastTradeId() {
+                return 41L;
+            }
+        };
+        engine = new SettlementEngine(walletRepository, journal, "engine", 4, 1000);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    private static Wallet wallet(Long userId, String currency, String balance) {
+        return new Wallet(null, userId, currency, new BigDecimal(balance));
+    }
+
+    private static Trade trade(Long userId) {
+        Trade trade = new Trade();
+        trade.setUserId(userId);
+        trade.setSymbol("BTCUSDT");
+        trade.setType("BUY");
+        trade.setPrice(new BigDecimal("100"));
+        trade.setQuantity(BigDecimal.ONE);
+        trade.setTotal(new BigDecimal("100"));
+        trade.setTimestamp(LocalDateTime.now());
+        return trade;
+    }
+
+    private Map<String, BigDecimal> balances(Long userId) {
+        return engine.getWallets(userId).stream()
+                .collect(Collectors.toMap(Wallet::getCurrency, Wallet::getBalance));
+    }
+
+    @Test
+    @DisplayName("Should settle both legs in memory and journal the resulting balances")
+    void settle_ShouldMoveBalancesAndJournal() {
+        when(walletRepository.findByUserId(1L)).thenReturn(List.of(wallet(1L, "USDT", "250")));
+
+        Trade settled = engine.settle(trade(1L), "USDT", new BigDecimal("100"), "BTC", new BigDecimal("0.5"));
+
+        Map<String, BigDecimal> balances = balances(1L);
+        assertAll(
+                () -> assertEquals(42L, settled.getId()),
+                () -> assertEquals(0, new BigDecimal("150").compareTo(balances.get("USDT"))),
+                () -> assertEquals(0, new BigDecimal("0.5").compareTo(balances.get("BTC"))),
+                () -> assertEquals(1, journaled.size()),
+                () -> assertEquals(FixedPoint.parse("150"), journaled.get(0).debitBalance()),
+                () -> assertEquals(FixedPoint.parse("0.5"), journaled.get(0).creditBalance())
+        );
+        verify(walletRepository, times(1)).findByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject an overdraft and leave balances and journal untouched")
+    void settle_ShouldRejectOverdraft() {
+        when(walletRepository.findByUserId(1L)).thenReturn(List.of(wallet(1L, "USDT", "50")));
+
+        InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class,
+                () -> engine.settle(trade(1L), "USDT", new BigDecimal("100"), "BTC", BigDecimal.ONE));
+
+        assertAll(
+                () -> assertEquals("Insufficient USDT balance", exception.getMessage()),
+                () -> assertEquals(0, new BigDecimal("50").compareTo(balances(1L).get("USDT"))),
+                () -> assertTrue(journaled.isEmpty()),
+                () -> assertEquals(1, engine.getRejectedCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Should report a trade whose journal force failed as settled with an unknown outcome")
+    void settle_WhenJournalFails_ShouldReportUnknownOutcome() {
+        TradeJournal failing = new TradeJournal() {
+            @Override
+            public CompletableFuture<Void> append(SettledTrade settled) {
+                return CompletableFuture.failedFuture(new UncheckedIOException(new IOException("disk full")));
+            }
+
+            @Override
+            public long lastTradeId() {
+                return 41L;
+            }
+        };
+        SettlementEngine failingEngine = new SettlementEngine(walletRepository, failing, "engine", 1, 1000);
+        failingEngine.start();
+        when(walletRepository.findByUserId(1L)).thenReturn(List.of(wallet(1L, "USDT", "250")));
+
+        try {
+            TradeOutcomeUnknownException exception = assertThrows(TradeOutcomeUnknownException.class,
+                    () -> failingEngine.settle(trade(1L), "USDT", new BigDecimal("100"), "BTC", BigDecimal.ONE));
+
+            assertAll(
+                    () -> assertEquals(42L, exception.getTradeId()),
+                    () -> assertEquals(0, new BigDecimal("150").compareTo(
+                            failingEngine.getWallets(1L).get(0).getBalance()))
+            );
+        } finally {
+            failingEngine.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should settle concurrent submissions for many users exactly once each")
+    void submit_ShouldConserveBalancesAcrossShards() {
+        when(walletRepository.findByUserId(anyLong()))
+                .thenAnswer(invocation -> List.of(wallet(invocation.getArgument(0), "USDT", "1000")));
+
+        List<CompletableFuture<Trade>> futures = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long userId = i % 16;
+            futures.add(engine.submit(trade(userId), "USDT", new BigDecimal("10"), "BTC", new BigDecimal("0.1")));
+        }
+        // 125 orders of 10 USDT per user against 1000 USDT: exactly 100 settle, the rest are rejected
+        long rejected = futures.stream()
+                .map(future -> future.handle((trade, error) -> error))
+                .map(CompletableFuture::join)
+                .filter(error -> error instanceof CompletionException
+                        && error.getCause() instanceof InsufficientBalanceException)
+                .count();
+
+        assertAll(
+                () -> assertEquals(400, rejected),
+                () -> assertEquals(1600, journaled.size()),
+                () -> assertEquals(1600, journaled.stream().map(settled -> settled.trade().getId()).distinct().count()),
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo(balances(5L).get("USDT"))),
+                () -> assertEquals(0, BigDecimal.TEN.compareTo(balances(5L).get("BTC")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should refuse work when engine mode is off")
+    void settle_WhenDisabled_ShouldThrow() {
+        SettlementEngine disabled = new SettlementEngine(walletRepository, mock(TradeJournal.class), "database", 1, 1000);
+        disabled.start();
+
+        assertFalse(disabled.isEnabled());
+        assertThrows(IllegalStateException.class, () -> disabled.getWallets(1L));
+    }
+}
@@ -0,0 +1,249 @@
+package com.trading.engine;
+
+import com.trading.model.Trade;
+import com.trading.repository.PositionLedger;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalTradeJournalTest {
+    private static final long USER_ID = 88L;
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private final List<JdbcTradeJournal> projections = new ArrayList<>();
+    private final List<WalTradeJournal> journals = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clearDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journals.forEach(WalTradeJournal::close);
+        projections.forEach(JdbcTradeJournal::stop);
+        clearDatabase();
+    }
+
+    private void clearDatabase() {
+        jdbcTemplate.update("DELETE FROM trades WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM wallet WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM positions WHERE user_id = ?", USER_ID);
+    }
+
+    // The test database is lost on every restart, like the in-memory datasource
+    private WalTradeJournal openJournal() {
+        return openJournal(false);
+    }
+
+    private WalTradeJournal openJournal(boolean databaseDurable) {
+        JdbcTradeJournal projection = new JdbcTradeJournal(jdbcTemplate, transactionManager,
+                new PositionLedger(jdbcTemplate), 1000, 100, 10, 5000);
+        projection.start();
+        projections.add(projection);
+        WalTradeJournal journal = new WalTradeJournal(projection, directory.toString(), SEGMENT_BYTES, true, 5000,
+                databaseDurable);
+        journal.recover();
+        journals.add(journal);
+        return journal;
+    }
+
+    private void restart(WalTradeJournal journal) {
+        stopProcess(journal);
+        // Simulate losing the database along with the process, except for what recovery restores
+        clearDatabase();
+    }
+
+    private void stopProcess(WalTradeJournal journal) {
+        journal.close();
+        projections.forEach(JdbcTradeJournal::stop);
+    }
+
+    private static SettledTrade settled(long id, long usdtBalance, long btcBalance) {
+        Trade trade = new Trade(id, USER_ID, "BTCUSDT", "BUY", new BigDecimal("100.12345678"), BigDecimal.ONE,
+                new BigDecimal("100.12345678"), LocalDateTime.of(2024, 1, 2, 3, 4, 5, 600_000_000));
+        return new SettledTrade(trade, "USDT", usdtBalance * FixedPoint.ONE, "BTC", btcBalance * FixedPoint.ONE);
+    }
+
+    private void appendAll(WalTradeJournal journal, long firstId, int count) {
+        List<CompletableFuture<Void>> durable = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            durable.add(journal.append(settled(id, 10_000 - id, id)));
+        }
+        CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private int tradeRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trades WHERE user_id = ?", Integer.class, USER_ID);
+    }
+
+    private BigDecimal balance(String currency) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM wallet WHERE user_id = ? AND currency = ?",
+                BigDecimal.class, USER_ID, currency);
+    }
+
+    private long files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(suffix)).count();
+        }
+    }
+
+    @Test
+    @DisplayName("Should complete appends once forced and share forces between concurrent appends")
+    void append_ShouldGroupCommit() {
+        WalTradeJournal journal = openJournal();
+
+        appendAll(journal, 1, 500);
+
+        assertAll(
+                () -> assertEquals(500, journal.getAppendedCount()),
+                () -> assertTrue(journal.getForceCount() >= 1),
+                () -> assertTrue(journal.getForceCount() <= 500)
+        );
+    }
+
+    @Test
+    @DisplayName("Should rebuild trades and balances by replaying every segment after a restart")
+    void recover_ShouldReplayJournalIntoDatabase() {
+        WalTradeJournal journal = openJournal();
+        // Enough entries to roll over several segments
+        appendAll(journal, 1, 2000);
+        restart(journal);
+
+        WalTradeJournal recovered = openJournal();
+
+        Trade replayed = jdbcTemplate.queryForObject("SELECT * FROM trades WHERE id = 2000",
+                (row, n) -> new Trade(row.getLong("id"), row.getLong("user_id"), row.getString("symbol"),
+                        row.getString("type"), row.getBigDecimal("price"), row.getBigDecimal("quantity"),
+                        row.getBigDecimal("total"), row.getTimestamp("timestamp").toLocalDateTime()));
+        assertAll(
+                () -> assertEquals(2000, tradeRows()),
+                () -> assertEquals(2000, recovered.lastTradeId()),
+                () -> assertEquals(0, new BigDecimal("8000").compareTo(balance("USDT"))),
+                () -> assertEquals(0, new BigDecimal("2000").compareTo(balance("BTC"))),
+                () -> assertEquals(0, new BigDecimal("100.12345678").compareTo(replayed.getPrice())),
+                () -> assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 600_000_000), replayed.getTimestamp())
+        );
+    }
+
+    @Test
+    @DisplayName("Should restore balances from the snapshot and replay only the tail after it")
+    void snapshot_ShouldTruncateJournalAndRecoverFromIt() throws IOException {
+        WalTradeJournal journal = openJournal(true);
+        appendAll(journal, 1, 2000);
+        journal.snapshot();
+        appendAll(journal, 2001, 5);
+        // The database outlives the process and already holds the trades the snapshot covers
+        stopProcess(journal);
+        jdbcTemplate.update("DELETE FROM trades WHERE user_id = ? AND id > 2000", USER_ID);
+
+        assertAll(
+                () -> assertEquals(1, files(".bin")),
+                () -> assertEquals(1, files(".wal"))
+        );
+
+        WalTradeJournal recovered = openJournal(true);
+        assertAll(
+                () -> assertEquals(2005, tradeRows()),
+                () -> assertEquals(2005, recovered.lastTradeId()),
+                () -> assertEquals(0, new BigDecimal("7995").compareTo(balance("USDT"))),
+                () -> assertEquals(0, new BigDecimal("2005").compareTo(balance("BTC")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep every segment and rebuild the whole history when the database is in memory")
+    void snapshot_WithInMemoryDatabase_ShouldKeepJournalAndReplayAll() throws IOException {
+        WalTradeJournal journal = openJournal();
+        appendAll(journal, 1, 2000);
+        journal.snapshot();
+        appendAll(journal, 2001, 5);
+        long segments = files(".wal");
+        restart(journal);
+
+        assertAll(
+                () -> assertEquals(0, files(".bin")),
+                () -> assertTrue(segments > 1),
+                () -> assertEquals(segments, files(".wal"))
+        );
+
+        WalTradeJournal recovered = openJournal();
+        assertAll(
+                () -> assertEquals(2005, tradeRows()),
+                () -> assertEquals(2005, recovered.lastTradeId()),
+                () -> assertEquals(0, new BigDecimal("7995").compareTo(balance("USDT"))),
+                () -> assertEquals(0, new BigDecimal("2005").compareTo(balance("BTC"))),
+                () -> assertEquals(0, new BigDecimal("2005").compareTo(jdbcTemplate.queryForObject(
+                        "SELECT quantity FROM positions WHERE user_id = ? AND symbol = 'BTCUSDT'",
+                        BigDecimal.class, USER_ID)))
+        );
+    }
+
+    @Test
+    @DisplayName("Should stop at a torn write and keep appending after the last intact entry")
+    void recover_ShouldIgnoreTornTail() throws IOException {
+        WalTradeJournal journal = openJournal();
+        appendAll(journal, 1, 3);
+        restart(journal);
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.toString().endsWith(".wal")).findFirst().orElseThrow();
+        }
+        long tail = 3L * (JournalSegment.HEADER_BYTES + encodedLength());
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // A header promising a record whose payload never made it to disk
+            file.seek(tail);
+            file.writeInt(100);
+            file.writeInt(12345);
+            file.write(new byte[]{1, 2, 3});
+        }
+
+        WalTradeJournal recovered = openJournal();
+        appendAll(recovered, 4, 1);
+        restart(recovered);
+        openJournal();
+
+        assertEquals(4, tradeRows());
+    }
+
+    private static int encodedLength() {
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(JournalCodec.MAX_ENTRY_BYTES);
+        JournalCodec.encode(1, settled(1, 1, 1), buffer);
+        return buffer.position();
+    }
+}
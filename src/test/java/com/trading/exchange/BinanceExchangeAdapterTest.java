@@ -0,0 +1,82 @@
+package com.trading.exchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.dto.BinanceResponse;
+import com.trading.exception.ExchangeConnectionException;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BinanceExchangeAdapterTest {
+
+    private static final List<String> PAIRS = List.of("BTCUSDT", "ETHUSDT");
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private BinanceExchangeAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new BinanceExchangeAdapter(restTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(adapter, "baseUrl", "https://api.binance.com");
+    }
+
+    private static BinanceResponse ticker(String symbol, String bid, String ask) {
+        BinanceResponse response = new BinanceResponse();
+        response.setSymbol(symbol);
+        response.setBidPrice(bid);
+        response.setAskPrice(ask);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Should request only the configured pairs and map them to quotes")
+    void fetchQuotes_ShouldRequestConfiguredSymbolsOnly() {
+        when(restTemplate.getForEntity(any(URI.class), eq(BinanceResponse[].class)))
+                .thenReturn(ResponseEntity.ok(new BinanceResponse[]{
+                        ticker("BTCUSDT", "50000.00000000", "50100.00000000"),
+                        ticker("ETHUSDT", "3000.00000000", "3010.00000000")}));
+
+        List<ExchangeQuote> quotes = adapter.fetchQuotes(PAIRS);
+
+        ArgumentCaptor<URI> uriCaptor = ArgumentCaptor.forClass(URI.class);
+        verify(restTemplate).getForEntity(uriCaptor.capture(), eq(BinanceResponse[].class));
+        assertAll(
+                () -> assertEquals("/api/v3/ticker/bookTicker", uriCaptor.getValue().getPath()),
+                () -> assertEquals("symbols=[\"BTCUSDT\",\"ETHUSDT\"]", uriCaptor.getValue().getQuery()),
+                () -> assertEquals(2, quotes.size()),
+                () -> assertEquals("BINANCE", quotes.get(0).exchange()),
+                () -> assertEquals("BTCUSDT", quotes.get(0).symbol()),
+                () -> assertEquals(FixedPoint.parse("50000.00000000"), quotes.get(0).bid()),
+                () -> assertEquals(FixedPoint.parse("50100.00000000"), quotes.get(0).ask())
+        );
+    }
+
+    @Test
+    @DisplayName("Should wrap transport failures in ExchangeConnectionException")
+    void fetchQuotes_WhenRequestFails_ShouldThrowExchangeConnectionException() {
+        when(restTemplate.getForEntity(any(URI.class), eq(BinanceResponse[].class)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        assertThrows(ExchangeConnectionException.class, () -> adapter.fetchQuotes(PAIRS));
+    }
+}
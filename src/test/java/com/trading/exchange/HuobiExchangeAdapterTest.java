@@ -0,0 +1,79 @@
+package com.trading.exchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.exception.ExchangeConnectionException;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HuobiExchangeAdapterTest {
+
+    private static final List<String> PAIRS = List.of("BTCUSDT", "ETHUSDT");
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private HuobiExchangeAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new HuobiExchangeAdapter(restTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(adapter, "baseUrl", "https://api.huobi.pro");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should stream the ticker list and return normalized quotes for configured pairs")
+    void fetchQuotes_ShouldReturnConfiguredPairsOnly() {
+        byte[] body = ("{\"status\":\"ok\",\"data\":["
+                + "{\"symbol\":\"btcusdt\",\"bid\":50050.0,\"ask\":50150.0},"
+                + "{\"symbol\":\"ltcusdt\",\"bid\":70.1,\"ask\":70.2},"
+                + "{\"symbol\":\"ethusdt\",\"bid\":3005.0,\"ask\":3015.0}]}").getBytes(StandardCharsets.UTF_8);
+        when(restTemplate.execute(eq(URI.create("https://api.huobi.pro/market/tickers")), eq(HttpMethod.GET),
+                isNull(), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> invocation.<ResponseExtractor<?>>getArgument(3)
+                        .extractData(new MockClientHttpResponse(body, HttpStatus.OK)));
+
+        List<ExchangeQuote> quotes = adapter.fetchQuotes(PAIRS);
+
+        assertAll(
+                () -> assertEquals(2, quotes.size()),
+                () -> assertEquals("HUOBI", quotes.get(0).exchange()),
+                () -> assertEquals("BTCUSDT", quotes.get(0).symbol()),
+                () -> assertEquals(FixedPoint.parse("50050.0"), quotes.get(0).bid()),
+                () -> assertEquals("ETHUSDT", quotes.get(1).symbol())
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should wrap transport failures in ExchangeConnectionException")
+    void fetchQuotes_WhenRequestFails_ShouldThrowExchangeConnectionException() {
+        when(restTemplate.execute(any(URI.class), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        assertThrows(ExchangeConnectionException.class, () -> adapter.fetchQuotes(PAIRS));
+    }
+}
@@ -0,0 +1,74 @@
+package com.trading.exchange;
+
+import com.trading.dto.HuobiPrice;
+import com.trading.dto.HuobiWrapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HuobiTickersParserTest {
+
+    private static final List<String> PAIRS = List.of("BTCUSDT", "ETHUSDT");
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should keep only the requested symbols")
+    void parse_ShouldSkipNonMatchingTickers() throws IOException {
+        String body = "{\"status\":\"ok\",\"ts\":1629788763750,\"data\":["
+                + "{\"symbol\":\"sylousdt\",\"open\":0.00251,\"bid\":0.002501,\"bidSize\":1000,"
+                + "\"ask\":0.002549,\"askSize\":2500,\"meta\":{\"tags\":[1,2]}},"
+                + "{\"symbol\":\"btcusdt\",\"open\":49000.0,\"bid\":50050.12,\"bidSize\":0.5,"
+                + "\"ask\":50051.34,\"askSize\":1.25},"
+                + "{\"symbol\":\"dogeusdt\",\"bid\":0.1,\"ask\":0.2},"
+                + "{\"symbol\":\"ethusdt\",\"bid\":3005.5,\"bidSize\":null,\"ask\":3006.5,\"askSize\":2}"
+                + "]}";
+
+        HuobiWrapper wrapper = HuobiTickersParser.parse(json(body), PAIRS);
+
+        assertEquals("ok", wrapper.getStatus());
+        assertEquals(2, wrapper.getData().size());
+        HuobiPrice btc = wrapper.getData().get(0);
+        HuobiPrice eth = wrapper.getData().get(1);
+        assertAll(
+                () -> assertEquals("btcusdt", btc.getSymbol()),
+                () -> assertEquals(new BigDecimal("50050.12"), btc.getBid()),
+                () -> assertEquals(new BigDecimal("50051.34"), btc.getAsk()),
+                () -> assertEquals(new BigDecimal("1.25"), btc.getAskSize()),
+                () -> assertEquals("ethusdt", eth.getSymbol()),
+                () -> assertNull(eth.getBidSize())
+        );
+    }
+
+    @Test
+    @DisplayName("Should read tickers whose symbol is not the first field")
+    void parse_WhenSymbolComesLast_ShouldStillMatch() throws IOException {
+        String body = "{\"data\":[{\"bid\":\"50050.12\",\"ask\":50051.34,\"symbol\":\"btcusdt\"},"
+                + "{\"bid\":1,\"ask\":2,\"symbol\":\"xrpusdt\"}],\"status\":\"ok\"}";
+
+        HuobiWrapper wrapper = HuobiTickersParser.parse(json(body), PAIRS);
+
+        assertEquals(1, wrapper.getData().size());
+        assertEquals(new BigDecimal("50050.12"), wrapper.getData().get(0).getBid());
+    }
+
+    @Test
+    @DisplayName("Should return no tickers for an error payload")
+    void parse_WhenDataMissing_ShouldReturnEmptyList() throws IOException {
+        HuobiWrapper wrapper = HuobiTickersParser.parse(
+                json("{\"status\":\"error\",\"err-msg\":\"invalid\",\"data\":null}"), PAIRS);
+
+        assertEquals("error", wrapper.getStatus());
+        assertTrue(wrapper.getData().isEmpty());
+    }
+}
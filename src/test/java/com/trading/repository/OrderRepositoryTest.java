@@ -0,0 +1,69 @@
+package com.trading.repository;
+
+import com.trading.model.TradeOrder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private TradeOrder open;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAllInBatch();
+        open = orderRepository.save(createOrder(1L, TradeOrder.OPEN, LocalDateTime.now()));
+        orderRepository.save(createOrder(1L, TradeOrder.FILLED, LocalDateTime.now().minusHours(1)));
+        orderRepository.save(createOrder(2L, TradeOrder.OPEN, LocalDateTime.now()));
+    }
+
+    private TradeOrder createOrder(Long userId, String status, LocalDateTime createdAt) {
+        TradeOrder order = new TradeOrder();
+        order.setUserId(userId);
+        order.setSymbol("BTCUSDT");
+        order.setType("BUY");
+        order.setOrderType(TradeOrder.LIMIT);
+        order.setPrice(new BigDecimal("48000"));
+        order.setQuantity(BigDecimal.ONE);
+        order.setReserved(new BigDecimal("48000"));
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+
+    @Test
+    @DisplayName("Should find open orders across users and a user's orders newest first")
+    void finders_ShouldFilterAndOrder() {
+        assertEquals(2, orderRepository.findByStatus(TradeOrder.OPEN).size());
+
+        List<TradeOrder> userOrders = orderRepository.findByUserIdOrderByCreatedAtDesc(1L);
+        assertEquals(List.of(TradeOrder.OPEN, TradeOrder.FILLED),
+                userOrders.stream().map(TradeOrder::getStatus).toList());
+    }
+
+    @Test
+    @DisplayName("Should move an order out of OPEN only once")
+    void transition_ShouldOnlyApplyFromExpectedStatus() {
+        assertEquals(1, orderRepository.transition(open.getId(), TradeOrder.OPEN, TradeOrder.FILLED));
+        assertEquals(0, orderRepository.transition(open.getId(), TradeOrder.OPEN, TradeOrder.CANCELLED));
+
+        orderRepository.attachTrade(open.getId(), 99L);
+        TradeOrder filled = orderRepository.findById(open.getId()).orElseThrow();
+        assertAll(
+                () -> assertEquals(TradeOrder.FILLED, filled.getStatus()),
+                () -> assertEquals(99L, filled.getTradeId())
+        );
+    }
+}
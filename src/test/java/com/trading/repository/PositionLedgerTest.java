@@ -0,0 +1,79 @@
+package com.trading.repository;
+
+import com.trading.model.Position;
+import com.trading.model.Trade;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+@DataJpaTest
+@Import(PositionLedger.class)
+class PositionLedgerTest {
+
+    @Autowired
+    private PositionLedger positionLedger;
+
+    @Test
+    @DisplayName("Should keep open quantity, average cost and realized PnL per symbol")
+    void record_ShouldTrackAverageCostAndRealizedPnl() {
+        positionLedger.record(trade(1, "BTCUSDT", "BUY", "1", "40000"));
+        positionLedger.record(List.of(
+                trade(2, "BTCUSDT", "BUY", "1", "50000"),
+                trade(3, "ETHUSDT", "BUY", "2", "3000")));
+        positionLedger.record(trade(4, "BTCUSDT", "SELL", "0.5", "60000"));
+
+        Map<String, Position> positions = positionLedger.findByUserId(1L);
+
+        Position btc = positions.get("BTCUSDT");
+        assertAll("Position validation",
+                () -> assertThat(btc.quantity()).isEqualByComparingTo("1.5"),
+                () -> assertThat(btc.averageCost()).isEqualByComparingTo("45000"),
+                () -> assertThat(btc.realizedPnl()).isEqualByComparingTo("7500"),
+                () -> assertThat(positions.get("ETHUSDT").cost()).isEqualByComparingTo("6000")
+        );
+    }
+
+    @Test
+    @DisplayName("Should close the position and realize only the part of an oversized sell that had a cost")
+    void record_WithSellBeyondPosition_ShouldClosePosition() {
+        positionLedger.record(trade(1, "BTCUSDT", "BUY", "1", "40000"));
+        positionLedger.record(trade(2, "BTCUSDT", "SELL", "2", "50000"));
+
+        Position btc = positionLedger.findByUserId(1L).get("BTCUSDT");
+
+        assertAll("Closed position validation",
+                () -> assertThat(btc.quantity()).isEqualByComparingTo("0"),
+                () -> assertThat(btc.cost()).isEqualByComparingTo("0"),
+                () -> assertThat(btc.realizedPnl()).isEqualByComparingTo("10000")
+        );
+    }
+
+    @Test
+    @DisplayName("Should skip journaled trades already applied when they are written again on replay")
+    void recordJournaled_ShouldApplyEachTradeOnce() {
+        List<Trade> batch = List.of(
+                trade(1, "BTCUSDT", "BUY", "1", "40000"),
+                trade(2, "BTCUSDT", "BUY", "1", "50000"));
+
+        positionLedger.recordJournaled(batch);
+        positionLedger.recordJournaled(List.of(batch.get(1), trade(3, "BTCUSDT", "BUY", "1", "60000")));
+
+        assertThat(positionLedger.findByUserId(1L).get("BTCUSDT").quantity()).isEqualByComparingTo("3");
+    }
+
+    private static Trade trade(long id, String symbol, String type, String quantity, String price) {
+        BigDecimal amount = new BigDecimal(quantity);
+        BigDecimal unitPrice = new BigDecimal(price);
+        return new Trade(id, 1L, symbol, type, unitPrice, amount, unitPrice.multiply(amount), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,70 @@
+package com.trading.repository;
+
+import com.trading.model.PriceCandle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class PriceCandleRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PriceCandleRepository priceCandleRepository;
+
+    private LocalDateTime baseTime;
+
+    @BeforeEach
+    void setUp() {
+        baseTime = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+        for (int minute = 0; minute < 5; minute++) {
+            createAndPersistCandle("BTCUSDT", "1m", baseTime.plusMinutes(minute));
+        }
+        createAndPersistCandle("BTCUSDT", "1h", baseTime);
+        createAndPersistCandle("ETHUSDT", "1m", baseTime);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should return the symbol's candles in [from, to) in bucket order")
+    void findCandles_ShouldReturnWindowInOrder() {
+        List<PriceCandle> candles = priceCandleRepository.findCandles("BTCUSDT", "1m",
+                baseTime.plusMinutes(1), baseTime.plusMinutes(4), PageRequest.of(0, 100));
+
+        assertAll(
+                () -> assertEquals(3, candles.size()),
+                () -> assertEquals(baseTime.plusMinutes(1), candles.get(0).getBucketStart()),
+                () -> assertEquals(baseTime.plusMinutes(3), candles.get(2).getBucketStart()),
+                () -> assertTrue(candles.stream().allMatch(c -> c.getBucketInterval().equals("1m")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should cap the result at the page size")
+    void findCandles_ShouldRespectLimit() {
+        List<PriceCandle> candles = priceCandleRepository.findCandles("BTCUSDT", "1m",
+                baseTime, baseTime.plusMinutes(5), PageRequest.of(0, 2));
+
+        assertEquals(2, candles.size());
+        assertEquals(baseTime, candles.get(0).getBucketStart());
+    }
+
+    private void createAndPersistCandle(String symbol, String interval, LocalDateTime bucketStart) {
+        BigDecimal price = new BigDecimal("100.00000000");
+        entityManager.persist(new PriceCandle(null, symbol, interval, bucketStart, price, price, price, price, 1));
+    }
+}
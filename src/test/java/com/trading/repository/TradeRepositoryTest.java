@@ -7,10 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -22,6 +24,9 @@ class TradeRepositoryTest {
     @Autowired
     private TradeRepository tradeRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Trade trade1;
     private Trade trade2;
     private Trade trade3;
@@ -86,4 +91,60 @@ class TradeRepositoryTest {
 
         assertThat(userTrades).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should page through the history newest first, breaking timestamp ties on id")
+    void findPage_ShouldResumeAfterCursor() {
+        LocalDateTime sameInstant = LocalDateTime.of(2024, 3, 1, 12, 0);
+        List<Trade> saved = tradeRepository.saveAll(List.of(trade1, trade2, trade3,
+                copyOf(trade1, sameInstant), copyOf(trade2, sameInstant), copyOf(trade1, sameInstant)));
+
+        List<Trade> first = tradeRepository.findPage(new TradeQuery(1L, null, null, null, null, null, null, 3));
+        Trade last = first.get(2);
+        List<Trade> second = tradeRepository.findPage(
+                new TradeQuery(1L, null, null, null, null, last.getTimestamp(), last.getId(), 3));
+
+        assertThat(first)
+                .extracting(Trade::getId)
+                .containsExactly(saved.get(1).getId(), saved.get(0).getId(), saved.get(5).getId());
+        assertThat(second)
+                .extracting(Trade::getId)
+                .containsExactly(saved.get(4).getId(), saved.get(3).getId());
+    }
+
+    @Test
+    @DisplayName("Should apply symbol, type and time range filters to a page")
+    void findPage_ShouldApplyFilters() {
+        tradeRepository.saveAll(List.of(trade1, trade2, trade3));
+        // The column keeps microseconds, so the stored trade2 timestamp is never after this
+        LocalDateTime now = trade2.getTimestamp().truncatedTo(ChronoUnit.MICROS);
+
+        assertThat(tradeRepository.findPage(new TradeQuery(1L, "BTCUSDT", null, null, null, null, null, 10)))
+                .extracting(Trade::getSymbol)
+                .containsExactly("BTCUSDT");
+        assertThat(tradeRepository.findPage(new TradeQuery(1L, null, "SELL", null, null, null, null, 10)))
+                .extracting(Trade::getType)
+                .containsExactly("SELL");
+        assertThat(tradeRepository.findPage(new TradeQuery(1L, null, null, now.minusHours(1), null, null, null, 10)))
+                .extracting(Trade::getSymbol)
+                .containsExactly("ETHUSDT");
+        assertThat(tradeRepository.findPage(new TradeQuery(1L, null, null, null, now, null, null, 10)))
+                .extracting(Trade::getSymbol)
+                .containsExactly("BTCUSDT");
+    }
+
+    @Test
+    @DisplayName("Should seek the user's trades through the (user_id, timestamp, id) index")
+    void findPage_ShouldUseHistoryIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM trades WHERE user_id = 1 "
+                + "AND timestamp <= TIMESTAMP '2024-03-01 12:00:00' ORDER BY timestamp DESC, id DESC LIMIT 100",
+                String.class);
+
+        assertThat(plan).containsIgnoringCase("IDX_TRADES_USER_TIMESTAMP");
+    }
+
+    private static Trade copyOf(Trade trade, LocalDateTime timestamp) {
+        return new Trade(null, trade.getUserId(), trade.getSymbol(), trade.getType(), trade.getPrice(),
+                trade.getQuantity(), trade.getTotal(), timestamp);
+    }
+}
@@ -24,7 +24,8 @@ class WalletRepositoryTest {
     @BeforeEach
     void setUp() {
         entityManager.clear();
-        walletRepository.deleteAll();
+        // Bulk delete so the old rows are gone before the inserts below hit the (user_id, currency) key
+        walletRepository.deleteAllInBatch();
 
         Wallet btcWallet = createWallet(1L, "BTC", 1.5);
         Wallet ethWallet = createWallet(1L, "ETH", 10.0);
@@ -0,0 +1,91 @@
+package com.trading.service;
+
+import com.trading.exchange.ExchangeQuote;
+import com.trading.model.Price;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestPriceAggregatorTest {
+
+    private final BestPriceAggregator aggregator = new BestPriceAggregator();
+
+    private static ExchangeQuote quote(String exchange, String bid, String ask, long receivedAt) {
+        return new ExchangeQuote(exchange, "BTCUSDT", FixedPoint.parse(bid), FixedPoint.parse(ask), receivedAt);
+    }
+
+    @Test
+    @DisplayName("Should pick best bid and ask across venues and record each side's venue")
+    void aggregate_ShouldPickBestSidesAcrossVenues() {
+        BestQuote best = aggregator.aggregate("BTCUSDT", List.of(
+                quote("BINANCE", "50000", "50100", 1000),
+                quote("HUOBI", "50050", "50150", 1000),
+                quote("OKX", "49990", "50080", 1000)));
+
+        assertAll(
+                () -> assertEquals("BTCUSDT", best.symbol()),
+                () -> assertEquals(FixedPoint.parse("50050"), best.bid()),
+                () -> assertEquals("HUOBI", best.bidExchange()),
+                () -> assertEquals(FixedPoint.parse("50080"), best.ask()),
+                () -> assertEquals("OKX", best.askExchange()),
+                () -> assertEquals(BestPriceAggregator.MIXED, best.exchange()),
+                () -> assertTrue(best.timestamp() > 0)
+        );
+    }
+
+    @Test
+    @DisplayName("Should stamp the quote with the receive time of its oldest winning side")
+    void aggregate_ShouldCarryAgeOfStalestWinningSide() {
+        BestQuote best = aggregator.aggregate("BTCUSDT", List.of(
+                quote("BINANCE", "50000", "50100", 5000),
+                quote("HUOBI", "50050", "50150", 1000),
+                quote("OKX", "49990", "50120", 9000)));
+
+        assertAll(
+                () -> assertEquals("HUOBI", best.bidExchange()),
+                () -> assertEquals(1000, best.timestamp())
+        );
+    }
+
+    @Test
+    @DisplayName("Should label the price with the venue when it supplies both sides")
+    void aggregate_WhenOneVenueBestOnBothSides_ShouldUseVenueName() {
+        BestQuote best = aggregator.aggregate("BTCUSDT", List.of(
+                quote("BINANCE", "50000", "50100", 0),
+                quote("HUOBI", "50050", "50090", 0)));
+
+        assertEquals("HUOBI", best.exchange());
+    }
+
+    @Test
+    @DisplayName("Should skip quotes received before the cutoff")
+    void aggregate_ShouldIgnoreStaleQuotes() {
+        BestQuote best = aggregator.aggregate("BTCUSDT", List.of(
+                quote("BINANCE", "50000", "50100", 1000),
+                quote("HUOBI", "50050", "50090", 10)), 500);
+
+        assertEquals("BINANCE", best.exchange());
+        assertNull(aggregator.aggregate("BTCUSDT", List.of(quote("HUOBI", "1", "2", 10)), 500));
+    }
+
+    @Test
+    @DisplayName("Should convert to a Price entity at scale 8 only at the boundary")
+    void toPrice_ShouldRenderFixedPointAsScaledDecimals() {
+        Price price = aggregator.aggregate("BTCUSDT", List.of(
+                quote("BINANCE", "50000.1", "50100.25", 0),
+                quote("HUOBI", "49000", "50200", 0))).toPrice();
+
+        assertAll(
+                () -> assertEquals(new BigDecimal("50000.10000000"), price.getBidPrice()),
+                () -> assertEquals(new BigDecimal("50100.25000000"), price.getAskPrice()),
+                () -> assertEquals("BINANCE", price.getExchange()),
+                () -> assertEquals("BINANCE", price.getBidExchange()),
+                () -> assertNotNull(price.getTimestamp())
+        );
+    }
+}
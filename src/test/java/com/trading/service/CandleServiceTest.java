@@ -0,0 +1,107 @@
+package com.trading.service;
+
+import com.trading.dto.CandleResponse;
+import com.trading.exception.InvalidRequestException;
+import com.trading.model.PriceCandle;
+import com.trading.repository.PriceCandleRepository;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandleServiceTest {
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR_START = 1_700_002_800_000L;
+
+    @Mock
+    private PriceCandleRepository priceCandleRepository;
+
+    private CandleService candleService;
+
+    @BeforeEach
+    void setUp() {
+        candleService = new CandleService(priceCandleRepository, 3, 100);
+    }
+
+    private static BestQuote quote(String mid, long timestamp) {
+        long price = FixedPoint.parse(mid);
+        return new BestQuote("BTCUSDT", price, "BINANCE", price, "BINANCE", timestamp);
+    }
+
+    private static LocalDateTime time(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    @Test
+    @DisplayName("Should serve recent closed and open candles from memory")
+    void getCandles_WithinRing_ShouldNotQueryRepository() {
+        candleService.onQuote(quote("100", HOUR_START + 1_000));
+        candleService.onQuote(quote("104", HOUR_START + 30_000));
+        candleService.onQuote(quote("98", HOUR_START + 50_000));
+        candleService.onQuote(quote("101", HOUR_START + MINUTE + 5_000));
+
+        List<CandleResponse> candles = candleService.getCandles("BTCUSDT", CandleInterval.ONE_MINUTE,
+                time(HOUR_START), time(HOUR_START + 2 * MINUTE));
+
+        assertEquals(2, candles.size());
+        CandleResponse first = candles.get(0);
+        assertAll(
+                () -> assertEquals(time(HOUR_START), first.getOpenTime()),
+                () -> assertEquals(new BigDecimal("100.00000000"), first.getOpen()),
+                () -> assertEquals(new BigDecimal("104.00000000"), first.getHigh()),
+                () -> assertEquals(new BigDecimal("98.00000000"), first.getLow()),
+                () -> assertEquals(new BigDecimal("98.00000000"), first.getClose()),
+                () -> assertEquals(3, first.getTickCount()),
+                () -> assertEquals(new BigDecimal("101.00000000"), candles.get(1).getOpen()),
+                () -> assertEquals(1, candles.get(1).getTickCount())
+        );
+        verifyNoInteractions(priceCandleRepository);
+    }
+
+    @Test
+    @DisplayName("Should read buckets evicted from the ring from the repository")
+    void getCandles_OlderThanRing_ShouldFallBackToRepository() {
+        for (int minute = 0; minute < 6; minute++) {
+            candleService.onQuote(quote("100", HOUR_START + minute * MINUTE));
+        }
+        PriceCandle persisted = new PriceCandle(1L, "BTCUSDT", "1m", time(HOUR_START),
+                new BigDecimal("90"), new BigDecimal("91"), new BigDecimal("89"), new BigDecimal("90"), 7);
+        when(priceCandleRepository.findCandles(eq("BTCUSDT"), eq("1m"), eq(time(HOUR_START)),
+                eq(time(HOUR_START + 2 * MINUTE)), any())).thenReturn(List.of(persisted));
+
+        List<CandleResponse> candles = candleService.getCandles("BTCUSDT", CandleInterval.ONE_MINUTE,
+                time(HOUR_START), time(HOUR_START + 6 * MINUTE));
+
+        // Ring of 3 holds minutes 2-4, minute 5 is open, minutes 0-1 come from the table
+        assertAll(
+                () -> assertEquals(5, candles.size()),
+                () -> assertEquals(7, candles.get(0).getTickCount()),
+                () -> assertEquals(time(HOUR_START + 2 * MINUTE), candles.get(1).getOpenTime()),
+                () -> assertEquals(time(HOUR_START + 5 * MINUTE), candles.get(4).getOpenTime())
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject windows larger than the per-request cap")
+    void getCandles_WhenWindowTooLarge_ShouldThrow() {
+        assertThrows(InvalidRequestException.class, () -> candleService.getCandles("BTCUSDT",
+                CandleInterval.ONE_SECOND, time(HOUR_START), time(HOUR_START + 101_000)));
+        assertThrows(InvalidRequestException.class, () -> candleService.getCandles("BTCUSDT",
+                CandleInterval.ONE_SECOND, time(HOUR_START), time(HOUR_START)));
+    }
+}
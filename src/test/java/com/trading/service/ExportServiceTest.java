@@ -0,0 +1,125 @@
+package com.trading.service;
+
+import com.trading.model.Price;
+import com.trading.model.Trade;
+import com.trading.repository.PriceRepository;
+import com.trading.repository.TradeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the exports against the real database outside a test transaction, since the
+ * export reads through its own JDBC cursor.
+ */
+@DataJpaTest(properties = "export.fetch-size=2")
+@Import(ExportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExportServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    private List<Trade> trades;
+
+    @BeforeEach
+    void setUp() {
+        List<Trade> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(new Trade(null, i % 2 == 0 ? 1L : 2L, "BTCUSDT", "BUY", new BigDecimal("50000.5"),
+                    new BigDecimal("0.1"), new BigDecimal("5000.05"), START.plusHours(i)));
+        }
+        trades = tradeRepository.saveAll(created);
+        priceRepository.save(new Price(null, "ETHUSDT", new BigDecimal("3000"), new BigDecimal("3001"),
+                BestPriceAggregator.MIXED, "BINANCE", "HUOBI", START));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tradeRepository.deleteAllInBatch();
+        priceRepository.deleteAllInBatch();
+    }
+
+    private static List<String> lines(byte[] csv) {
+        return List.of(new String(csv, StandardCharsets.UTF_8).split("\n"));
+    }
+
+    @Test
+    @DisplayName("Should write a header and one line per trade matching the user and time range, in id order")
+    void exportTrades_ShouldApplyFilters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportTrades(1L, null, START.plusHours(1), START.plusHours(5), false, out);
+
+        List<String> lines = lines(out.toByteArray());
+        assertAll(
+                () -> assertEquals(2, rows),
+                () -> assertEquals(ExportService.TRADES_HEADER, lines.get(0)),
+                () -> assertEquals(trades.get(2).getId() + ",1,BTCUSDT,BUY,50000.50000000,0.10000000,5000.05000000,"
+                        + START.plusHours(2), lines.get(1)),
+                () -> assertTrue(lines.get(2).startsWith(trades.get(4).getId() + ",1,")),
+                () -> assertEquals(3, lines.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Should gzip the export when asked")
+    void exportPrices_Gzip_ShouldRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPrices("ETHUSDT", null, null, true, out);
+
+        byte[] csv = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes();
+        List<String> lines = lines(csv);
+        assertEquals(ExportService.PRICES_HEADER, lines.get(0));
+        assertTrue(lines.get(1).endsWith(",ETHUSDT,3000.00000000,3001.00000000,MIXED,BINANCE,HUOBI," + START));
+    }
+
+    @Test
+    @DisplayName("Should stop reading and rethrow when the client goes away mid-export")
+    void exportTrades_ClientGone_ShouldAbort() {
+        // Enough rows to overflow the write buffer while the cursor is still open
+        List<Trade> more = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            more.add(new Trade(null, 3L, "ETHUSDT", "SELL", new BigDecimal("3000"), BigDecimal.ONE,
+                    new BigDecimal("3000"), START.plusMinutes(i)));
+        }
+        tradeRepository.saveAll(more);
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Connection reset by peer");
+            }
+        };
+
+        IOException error = assertThrows(IOException.class,
+                () -> exportService.exportTrades(null, null, null, null, false, disconnected));
+        assertEquals("Connection reset by peer", error.getMessage());
+    }
+}
@@ -0,0 +1,73 @@
+package com.trading.service;
+
+import com.trading.dto.TradeRequest;
+import com.trading.dto.TradeResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyCacheTest {
+
+    @Test
+    @DisplayName("Should hand the key to the first claimant and the completed response to later ones")
+    void claim_ShouldShareTheFirstResponse() {
+        IdempotencyCache cache = new IdempotencyCache(10, 60000);
+        TradeRequest request = new TradeRequest();
+        TradeResponse response = new TradeResponse();
+
+        IdempotencyCache.Claim first = cache.claim(1L, "k", request);
+        IdempotencyCache.Claim duplicate = cache.claim(1L, "k", new TradeRequest());
+        IdempotencyCache.Claim otherUser = cache.claim(2L, "k", request);
+        cache.complete(first, response);
+
+        assertAll("Claim validation",
+                () -> assertThat(first.owner()).isTrue(),
+                () -> assertThat(duplicate.owner()).isFalse(),
+                () -> assertThat(duplicate.request()).isSameAs(request),
+                () -> assertThat(duplicate.response().join()).isSameAs(response),
+                () -> assertThat(otherUser.owner()).isTrue()
+        );
+    }
+
+    @Test
+    @DisplayName("Should fail waiting duplicates and release the key when the claim is abandoned")
+    void abandon_ShouldReleaseKey() {
+        IdempotencyCache cache = new IdempotencyCache(10, 60000);
+        IdempotencyCache.Claim first = cache.claim(1L, "k", new TradeRequest());
+        IdempotencyCache.Claim duplicate = cache.claim(1L, "k", new TradeRequest());
+
+        cache.abandon(first, new IllegalStateException("failed"));
+
+        CompletionException error = assertThrows(CompletionException.class, () -> duplicate.response().join());
+        assertAll("Abandon validation",
+                () -> assertThat(error.getCause()).hasMessage("failed"),
+                () -> assertThat(cache.size()).isEqualTo(0),
+                () -> assertThat(cache.claim(1L, "k", new TradeRequest()).owner()).isTrue()
+        );
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest keys beyond max-entries and keys older than the TTL")
+    void claim_ShouldEvictOldestAndExpiredKeys() throws InterruptedException {
+        IdempotencyCache bounded = new IdempotencyCache(2, 60000);
+        bounded.claim(1L, "a", new TradeRequest());
+        bounded.claim(1L, "b", new TradeRequest());
+        bounded.claim(1L, "c", new TradeRequest());
+
+        IdempotencyCache expiring = new IdempotencyCache(10, 1);
+        expiring.claim(1L, "a", new TradeRequest());
+        Thread.sleep(5);
+        expiring.claim(1L, "b", new TradeRequest());
+
+        assertAll("Eviction validation",
+                () -> assertThat(bounded.size()).isEqualTo(2),
+                () -> assertThat(bounded.claim(1L, "a", new TradeRequest()).owner()).isTrue(),
+                () -> assertThat(expiring.size()).isEqualTo(1)
+        );
+    }
+}
@@ -0,0 +1,100 @@
+package com.trading.service;
+
+import com.trading.model.TradeOrder;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private final OrderBook book = new OrderBook();
+    private long nextId = 1;
+
+    private TradeOrder order(String type, String orderType, String price) {
+        TradeOrder order = new TradeOrder();
+        order.setId(nextId++);
+        order.setUserId(1L);
+        order.setSymbol("BTCUSDT");
+        order.setType(type);
+        order.setOrderType(orderType);
+        order.setPrice(new BigDecimal(price));
+        order.setQuantity(BigDecimal.ONE);
+        return order;
+    }
+
+    private static BestQuote quote(String bid, String ask) {
+        return new BestQuote("BTCUSDT", FixedPoint.parse(bid), "BINANCE", FixedPoint.parse(ask), "BINANCE",
+                System.currentTimeMillis());
+    }
+
+    private static List<Long> ids(List<TradeOrder> orders) {
+        return orders.stream().map(TradeOrder::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Should trigger buy limits at or above the ask, best limit first and in time order within a level")
+    void match_BuyLimits_ShouldTriggerOnlyCrossedLevels() {
+        TradeOrder low = order("BUY", TradeOrder.LIMIT, "49000");
+        TradeOrder high = order("BUY", TradeOrder.LIMIT, "50500");
+        TradeOrder atAsk = order("BUY", TradeOrder.LIMIT, "50000");
+        TradeOrder highLater = order("BUY", TradeOrder.LIMIT, "50500");
+        List.of(low, high, atAsk, highLater).forEach(book::add);
+
+        List<TradeOrder> triggered = book.match(quote("49990", "50000"));
+
+        assertEquals(List.of(high.getId(), highLater.getId(), atAsk.getId()), ids(triggered));
+        assertEquals(1, book.size());
+        assertTrue(book.match(quote("49990", "50000")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should trigger stops and sell limits on the side of the quote they watch")
+    void match_StopsAndSellLimits_ShouldUseTheirSideOfTheQuote() {
+        TradeOrder buyStop = order("BUY", TradeOrder.STOP, "51000");
+        TradeOrder sellLimit = order("SELL", TradeOrder.LIMIT, "50500");
+        TradeOrder sellStop = order("SELL", TradeOrder.STOP, "48000");
+        List.of(buyStop, sellLimit, sellStop).forEach(book::add);
+
+        // A bid of 50500 reaches the sell limit; the buy stop watches the ask, which is still below 51000
+        assertEquals(List.of(sellLimit.getId()), ids(book.match(quote("50500", "50600"))));
+        assertEquals(List.of(buyStop.getId()), ids(book.match(quote("50900", "51000"))));
+        assertTrue(book.match(quote("48100", "48200")).isEmpty());
+        assertEquals(List.of(sellStop.getId()), ids(book.match(quote("47990", "48000"))));
+        assertEquals(0, book.size());
+    }
+
+    @Test
+    @DisplayName("Should not trigger a removed order and report whether it was still resting")
+    void remove_ShouldTakeTheOrderOutOfItsLevel() {
+        TradeOrder first = order("SELL", TradeOrder.STOP, "48000");
+        TradeOrder second = order("SELL", TradeOrder.STOP, "48000");
+        book.add(first);
+        book.add(second);
+
+        assertTrue(book.remove(first));
+        assertFalse(book.remove(first));
+        assertEquals(List.of(second.getId()), ids(book.match(quote("47000", "47100"))));
+        assertFalse(book.remove(second));
+    }
+
+    @Test
+    @DisplayName("Should keep levels ordered as more levels are added than the initial capacity")
+    void add_ManyLevels_ShouldStayOrdered() {
+        for (int i = 0; i < 100; i++) {
+            book.add(order("BUY", TradeOrder.LIMIT, String.valueOf(40000 + (i * 37) % 100 * 10)));
+        }
+
+        List<TradeOrder> triggered = book.match(quote("40490", "40500"));
+
+        assertEquals(50, triggered.size());
+        for (int i = 1; i < triggered.size(); i++) {
+            assertTrue(triggered.get(i - 1).getPrice().compareTo(triggered.get(i).getPrice()) >= 0);
+        }
+        assertEquals(50, book.size());
+    }
+}
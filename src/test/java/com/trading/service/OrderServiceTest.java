@@ -0,0 +1,261 @@
+package com.trading.service;
+
+import com.trading.dto.OrderRequest;
+import com.trading.dto.OrderResponse;
+import com.trading.engine.SettlementEngine;
+import com.trading.exception.InsufficientBalanceException;
+import com.trading.exception.InvalidTradeException;
+import com.trading.exception.OrderNotFoundException;
+import com.trading.model.Trade;
+import com.trading.model.TradeOrder;
+import com.trading.repository.OrderRepository;
+import com.trading.repository.PositionLedger;
+import com.trading.repository.TradeRepository;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private TradeRepository tradeRepository;
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private PositionLedger positionLedger;
+
+    @Mock
+    private SettlementEngine settlementEngine;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LatestPriceCache latestPriceCache;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        latestPriceCache = new LatestPriceCache();
+        // Fills run on the calling thread so each test can check them straight after the quote
+        orderService = new OrderService(orderRepository, tradeRepository, walletService, positionLedger, settlementEngine,
+                latestPriceCache, transactionManager, 20000L, Runnable::run);
+    }
+
+    private static OrderRequest request(String type, String orderType, String price, String quantity) {
+        OrderRequest request = new OrderRequest();
+        request.setSymbol("BTCUSDT");
+        request.setType(type);
+        request.setOrderType(orderType);
+        request.setPrice(new BigDecimal(price));
+        request.setQuantity(new BigDecimal(quantity));
+        return request;
+    }
+
+    private static PriceUpdatedEvent quote(String bid, String ask) {
+        return quote(bid, ask, System.currentTimeMillis());
+    }
+
+    private static PriceUpdatedEvent quote(String bid, String ask, long timestamp) {
+        return new PriceUpdatedEvent(new BestQuote("BTCUSDT", FixedPoint.parse(bid), "BINANCE",
+                FixedPoint.parse(ask), "HUOBI", timestamp));
+    }
+
+    private OrderResponse place(OrderRequest request, long orderId) {
+        when(orderRepository.save(any(TradeOrder.class))).thenAnswer(invocation -> {
+            TradeOrder order = invocation.getArgument(0);
+            order.setId(orderId);
+            return order;
+        });
+        return orderService.placeOrder(1L, request);
+    }
+
+    private void stubFill(long tradeId) {
+        when(orderRepository.transition(anyLong(), eq(TradeOrder.OPEN), eq(TradeOrder.FILLED))).thenReturn(1);
+        when(tradeRepository.save(any(Trade.class))).thenAnswer(invocation -> {
+            Trade trade = invocation.getArgument(0);
+            trade.setId(tradeId);
+            return trade;
+        });
+    }
+
+    @Test
+    @DisplayName("Should reserve the order's USDT and rest it in the book until a quote crosses it")
+    void placeOrder_BuyLimit_ShouldReserveAndRest() {
+        OrderResponse response = place(request("BUY", TradeOrder.LIMIT, "48000", "0.5"), 7L);
+
+        assertAll("Placed order validation",
+                () -> assertThat(response.getOrderId()).isEqualTo(7L),
+                () -> assertThat(response.getStatus()).isEqualTo(TradeOrder.OPEN),
+                () -> assertThat(response.getReserved()).isEqualByComparingTo("24000"),
+                () -> assertThat(orderService.getOpenOrderCount()).isEqualTo(1)
+        );
+        verify(walletService).updateBalance(1L, "USDT", new BigDecimal("-24000.0"));
+
+        orderService.onPriceUpdated(quote("48500", "48600"));
+        verify(tradeRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should fill a crossed buy limit at the ask and release the unused part of the reservation")
+    void onPriceUpdated_CrossedBuyLimit_ShouldFillAtAsk() {
+        place(request("BUY", TradeOrder.LIMIT, "48000", "0.5"), 7L);
+        stubFill(42L);
+
+        orderService.onPriceUpdated(quote("47800", "47900"));
+
+        ArgumentCaptor<Trade> trade = ArgumentCaptor.forClass(Trade.class);
+        verify(tradeRepository).save(trade.capture());
+        assertAll("Filled trade validation",
+                () -> assertThat(trade.getValue().getPrice()).isEqualByComparingTo("47900"),
+                () -> assertThat(trade.getValue().getTotal()).isEqualByComparingTo("23950"),
+                () -> assertThat(orderService.getOpenOrderCount()).isZero()
+        );
+        // Reserved 24000, spent 23950: the debit leg is the negative difference, i.e. a 50 USDT refund
+        verify(walletService).settle(eq(1L), eq("USDT"), argThat(amount -> amount.compareTo(new BigDecimal("-50")) == 0),
+                eq("BTC"), eq(new BigDecimal("0.5")));
+        verify(orderRepository).attachTrade(7L, 42L);
+    }
+
+    @Test
+    @DisplayName("Should fill a triggered sell stop at the bid, crediting USDT only")
+    void onPriceUpdated_TriggeredSellStop_ShouldCreditUsdt() {
+        place(request("SELL", TradeOrder.STOP, "45000", "2"), 8L);
+        verify(walletService).updateBalance(1L, "BTC", new BigDecimal("-2"));
+        stubFill(43L);
+
+        orderService.onPriceUpdated(quote("44900", "45000"));
+
+        verify(walletService).updateBalance(eq(1L), eq("USDT"),
+                argThat(amount -> amount.compareTo(new BigDecimal("89800")) == 0));
+        verify(walletService, never()).settle(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a buy stop whose fill costs more than reserved and free balance, releasing the reservation")
+    void onPriceUpdated_BuyStopShortOfBalance_ShouldReject() {
+        place(request("BUY", TradeOrder.STOP, "50000", "1"), 9L);
+        when(orderRepository.transition(9L, TradeOrder.OPEN, TradeOrder.FILLED)).thenReturn(1);
+        doThrow(new InsufficientBalanceException("Insufficient balance in USDT wallet"))
+                .when(walletService).settle(any(), any(), any(), any(), any());
+        when(orderRepository.transition(9L, TradeOrder.OPEN, TradeOrder.REJECTED)).thenReturn(1);
+
+        orderService.onPriceUpdated(quote("50900", "51000"));
+
+        verify(walletService).updateBalance(1L, "USDT", new BigDecimal("50000"));
+        verify(tradeRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should skip the fill when the order was cancelled after the quote triggered it")
+    void onPriceUpdated_OrderNoLongerOpen_ShouldNotTrade() {
+        place(request("SELL", TradeOrder.LIMIT, "52000", "1"), 10L);
+        when(orderRepository.transition(10L, TradeOrder.OPEN, TradeOrder.FILLED)).thenReturn(0);
+
+        orderService.onPriceUpdated(quote("52000", "52100"));
+
+        verify(tradeRepository, never()).save(any());
+        verify(walletService, never()).updateBalance(eq(1L), eq("USDT"), any());
+    }
+
+    @Test
+    @DisplayName("Should fill at once when the order is placed already through the current price")
+    void placeOrder_AlreadyCrossed_ShouldFillOnCurrentQuote() {
+        latestPriceCache.put(quote("47800", "47900").quote());
+        stubFill(44L);
+
+        place(request("BUY", TradeOrder.LIMIT, "48000", "1"), 11L);
+
+        verify(tradeRepository).save(any(Trade.class));
+        assertThat(orderService.getOpenOrderCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should rest an order placed through a stale price until a fresh quote crosses it")
+    void placeOrder_AlreadyCrossedOnStaleQuote_ShouldRest() {
+        latestPriceCache.put(quote("47800", "47900", System.currentTimeMillis() - 60000).quote());
+
+        place(request("BUY", TradeOrder.LIMIT, "48000", "1"), 11L);
+
+        verify(tradeRepository, never()).save(any(Trade.class));
+        assertThat(orderService.getOpenOrderCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should cancel an open order, release its reservation and take it out of the book")
+    void cancelOrder_Open_ShouldRefund() {
+        place(request("SELL", TradeOrder.LIMIT, "52000", "1.5"), 12L);
+        TradeOrder stored = new TradeOrder(12L, 1L, "BTCUSDT", "SELL", TradeOrder.LIMIT, new BigDecimal("52000"),
+                new BigDecimal("1.5"), new BigDecimal("1.5"), TradeOrder.OPEN, null, null);
+        when(orderRepository.findById(12L)).thenReturn(Optional.of(stored));
+        when(orderRepository.transition(12L, TradeOrder.OPEN, TradeOrder.CANCELLED)).thenReturn(1);
+
+        OrderResponse response = orderService.cancelOrder(1L, 12L);
+
+        assertThat(response.getStatus()).isEqualTo(TradeOrder.CANCELLED);
+        verify(walletService).updateBalance(1L, "BTC", new BigDecimal("1.5"));
+        assertThat(orderService.getOpenOrderCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not find another user's order or cancel one that already filled")
+    void cancelOrder_NotCancellable_ShouldThrow() {
+        TradeOrder othersOrder = new TradeOrder();
+        othersOrder.setUserId(2L);
+        when(orderRepository.findById(13L)).thenReturn(Optional.of(othersOrder));
+        TradeOrder filledOrder = new TradeOrder();
+        filledOrder.setUserId(1L);
+        when(orderRepository.findById(14L)).thenReturn(Optional.of(filledOrder));
+        when(orderRepository.transition(14L, TradeOrder.OPEN, TradeOrder.CANCELLED)).thenReturn(0);
+
+        assertThrows(OrderNotFoundException.class, () -> orderService.cancelOrder(1L, 13L));
+        assertThrows(InvalidTradeException.class, () -> orderService.cancelOrder(1L, 14L));
+        verifyNoInteractions(walletService);
+    }
+
+    @Test
+    @DisplayName("Should refuse invalid orders and orders in engine mode without reserving anything")
+    void placeOrder_Invalid_ShouldThrow() {
+        assertThrows(InvalidTradeException.class,
+                () -> orderService.placeOrder(1L, request("BUY", "MARKET", "50000", "1")));
+        assertThrows(InvalidTradeException.class,
+                () -> orderService.placeOrder(1L, request("BUY", TradeOrder.LIMIT, "0", "1")));
+
+        when(settlementEngine.isEnabled()).thenReturn(true);
+        assertThrows(InvalidTradeException.class,
+                () -> orderService.placeOrder(1L, request("BUY", TradeOrder.LIMIT, "50000", "1")));
+        verifyNoInteractions(walletService, orderRepository);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the book from open orders on startup")
+    void loadOpenOrders_ShouldRestoreBook() {
+        TradeOrder open = new TradeOrder(15L, 1L, "ETHUSDT", "BUY", TradeOrder.LIMIT, new BigDecimal("3000"),
+                BigDecimal.ONE, new BigDecimal("3000"), TradeOrder.OPEN, null, null);
+        when(orderRepository.findByStatus(TradeOrder.OPEN)).thenReturn(List.of(open));
+
+        orderService.loadOpenOrders();
+
+        assertThat(orderService.getOpenOrderCount()).isEqualTo(1);
+    }
+}
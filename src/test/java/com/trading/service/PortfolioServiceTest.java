@@ -0,0 +1,88 @@
+package com.trading.service;
+
+import com.trading.dto.AssetValue;
+import com.trading.dto.PortfolioResponse;
+import com.trading.dto.PositionResponse;
+import com.trading.model.Position;
+import com.trading.model.Wallet;
+import com.trading.repository.PositionLedger;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioServiceTest {
+
+    @Mock
+    private WalletService walletService;
+
+    @Mock
+    private PositionLedger positionLedger;
+
+    private PortfolioService portfolioService;
+
+    @BeforeEach
+    void setUp() {
+        LatestPriceCache latestPriceCache = new LatestPriceCache();
+        latestPriceCache.put(new BestQuote("BTCUSDT", FixedPoint.parse("50000"), "BINANCE",
+                FixedPoint.parse("50010"), "HUOBI", System.currentTimeMillis()));
+        portfolioService = new PortfolioService(walletService, positionLedger, latestPriceCache);
+
+        when(positionLedger.findByUserId(1L)).thenReturn(Map.of(
+                "BTCUSDT", new Position(new BigDecimal("1.5"), new BigDecimal("67500"), new BigDecimal("250")),
+                "ETHUSDT", new Position(new BigDecimal("3"), new BigDecimal("9000"), new BigDecimal("-100"))));
+    }
+
+    @Test
+    @DisplayName("Should value each wallet at the best bid and report the PnL of its position")
+    void getPortfolio_ShouldValueWalletsAtBid() {
+        when(walletService.getUserWallets(1L)).thenReturn(List.of(
+                new Wallet(1L, 1L, "USDT", new BigDecimal("1000")),
+                new Wallet(2L, 1L, "BTC", new BigDecimal("2")),
+                new Wallet(3L, 1L, "ETH", new BigDecimal("3"))));
+
+        PortfolioResponse portfolio = portfolioService.getPortfolio(1L);
+
+        AssetValue btc = portfolio.getAssets().get(1);
+        AssetValue eth = portfolio.getAssets().get(2);
+        assertAll("Portfolio validation",
+                () -> assertThat(portfolio.getAssets().get(0).getValue()).isEqualByComparingTo("1000"),
+                () -> assertThat(btc.getValue()).isEqualByComparingTo("100000"),
+                () -> assertThat(btc.getAverageCost()).isEqualByComparingTo("45000"),
+                () -> assertThat(btc.getUnrealizedPnl()).isEqualByComparingTo("7500"),
+                () -> assertThat(btc.getRealizedPnl()).isEqualByComparingTo("250"),
+                () -> assertThat(eth.getPrice()).isNull(),
+                () -> assertThat(eth.getUnrealizedPnl()).isNull(),
+                () -> assertThat(portfolio.getTotalValue()).isEqualByComparingTo("101000"),
+                () -> assertThat(portfolio.getUnrealizedPnl()).isEqualByComparingTo("7500"),
+                () -> assertThat(portfolio.getRealizedPnl()).isEqualByComparingTo("150")
+        );
+    }
+
+    @Test
+    @DisplayName("Should list positions by symbol with unrealized PnL only where there is a quote")
+    void getPositions_ShouldReturnLedgerRowsBySymbol() {
+        List<PositionResponse> positions = portfolioService.getPositions(1L);
+
+        assertAll("Positions validation",
+                () -> assertThat(positions).extracting(PositionResponse::getSymbol)
+                        .containsExactly("BTCUSDT", "ETHUSDT"),
+                () -> assertThat(positions.get(0).getAverageCost()).isEqualByComparingTo("45000"),
+                () -> assertThat(positions.get(0).getUnrealizedPnl()).isEqualByComparingTo("7500"),
+                () -> assertThat(positions.get(1).getRealizedPnl()).isEqualByComparingTo("-100"),
+                () -> assertThat(positions.get(1).getUnrealizedPnl()).isNull()
+        );
+    }
+}
@@ -0,0 +1,148 @@
+package com.trading.service;
+
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PriceBatchWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PriceHistoryService priceHistoryService;
+    private PriceBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        priceHistoryService = mock(PriceHistoryService.class);
+        jdbcTemplate.update("DELETE FROM prices");
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+        jdbcTemplate.update("DELETE FROM prices");
+    }
+
+    private static BestQuote quote(String bid, long timestamp) {
+        return new BestQuote("BTCUSDT", FixedPoint.parse(bid), "HUOBI", FixedPoint.parse("50100"), "BINANCE",
+                timestamp);
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM prices", Integer.class);
+    }
+
+    @Test
+    @DisplayName("Should insert a full batch without waiting for the flush interval")
+    void enqueue_WhenBatchIsFull_ShouldFlushImmediately() throws InterruptedException {
+        writer = new PriceBatchWriter(jdbcTemplate, priceHistoryService, 100, 3, 5000, 5000);
+        writer.start();
+
+        writer.enqueue(quote("50000", 1));
+        writer.enqueue(quote("50001", 2));
+        writer.enqueue(quote("50002", 3));
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (writer.getWrittenCount() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, writer.getWrittenCount());
+        assertEquals(3, rowCount());
+    }
+
+    @Test
+    @DisplayName("Should write each quote with its venues and scaled prices")
+    void enqueue_ShouldPersistAllColumns() {
+        writer = new PriceBatchWriter(jdbcTemplate, priceHistoryService, 100, 10, 50, 5000);
+        writer.start();
+
+        writer.enqueue(quote("50050.12345678", System.currentTimeMillis()));
+        writer.stop();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM prices");
+        assertAll(
+                () -> assertEquals("BTCUSDT", row.get("SYMBOL")),
+                () -> assertEquals(new BigDecimal("50050.12345678"), row.get("BID_PRICE")),
+                () -> assertEquals(new BigDecimal("50100.00000000"), row.get("ASK_PRICE")),
+                () -> assertEquals(BestPriceAggregator.MIXED, row.get("EXCHANGE")),
+                () -> assertEquals("HUOBI", row.get("BID_EXCHANGE")),
+                () -> assertEquals("BINANCE", row.get("ASK_EXCHANGE")),
+                () -> assertNotNull(row.get("TIMESTAMP"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should flush everything still queued on shutdown")
+    void stop_ShouldFlushPendingQuotes() {
+        writer = new PriceBatchWriter(jdbcTemplate, priceHistoryService, 100, 50, 1000, 5000);
+        writer.start();
+
+        for (int i = 0; i < 20; i++) {
+            writer.enqueue(quote("50000", i));
+        }
+        writer.stop();
+
+        assertAll(
+                () -> assertEquals(0, writer.getPendingCount()),
+                () -> assertEquals(20, writer.getWrittenCount()),
+                () -> assertEquals(20, rowCount())
+        );
+        verify(priceHistoryService, atLeastOnce()).rollUp(anyList());
+        verify(priceHistoryService).flushOpenCandles();
+    }
+
+    @Test
+    @DisplayName("Should keep writing full batches while draining on shutdown")
+    void stop_ShouldDrainInFullBatches() {
+        writer = new PriceBatchWriter(jdbcTemplate, priceHistoryService, 200, 10, 60000, 5000);
+        for (int i = 0; i < 100; i++) {
+            writer.enqueue(quote("50000", i));
+        }
+
+        writer.start();
+        writer.stop();
+
+        assertAll(
+                () -> assertEquals(100, writer.getWrittenCount()),
+                () -> assertEquals(100, rowCount())
+        );
+        verify(priceHistoryService, times(10)).rollUp(anyList());
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest quotes instead of blocking when the queue is full")
+    void enqueue_WhenQueueIsFull_ShouldDropOldest() {
+        writer = new PriceBatchWriter(jdbcTemplate, priceHistoryService, 2, 10, 50, 5000);
+
+        writer.enqueue(quote("1", 1));
+        writer.enqueue(quote("2", 2));
+        writer.enqueue(quote("3", 3));
+        assertEquals(1, writer.getDroppedCount());
+        assertEquals(2, writer.getPendingCount());
+
+        writer.start();
+        writer.stop();
+
+        List<BigDecimal> bids = jdbcTemplate.queryForList("SELECT bid_price FROM prices ORDER BY bid_price",
+                BigDecimal.class);
+        assertEquals(List.of(new BigDecimal("2.00000000"), new BigDecimal("3.00000000")), bids);
+    }
+}
@@ -0,0 +1,122 @@
+package com.trading.service;
+
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PriceHistoryServiceTest {
+    private static final long MINUTE = 60_000L;
+    // An arbitrary whole hour, so bucket boundaries are easy to reason about
+    private static final long HOUR_START = 1_700_002_800_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PriceHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        historyService = new PriceHistoryService(jdbcTemplate, Duration.ofHours(1), Duration.ofMinutes(10),
+                Duration.ofDays(1), 2);
+        cleanUp();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM prices");
+        jdbcTemplate.update("DELETE FROM price_candles");
+    }
+
+    private static BestQuote quote(String mid, long timestamp) {
+        long price = FixedPoint.parse(mid);
+        return new BestQuote("BTCUSDT", price, "BINANCE", price, "BINANCE", timestamp);
+    }
+
+    private List<Map<String, Object>> candles(String interval) {
+        return jdbcTemplate.queryForList("SELECT * FROM price_candles WHERE bucket_interval = ? "
+                + "ORDER BY bucket_start", interval);
+    }
+
+    @Test
+    @DisplayName("Should write a candle only once its bucket has closed")
+    void rollUp_ShouldUpsertClosedBuckets() {
+        historyService.rollUp(List.of(
+                quote("100", HOUR_START + 1_000),
+                quote("105", HOUR_START + 20_000),
+                quote("95", HOUR_START + 40_000),
+                quote("101", HOUR_START + 59_000)));
+        assertTrue(candles("1m").isEmpty());
+
+        historyService.rollUp(List.of(quote("110", HOUR_START + MINUTE + 1_000)));
+
+        List<Map<String, Object>> minutes = candles("1m");
+        assertEquals(1, minutes.size());
+        Map<String, Object> candle = minutes.get(0);
+        assertAll(
+                () -> assertEquals(new Timestamp(HOUR_START), candle.get("BUCKET_START")),
+                () -> assertEquals(new BigDecimal("100.00000000"), candle.get("OPEN_PRICE")),
+                () -> assertEquals(new BigDecimal("105.00000000"), candle.get("HIGH_PRICE")),
+                () -> assertEquals(new BigDecimal("95.00000000"), candle.get("LOW_PRICE")),
+                () -> assertEquals(new BigDecimal("101.00000000"), candle.get("CLOSE_PRICE")),
+                () -> assertEquals(4, candle.get("TICK_COUNT")),
+                () -> assertEquals(4, candles("1s").size()),
+                () -> assertTrue(candles("1h").isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("Should persist the open buckets on flush")
+    void flushOpenCandles_ShouldWriteOpenBuckets() {
+        historyService.rollUp(List.of(quote("100", HOUR_START + 1_000), quote("102", HOUR_START + 1_500)));
+
+        historyService.flushOpenCandles();
+
+        assertAll(
+                () -> assertEquals(1, candles("1s").size()),
+                () -> assertEquals(1, candles("1m").size()),
+                () -> assertEquals(1, candles("1h").size()),
+                () -> assertEquals(2, candles("1h").get(0).get("TICK_COUNT"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should purge raw prices and fine candles past retention in chunks")
+    void purgeExpired_ShouldDeleteRowsOutsideRetention() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO prices (symbol, bid_price, ask_price, exchange, timestamp) "
+                    + "VALUES ('BTCUSDT', 1, 2, 'BINANCE', ?)", new Timestamp(now - Duration.ofHours(2).toMillis()));
+        }
+        jdbcTemplate.update("INSERT INTO prices (symbol, bid_price, ask_price, exchange, timestamp) "
+                + "VALUES ('BTCUSDT', 1, 2, 'BINANCE', ?)", new Timestamp(now));
+        historyService.rollUp(List.of(quote("100", now - Duration.ofHours(3).toMillis()),
+                quote("100", now - Duration.ofMinutes(1).toMillis())));
+        historyService.flushOpenCandles();
+
+        historyService.purgeExpired();
+
+        assertAll(
+                () -> assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM prices", Integer.class)),
+                () -> assertEquals(1, candles("1s").size()),
+                () -> assertEquals(2, candles("1m").size()),
+                () -> assertEquals(2, candles("1h").size())
+        );
+    }
+}
@@ -1,10 +1,13 @@
 package com.trading.service;
 
-import com.trading.dto.BinanceResponse;
-import com.trading.dto.HuobiPrice;
-import com.trading.dto.HuobiWrapper;
+import com.trading.exception.ExchangeConnectionException;
+import com.trading.exchange.ExchangeAdapter;
+import com.trading.exchange.ExchangeQuote;
 import com.trading.model.Price;
 import com.trading.repository.PriceRepository;
+import com.trading.util.FixedPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,63 +15,88 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 class PriceServiceTest {
 
     @Mock
     private PriceRepository priceRepository;
 
     @Mock
-    private RestTemplate restTemplate;
+    private PriceBatchWriter priceBatchWriter;
 
-    @InjectMocks
-    private PriceService priceService;
+    @Mock
+    private CandleService candleService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ExchangeAdapter binanceAdapter;
+
+    @Mock
+    private ExchangeAdapter huobiAdapter;
 
     @Captor
-    private ArgumentCaptor<Price> priceCaptor;
+    private ArgumentCaptor<BestQuote> quoteCaptor;
 
-    private BinanceResponse btcBinance;
-    private BinanceResponse ethBinance;
-    private HuobiPrice btcHuobi;
-    private HuobiPrice ethHuobi;
+    private LatestPriceCache latestPriceCache;
+    private SimpleMeterRegistry meterRegistry;
+    private PriceService priceService;
+
+    private ExchangeQuote btcBinance;
+    private ExchangeQuote ethBinance;
+    private ExchangeQuote btcHuobi;
+    private ExchangeQuote ethHuobi;
 
     @BeforeEach
     void setUp() {
-        btcBinance = new BinanceResponse();
-        btcBinance.setSymbol("BTCUSDT");
-        btcBinance.setBidPrice("50000.00000000");
-        btcBinance.setAskPrice("50100.00000000");
-
-        ethBinance = new BinanceResponse();
-        ethBinance.setSymbol("ETHUSDT");
-        ethBinance.setBidPrice("3000.00000000");
-        ethBinance.setAskPrice("3010.00000000");
-
-        btcHuobi = new HuobiPrice();
-        btcHuobi.setSymbol("btcusdt");
-        btcHuobi.setBid(new BigDecimal("50050.00000000"));
-        btcHuobi.setAsk(new BigDecimal("50150.00000000"));
-
-        ethHuobi = new HuobiPrice();
-        ethHuobi.setSymbol("ethusdt");
-        ethHuobi.setBid(new BigDecimal("3005.00000000"));
-        ethHuobi.setAsk(new BigDecimal("3015.00000000"));
+        latestPriceCache = new LatestPriceCache();
+        meterRegistry = new SimpleMeterRegistry();
+        priceService = new PriceService(priceRepository, List.of(binanceAdapter, huobiAdapter),
+                new BestPriceAggregator(), latestPriceCache, priceBatchWriter, candleService, eventPublisher, meterRegistry);
+        ReflectionTestUtils.setField(priceService, "venueQuoteTtlMs", 30000L);
+
+        when(binanceAdapter.getName()).thenReturn("BINANCE");
+        when(binanceAdapter.getFetchDeadlineMs()).thenReturn(2000L);
+        when(huobiAdapter.getName()).thenReturn("HUOBI");
+        when(huobiAdapter.getFetchDeadlineMs()).thenReturn(2000L);
+
+        long now = System.currentTimeMillis();
+        btcBinance = new ExchangeQuote("BINANCE", "BTCUSDT",
+                FixedPoint.parse("50000.00000000"), FixedPoint.parse("50100.00000000"), now);
+        ethBinance = new ExchangeQuote("BINANCE", "ETHUSDT",
+                FixedPoint.parse("3000.00000000"), FixedPoint.parse("3010.00000000"), now);
+        btcHuobi = new ExchangeQuote("HUOBI", "BTCUSDT",
+                FixedPoint.parse("50050.00000000"), FixedPoint.parse("50150.00000000"), now);
+        ethHuobi = new ExchangeQuote("HUOBI", "ETHUSDT",
+                FixedPoint.parse("3005.00000000"), FixedPoint.parse("3015.00000000"), now);
+    }
+
+    @AfterEach
+    void tearDown() {
+        priceService.shutdown();
+    }
+
+    private List<Price> savedPrices(int expected) {
+        verify(priceBatchWriter, times(expected)).enqueue(quoteCaptor.capture());
+        return quoteCaptor.getAllValues().stream().map(BestQuote::toPrice).toList();
     }
 
     @Nested
@@ -88,10 +116,71 @@ class PriceServiceTest {
             Optional<Price> result = priceService.getLatestPrice("BTCUSDT");
 
             assertTrue(result.isPresent());
-            assertEquals(expectedPrice, result.get());
+            assertAll(
+                    () -> assertEquals("BTCUSDT", result.get().getSymbol()),
+                    () -> assertEquals(expectedPrice.getBidPrice(), result.get().getBidPrice()),
+                    () -> assertEquals(expectedPrice.getAskPrice(), result.get().getAskPrice()),
+                    () -> assertEquals("BINANCE", result.get().getExchange())
+            );
             verify(priceRepository).findLatestPriceBySymbol("BTCUSDT");
         }
 
+        @Test
+        @DisplayName("Should serve repeated lookups from the cache after a cold start")
+        void getLatestPrice_AfterColdStart_ShouldNotQueryRepositoryAgain() {
+            Price persisted = new Price();
+            persisted.setSymbol("BTCUSDT");
+            persisted.setBidPrice(new BigDecimal("50000.00000000"));
+            persisted.setAskPrice(new BigDecimal("50100.00000000"));
+            persisted.setExchange("BINANCE");
+            when(priceRepository.findLatestPriceBySymbol("BTCUSDT")).thenReturn(persisted);
+
+            priceService.getLatestPrice("BTCUSDT");
+            Optional<Price> result = priceService.getLatestPrice("BTCUSDT");
+
+            assertTrue(result.isPresent());
+            assertAll(
+                    () -> assertEquals(persisted.getBidPrice(), result.get().getBidPrice()),
+                    () -> assertEquals(persisted.getAskPrice(), result.get().getAskPrice()),
+                    () -> assertEquals("BINANCE", result.get().getExchange())
+            );
+            verify(priceRepository, times(1)).findLatestPriceBySymbol("BTCUSDT");
+            assertEquals(1, latestPriceCache.getHitCount());
+            assertEquals(1, latestPriceCache.getMissCount());
+        }
+
+        @Test
+        @DisplayName("Should return freshly saved prices without touching the repository")
+        void getLatestPrice_AfterFetch_ShouldReadFromCache() {
+            when(binanceAdapter.fetchQuotes(anyCollection())).thenReturn(List.of(btcBinance, ethBinance));
+            when(huobiAdapter.fetchQuotes(anyCollection())).thenReturn(List.of());
+
+            priceService.fetchAndSavePrices();
+            Optional<Price> result = priceService.getLatestPrice("ETHUSDT");
+
+            assertTrue(result.isPresent());
+            assertEquals(new BigDecimal("3000.00000000"), result.get().getBidPrice());
+            assertEquals(new BigDecimal("3010.00000000"), result.get().getAskPrice());
+            verify(priceRepository, never()).findLatestPriceBySymbol(anyString());
+            assertEquals(1, latestPriceCache.getHitCount());
+        }
+
+        @Test
+        @DisplayName("Should give each newer quote a higher sequence number")
+        void getQuote_AfterEachFetch_ShouldAdvanceSequence() {
+            when(binanceAdapter.fetchQuotes(anyCollection())).thenReturn(List.of(btcBinance, ethBinance));
+            when(huobiAdapter.fetchQuotes(anyCollection())).thenReturn(List.of());
+
+            priceService.fetchAndSavePrices();
+            QuoteSnapshot first = priceService.getQuote("BTCUSDT").orElseThrow();
+            priceService.fetchAndSavePrices();
+            QuoteSnapshot second = priceService.getQuote("BTCUSDT").orElseThrow();
+
+            assertTrue(second.sequence() > first.sequence());
+            assertTrue(second.ageMs(System.currentTimeMillis()) < 10000);
+            verify(priceRepository, never()).findLatestPriceBySymbol(anyString());
+        }
+
         @Test
         @DisplayName("Should return empty when price not found")
         void getLatestPrice_WhenPriceNotFound_ShouldReturnEmpty() {
@@ -111,19 +200,12 @@ class PriceServiceTest {
         @Test
         @DisplayName("Should save best prices when both exchanges return data")
         void fetchAndSavePrices_WhenBothExchangesRespond_ShouldSaveBestPrices() {
-            BinanceResponse[] binanceResponses = {btcBinance, ethBinance};
-            HuobiWrapper huobiWrapper = new HuobiWrapper();
-            huobiWrapper.setData(Arrays.asList(btcHuobi, ethHuobi));
-
-            when(restTemplate.getForEntity(anyString(), eq(BinanceResponse[].class)))
-                    .thenReturn(ResponseEntity.ok(binanceResponses));
-            when(restTemplate.getForEntity(anyString(), eq(HuobiWrapper.class)))
-                    .thenReturn(ResponseEntity.ok(huobiWrapper));
+            when(binanceAdapter.fetchQuotes(anyCollection())).thenReturn(List.of(btcBinance, ethBinance));
+            when(huobiAdapter.fetchQuotes(anyCollection())).thenReturn(List.of(btcHuobi, ethHuobi));
 
             priceService.fetchAndSavePrices();
 
-            verify(priceRepository, times(2)).save(priceCaptor.capture());
-            List<Price> savedPrices = priceCaptor.getAllValues();
+            List<Price> savedPrices = savedPrices(2);
 
             assertAll("Verify saved prices",
                     () -> assertEquals(2, savedPrices.size()),
@@ -137,6 +219,8 @@ class PriceServiceTest {
                         assertEquals(new BigDecimal("50100.00000000"), btcPrice.getAskPrice(),
                                 "Should use Binance's lower ask price");
                         assertEquals("MIXED", btcPrice.getExchange());
+                        assertEquals("HUOBI", btcPrice.getBidExchange());
+                        assertEquals("BINANCE", btcPrice.getAskExchange());
                     }
             );
         }
@@ -144,16 +228,12 @@ class PriceServiceTest {
         @Test
         @DisplayName("Should handle Binance-only data correctly")
         void fetchAndSavePrices_WhenOnlyBinanceResponds_ShouldSaveBinancePrices() {
-            BinanceResponse[] binanceResponses = {btcBinance, ethBinance};
-            when(restTemplate.getForEntity(anyString(), eq(BinanceResponse[].class)))
-                    .thenReturn(ResponseEntity.ok(binanceResponses));
-            when(restTemplate.getForEntity(anyString(), eq(HuobiWrapper.class)))
-                    .thenReturn(ResponseEntity.ok(new HuobiWrapper()));
+            when(binanceAdapter.fetchQuotes(anyCollection())).thenReturn(List.of(btcBinance, ethBinance));
+            when(huobiAdapter.fetchQuotes(anyCollection())).thenReturn(List.of());
 
             priceService.fetchAndSavePrices();
 
-            verify(priceRepository, times(2)).save(priceCaptor.capture());
-            List<Price> savedPrices = priceCaptor.getAllValues();
+            List<Price> savedPrices = savedPrices(2);
 
             savedPrices.forEach(price -> {
                 assertEquals("BINANCE", price.getExchange());
@@ -161,16 +241,113 @@ class PriceServiceTest {
             });
         }
 
+        @Test
+        @DisplayName("Should aggregate the venues that answered when one misses its deadline")
+        void fetchAndSavePrices_WhenBinanceMissesDeadline_ShouldSaveHuobiPrices() {
+            when(binanceAdapter.getFetchDeadlineMs()).thenReturn(100L);
+            when(binanceAdapter.fetchQuotes(anyCollection())).thenAnswer(invocation -> {
+                Thread.sleep(1000);
+                return List.of(btcBinance, ethBinance);
+            });
+            when(huobiAdapter.fetchQuotes(anyCollection())).thenReturn(List.of(btcHuobi, ethHuobi));
+
+            long start = System.nanoTime();
+            priceService.fetchAndSavePrices();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            List<Price> savedPrices = savedPrices(2);
+            assertAll(
+                    () -> assertTrue(elapsedMs < 1000, "Cycle should not wait for the slow venue"),
+                    () -> assertTrue(savedPrices.stream()
+                            .allMatch(p -> p.getExchange().equals("HUOBI"))),
+                    () -> assertEquals(1.0, meterRegistry.get("price.fetch.timeouts")
+                            .tag("exchange", "BINANCE").counter().count()),
+                    () -> assertEquals(1, meterRegistry.get("price.fetch.latency")
+                            .tags("exchange", "HUOBI", "outcome", "success").timer().count())
+            );
+        }
+
+        @Test
+        @DisplayName("Should aggregate any number of venues")
+        void fetchAndSavePrices_WithThirdVenue_ShouldPickBestAcrossAll() {
+            ExchangeAdapter okxAdapter = mock(ExchangeAdapter.class);
+            when(okxAdapter.getName()).thenReturn("OKX");
+            when(okxAdapter.getFetchDeadlineMs()).thenReturn(2000L);
+            when(okxAdapter.fetchQuotes(anyCollection())).thenReturn(List.of(new ExchangeQuote("OKX", "BTCUSDT",
+                    FixedPoint.parse("50060.00000000"), FixedPoint.parse("50090.00000000"),
+                    System.currentTimeMillis())));
+            when(binanceAdapter.fetchQuotes(anyCollection())).thenReturn(List.of(btcBinance));
+            when(huobiAdapter.fetchQuotes(anyCollection())).thenReturn(List.of(btcHuobi));
+            priceService.shutdown();
+            priceService = new PriceService(priceRepository, List.of(binanceAdapter, huobiAdapter, okxAdapter),
+                    new BestPriceAggregator(), latestPriceCache, priceBatchWriter, candleService, eventPublisher, meterRegistry);
+
+            priceService.fetchAndSavePrices();
+
+            Price saved = savedPrices(1).get(0);
+            assertAll(
+                    () -> assertEquals(new BigDecimal("50060.00000000"), saved.getBidPrice()),
+                    () -> assertEquals(new BigDecimal("50090.00000000"), saved.getAskPrice()),
+                    () -> assertEquals("OKX", saved.getExchange())
+            );
+        }
+
         @Test
         @DisplayName("Should handle API errors gracefully")
         void fetchAndSavePrices_WhenAPIsFail_ShouldHandleGracefully() {
-            when(restTemplate.getForEntity(anyString(), eq(BinanceResponse[].class)))
-                    .thenThrow(new RuntimeException("API Error"));
-            when(restTemplate.getForEntity(anyString(), eq(HuobiWrapper.class)))
-                    .thenThrow(new RuntimeException("API Error"));
+            when(binanceAdapter.fetchQuotes(anyCollection()))
+                    .thenThrow(new ExchangeConnectionException("API Error"));
+            when(huobiAdapter.fetchQuotes(anyCollection()))
+                    .thenThrow(new ExchangeConnectionException("API Error"));
 
             assertDoesNotThrow(() -> priceService.fetchAndSavePrices());
-            verify(priceRepository, never()).save(any(Price.class));
+            verify(priceBatchWriter, never()).enqueue(any(BestQuote.class));
+            assertEquals(1, meterRegistry.get("price.fetch.latency")
+                    .tags("exchange", "BINANCE", "outcome", "error").timer().count());
+        }
+    }
+
+    @Nested
+    @DisplayName("streaming tick tests")
+    class StreamingTickTests {
+
+        @Test
+        @DisplayName("Should aggregate each stream tick against the other venue's last quote")
+        void onQuote_WhenBothVenuesHaveQuotes_ShouldSaveBestPrices() {
+            priceService.onQuote(btcHuobi);
+            priceService.onQuote(btcBinance);
+
+            Price latest = savedPrices(2).get(1);
+
+            assertAll(
+                    () -> assertEquals("BTCUSDT", latest.getSymbol()),
+                    () -> assertEquals(new BigDecimal("50050.00000000"), latest.getBidPrice()),
+                    () -> assertEquals(new BigDecimal("50100.00000000"), latest.getAskPrice()),
+                    () -> assertEquals("MIXED", latest.getExchange())
+            );
+            verify(eventPublisher, times(2)).publishEvent(any(PriceUpdatedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should ignore the other venue's quote once it is older than the TTL")
+        void onQuote_WhenOtherVenueQuoteIsStale_ShouldUseSingleVenue() {
+            ReflectionTestUtils.setField(priceService, "venueQuoteTtlMs", 1000L);
+            ExchangeQuote staleHuobi = new ExchangeQuote("HUOBI", "BTCUSDT", btcHuobi.bid(), btcHuobi.ask(),
+                    System.currentTimeMillis() - 5000);
+
+            priceService.onQuote(staleHuobi);
+            priceService.onQuote(btcBinance);
+
+            assertEquals("BINANCE", savedPrices(1).get(0).getExchange());
+        }
+
+        @Test
+        @DisplayName("Should ignore ticks for pairs that are not traded")
+        void onQuote_WhenSymbolNotConfigured_ShouldIgnore() {
+            priceService.onQuote(new ExchangeQuote("BINANCE", "BNBUSDT",
+                    FixedPoint.parse("300.00000000"), FixedPoint.parse("300.10000000"), System.currentTimeMillis()));
+
+            verify(priceBatchWriter, never()).enqueue(any(BestQuote.class));
         }
     }
-}
\ No newline at end of file
+}
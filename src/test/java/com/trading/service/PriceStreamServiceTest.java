@@ -0,0 +1,171 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.controller.PriceController;
+import com.trading.util.FixedPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class PriceStreamServiceTest {
+    private static final long SEND_TIMEOUT_MS = 100;
+
+    private LatestPriceCache latestPriceCache;
+    private ExecutorService sendExecutor;
+    private PriceStreamService streamService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        latestPriceCache = new LatestPriceCache();
+        sendExecutor = Executors.newSingleThreadExecutor();
+        streamService = new PriceStreamService(new ObjectMapper().findAndRegisterModules(), latestPriceCache,
+                sendExecutor, 60_000, SEND_TIMEOUT_MS);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PriceController(mock(PriceService.class),
+                mock(CandleService.class), streamService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    private static BestQuote quote(String symbol, String bid) {
+        return new BestQuote(symbol, FixedPoint.parse(bid), "BINANCE", FixedPoint.parse(bid) + FixedPoint.ONE,
+                "BINANCE", System.currentTimeMillis());
+    }
+
+    private MvcResult subscribe(String symbols) throws Exception {
+        return mockMvc.perform(symbols == null ? get("/api/prices/stream")
+                        : get("/api/prices/stream").param("symbols", symbols))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String awaitBody(MvcResult result, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 2000;
+        String body = result.getResponse().getContentAsString();
+        while (!condition.test(body) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+
+    private static int countEvents(String body) {
+        return body.split("event:" + PriceStreamService.PRICE_EVENT, -1).length - 1;
+    }
+
+    @Test
+    @DisplayName("Should send the cached price on connect and then each update for subscribed symbols")
+    void subscribe_ShouldReceiveSnapshotAndFilteredUpdates() throws Exception {
+        latestPriceCache.put(quote("BTCUSDT", "50000"));
+        MvcResult result = subscribe("BTCUSDT");
+        awaitBody(result, content -> content.contains("50000"));
+
+        streamService.onPriceUpdated(new PriceUpdatedEvent(quote("ETHUSDT", "3000")));
+        streamService.onPriceUpdated(new PriceUpdatedEvent(quote("BTCUSDT", "50010")));
+
+        String body = awaitBody(result, content -> content.contains("50010"));
+        assertAll(
+                () -> assertTrue(body.contains("\"bidPrice\":50000.00000000"), body),
+                () -> assertTrue(body.contains("\"bidPrice\":50010.00000000"), body),
+                () -> assertFalse(body.contains("ETHUSDT"), body),
+                () -> assertEquals(1, streamService.getSubscriberCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Should fan one update out to every subscriber")
+    void onPriceUpdated_ShouldReachAllSubscribers() throws Exception {
+        MvcResult first = subscribe(null);
+        MvcResult second = subscribe("ETHUSDT");
+
+        streamService.onPriceUpdated(new PriceUpdatedEvent(quote("ETHUSDT", "3000")));
+
+        assertTrue(awaitBody(first, content -> content.contains("ETHUSDT")).contains("ETHUSDT"));
+        assertTrue(awaitBody(second, content -> content.contains("ETHUSDT")).contains("ETHUSDT"));
+    }
+
+    @Test
+    @DisplayName("Should conflate updates a slow client has not received yet down to the latest")
+    void onPriceUpdated_WhenClientIsBehind_ShouldSendOnlyLatest() throws Exception {
+        MvcResult result = subscribe("BTCUSDT");
+        CountDownLatch release = new CountDownLatch(1);
+        sendExecutor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        streamService.onPriceUpdated(new PriceUpdatedEvent(quote("BTCUSDT", "50001")));
+        streamService.onPriceUpdated(new PriceUpdatedEvent(quote("BTCUSDT", "50002")));
+        streamService.onPriceUpdated(new PriceUpdatedEvent(quote("BTCUSDT", "50003")));
+        release.countDown();
+
+        String body = awaitBody(result, content -> content.contains("50003"));
+        assertAll(
+                () -> assertEquals(1, countEvents(body), body),
+                () -> assertTrue(body.contains("50003"), body),
+                () -> assertFalse(body.contains("50001"), body)
+        );
+    }
+
+    @Test
+    @DisplayName("Should drop a client whose send blocks past the timeout and keep serving the others")
+    void evictStalledSubscribers_ShouldFreeSendThreadForOtherClients() throws Exception {
+        CountDownLatch sendStarted = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        SseEmitter stalledEmitter = new SseEmitter(60_000L) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                sendStarted.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new IOException("Socket write interrupted", e);
+                }
+            }
+        };
+        streamService.subscribe(Set.of("BTCUSDT"), stalledEmitter);
+        streamService.onPriceUpdated(new PriceUpdatedEvent(quote("BTCUSDT", "50000")));
+        assertTrue(sendStarted.await(2, TimeUnit.SECONDS));
+
+        // Queued behind the stalled send on the only send thread
+        MvcResult healthy = subscribe("ETHUSDT");
+        streamService.onPriceUpdated(new PriceUpdatedEvent(quote("ETHUSDT", "3000")));
+        streamService.evictStalledSubscribers();
+        assertEquals(2, streamService.getSubscriberCount(), "evicted before the send timeout");
+
+        Thread.sleep(SEND_TIMEOUT_MS * 2);
+        streamService.evictStalledSubscribers();
+
+        String body = awaitBody(healthy, content -> content.contains("ETHUSDT"));
+        assertAll(
+                () -> assertTrue(interrupted.await(2, TimeUnit.SECONDS)),
+                () -> assertTrue(body.contains("ETHUSDT"), body),
+                () -> assertEquals(1, streamService.getSubscriberCount())
+        );
+    }
+}
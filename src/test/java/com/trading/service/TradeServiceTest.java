@@ -1,32 +1,59 @@
 package com.trading.service;
 
+import com.trading.dto.BatchTradeRequest;
+import com.trading.dto.BatchTradeResponse;
+import com.trading.dto.BatchTradeResult;
+import com.trading.dto.TradePage;
 import com.trading.dto.TradeRequest;
 import com.trading.dto.TradeResponse;
+import com.trading.engine.SettlementEngine;
 import com.trading.exception.InsufficientBalanceException;
+import com.trading.exception.InvalidRequestException;
 import com.trading.exception.InvalidTradeException;
 import com.trading.exception.PriceNotFoundException;
-import com.trading.model.Price;
+import com.trading.exception.StaleQuoteException;
+import com.trading.exception.TradeInProgressException;
+import com.trading.exception.TradeOutcomeUnknownException;
+import com.trading.model.IdempotencyKey;
 import com.trading.model.Trade;
 import com.trading.model.Wallet;
+import com.trading.repository.IdempotencyKeyRepository;
+import com.trading.repository.PositionLedger;
+import com.trading.repository.TradeQuery;
 import com.trading.repository.TradeRepository;
+import com.trading.util.FixedPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,13 +68,28 @@ class TradeServiceTest {
     @Mock
     private WalletService walletService;
 
+    @Mock
+    private SettlementEngine settlementEngine;
+
+    @Spy
+    private IdempotencyCache idempotencyCache = new IdempotencyCache(100, 60000);
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PositionLedger positionLedger;
+
     @InjectMocks
     private TradeService tradeService;
 
     private TradeRequest BUYTradeRequest;
     private TradeRequest SELLTradeRequest;
     private Trade sampleTrade;
-    private Price samplePrice;
+    private QuoteSnapshot sampleQuote;
     private Wallet sampleUSDTWallet;
     private Wallet sampleBTCWallet;
 
@@ -73,10 +115,8 @@ class TradeServiceTest {
         sampleTrade.setTotal(new BigDecimal("25000.00"));
         sampleTrade.setTimestamp(LocalDateTime.now());
 
-        samplePrice = new Price();
-        samplePrice.setSymbol("BTCUSDT");
-        samplePrice.setAskPrice(new BigDecimal("50000.00"));
-        samplePrice.setBidPrice(new BigDecimal("49500.00"));
+        sampleQuote = quote(System.currentTimeMillis());
+        ReflectionTestUtils.setField(tradeService, "maxQuoteAgeMs", 20000L);
         
         sampleUSDTWallet = new Wallet();
         sampleUSDTWallet.setId(1L);
@@ -94,14 +134,15 @@ class TradeServiceTest {
     @Test
     @DisplayName("Should execute a successful BUY trade")
     void executeTrade_WithBUYOrder_ShouldReturnTradeResponse() {
-        when(priceService.getLatestPrice(eq("BTCUSDT"))).thenReturn(Optional.of(samplePrice));
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
         when(walletService.getWalletByCurrency(eq(1L), eq("USDT"))).thenReturn(Optional.of(sampleUSDTWallet));
-        doNothing().when(walletService).updateBalance(eq(1L), eq("USDT"), any(BigDecimal.class));
-        doNothing().when(walletService).updateBalance(eq(1L), eq("BTC"), any(BigDecimal.class));
         when(tradeRepository.save(any(Trade.class))).thenReturn(sampleTrade);
 
         TradeResponse response = tradeService.executeTrade(1L, BUYTradeRequest);
 
+        verify(walletService).settle(1L, "USDT", new BigDecimal("25000.000000000"), "BTC", new BigDecimal("0.5"));
+        verify(positionLedger).record(sampleTrade);
+
         assertAll("BUY trade response validation",
                 () -> assertThat(response).isNotNull(),
                 () -> assertThat(response.getTradeId()).isEqualTo(1L),
@@ -120,14 +161,14 @@ class TradeServiceTest {
         sampleTrade.setQuantity(new BigDecimal("2.0"));
         sampleTrade.setTotal(new BigDecimal("100000.00"));
 
-        when(priceService.getLatestPrice(eq("BTCUSDT"))).thenReturn(Optional.of(samplePrice));
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
         when(walletService.getWalletByCurrency(eq(1L), eq("BTC"))).thenReturn(Optional.of(sampleBTCWallet));
-        doNothing().when(walletService).updateBalance(eq(1L), eq("BTC"), any(BigDecimal.class));
-        doNothing().when(walletService).updateBalance(eq(1L), eq("USDT"), any(BigDecimal.class));
         when(tradeRepository.save(any(Trade.class))).thenReturn(sampleTrade);
 
         TradeResponse response = tradeService.executeTrade(1L, SELLTradeRequest);
 
+        verify(walletService).settle(1L, "BTC", new BigDecimal("2.0"), "USDT", new BigDecimal("99000.000000000"));
+
         assertAll("SELL trade response validation",
                 () -> assertThat(response).isNotNull(),
                 () -> assertThat(response.getTradeId()).isEqualTo(1L),
@@ -139,6 +180,102 @@ class TradeServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("Should settle through the engine without touching wallets or trades tables in engine mode")
+    void executeTrade_InEngineMode_ShouldSettleOnEngine() {
+        when(settlementEngine.isEnabled()).thenReturn(true);
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(settlementEngine.settle(any(Trade.class), eq("BTC"), eq(new BigDecimal("2.0")),
+                eq("USDT"), eq(new BigDecimal("99000.000000000")))).thenAnswer(invocation -> {
+                    Trade trade = invocation.getArgument(0);
+                    trade.setId(7L);
+                    return trade;
+                });
+
+        TradeResponse response = tradeService.executeTrade(1L, SELLTradeRequest);
+
+        assertAll("Engine trade response validation",
+                () -> assertThat(response.getTradeId()).isEqualTo(7L),
+                () -> assertThat(response.getType()).isEqualTo("SELL"),
+                () -> assertThat(response.getPrice()).isEqualTo(new BigDecimal("49500.00000000")),
+                () -> assertThat(response.getTotal()).isEqualTo(new BigDecimal("99000.000000000"))
+        );
+        // No transaction, so no pooled connection is held while the shard settles
+        verifyNoInteractions(walletService, tradeRepository, positionLedger, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should claim and complete the idempotency key around an engine trade without a transaction")
+    void executeTrade_InEngineModeWithIdempotencyKey_ShouldRecordKeyOutsideTransaction() {
+        when(settlementEngine.isEnabled()).thenReturn(true);
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(idempotencyKeyRepository.save(any(IdempotencyKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(settlementEngine.settle(any(Trade.class), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Trade trade = invocation.getArgument(0);
+            trade.setId(7L);
+            return trade;
+        });
+
+        TradeResponse response = tradeService.executeTrade(1L, BUYTradeRequest, "order-1");
+
+        ArgumentCaptor<IdempotencyKey> key = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository, times(2)).save(key.capture());
+        assertAll("Engine idempotent trade validation",
+                () -> assertThat(response.getTradeId()).isEqualTo(7L),
+                () -> assertThat(key.getValue().getTradeId()).isEqualTo(7L)
+        );
+        verify(idempotencyKeyRepository, never()).findByUserIdAndIdempotencyKey(any(), any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should delete the claimed idempotency key when the engine rejects the trade")
+    void executeTrade_InEngineModeWithRejectedKeyedTrade_ShouldReleaseKey() {
+        when(settlementEngine.isEnabled()).thenReturn(true);
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(idempotencyKeyRepository.save(any(IdempotencyKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(settlementEngine.settle(any(Trade.class), any(), any(), any(), any()))
+                .thenThrow(new InsufficientBalanceException("Insufficient USDT balance"));
+
+        assertThrows(InsufficientBalanceException.class,
+                () -> tradeService.executeTrade(1L, BUYTradeRequest, "order-1"));
+
+        verify(idempotencyKeyRepository).delete(any(IdempotencyKey.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the idempotency key with the trade id when an engine trade's outcome is unknown")
+    void executeTrade_InEngineModeWithUnknownOutcome_ShouldKeepKey() {
+        when(settlementEngine.isEnabled()).thenReturn(true);
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(idempotencyKeyRepository.save(any(IdempotencyKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(settlementEngine.settle(any(Trade.class), any(), any(), any(), any()))
+                .thenThrow(new TradeOutcomeUnknownException("Trade 7 was settled but could not be made durable", 7L));
+
+        assertThrows(TradeOutcomeUnknownException.class,
+                () -> tradeService.executeTrade(1L, BUYTradeRequest, "order-1"));
+
+        ArgumentCaptor<IdempotencyKey> key = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository, times(2)).save(key.capture());
+        assertThat(key.getValue().getTradeId()).isEqualTo(7L);
+        verify(idempotencyKeyRepository, never()).delete(any(IdempotencyKey.class));
+    }
+
+    @Test
+    @DisplayName("Should ask a duplicate to retry while the engine trade for its key is still settling")
+    void executeTrade_WithClaimedKeyWithoutTrade_ShouldAskToRetry() {
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(idempotencyKeyRepository.save(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_user_key"));
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "order-1")).thenReturn(
+                Optional.of(new IdempotencyKey(5L, 1L, "order-1", null, LocalDateTime.now())));
+
+        TradeInProgressException e = assertThrows(TradeInProgressException.class,
+                () -> tradeService.executeTrade(1L, BUYTradeRequest, "order-1"));
+        assertThat(e.getRetryAfterSeconds()).isEqualTo(1L);
+        verifyNoInteractions(walletService, tradeRepository);
+    }
+
     @Test
     @DisplayName("Should throw InsufficientBalanceException for BUY trade")
     void executeTrade_WithInsufficientUSDTBalance_ShouldThrowException() {
@@ -148,7 +285,7 @@ class TradeServiceTest {
         insufficientUSDTWallet.setCurrency("USDT");
         insufficientUSDTWallet.setBalance(new BigDecimal("20000.00"));
 
-        when(priceService.getLatestPrice(eq("BTCUSDT"))).thenReturn(Optional.of(samplePrice));
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
         when(walletService.getWalletByCurrency(eq(1L), eq("USDT"))).thenReturn(Optional.of(insufficientUSDTWallet));
 
         assertThrows(InsufficientBalanceException.class, () -> tradeService.executeTrade(1L, BUYTradeRequest));
@@ -163,7 +300,7 @@ class TradeServiceTest {
         insufficientBTCWallet.setCurrency("BTC");
         insufficientBTCWallet.setBalance(new BigDecimal("0.5"));
 
-        when(priceService.getLatestPrice(eq("BTCUSDT"))).thenReturn(Optional.of(samplePrice));
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
         when(walletService.getWalletByCurrency(eq(1L), eq("BTC"))).thenReturn(Optional.of(insufficientBTCWallet));
 
         assertThrows(InsufficientBalanceException.class, () -> tradeService.executeTrade(1L, SELLTradeRequest));
@@ -172,11 +309,325 @@ class TradeServiceTest {
     @Test
     @DisplayName("Should throw PriceNotFoundException when no price is available")
     void executeTrade_WithoutAvailablePrice_ShouldThrowException() {
-        when(priceService.getLatestPrice(eq("BTCUSDT"))).thenReturn(Optional.empty());
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.empty());
 
         assertThrows(PriceNotFoundException.class, () -> tradeService.executeTrade(1L, BUYTradeRequest));
     }
 
+    @Test
+    @DisplayName("Should execute once per idempotency key and replay the response for a retry")
+    void executeTrade_WithRepeatedIdempotencyKey_ShouldReplayFirstResponse() {
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(walletService.getWalletByCurrency(eq(1L), eq("USDT"))).thenReturn(Optional.of(sampleUSDTWallet));
+        when(tradeRepository.save(any(Trade.class))).thenReturn(sampleTrade);
+        when(idempotencyKeyRepository.save(any(IdempotencyKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TradeResponse first = tradeService.executeTrade(1L, BUYTradeRequest, "order-1");
+        TradeResponse retry = tradeService.executeTrade(1L, buy("0.50"), "order-1");
+
+        ArgumentCaptor<IdempotencyKey> key = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository, times(2)).save(key.capture());
+        assertAll("Idempotent replay validation",
+                () -> assertThat(retry).isEqualTo(first),
+                () -> assertThat(key.getValue().getTradeId()).isEqualTo(1L),
+                () -> verify(walletService, times(1)).settle(any(), any(), any(), any(), any()),
+                () -> verify(tradeRepository, times(1)).save(any(Trade.class))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject an idempotency key reused for a different trade")
+    void executeTrade_WithIdempotencyKeyForDifferentTrade_ShouldThrowException() {
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(walletService.getWalletByCurrency(eq(1L), eq("USDT"))).thenReturn(Optional.of(sampleUSDTWallet));
+        when(tradeRepository.save(any(Trade.class))).thenReturn(sampleTrade);
+        when(idempotencyKeyRepository.save(any(IdempotencyKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        tradeService.executeTrade(1L, BUYTradeRequest, "order-1");
+
+        assertThrows(InvalidRequestException.class, () -> tradeService.executeTrade(1L, buy("0.6"), "order-1"));
+        assertThrows(InvalidRequestException.class, () -> tradeService.executeTrade(1L, BUYTradeRequest, ""));
+    }
+
+    @Test
+    @DisplayName("Should answer from the recorded key once the key is no longer cached")
+    void executeTrade_WithRecordedIdempotencyKey_ShouldReturnRecordedTrade() {
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(idempotencyKeyRepository.save(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_user_key"));
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "order-1")).thenReturn(
+                Optional.of(new IdempotencyKey(5L, 1L, "order-1", 1L, LocalDateTime.now())));
+        when(tradeRepository.findById(1L)).thenReturn(Optional.of(sampleTrade));
+
+        TradeResponse response = tradeService.executeTrade(1L, BUYTradeRequest, "order-1");
+
+        assertThat(response.getTradeId()).isEqualTo(1L);
+        verify(idempotencyKeyRepository, times(1)).findByUserIdAndIdempotencyKey(1L, "order-1");
+        verify(tradeRepository, never()).save(any(Trade.class));
+        verifyNoInteractions(walletService);
+    }
+
+    @Test
+    @DisplayName("Should return the concurrent duplicate's trade when the key insert hits the unique constraint")
+    void executeTrade_WithConcurrentDuplicateKey_ShouldReturnItsTrade() {
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "order-1")).thenReturn(
+                Optional.of(new IdempotencyKey(5L, 1L, "order-1", 1L, LocalDateTime.now())));
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(idempotencyKeyRepository.save(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_user_key"));
+        when(tradeRepository.findById(1L)).thenReturn(Optional.of(sampleTrade));
+
+        TradeResponse response = tradeService.executeTrade(1L, BUYTradeRequest, "order-1");
+
+        assertThat(response.getTradeId()).isEqualTo(1L);
+        verify(tradeRepository, never()).save(any(Trade.class));
+    }
+
+    @Test
+    @DisplayName("Should forget the idempotency key of a failed trade so it can be retried")
+    void executeTrade_WithFailedKeyedTrade_ShouldAllowRetry() {
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.empty(), Optional.of(sampleQuote));
+        when(walletService.getWalletByCurrency(eq(1L), eq("USDT"))).thenReturn(Optional.of(sampleUSDTWallet));
+        when(tradeRepository.save(any(Trade.class))).thenReturn(sampleTrade);
+        when(idempotencyKeyRepository.save(any(IdempotencyKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThrows(PriceNotFoundException.class, () -> tradeService.executeTrade(1L, BUYTradeRequest, "order-1"));
+        assertThat(idempotencyCache.size()).isEqualTo(0);
+
+        TradeResponse response = tradeService.executeTrade(1L, BUYTradeRequest, "order-1");
+
+        assertThat(response.getTradeId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should report the sequence and age of the quote the trade filled at")
+    void executeTrade_ShouldReportQuoteAge() {
+        sampleQuote = quote(System.currentTimeMillis() - 1500);
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(sampleQuote));
+        when(walletService.getWalletByCurrency(eq(1L), eq("USDT"))).thenReturn(Optional.of(sampleUSDTWallet));
+        when(tradeRepository.save(any(Trade.class))).thenReturn(sampleTrade);
+
+        TradeResponse response = tradeService.executeTrade(1L, BUYTradeRequest);
+
+        assertAll("Quote age validation",
+                () -> assertThat(response.getQuoteSequence()).isEqualTo(42L),
+                () -> assertThat(response.getQuoteAgeMs()).isBetween(1500L, 20000L)
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject a trade when the quote is older than the allowed age")
+    void executeTrade_WithStaleQuote_ShouldThrowException() {
+        ReflectionTestUtils.setField(tradeService, "maxQuoteAgeMs", 5000L);
+        ReflectionTestUtils.setField(tradeService, "staleQuoteAction", "reject");
+        when(priceService.getQuote(eq("BTCUSDT"))).thenReturn(Optional.of(quote(System.currentTimeMillis() - 60000)));
+
+        assertThrows(StaleQuoteException.class, () -> tradeService.executeTrade(1L, BUYTradeRequest));
+        verify(priceService, never()).refreshPrices();
+        verifyNoInteractions(walletService, tradeRepository);
+    }
+
+    @Test
+    @DisplayName("Should re-price a stale quote from the exchanges, before opening the transaction")
+    void executeTrade_WithStaleQuoteAndReprice_ShouldFillAtRefreshedQuote() {
+        ReflectionTestUtils.setField(tradeService, "maxQuoteAgeMs", 5000L);
+        ReflectionTestUtils.setField(tradeService, "staleQuoteAction", TradeService.REPRICE);
+        QuoteSnapshot refreshed = new QuoteSnapshot(new BestQuote("BTCUSDT", FixedPoint.parse("49000"), "BINANCE",
+                FixedPoint.parse("49100"), "HUOBI", System.currentTimeMillis()), 43L);
+        when(priceService.getQuote(eq("BTCUSDT")))
+                .thenReturn(Optional.of(quote(System.currentTimeMillis() - 60000)), Optional.of(refreshed));
+        when(walletService.getWalletByCurrency(eq(1L), eq("USDT"))).thenReturn(Optional.of(sampleUSDTWallet));
+        when(tradeRepository.save(any(Trade.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TradeResponse response = tradeService.executeTrade(1L, BUYTradeRequest);
+
+        InOrder inOrder = inOrder(priceService, transactionManager);
+        inOrder.verify(priceService).refreshPrices();
+        inOrder.verify(transactionManager).getTransaction(any());
+        assertAll("Re-priced trade validation",
+                () -> assertThat(response.getPrice()).isEqualTo(new BigDecimal("49100.00000000")),
+                () -> assertThat(response.getQuoteSequence()).isEqualTo(43L)
+        );
+    }
+
+    private QuoteSnapshot quote(long timestamp) {
+        return new QuoteSnapshot(new BestQuote("BTCUSDT", FixedPoint.parse("49500.00"), "BINANCE",
+                FixedPoint.parse("50000.00"), "HUOBI", timestamp), 42L);
+    }
+
+    private BatchTradeRequest batch(String mode, TradeRequest... trades) {
+        ReflectionTestUtils.setField(tradeService, "maxBatchSize", 10);
+        BatchTradeRequest request = new BatchTradeRequest();
+        request.setMode(mode);
+        request.setTrades(List.of(trades));
+        return request;
+    }
+
+    private TradeRequest buy(String quantity) {
+        TradeRequest request = new TradeRequest();
+        request.setSymbol("BTCUSDT");
+        request.setType("BUY");
+        request.setQuantity(new BigDecimal(quantity));
+        return request;
+    }
+
+    @Test
+    @DisplayName("Should settle a best-effort batch with one price lookup, netted wallet updates and one save")
+    void executeBatch_BestEffort_ShouldFillWhatTheBalanceCovers() {
+        when(priceService.getQuote("BTCUSDT")).thenReturn(Optional.of(sampleQuote));
+        sampleUSDTWallet.setBalance(new BigDecimal("60000.00"));
+        when(walletService.lockUserWallets(1L)).thenReturn(List.of(sampleUSDTWallet));
+        when(tradeRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // 0.5 and 0.6 BTC at 50000 fit, 0.2 more does not
+        BatchTradeResponse response = tradeService.executeBatch(1L,
+                batch(BatchTradeRequest.BEST_EFFORT, buy("0.5"), buy("0.6"), buy("0.2"), buy("-1")));
+
+        assertAll("Best-effort batch validation",
+                () -> assertThat(response.getFilled()).isEqualTo(2),
+                () -> assertThat(response.getRejected()).isEqualTo(2),
+                () -> assertThat(response.getResults().get(1).getStatus()).isEqualTo(BatchTradeResult.FILLED),
+                () -> assertThat(response.getResults().get(2).getError()).isEqualTo("Insufficient USDT balance"),
+                () -> assertThat(response.getResults().get(3).getError()).isEqualTo("Quantity must be greater than 0")
+        );
+        verify(priceService, times(1)).getQuote("BTCUSDT");
+        verify(walletService).updateBalance(1L, "BTC", new BigDecimal("1.1"));
+        verify(walletService).updateBalance(1L, "USDT", new BigDecimal("-55000.000000000"));
+        verify(tradeRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should re-price a stale symbol once per batch and reject every trade on it")
+    void executeBatch_WithStaleQuoteAndReprice_ShouldRefreshOnce() {
+        ReflectionTestUtils.setField(tradeService, "maxQuoteAgeMs", 5000L);
+        ReflectionTestUtils.setField(tradeService, "staleQuoteAction", TradeService.REPRICE);
+        when(priceService.getQuote("BTCUSDT")).thenReturn(Optional.of(quote(System.currentTimeMillis() - 60000)));
+
+        BatchTradeResponse response = tradeService.executeBatch(1L,
+                batch(BatchTradeRequest.BEST_EFFORT, buy("0.1"), buy("0.2"), buy("0.3")));
+
+        assertAll("Stale batch validation",
+                () -> assertThat(response.getFilled()).isEqualTo(0),
+                () -> assertThat(response.getRejected()).isEqualTo(3),
+                () -> assertThat(response.getResults().get(2).getError()).startsWith("Latest BTCUSDT price is")
+        );
+        verify(priceService, times(1)).refreshPrices();
+        verify(priceService, times(2)).getQuote("BTCUSDT");
+    }
+
+    @Test
+    @DisplayName("Should write nothing when any trade of an atomic batch is rejected")
+    void executeBatch_Atomic_ShouldRejectWholeBatch() {
+        when(priceService.getQuote("BTCUSDT")).thenReturn(Optional.of(sampleQuote));
+        sampleUSDTWallet.setBalance(new BigDecimal("60000.00"));
+        when(walletService.lockUserWallets(1L)).thenReturn(List.of(sampleUSDTWallet));
+
+        BatchTradeResponse response = tradeService.executeBatch(1L,
+                batch(BatchTradeRequest.ATOMIC, buy("0.5"), buy("0.8"), buy("0.1")));
+
+        assertAll("Atomic batch validation",
+                () -> assertThat(response.getFilled()).isEqualTo(0),
+                () -> assertThat(response.getResults().get(0).getStatus()).isEqualTo(BatchTradeResult.NOT_EXECUTED),
+                () -> assertThat(response.getResults().get(1).getStatus()).isEqualTo(BatchTradeResult.REJECTED),
+                () -> assertThat(response.getResults().get(2).getError()).isEqualTo("Not executed: trade 1 was rejected")
+        );
+        verify(walletService, never()).updateBalance(any(), any(), any());
+        verify(tradeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should hand the batch to the engine in engine mode and report cancelled trades as not executed")
+    void executeBatch_InEngineMode_ShouldSubmitToEngine() {
+        when(settlementEngine.isEnabled()).thenReturn(true);
+        when(priceService.getQuote("BTCUSDT")).thenReturn(Optional.of(sampleQuote));
+        CompletableFuture<Trade> cancelled = new CompletableFuture<>();
+        cancelled.cancel(false);
+        when(settlementEngine.submitAll(eq(1L), anyList(), eq(true))).thenReturn(List.of(
+                cancelled, CompletableFuture.failedFuture(new InsufficientBalanceException("Insufficient USDT balance"))));
+
+        BatchTradeResponse response = tradeService.executeBatch(1L,
+                batch(BatchTradeRequest.ATOMIC, buy("0.5"), buy("2")));
+
+        assertAll("Engine batch validation",
+                () -> assertThat(response.getResults().get(0).getStatus()).isEqualTo(BatchTradeResult.NOT_EXECUTED),
+                () -> assertThat(response.getResults().get(1).getError()).isEqualTo("Insufficient USDT balance")
+        );
+        verifyNoInteractions(walletService, tradeRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should refuse a batch larger than the configured maximum")
+    void executeBatch_TooLarge_ShouldThrow() {
+        TradeRequest[] trades = new TradeRequest[11];
+        Arrays.fill(trades, buy("0.1"));
+
+        assertThrows(InvalidTradeException.class,
+                () -> tradeService.executeBatch(1L, batch(BatchTradeRequest.BEST_EFFORT, trades)));
+    }
+
+    private Trade historyTrade(long id, LocalDateTime timestamp) {
+        return new Trade(id, 1L, "BTCUSDT", "BUY", new BigDecimal("50000"), BigDecimal.ONE,
+                new BigDecimal("50000"), timestamp);
+    }
+
+    @Test
+    @DisplayName("Should return a full page with a cursor that resumes after its last trade")
+    void getUserTrades_FullPage_ShouldReturnNextCursor() {
+        ReflectionTestUtils.setField(tradeService, "maxPageSize", 500);
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000);
+        when(tradeRepository.findPage(any(TradeQuery.class))).thenReturn(List.of(
+                historyTrade(9L, now), historyTrade(8L, now), historyTrade(7L, now.minusSeconds(1))));
+
+        TradePage first = tradeService.getUserTrades(1L, "BTCUSDT", "BUY", null, null, null, 2);
+        tradeService.getUserTrades(1L, "BTCUSDT", "BUY", null, null, first.getNextCursor(), 2);
+
+        ArgumentCaptor<TradeQuery> queries = ArgumentCaptor.forClass(TradeQuery.class);
+        verify(tradeRepository, times(2)).findPage(queries.capture());
+        TradeQuery resumed = queries.getAllValues().get(1);
+        assertAll("Cursor page validation",
+                () -> assertThat(first.getTrades().size()).isEqualTo(2),
+                () -> assertThat(queries.getAllValues().get(0).limit()).isEqualTo(3),
+                () -> assertThat(resumed.beforeTimestamp()).isEqualTo(now),
+                () -> assertThat(resumed.beforeId()).isEqualTo(8L),
+                () -> assertThat(resumed.symbol()).isEqualTo("BTCUSDT")
+        );
+    }
+
+    @Test
+    @DisplayName("Should end the history with a page that has no next cursor")
+    void getUserTrades_LastPage_ShouldHaveNoCursor() {
+        ReflectionTestUtils.setField(tradeService, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(tradeService, "maxPageSize", 500);
+        when(tradeRepository.findPage(any(TradeQuery.class)))
+                .thenReturn(List.of(historyTrade(1L, LocalDateTime.now())));
+
+        TradePage page = tradeService.getUserTrades(1L, null, null, null, null, null, null);
+
+        assertAll("Last page validation",
+                () -> assertThat(page.getTrades().size()).isEqualTo(1),
+                () -> assertThat(page.getNextCursor()).isNull()
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject a bad cursor, limit, type or time range without querying")
+    void getUserTrades_InvalidParameters_ShouldThrow() {
+        ReflectionTestUtils.setField(tradeService, "maxPageSize", 500);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertAll("Invalid history request validation",
+                () -> assertThrows(InvalidRequestException.class,
+                        () -> tradeService.getUserTrades(1L, null, null, null, null, "not-a-cursor", 10)),
+                () -> assertThrows(InvalidRequestException.class,
+                        () -> tradeService.getUserTrades(1L, null, null, null, null, null, 501)),
+                () -> assertThrows(InvalidRequestException.class,
+                        () -> tradeService.getUserTrades(1L, null, "HOLD", null, null, null, 10)),
+                () -> assertThrows(InvalidRequestException.class,
+                        () -> tradeService.getUserTrades(1L, null, null, now, now.minusDays(1), null, 10))
+        );
+        verifyNoInteractions(tradeRepository);
+    }
+
     @Test
     @DisplayName("Should throw InvalidTradeException for invalid trade request")
     void executeTrade_WithInvalidTradeRequest_ShouldThrowException() {
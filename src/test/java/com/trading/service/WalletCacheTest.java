@@ -0,0 +1,93 @@
+package com.trading.service;
+
+import com.trading.model.Wallet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class WalletCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently read user beyond max-users")
+    void get_ShouldEvictLeastRecentlyUsed() {
+        WalletCache cache = new WalletCache(2);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        assertAll("LRU validation",
+                () -> assertThat(cache.size()).isEqualTo(2),
+                () -> assertThat(loads.get()).isEqualTo(4),
+                () -> assertThat(cache.getHitCount()).isEqualTo(2)
+        );
+    }
+
+    @Test
+    @DisplayName("Should hand out copies so callers cannot change cached balances")
+    void get_ShouldReturnCopies() {
+        WalletCache cache = new WalletCache(10);
+        cache.get(1L, this::load);
+
+        cache.get(1L, this::load).get(0).setBalance(BigDecimal.ZERO);
+
+        assertThat(cache.get(1L, this::load).get(0).getBalance()).isEqualTo(new BigDecimal("100"));
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that raced an invalidation of the same user")
+    void get_WhenInvalidatedDuringLoad_ShouldNotCache() {
+        WalletCache cache = new WalletCache(10);
+
+        cache.get(1L, userId -> {
+            cache.invalidate(userId);
+            return load(userId);
+        });
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not cache uncommitted balances and invalidate again when the transaction ends")
+    void invalidate_InTransaction_ShouldEvictAfterCompletion() {
+        WalletCache cache = new WalletCache(10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        int duringTransaction = cache.size();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertAll("Transaction validation",
+                () -> assertThat(duringTransaction).isEqualTo(1),
+                () -> assertThat(cache.size()).isEqualTo(1),
+                () -> assertThat(TransactionSynchronizationManager.hasResource(cache)).isFalse()
+        );
+    }
+
+    private List<Wallet> load(Long userId) {
+        loads.incrementAndGet();
+        return List.of(new Wallet(userId, userId, "USDT", new BigDecimal("100")));
+    }
+}
@@ -0,0 +1,167 @@
+package com.trading.service;
+
+import com.trading.engine.JdbcTradeJournal;
+import com.trading.engine.SettlementEngine;
+import com.trading.exception.InsufficientBalanceException;
+import com.trading.repository.PositionLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers the same user's wallets from many threads against the real database, so lost
+ * updates or overdrafts show up as a broken balance rather than a flaky mock assertion.
+ */
+@DataJpaTest
+@Import({WalletService.class, WalletCache.class, SettlementEngine.class, JdbcTradeJournal.class, PositionLedger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletConcurrencyTest {
+    private static final long USER_ID = 42L;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 100;
+    private static final BigDecimal BTC_PRICE = new BigDecimal("100");
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        jdbcTemplate.update("INSERT INTO wallet (user_id, currency, balance) VALUES (?, 'USDT', 1000)", USER_ID);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM wallet WHERE user_id = ?", USER_ID);
+    }
+
+    private BigDecimal balance(String currency) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT balance FROM wallet WHERE user_id = ? AND currency = ?", BigDecimal.class, USER_ID, currency);
+        return balances.isEmpty() ? BigDecimal.ZERO : balances.get(0);
+    }
+
+    private static void runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not lose any concurrent credit, including the one that opens the wallet")
+    void updateBalance_ShouldNotLoseConcurrentCredits() throws Exception {
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                walletService.updateBalance(USER_ID, "USDT", BigDecimal.ONE);
+                walletService.updateBalance(USER_ID, "ETH", BigDecimal.ONE);
+            }
+            return null;
+        });
+
+        int credits = THREADS * OPERATIONS_PER_THREAD;
+        assertAll(
+                () -> assertEquals(0, new BigDecimal(1000 + credits).compareTo(balance("USDT"))),
+                () -> assertEquals(0, new BigDecimal(credits).compareTo(balance("ETH"))),
+                () -> assertEquals(1, jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM wallet WHERE user_id = ? AND currency = 'ETH'", Integer.class, USER_ID))
+        );
+    }
+
+    @Test
+    @DisplayName("Should conserve value and never overdraw under concurrent opposite trades")
+    void settle_ShouldConserveValueUnderContention() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                try {
+                    // Buy and sell 1 BTC at a fixed price, so USDT + 100 * BTC must never change
+                    if ((i + Thread.currentThread().getId()) % 2 == 0) {
+                        walletService.settle(USER_ID, "USDT", BTC_PRICE, "BTC", BigDecimal.ONE);
+                    } else {
+                        walletService.settle(USER_ID, "BTC", BigDecimal.ONE, "USDT", BTC_PRICE);
+                    }
+                } catch (InsufficientBalanceException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        BigDecimal usdt = balance("USDT");
+        BigDecimal btc = balance("BTC");
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("1000").compareTo(usdt.add(btc.multiply(BTC_PRICE)))),
+                () -> assertTrue(usdt.signum() >= 0, "USDT must never be overdrawn"),
+                () -> assertTrue(btc.signum() >= 0, "BTC must never be overdrawn"),
+                () -> assertTrue(rejected.get() < THREADS * OPERATIONS_PER_THREAD, "Some trades should settle")
+        );
+    }
+
+    @Test
+    @DisplayName("Should hold a concurrent debit back until the transaction that locked the wallets ends")
+    void lockUserWallets_ShouldBlockConcurrentDebitUntilCommit() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Plans a debit against the locked balance and applies it a little later, like a batch
+            Future<?> planner = executor.submit(() -> new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> {
+                        BigDecimal usdt = walletService.lockUserWallets(USER_ID).get(0).getBalance();
+                        locked.countDown();
+                        try {
+                            Thread.sleep(200);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        walletService.updateBalance(USER_ID, "USDT", new BigDecimal("400").subtract(usdt));
+                    }));
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            assertThrows(InsufficientBalanceException.class,
+                    () -> walletService.updateBalance(USER_ID, "USDT", new BigDecimal("-600")));
+            planner.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, new BigDecimal("400").compareTo(balance("USDT")));
+    }
+}
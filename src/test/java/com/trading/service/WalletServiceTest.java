@@ -1,5 +1,6 @@
 package com.trading.service;
 
+import com.trading.engine.SettlementEngine;
 import com.trading.exception.InsufficientBalanceException;
 import com.trading.model.Wallet;
 import com.trading.repository.WalletRepository;
@@ -8,9 +9,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -19,6 +23,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +32,15 @@ class WalletServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SettlementEngine settlementEngine;
+
+    @Spy
+    private WalletCache walletCache = new WalletCache(100);
+
     @InjectMocks
     private WalletService walletService;
 
@@ -69,32 +83,45 @@ class WalletServiceTest {
             assertTrue(actualWallets.isEmpty(), "Should return empty list when user has no wallets");
             verify(walletRepository).findByUserId(USER_ID);
         }
+
+        @Test
+        @DisplayName("Should serve repeated reads from the cache until a balance changes")
+        void shouldCacheWalletsUntilBalanceChanges() {
+            when(walletRepository.findByUserId(USER_ID)).thenReturn(
+                    List.of(new Wallet(1L, USER_ID, USDT, INITIAL_BALANCE)),
+                    List.of(new Wallet(1L, USER_ID, USDT, new BigDecimal("49000.00"))));
+            when(walletRepository.adjustBalance(USER_ID, USDT, new BigDecimal("-1000.00"))).thenReturn(1);
+
+            walletService.getUserWallets(USER_ID);
+            List<Wallet> cached = walletService.getUserWallets(USER_ID);
+            walletService.updateBalance(USER_ID, USDT, new BigDecimal("-1000.00"));
+            List<Wallet> reloaded = walletService.getUserWallets(USER_ID);
+
+            assertAll(
+                    () -> assertEquals(INITIAL_BALANCE, cached.get(0).getBalance(), "Cached balance should match"),
+                    () -> assertEquals(new BigDecimal("49000.00"), reloaded.get(0).getBalance(),
+                            "Balance should be reloaded after the update"),
+                    () -> assertEquals(1, walletCache.getHitCount(), "Second read should hit the cache")
+            );
+            verify(walletRepository, times(2)).findByUserId(USER_ID);
+        }
     }
 
     @Nested
     @DisplayName("updateBalance Tests")
     class UpdateBalanceTests {
 
-        private Wallet existingWallet;
-
-        @BeforeEach
-        void setUp() {
-            existingWallet = new Wallet(1L, USER_ID, USDT, INITIAL_BALANCE);
-        }
-
         @Test
-        @DisplayName("Should add balance to existing wallet")
+        @DisplayName("Should add balance to existing wallet with a single conditional update")
         void shouldAddBalanceToExistingWallet() {
             BigDecimal addAmount = new BigDecimal("1000.00");
-            BigDecimal expectedBalance = INITIAL_BALANCE.add(addAmount);
-            when(walletRepository.findByUserIdAndCurrency(USER_ID, USDT)).thenReturn(existingWallet);
-            when(walletRepository.save(any(Wallet.class))).thenReturn(existingWallet);
+            when(walletRepository.adjustBalance(USER_ID, USDT, addAmount)).thenReturn(1);
 
             walletService.updateBalance(USER_ID, USDT, addAmount);
 
-            assertEquals(expectedBalance, existingWallet.getBalance(),
-                    "Balance should be updated correctly");
-            verify(walletRepository).save(existingWallet);
+            verify(walletRepository).adjustBalance(USER_ID, USDT, addAmount);
+            verifyNoInteractions(jdbcTemplate);
+            verify(walletRepository, never()).save(any(Wallet.class));
         }
 
         @Test
@@ -102,22 +129,21 @@ class WalletServiceTest {
         void shouldCreateNewWalletIfNotExists() {
             String newCurrency = "ETH";
             BigDecimal initialAmount = new BigDecimal("1.0");
-            when(walletRepository.findByUserIdAndCurrency(USER_ID, newCurrency)).thenReturn(null);
+            when(walletRepository.adjustBalance(USER_ID, newCurrency, initialAmount)).thenReturn(0, 1);
 
             walletService.updateBalance(USER_ID, newCurrency, initialAmount);
 
-            verify(walletRepository).save(argThat(wallet ->
-                    wallet.getUserId().equals(USER_ID) &&
-                            wallet.getCurrency().equals(newCurrency) &&
-                            wallet.getBalance().equals(initialAmount)
-            ));
+            InOrder inOrder = inOrder(walletRepository, jdbcTemplate);
+            inOrder.verify(walletRepository).adjustBalance(USER_ID, newCurrency, initialAmount);
+            inOrder.verify(jdbcTemplate).update(WalletService.OPEN_WALLET_SQL, USER_ID, newCurrency);
+            inOrder.verify(walletRepository).adjustBalance(USER_ID, newCurrency, initialAmount);
         }
 
         @Test
         @DisplayName("Should throw InsufficientBalanceException when balance would become negative")
         void shouldThrowExceptionOnNegativeBalance() {
             BigDecimal deductAmount = new BigDecimal("-60000.00");
-            when(walletRepository.findByUserIdAndCurrency(USER_ID, USDT)).thenReturn(existingWallet);
+            when(walletRepository.adjustBalance(USER_ID, USDT, deductAmount)).thenReturn(0);
 
             InsufficientBalanceException exception = assertThrows(
                     InsufficientBalanceException.class,
@@ -126,7 +152,29 @@ class WalletServiceTest {
             );
 
             assertEquals("Insufficient balance in USDT wallet", exception.getMessage());
-            verify(walletRepository, never()).save(any(Wallet.class));
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("settle Tests")
+    class SettleTests {
+
+        @Test
+        @DisplayName("Should apply both legs in currency order whichever side is debited")
+        void shouldApplyLegsInCurrencyOrder() {
+            BigDecimal usdt = new BigDecimal("25000.00");
+            BigDecimal btc = new BigDecimal("0.5");
+            when(walletRepository.adjustBalance(eq(USER_ID), anyString(), any(BigDecimal.class))).thenReturn(1);
+
+            walletService.settle(USER_ID, USDT, usdt, BTC, btc);
+            walletService.settle(USER_ID, BTC, btc, USDT, usdt);
+
+            InOrder inOrder = inOrder(walletRepository);
+            inOrder.verify(walletRepository).adjustBalance(USER_ID, BTC, btc);
+            inOrder.verify(walletRepository).adjustBalance(USER_ID, USDT, usdt.negate());
+            inOrder.verify(walletRepository).adjustBalance(USER_ID, BTC, btc.negate());
+            inOrder.verify(walletRepository).adjustBalance(USER_ID, USDT, usdt);
         }
     }
 
@@ -138,7 +186,7 @@ class WalletServiceTest {
         @DisplayName("Should return wallet when it exists")
         void shouldReturnWalletWhenExists() {
             Wallet expectedWallet = new Wallet(1L, USER_ID, USDT, INITIAL_BALANCE);
-            when(walletRepository.findByUserIdAndCurrency(USER_ID, USDT)).thenReturn(expectedWallet);
+            when(walletRepository.findByUserId(USER_ID)).thenReturn(List.of(expectedWallet));
 
             Optional<Wallet> actualWallet = walletService.getWalletByCurrency(USER_ID, USDT);
 
@@ -149,7 +197,7 @@ class WalletServiceTest {
         @Test
         @DisplayName("Should return empty Optional when wallet doesn't exist")
         void shouldReturnEmptyOptionalWhenWalletNotExists() {
-            when(walletRepository.findByUserIdAndCurrency(USER_ID, USDT)).thenReturn(null);
+            when(walletRepository.findByUserId(USER_ID)).thenReturn(List.of(new Wallet(2L, USER_ID, BTC, BigDecimal.ZERO)));
 
             Optional<Wallet> actualWallet = walletService.getWalletByCurrency(USER_ID, USDT);
 
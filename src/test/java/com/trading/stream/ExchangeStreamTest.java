@@ -0,0 +1,262 @@
+package com.trading.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.exchange.BinanceBookTickerStream;
+import com.trading.exchange.BinanceExchangeAdapter;
+import com.trading.exchange.ExchangeQuote;
+import com.trading.exchange.HuobiBboStream;
+import com.trading.exchange.HuobiExchangeAdapter;
+import com.trading.service.PriceService;
+import com.trading.util.FixedPoint;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExchangeStreamTest {
+
+    private static final Duration BACKOFF = Duration.ofMillis(50);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private ScheduledExecutorService scheduler;
+    private StreamSettings settings;
+    private StubExchangeServer server;
+    private ExchangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newScheduledThreadPool(2);
+        settings = new StreamSettings(httpClient, scheduler, BACKOFF, BACKOFF);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (stream != null) {
+            stream.stop();
+        }
+        if (server != null) {
+            server.stop(1000);
+        }
+        scheduler.shutdownNow();
+    }
+
+    @Nested
+    @DisplayName("Binance bookTicker stream")
+    class BinanceStreamTests {
+
+        @Test
+        @DisplayName("Should subscribe to configured pairs and publish each book ticker update")
+        void shouldPublishBookTickerUpdates() throws Exception {
+            server = startServer((conn, message) -> { });
+            server.onOpen = conn -> conn.send("{\"stream\":\"btcusdt@bookTicker\",\"data\":{\"u\":400900217,"
+                    + "\"s\":\"BTCUSDT\",\"b\":\"50000.10000000\",\"B\":\"1.50000000\","
+                    + "\"a\":\"50000.20000000\",\"A\":\"2.00000000\"}}");
+            BlockingQueue<ExchangeQuote> ticks = new LinkedBlockingQueue<>();
+
+            stream = new BinanceBookTickerStream(server.url(), PriceService.TRADING_PAIRS, objectMapper,
+                    ticks::add, settings);
+            stream.start();
+
+            ExchangeQuote tick = ticks.poll(5, TimeUnit.SECONDS);
+            assertNotNull(tick, "Should receive a tick from the stub server");
+            assertAll(
+                    () -> assertEquals("BINANCE", tick.exchange()),
+                    () -> assertEquals("BTCUSDT", tick.symbol()),
+                    () -> assertEquals(FixedPoint.parse("50000.10000000"), tick.bid()),
+                    () -> assertEquals(FixedPoint.parse("50000.20000000"), tick.ask()),
+                    () -> assertEquals("/stream?streams=btcusdt@bookTicker/ethusdt@bookTicker",
+                            server.resourceDescriptors.poll(1, TimeUnit.SECONDS))
+            );
+        }
+
+        @Test
+        @DisplayName("Should reconnect after the server drops the connection and trigger the gap fill")
+        void shouldReconnectAfterDisconnect() throws Exception {
+            server = startServer((conn, message) -> { });
+            server.onOpen = conn -> {
+                if (server.connections.incrementAndGet() == 1) {
+                    conn.close();
+                }
+            };
+            CountDownLatch gapFilled = new CountDownLatch(1);
+
+            stream = new BinanceBookTickerStream(server.url(), PriceService.TRADING_PAIRS, objectMapper,
+                    tick -> { }, settings);
+            stream.setReconnectListener(gapFilled::countDown);
+            stream.start();
+
+            assertTrue(gapFilled.await(5, TimeUnit.SECONDS), "Reconnect should trigger the gap fill");
+            assertEquals(2, stream.getConnectCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Huobi bbo stream")
+    class HuobiStreamTests {
+
+        @Test
+        @DisplayName("Should subscribe per pair and decode gzip-framed ticks")
+        void shouldDecodeGzipTicks() throws Exception {
+            BlockingQueue<String> subscriptions = new LinkedBlockingQueue<>();
+            server = startServer((conn, message) -> {
+                subscriptions.add(message);
+                if (message.contains("btcusdt")) {
+                    conn.send(gzip("{\"ch\":\"market.btcusdt.bbo\",\"ts\":1489474082831,\"tick\":{"
+                            + "\"symbol\":\"btcusdt\",\"bid\":50050.5,\"bidSize\":0.5,"
+                            + "\"ask\":50051.25,\"askSize\":1.25}}"));
+                }
+            });
+            BlockingQueue<ExchangeQuote> ticks = new LinkedBlockingQueue<>();
+
+            stream = new HuobiBboStream(server.url(), PriceService.TRADING_PAIRS, objectMapper,
+                    ticks::add, settings);
+            stream.start();
+
+            ExchangeQuote tick = ticks.poll(5, TimeUnit.SECONDS);
+            assertNotNull(tick, "Should receive a decoded tick");
+            assertAll(
+                    () -> assertEquals("HUOBI", tick.exchange()),
+                    () -> assertEquals("BTCUSDT", tick.symbol()),
+                    () -> assertEquals(FixedPoint.parse("50050.5"), tick.bid()),
+                    () -> assertEquals(FixedPoint.parse("50051.25"), tick.ask()),
+                    () -> assertEquals("{\"sub\":\"market.btcusdt.bbo\",\"id\":\"btcusdt\"}",
+                            subscriptions.poll(1, TimeUnit.SECONDS)),
+                    () -> assertEquals("{\"sub\":\"market.ethusdt.bbo\",\"id\":\"ethusdt\"}",
+                            subscriptions.poll(1, TimeUnit.SECONDS))
+            );
+        }
+
+        @Test
+        @DisplayName("Should answer gzip pings with a matching pong")
+        void shouldAnswerPings() throws Exception {
+            BlockingQueue<String> received = new LinkedBlockingQueue<>();
+            server = startServer((conn, message) -> received.add(message));
+            server.onOpen = conn -> conn.send(gzip("{\"ping\":1492420473027}"));
+
+            stream = new HuobiBboStream(server.url(), List.of(), objectMapper,
+                    tick -> { }, settings);
+            stream.start();
+
+            assertEquals("{\"pong\":1492420473027}", received.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Nested
+    @DisplayName("MarketDataStreamService gap fill")
+    class GapFillTests {
+
+        @Test
+        @DisplayName("Should fall back to the REST path while streams are unavailable")
+        void shouldGapFillWhileStreamsAreDown() {
+            PriceService priceService = mock(PriceService.class);
+            // Nothing listens on port 1, so both streams stay disconnected
+            BinanceExchangeAdapter binance = new BinanceExchangeAdapter(null, objectMapper);
+            ReflectionTestUtils.setField(binance, "wsUrl", "ws://localhost:1");
+            HuobiExchangeAdapter huobi = new HuobiExchangeAdapter(null, objectMapper);
+            ReflectionTestUtils.setField(huobi, "wsUrl", "ws://localhost:1/ws");
+            MarketDataStreamService service = new MarketDataStreamService(priceService, List.of(binance, huobi));
+            ReflectionTestUtils.setField(service, "initialBackoffMs", 50L);
+            ReflectionTestUtils.setField(service, "maxBackoffMs", 50L);
+            ReflectionTestUtils.setField(service, "staleAfterMs", 1000L);
+            ReflectionTestUtils.setField(service, "gapFillIntervalMs", 50L);
+
+            try {
+                service.start();
+
+                verify(priceService, timeout(5000).atLeast(2)).fetchAndSavePrices();
+                assertFalse(service.isHealthy());
+            } finally {
+                service.stop();
+            }
+        }
+    }
+
+    private StubExchangeServer startServer(BiConsumer<WebSocket, String> onMessage) throws InterruptedException {
+        StubExchangeServer stub = new StubExchangeServer(onMessage);
+        stub.setReuseAddr(true);
+        stub.start();
+        assertTrue(stub.started.await(5, TimeUnit.SECONDS), "Stub server should start");
+        return stub;
+    }
+
+    private static ByteBuffer gzip(String message) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                out.write(message.getBytes(StandardCharsets.UTF_8));
+            }
+            return ByteBuffer.wrap(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class StubExchangeServer extends WebSocketServer {
+        private final BiConsumer<WebSocket, String> onMessage;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final BlockingQueue<String> resourceDescriptors = new LinkedBlockingQueue<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private volatile Consumer<WebSocket> onOpen = conn -> { };
+
+        StubExchangeServer(BiConsumer<WebSocket, String> onMessage) {
+            super(new InetSocketAddress("localhost", 0));
+            this.onMessage = onMessage;
+        }
+
+        String url() {
+            return "ws://localhost:" + getPort();
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+            resourceDescriptors.add(handshake.getResourceDescriptor());
+            onOpen.accept(conn);
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            onMessage.accept(conn, message);
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+    }
+}
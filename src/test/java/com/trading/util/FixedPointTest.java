@@ -0,0 +1,70 @@
+package com.trading.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointTest {
+
+    @Test
+    @DisplayName("Should scale plain decimals to eight fraction digits")
+    void parse_ShouldScaleDecimals() {
+        assertAll(
+                () -> assertEquals(5_000_010_000_000L, FixedPoint.parse("50000.1")),
+                () -> assertEquals(5_000_000_000_000L, FixedPoint.parse("50000")),
+                () -> assertEquals(12_345_678L, FixedPoint.parse("0.12345678")),
+                () -> assertEquals(-150_000_000L, FixedPoint.parse("-1.5")),
+                () -> assertEquals(1L, FixedPoint.parse(".00000001"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should parse a slice of a character buffer without copying it")
+    void parse_ShouldReadCharacterRange() {
+        char[] buffer = "{\"b\":\"3000.25\"}".toCharArray();
+
+        assertEquals(300_025_000_000L, FixedPoint.parse(buffer, 6, 7));
+    }
+
+    @Test
+    @DisplayName("Should round half-up beyond eight fraction digits")
+    void parse_ShouldRoundExtraDigits() {
+        assertAll(
+                () -> assertEquals(2L, FixedPoint.parse("0.000000015")),
+                () -> assertEquals(1L, FixedPoint.parse("0.0000000149999"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should fall back to BigDecimal for exponent notation")
+    void parse_ShouldHandleExponents() {
+        assertEquals(1_200L, FixedPoint.parse("1.2E-5"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed and out-of-range input")
+    void parse_ShouldRejectInvalidInput() {
+        assertAll(
+                () -> assertThrows(NumberFormatException.class, () -> FixedPoint.parse("")),
+                () -> assertThrows(NumberFormatException.class, () -> FixedPoint.parse("-")),
+                () -> assertThrows(NumberFormatException.class, () -> FixedPoint.parse("1.2.3")),
+                () -> assertThrows(NumberFormatException.class, () -> FixedPoint.parse("abc")),
+                () -> assertThrows(NumberFormatException.class, () -> FixedPoint.parse("99999999999999999999"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should round-trip through BigDecimal at scale 8")
+    void toBigDecimal_ShouldRoundTrip() {
+        long value = FixedPoint.parse("50050.12345678");
+
+        assertAll(
+                () -> assertEquals(new BigDecimal("50050.12345678"), FixedPoint.toBigDecimal(value)),
+                () -> assertEquals(value, FixedPoint.fromBigDecimal(new BigDecimal("50050.123456784"))),
+                () -> assertEquals("50050.12345678", FixedPoint.toString(value))
+        );
+    }
+}